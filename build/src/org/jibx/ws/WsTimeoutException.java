@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws;
+
+/**
+ * An exception in JiBX/WS due to an operation not completing within the time allowed.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class WsTimeoutException extends WsException
+{
+    private static final long serialVersionUID = -2049785123601146734L;
+    
+    /** Flag for an operation abandoned while still running. */
+    private final boolean m_abandoned;
+
+    /**
+     * @param msg the exception message
+     */
+    public WsTimeoutException(String msg) {
+        this(msg, false);
+    }
+
+    /**
+     * @param msg the exception message
+     * @param abandoned <code>true</code> if the operation was abandoned while still running, <code>false</code> if it
+     * was never started
+     */
+    public WsTimeoutException(String msg, boolean abandoned) {
+        super(msg);
+        m_abandoned = abandoned;
+    }
+
+    /**
+     * Check if the operation was abandoned while still running. If so, the objects used by the operation must not be
+     * reused.
+     * 
+     * @return <code>true</code> if abandoned while running, <code>false</code> if not
+     */
+    public boolean isAbandoned() {
+        return m_abandoned;
+    }
+}
@@ -71,6 +71,12 @@ public abstract class Client
     private final Transport m_transport;
     
     private TransportOptions m_transportOptions;
+    
+    /** Trace parent value to be sent with requests (<code>null</code> to use the current trace context). */
+    private String m_traceParent;
+    
+    /** Trace state value to be sent with requests. */
+    private String m_traceState;
 
     /**
      * Constructor. Sets the location of the service to connect to.
@@ -146,6 +152,19 @@ public abstract class Client
         setModified(true);
     }
     
+    /**
+     * Sets the W3C trace context values to be sent with requests. If these are not set, or the trace parent is set to
+     * <code>null</code>, the current trace context for the thread is used (as set when the client is called from a
+     * service operation).
+     *
+     * @param traceparent trace parent value (<code>null</code> if none)
+     * @param tracestate trace state value (<code>null</code> if none)
+     */
+    public final void setTraceContext(String traceparent, String tracestate) {
+        m_traceParent = traceparent;
+        m_traceState = tracestate;
+    }
+    
     /**
      * Sets the JiBX binding factory for the inbound body.
      * 
@@ -247,6 +266,24 @@ public abstract class Client
         return m_messageOptions;
     }
 
+    /**
+     * Get the trace parent value set for the client.
+     * 
+     * @return trace parent (<code>null</code> if not set)
+     */
+    protected final String getTraceParent() {
+        return m_traceParent;
+    }
+
+    /**
+     * Get the trace state value set for the client.
+     * 
+     * @return trace state (<code>null</code> if not set)
+     */
+    protected final String getTraceState() {
+        return m_traceState;
+    }
+
     /**
      * Get transport options. If options have not been set using {@link #setTransportOptions(TransportOptions)}, default
      * transport options will be returned. 
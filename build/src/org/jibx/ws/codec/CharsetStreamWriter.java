@@ -0,0 +1,602 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.StreamWriterBase;
+
+/**
+ * Handler for marshalling text document to an output stream using any character encoding supported by the JVM. When
+ * the encoding represents ASCII characters as single bytes with the same values (as with most legacy encodings) those
+ * characters are written directly to the output buffer, in the same way as the UTF-8 and ISO-8859-1 writers. All other
+ * characters are encoded by a {@link CharsetEncoder} working directly on the output buffer, with no intermediate copies
+ * of the text. Characters in text content or attribute values which cannot be represented in the encoding are written
+ * as character references.
+ * <p>
+ * This class requires JDK 1.4 or later. It is only loaded by {@link TextCodecFactory} when a character encoding other
+ * than UTF-8 or ISO-8859-1 is requested.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class CharsetStreamWriter extends StreamWriterBase implements TemplateWriter
+{
+    /** Writing markup (names and other non-text output). */
+    private static final int MARKUP_MODE = 0;
+    
+    /** Writing text content. */
+    private static final int TEXT_MODE = 1;
+    
+    /** Writing attribute value text. */
+    private static final int ATTRIBUTE_MODE = 2;
+    
+    /** Writing CDATA section text. */
+    private static final int CDATA_MODE = 3;
+    
+    /** Descriptions of output modes for error messages, indexed by mode. */
+    private static final String[] MODE_DESCRIPTIONS = {
+        "markup", "content text", "attribute value text", "CDATA section text"
+    };
+    
+    /** Encoder for the character encoding. */
+    private final CharsetEncoder m_encoder;
+    
+    /** Maximum number of bytes generated by the encoder for a single character. */
+    private final int m_maxBytesPerChar;
+    
+    /** Encoding represents ASCII characters as single bytes with the same values flag. */
+    private final boolean m_asciiCompatible;
+    
+    /** Wrapper for output buffer used by encoder (<code>null</code> if not yet created). */
+    private ByteBuffer m_wrapper;
+    
+    /** Output buffer array wrapped by {@link #m_wrapper}. */
+    private byte[] m_wrappedArray;
+    
+    /** Encoded templates, indexed by template number (entries <code>null</code> if not yet captured). */
+    private byte[][] m_templateBytes;
+    
+    /** Suppress output flag, used while updating state for a pre-encoded template. */
+    private boolean m_suppressed;
+    
+    /** Buffer flushed flag, used while capturing a template. */
+    private boolean m_flushed;
+    
+    /** Indenting output flag (templates are not pre-encoded when indenting). */
+    private boolean m_indented;
+    
+    /**
+     * Constructor.
+     * 
+     * @param enc character encoding name
+     * @param uris ordered array of URIs for namespaces used in document (must be constant; the value in position 0
+     * must always be the empty string "", and the value in position 1 must always be the XML namespace
+     * "http://www.w3.org/XML/1998/namespace")
+     * @throws IllegalArgumentException if the character encoding is not supported, or cannot be used for XML output
+     */
+    public CharsetStreamWriter(String enc, String[] uris) {
+        super(enc, uris);
+        m_encoder = Charset.forName(enc).newEncoder();
+        m_encoder.onMalformedInput(CodingErrorAction.REPORT);
+        m_encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+        m_maxBytesPerChar = (int)Math.ceil(m_encoder.maxBytesPerChar());
+        m_templateBytes = new byte[0][];
+        try {
+            
+            // entities are encoded separately, so reject encodings which add a byte order mark or other prefix
+            if (!isConcatenation(encodeBytes("&lt;&gt;"), m_ltEntityBytes, m_gtEntityBytes)) {
+                throw new IllegalArgumentException("Character encoding " + enc
+                    + " cannot be used for XML output (try a specific byte order variant)");
+            }
+            m_asciiCompatible = isAsciiCompatible();
+            defineNamespace(0, "");
+            defineNamespace(1, "xml");
+            
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+    
+    /**
+     * Copy constructor. This initializes the writer and extension namespace information from an existing instance.
+     * 
+     * @param base existing instance
+     * @param uris ordered array of URIs for namespaces used in document
+     */
+    public CharsetStreamWriter(CharsetStreamWriter base, String[] uris) {
+        super(base, uris);
+        m_encoder = base.m_encoder.charset().newEncoder();
+        m_encoder.onMalformedInput(CodingErrorAction.REPORT);
+        m_encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+        m_maxBytesPerChar = base.m_maxBytesPerChar;
+        m_asciiCompatible = base.m_asciiCompatible;
+        m_templateBytes = new byte[0][];
+        try {
+            defineNamespace(0, "");
+            defineNamespace(1, "xml");
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+    
+    /**
+     * Check if a byte array is the concatenation of two other arrays.
+     * 
+     * @param full combined array
+     * @param first first part
+     * @param second second part
+     * @return <code>true</code> if <code>full</code> is <code>first</code> followed by <code>second</code>
+     */
+    private static boolean isConcatenation(byte[] full, byte[] first, byte[] second) {
+        if (full.length != first.length + second.length) {
+            return false;
+        }
+        for (int i = 0; i < first.length; i++) {
+            if (full[i] != first[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < second.length; i++) {
+            if (full[first.length + i] != second[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Check if the encoding represents all the ASCII characters allowed in XML as single bytes with the same values.
+     * 
+     * @return <code>true</code> if ASCII compatible, <code>false</code> if not
+     */
+    private boolean isAsciiCompatible() {
+        StringBuffer buff = new StringBuffer("\t\n\r");
+        for (char chr = 0x20; chr < 0x80; chr++) {
+            buff.append(chr);
+        }
+        try {
+            byte[] bytes = encodeBytes(buff.toString());
+            if (bytes.length != buff.length()) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != buff.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Encode text to a separate byte array. This is only used for markup which is encoded once and then reused.
+     * 
+     * @param text text to be encoded
+     * @return encoded bytes
+     * @throws IOException if the text cannot be represented in the encoding
+     */
+    private byte[] encodeBytes(String text) throws IOException {
+        try {
+            ByteBuffer encoded = m_encoder.encode(CharBuffer.wrap(text));
+            byte[] bytes = new byte[encoded.remaining()];
+            encoded.get(bytes);
+            return bytes;
+        } catch (CharacterCodingException e) {
+            throw new IOException("Unable to write '" + text + "' in encoding " + getEncodingName());
+        }
+    }
+    
+    /**
+     * Get the output buffer wrapped for use by the encoder, positioned at the current fill offset.
+     * 
+     * @return wrapped buffer
+     */
+    private ByteBuffer wrapBuffer() {
+        if (m_wrappedArray != m_buffer) {
+            m_wrapper = ByteBuffer.wrap(m_buffer);
+            m_wrappedArray = m_buffer;
+        }
+        m_wrapper.clear();
+        m_wrapper.position(m_fillOffset);
+        return m_wrapper;
+    }
+    
+    /**
+     * Make space in the output buffer, recording when the buffer has been flushed.
+     * 
+     * @param length number of bytes of space needed
+     * @throws IOException on error writing to buffer
+     */
+    protected void makeSpace(int length) throws IOException {
+        int offset = m_fillOffset;
+        super.makeSpace(length);
+        if (m_fillOffset != offset) {
+            m_flushed = true;
+        }
+    }
+    
+    /**
+     * Force space to be freed in the output buffer, after the encoder has run out of room.
+     * 
+     * @throws IOException on error writing to buffer
+     */
+    private void expandSpace() throws IOException {
+        makeSpace(m_buffer.length - m_fillOffset + m_maxBytesPerChar);
+    }
+    
+    /**
+     * Get the entity to be used in place of an ASCII character, if any. This also checks for characters which are not
+     * allowed in XML text.
+     * 
+     * @param text text being written
+     * @param index offset of character in text
+     * @param mode output mode
+     * @return entity bytes, or <code>null</code> if character can be written as-is
+     * @throws IOException if the character is not allowed
+     */
+    private byte[] getEntity(String text, int index, int mode) throws IOException {
+        char chr = text.charAt(index);
+        if (chr < 0x20) {
+            if (chr != 0x09 && chr != 0x0A && chr != 0x0D) {
+                throw new IOException("Illegal character code 0x" + Integer.toHexString(chr) + " in "
+                    + MODE_DESCRIPTIONS[mode]);
+            }
+            return null;
+        } else if (chr == '>' && index > 1 && text.charAt(index - 1) == ']' && text.charAt(index - 2) == ']') {
+            if (mode == CDATA_MODE) {
+                throw new IOException("Sequence \"]]>\" is not allowed within CDATA section text");
+            }
+            return m_gtEntityBytes;
+        } else if (mode == CDATA_MODE) {
+            return null;
+        } else if (chr == '&') {
+            return m_ampEntityBytes;
+        } else if (chr == '<') {
+            return m_ltEntityBytes;
+        } else if (chr == '"' && mode == ATTRIBUTE_MODE) {
+            return m_quotEntityBytes;
+        } else {
+            return null;
+        }
+    }
+    
+    /**
+     * Write characters to the output buffer. ASCII characters are written directly when the encoding allows, with
+     * entities substituted as appropriate for the output mode. Runs of other characters are passed to the encoder.
+     * 
+     * @param text text to be written
+     * @param mode output mode
+     * @throws IOException on error writing to buffer
+     */
+    private void writeChars(String text, int mode) throws IOException {
+        int length = text.length();
+        makeSpace(length);
+        byte[] buff = m_buffer;
+        int offset = m_fillOffset;
+        int index = 0;
+        while (index < length) {
+            char chr = text.charAt(index);
+            if (chr < 0x80) {
+                if (m_asciiCompatible && (chr > '>' || mode == MARKUP_MODE)) {
+                    
+                    // fast path for the most common characters, which never need escaping
+                    buff[offset++] = (byte)chr;
+                    index++;
+                    continue;
+                    
+                }
+                byte[] entity = mode == MARKUP_MODE ? null : getEntity(text, index, mode);
+                if (entity != null) {
+                    m_fillOffset = offset;
+                    makeSpace(entity.length + length - index);
+                    offset = writeEntity(entity, m_fillOffset);
+                    buff = m_buffer;
+                    index++;
+                    continue;
+                } else if (m_asciiCompatible) {
+                    buff[offset++] = (byte)chr;
+                    index++;
+                    continue;
+                }
+            }
+            
+            // find the end of the run of characters which need to be passed to the encoder
+            int end = index;
+            while (end < length) {
+                char next = text.charAt(end);
+                if (next < 0x80) {
+                    if (m_asciiCompatible || (mode != MARKUP_MODE && getEntity(text, end, mode) != null)) {
+                        break;
+                    }
+                } else if ((next == 0xFFFE || next == 0xFFFF) && mode != MARKUP_MODE) {
+                    throw new IOException("Illegal character code 0x" + Integer.toHexString(next) + " in "
+                        + MODE_DESCRIPTIONS[mode]);
+                }
+                end++;
+            }
+            m_fillOffset = offset;
+            encodeRun(text, index, end, mode);
+            makeSpace(length - end);
+            buff = m_buffer;
+            offset = m_fillOffset;
+            index = end;
+        }
+        m_fillOffset = offset;
+    }
+    
+    /**
+     * Encode a run of characters directly into the output buffer. Characters which cannot be represented in the
+     * encoding are written as character references if the output mode allows, and otherwise cause an exception.
+     * 
+     * @param text text containing characters
+     * @param start offset of first character to be encoded
+     * @param end offset past last character to be encoded
+     * @param mode output mode
+     * @throws IOException on error writing to buffer, or if a character cannot be written
+     */
+    private void encodeRun(String text, int start, int end, int mode) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text, start, end);
+        m_encoder.reset();
+        while (true) {
+            makeSpace(chars.remaining() * m_maxBytesPerChar);
+            ByteBuffer bytes = wrapBuffer();
+            CoderResult result = m_encoder.encode(chars, bytes, true);
+            m_fillOffset = bytes.position();
+            if (result.isUnderflow()) {
+                flushEncoder();
+                return;
+            } else if (result.isOverflow()) {
+                expandSpace();
+            } else {
+                
+                // buffer wraps the entire text, so the position is the offset of the problem character in the text
+                int pos = chars.position();
+                int code = text.charAt(pos);
+                if (result.length() == 2) {
+                    code = ((code - 0xD800) << 10) + (text.charAt(pos + 1) - 0xDC00) + 0x10000;
+                }
+                if (result.isMalformed()) {
+                    throw new IOException("Illegal character code 0x" + Integer.toHexString(code) + " in "
+                        + MODE_DESCRIPTIONS[mode]);
+                } else if (mode == TEXT_MODE || mode == ATTRIBUTE_MODE) {
+                    
+                    // return to initial state and write a character reference in place of the unmappable character
+                    flushEncoder();
+                    writeMarkup("&#x" + Integer.toHexString(code).toUpperCase() + ';');
+                    chars.position(pos + result.length());
+                    m_encoder.reset();
+                    
+                } else if (mode == CDATA_MODE) {
+                    throw new IOException("Character code 0x" + Integer.toHexString(code)
+                        + " not allowed by encoding in CDATA section text");
+                } else {
+                    throw new IOException("Unable to write character code 0x" + Integer.toHexString(code)
+                        + " in encoding " + getEncodingName());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Flush the encoder, returning a stateful encoding to the initial state.
+     * 
+     * @throws IOException on error writing to buffer
+     */
+    private void flushEncoder() throws IOException {
+        while (true) {
+            ByteBuffer bytes = wrapBuffer();
+            CoderResult result = m_encoder.flush(bytes);
+            m_fillOffset = bytes.position();
+            if (result.isUnderflow()) {
+                return;
+            }
+            expandSpace();
+        }
+    }
+    
+    /**
+     * Write markup text to output. Markup text can be written directly to the output without the need for any
+     * escaping, but still needs to be properly encoded.
+     * 
+     * @param text markup text to be written
+     * @throws IOException if error writing to document
+     */
+    protected void writeMarkup(String text) throws IOException {
+        if (m_suppressed) {
+            return;
+        }
+        writeChars(text, MARKUP_MODE);
+    }
+    
+    /**
+     * Write markup character to output. Markup text can be written directly to the output without the need for any
+     * escaping, but still needs to be properly encoded.
+     * 
+     * @param chr markup character to be written
+     * @throws IOException if error writing to document
+     */
+    protected void writeMarkup(char chr) throws IOException {
+        if (m_suppressed) {
+            return;
+        } else if (chr < 0x80 && m_asciiCompatible) {
+            makeSpace(1);
+            m_buffer[m_fillOffset++] = (byte)chr;
+        } else {
+            writeChars(String.valueOf(chr), MARKUP_MODE);
+        }
+    }
+    
+    /**
+     * Report that namespace has been defined.
+     * 
+     * @param index post-translation namespace URI index number
+     * @param prefix prefix used for namespace
+     * @throws IOException if error writing to document
+     */
+    protected void defineNamespace(int index, String prefix) throws IOException {
+        byte[] buff;
+        if (prefix.length() > 0) {
+            buff = encodeBytes(prefix + ':');
+        } else {
+            buff = new byte[0];
+        }
+        if (index < m_prefixBytes.length) {
+            m_prefixBytes[index] = buff;
+        } else if (m_extensionBytes != null) {
+            index -= m_prefixBytes.length;
+            for (int i = 0; i < m_extensionBytes.length; i++) {
+                int length = m_extensionBytes[i].length;
+                if (index < length) {
+                    m_extensionBytes[i][index] = buff;
+                    break;
+                } else {
+                    index -= length;
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Index out of range");
+        }
+    }
+    
+    /**
+     * Write attribute text to output. This needs to write the text with any appropriate escaping.
+     * 
+     * @param text attribute value text to be written
+     * @throws IOException if error writing to document
+     */
+    protected void writeAttributeText(String text) throws IOException {
+        if (!m_suppressed) {
+            writeChars(text, ATTRIBUTE_MODE);
+        }
+    }
+    
+    /**
+     * Write namespace prefix to output.
+     * 
+     * @param index post-translation namespace URI index number
+     * @throws IOException if error writing to document
+     */
+    protected void writePrefix(int index) throws IOException {
+        if (!m_suppressed) {
+            super.writePrefix(index);
+        }
+    }
+    
+    /**
+     * Write ordinary character data text content to document.
+     * 
+     * @param text content value text
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(String text) throws IOException {
+        flagTextContent();
+        writeChars(text, TEXT_MODE);
+    }
+    
+    /**
+     * Write CDATA text to document.
+     * 
+     * @param text content value text
+     * @throws IOException on error writing to document
+     */
+    public void writeCData(String text) throws IOException {
+        flagTextContent();
+        makeSpace(m_cdataStartBytes.length);
+        m_fillOffset = writeEntity(m_cdataStartBytes, m_fillOffset);
+        writeChars(text, CDATA_MODE);
+        makeSpace(m_cdataEndBytes.length);
+        m_fillOffset = writeEntity(m_cdataEndBytes, m_fillOffset);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public void setIndentSpaces(int count, String newline, char indent) {
+        super.setIndentSpaces(count, newline, indent);
+        m_indented = count >= 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public void writeTemplate(MarkupTemplate template) throws IOException {
+        flagContent();
+        int index = template.getIndex();
+        byte[] bytes = index < m_templateBytes.length ? m_templateBytes[index] : null;
+        if (bytes == null || m_indented) {
+            
+            // write template normally, capturing the output if it all goes into the buffer
+            int start = m_fillOffset;
+            m_flushed = false;
+            template.write(this);
+            flagContent();
+            if (!m_flushed && !m_indented) {
+                bytes = new byte[m_fillOffset - start];
+                System.arraycopy(m_buffer, start, bytes, 0, bytes.length);
+                if (index >= m_templateBytes.length) {
+                    byte[][] grow = new byte[index + 1][];
+                    System.arraycopy(m_templateBytes, 0, grow, 0, m_templateBytes.length);
+                    m_templateBytes = grow;
+                }
+                m_templateBytes[index] = bytes;
+            }
+            
+        } else {
+            
+            // copy encoded template to output, then update state without generating output
+            makeSpace(bytes.length);
+            System.arraycopy(bytes, 0, m_buffer, m_fillOffset, bytes.length);
+            m_fillOffset += bytes.length;
+            m_suppressed = true;
+            try {
+                template.write(this);
+                flagContent();
+            } finally {
+                m_suppressed = false;
+            }
+            
+        }
+    }
+    
+    /**
+     * Create a child writer instance to be used for a separate binding. The child writer inherits the output and
+     * namespace state, but uses its own namespace URIs.
+     * 
+     * @param uris ordered array of URIs for namespaces used in document
+     * @return child writer
+     * @throws IOException on error writing to document
+     */
+    public IXMLWriter createChildWriter(String[] uris) throws IOException {
+        flagContent();
+        return new CharsetStreamWriter(this, uris);
+    }
+}
@@ -33,14 +33,22 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.StringTokenizer;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jibx.ws.util.LruCache;
+
 /**
  * Directory of codecs. This uses a property file to relate format names with specific {@link CodecFactory} classes,
- * which are then loaded during class initialization and accessed as needed to handle connections.
+ * which are then loaded during class initialization and accessed as needed to handle connections. Media types for which
+ * the codec factory cannot be linked (because an optional library used by the codec is not present) are left out of
+ * the directory.
  *
  * @author Dennis M. Sosnoski
  */
 public final class CodecDirectory
 {
+    private static final Log s_logger = LogFactory.getLog(CodecDirectory.class);
+    
     /** Media type short code used for text XML. */
     public static final String TEXT_MEDIA_CODE = "xml";
 
@@ -50,11 +58,23 @@ public final class CodecDirectory
     /** Properties file path. */
     private static final String CODEC_PROPERTIES_PATH = "/codec.properties";
 
-    /** List of media types in decreasing preference order (nonmodifiable, so safe to pass).*/
+    /** List of connection-independent media types in decreasing preference order (nonmodifiable, so safe to pass).*/
     private static final List s_orderedMediaTypes;
     
     /** Map from encoding name to implementation class. */
     private static final Map s_mediaMap;
+    
+    /** Maximum number of distinct accept and content type combinations for which results are cached. */
+    private static final int ACCEPT_CACHE_SIZE = 256;
+    
+    /** Name of the quality factor parameter in a media range. */
+    private static final String QUALITY_PARAMETER = "q";
+    
+    /** Cached result value used when no media type is acceptable. */
+    private static final Object NO_ACCEPTABLE_MEDIA_TYPE = new Object();
+    
+    /** Cache of negotiated media types, keyed by accept string and request content type. */
+    private static final LruCache s_acceptCache = new LruCache(ACCEPT_CACHE_SIZE);
 
     /** Hide constructor for utility class. */
     private CodecDirectory() {
@@ -84,7 +104,6 @@ public final class CodecDirectory
                 throw new RuntimeException("Unable to load required properties file '" + CODEC_PROPERTIES_PATH + '\'');
             }
             props.load(in);
-            s_orderedMediaTypes = Collections.unmodifiableList(mediaTypes);
             s_mediaMap = new HashMap();
             for (Iterator iter = props.keySet().iterator(); iter.hasNext();) {
                 String mediatype = (String)iter.next();
@@ -103,8 +122,22 @@ public final class CodecDirectory
                     throw new IllegalStateException("Error creating an instance of encoding class " + classname);
                 } catch (IllegalAccessException e) {
                     throw new IllegalStateException("Unable to create an instance of encoding class " + classname);
+                } catch (LinkageError e) {
+                    
+                    // optional library used by encoding class not present, so media type is not supported
+                    if (s_logger.isInfoEnabled()) {
+                        s_logger.info("Media type '" + mediatype + "' not supported, unable to link encoding class "
+                            + classname + ": " + e);
+                    }
                 }
             }
+            for (Iterator iter = mediaTypes.iterator(); iter.hasNext();) {
+                Object factory = s_mediaMap.get(((MediaType)iter.next()).getBaseType());
+                if (factory == null || factory instanceof ConnectionCodecFactory) {
+                    iter.remove();
+                }
+            }
+            s_orderedMediaTypes = Collections.unmodifiableList(mediaTypes);
         } catch (IOException e) {
             throw new RuntimeException("Unable to load required properties file '" + CODEC_PROPERTIES_PATH + '\'');
         } finally {
@@ -118,7 +151,9 @@ public final class CodecDirectory
     };
 
     /**
-     * Get the list of media types in the directory. The returned list is unmodifiable.
+     * Get the list of media types in the directory. The returned list is unmodifiable. Media types with codecs which
+     * keep state across messages on a connection (see {@link ConnectionCodecFactory}) are not included, since these can
+     * only be used with transports that dedicate codecs to a connection.
      *
      * @return list of {@link MediaType}
      */
@@ -165,6 +200,19 @@ public final class CodecDirectory
         return s_mediaMap.containsKey(type.getBaseType());
     }
 
+    /**
+     * Returns whether the codec for the specified media type keeps state across messages on a connection (see
+     * {@link ConnectionCodecFactory}), ignoring any parameters of the MediaType. Such media types can only be used by
+     * transports which dedicate codecs to a connection.
+     * 
+     * @param type media type
+     * @return <code>true</code> if the codec is connection-scoped, <code>false</code> if not (or if no codec is
+     * available)
+     */
+    public static boolean isConnectionScoped(MediaType type) {
+        return s_mediaMap.get(type.getBaseType()) instanceof ConnectionCodecFactory;
+    }
+
     /**
      * Finds a media type that is supported for the accept types in the given <code>acceptString</code>.
      * <p>  
@@ -176,31 +224,31 @@ public final class CodecDirectory
      * <li>otherwise the <i>most preferred</i> media type is returned.</li>
      * </ul>
      * <p>
-     * Otherwise, <code>acceptString</code> contains one or more media-ranges that are comma separated, in which case 
-     * the media-ranges are checked in the following order:
+     * Otherwise, <code>acceptString</code> contains one or more media-ranges that are comma separated, each with an
+     * optional quality factor "q" parameter (defaulting to 1). Each supported media type is given the quality factor of
+     * the most specific media-range that matches it, where a specific media type ("type/subtype") is more specific than
+     * all subtypes of a particular type ("type/*"), which in turn is more specific than all media types (*<!-- -->/*).
+     * Supported media types with a quality factor of 0, or not matched by any media-range, are not acceptable. Of the
+     * acceptable media types:
      * <ol>
-     * <li>All media-ranges that reference specific media types ("type/subtype") are checked for matches with supported 
-     * media types. The <i>most preferred</i> media type that matches any of the media-ranges is returned.</li>
-     * <li>Otherwise, all media-ranges that specify all subtypes of a particular type ("type/*") are checked for 
-     * matches with supported media types. The <i>most preferred</i> media type that matches any of the media-ranges is 
-     * returned.</li>
-     * <li>Otherwise, if a media-range specifies all media types (*<!-- -->/*), this method returns:
-     *   <ul>
-     *   <li>the <code>contentType</code> of the request, assuming there is a codec available for the 
-     *   <code>contentType</code>,</li>
-     *   <li>otherwise the <i>most preferred</i> media type is returned.</li>
-     *   </ul>
-     * </li>
-     * <li>If no matches are found, <code>null</code> is returned.</li>
+     * <li>The media type with the highest quality factor is returned.</li>
+     * <li>Where several media types have the same quality factor, those matched by more specific media-ranges are
+     * preferred, and the <i>most preferred</i> media type of those is returned.</li>
+     * <li>If the selected media type was only matched by a media-range for all media types (*<!-- -->/*), and the 
+     * <code>contentType</code> of the request has a codec available and is equally acceptable, the 
+     * <code>contentType</code> is returned instead.</li>
+     * <li>If no media types are acceptable, <code>null</code> is returned.</li>
      * </ol> 
      * <p>
      * The <i>most preferred</i> type is determined by checking against the list of supported media types in 
      * decreasing preference order.   
      * <p>
-     * Note that all media type parameters are ignored.  In particular the quality factor "q" parameter is ignored. 
+     * Other than the quality factor, all media type parameters are ignored. Since clients generally send only a small
+     * number of distinct accept strings, the results are cached by <code>acceptString</code> and 
+     * <code>contentType</code>, so that repeated requests only need a single lookup.
      *
-     * @param acceptString media type string (e.g.  "application/soap+xml" or "text/xml; charset=utf-8, text/*, 
-     * *<!-- -->/*"")
+     * @param acceptString media type string (e.g.  "application/soap+xml" or "text/xml; charset=utf-8, text/*;q=0.5, 
+     * *<!-- -->/*;q=0.1")
      * @param contentType the media type that has the highest preference 
      * @return the most preferred media type that is allowed by the <code>acceptString</code> argument, or 
      * <code>null</code> if no media types are allowed by the <code>acceptString</code> argument  
@@ -208,82 +256,134 @@ public final class CodecDirectory
      */
     public static MediaType getAcceptableMediaType(String acceptString, MediaType contentType) throws ParseException {
         if (acceptString == null) {
-            if (CodecDirectory.hasCodecFor(contentType)) {
+            if (CodecDirectory.hasCodecFor(contentType) && !isConnectionScoped(contentType)) {
                 return contentType;
             }
             return (MediaType) s_orderedMediaTypes.get(0);
         }
         
-        MediaType[] acceptTypes = parseAcceptString(acceptString);
-
-        MediaType match = findSpecificTypeMatch(acceptTypes);
-        if (match != null) {
-            return match;
+        // check for cached result before doing any parsing
+        String key = acceptString + '\n' + contentType;
+        Object cached = s_acceptCache.get(key);
+        if (cached == null) {
+            cached = negotiateMediaType(parseAcceptString(acceptString), contentType);
+            if (cached == null) {
+                cached = NO_ACCEPTABLE_MEDIA_TYPE;
+            }
+            s_acceptCache.put(key, cached);
         }
+        return cached == NO_ACCEPTABLE_MEDIA_TYPE ? null : (MediaType) cached;
+    }
 
-        match = findTypeRangeMatch(acceptTypes);
-        if (match != null) {
-            return match;
+    /**
+     * Select the media type to be used for a set of accept media ranges, as described for 
+     * {@link #getAcceptableMediaType(String, MediaType)}.
+     *
+     * @param ranges parsed accept media ranges
+     * @param contentType the media type that has the highest preference
+     * @return selected media type, or <code>null</code> if none acceptable
+     */
+    private static MediaType negotiateMediaType(AcceptRange[] ranges, MediaType contentType) {
+        MediaType best = null;
+        AcceptRange bestRange = null;
+        for (Iterator iterator = s_orderedMediaTypes.iterator(); iterator.hasNext();) {
+            MediaType mediaType = (MediaType) iterator.next();
+            AcceptRange range = findBestRange(ranges, mediaType);
+            if (range != null && range.m_quality > 0 && (bestRange == null || range.m_quality > bestRange.m_quality
+                || (range.m_quality == bestRange.m_quality && range.m_specificity > bestRange.m_specificity))) {
+                best = mediaType;
+                bestRange = range;
+            }
         }
-
-        if (containsMatchAll(acceptTypes)) {
-            if (CodecDirectory.hasCodecFor(contentType)) {
+        if (bestRange != null && bestRange.m_specificity == AcceptRange.ALL_TYPES 
+            && CodecDirectory.hasCodecFor(contentType) && !isConnectionScoped(contentType)) {
+            AcceptRange range = findBestRange(ranges, contentType);
+            if (range.m_quality == bestRange.m_quality) {
                 return contentType;
             }
-            return (MediaType) s_orderedMediaTypes.get(0);
         }
-        
-        return null;
+        return best;
     }
 
-    private static MediaType[] parseAcceptString(String acceptString) throws ParseException {
+    /**
+     * Find the most specific accept media range matching a media type.
+     *
+     * @param ranges parsed accept media ranges
+     * @param mediaType media type to be matched
+     * @return most specific matching range, or <code>null</code> if none
+     */
+    private static AcceptRange findBestRange(AcceptRange[] ranges, MediaType mediaType) {
+        AcceptRange match = null;
+        for (int i = 0; i < ranges.length; i++) {
+            AcceptRange range = ranges[i];
+            if (range.m_mediaType.accepts(mediaType) && (match == null || range.m_specificity > match.m_specificity)) {
+                match = range;
+            }
+        }
+        return match;
+    }
+
+    private static AcceptRange[] parseAcceptString(String acceptString) throws ParseException {
         StringTokenizer toke = new StringTokenizer(acceptString, ",");
-        MediaType[] acceptTypes = new MediaType[toke.countTokens()];
+        AcceptRange[] acceptRanges = new AcceptRange[toke.countTokens()];
         int i = 0;
         while (toke.hasMoreTokens()) {
-            acceptTypes[i++] = new MediaType(toke.nextToken(), true);
+            acceptRanges[i++] = new AcceptRange(new MediaType(toke.nextToken()));
         }
-        return acceptTypes;
+        return acceptRanges;
     }
-
-    private static MediaType findSpecificTypeMatch(MediaType[] acceptTypes) {
-        for (Iterator iterator = s_orderedMediaTypes.iterator(); iterator.hasNext();) {
-            MediaType mediaType = (MediaType) iterator.next();
-            for (int i = 0; i < acceptTypes.length; i++) {
-                MediaType acceptType = acceptTypes[i];
-                if (!acceptType.getSubType().equals("*")) {
-                    if (acceptType.getSubType().equals(mediaType.getSubType()) 
-                        && acceptType.getPrimaryType().equals(mediaType.getPrimaryType())) {
-                        return mediaType;
+    
+    /**
+     * Media range from an accept string, with the quality factor and specificity of the range.
+     */
+    private static final class AcceptRange
+    {
+        /** Specificity of a range matching all media types. */
+        private static final int ALL_TYPES = 0;
+        
+        /** Specificity of a range matching all subtypes of a type. */
+        private static final int ALL_SUBTYPES = 1;
+        
+        /** Specificity of a range matching a single media type. */
+        private static final int SINGLE_TYPE = 2;
+        
+        private final MediaType m_mediaType;
+        private final float m_quality;
+        private final int m_specificity;
+        
+        /**
+         * Constructor.
+         *
+         * @param mediaType media range, including any parameters
+         * @throws ParseException if the quality factor is not a number in the range 0 to 1 
+         */
+        public AcceptRange(MediaType mediaType) throws ParseException {
+            m_mediaType = mediaType;
+            float quality = 1.0f;
+            List params = mediaType.getParameterList();
+            for (int i = 0; i < params.size(); i++) {
+                MediaType.Parameter param = (MediaType.Parameter) params.get(i);
+                if (QUALITY_PARAMETER.equalsIgnoreCase(param.getName().trim())) {
+                    String value = param.getValue();
+                    try {
+                        quality = Float.parseFloat(value == null ? "" : value.trim());
+                    } catch (NumberFormatException e) {
+                        quality = -1.0f;
                     }
-                }
-            }
-        }
-        return null;
-    }
-
-    private static MediaType findTypeRangeMatch(MediaType[] acceptTypes) {
-        for (Iterator iterator = s_orderedMediaTypes.iterator(); iterator.hasNext();) {
-            MediaType mediaType = (MediaType) iterator.next();
-            for (int i = 0; i < acceptTypes.length; i++) {
-                MediaType acceptType = acceptTypes[i];
-                if (acceptType.getSubType().equals("*") && !acceptType.getPrimaryType().equals("*")) {
-                    if (acceptType.getPrimaryType().equals(mediaType.getPrimaryType())) {
-                        return mediaType;
+                    if (quality < 0.0f || quality > 1.0f) {
+                        throw new ParseException("Invalid quality factor in media range '" + mediaType + "'", -1);
                     }
+                    break;
                 }
             }
-        }
-        return null;
-    }
-
-    private static boolean containsMatchAll(MediaType[] acceptTypes) {
-        for (int i = 0; i < acceptTypes.length; i++) {
-            MediaType acceptType = acceptTypes[i];
-            if (acceptType.getSubType().equals("*") && acceptType.getPrimaryType().equals("*")) {
-                return true;
+            m_quality = quality;
+            if (!"*".equals(mediaType.getSubType())) {
+                m_specificity = SINGLE_TYPE;
+            } else if (!"*".equals(mediaType.getPrimaryType())) {
+                m_specificity = ALL_SUBTYPES;
+            } else {
+                m_specificity = ALL_TYPES;
             }
         }
-        return false;
     }
 }
@@ -22,6 +22,7 @@
 package org.jibx.ws.codec;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,7 +53,7 @@ public final class CodecPool
             XmlCodec codec = CodecDirectory.getCodec(mediaType);
             if (codec != null) {
                 InstancePool pool = new InstancePool(mediaType);
-                pool.releaseInstance(codec);
+                pool.addInstance(codec);
                 m_codecMap.put(CodecDirectory.getCodecKey(mediaType), pool);
             }
         }
@@ -91,6 +92,25 @@ public final class CodecPool
         pool.releaseInstance(codec);
     }
     
+    /**
+     * Get the keys for the codecs in this pool.
+     * 
+     * @return list of keys, as returned by {@link CodecDirectory#getCodecKey(MediaType)}
+     */
+    public List getCodecKeys() {
+        return new ArrayList(m_codecMap.keySet());
+    }
+    
+    /**
+     * Get the pool of instances for a codec.
+     * 
+     * @param key codec key, as returned by {@link CodecDirectory#getCodecKey(MediaType)}
+     * @return pool, or <code>null</code> if not found
+     */
+    public ExpandingPool getInstancePool(String key) {
+        return (ExpandingPool) m_codecMap.get(key);
+    }
+    
     /**
      * Pool for instances of a codec.
      */
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.codec;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.IInByteBuffer;
+import org.jibx.runtime.impl.IOutByteBuffer;
+import org.jibx.runtime.impl.StAXReaderWrapper;
+import org.jibx.ws.io.ByteBufferInputStream;
+import org.jibx.ws.io.ByteBufferOutputStream;
+
+import com.siemens.ct.exi.core.EXIFactory;
+import com.siemens.ct.exi.core.EncodingOptions;
+import com.siemens.ct.exi.core.FidelityOptions;
+import com.siemens.ct.exi.core.SchemaIdResolver;
+import com.siemens.ct.exi.core.exceptions.EXIException;
+import com.siemens.ct.exi.core.grammars.Grammars;
+import com.siemens.ct.exi.core.grammars.SchemaLessGrammars;
+import com.siemens.ct.exi.core.helpers.DefaultEXIFactory;
+import com.siemens.ct.exi.grammars.GrammarFactory;
+import com.siemens.ct.exi.main.api.stream.StAXDecoder;
+import com.siemens.ct.exi.main.api.stream.StAXEncoder;
+
+/**
+ * EXI (Efficient XML Interchange) encoding factory. This creates encoding implementations using the EXIficient StAX
+ * encoder and decoder, wrapped as JiBX writers and readers. The EXIficient library is an optional dependency, so the
+ * media types using this factory are only supported by {@link CodecDirectory} when the library is present on the
+ * classpath. Namespace prefixes are preserved, so that qualified name values (such as SOAP fault codes) remain valid.
+ * <p>
+ * By default messages are written in schema-less mode. A schema can be configured with
+ * {@link #setSchema(String, String)}, in which case messages are written using the schema-informed grammar built from
+ * that schema, with the schema identifier included in the EXI header. Messages using any schema configured in this
+ * way are accepted when reading, as are schema-less messages. Building a schema-informed grammar requires the
+ * EXIficient grammars library and Xerces.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class ExiCodecFactory implements CodecFactory
+{
+    /** Mask for options present bit in first byte of EXI header. */
+    private static final int HEADER_OPTIONS_MASK = 0x20;
+    
+    /** Current configuration (never <code>null</code>; initialization fails if the EXIficient library is missing). */
+    private static ExiConfiguration s_configuration = new ExiConfiguration();
+    
+    /**
+     * Set the schema used for schema-informed output. The schema identifier is included in the EXI header of each
+     * message written, so peers need to configure the same schema using the same identifier. Keep the identifier
+     * short, since it adds to the size of every message.
+     * 
+     * @param id schema identifier
+     * @param location schema location, as a file path or URL (<code>null</code> to revert to schema-less output)
+     * @throws IOException on error building the grammar from the schema
+     */
+    public static void setSchema(String id, String location) throws IOException {
+        Grammars grammars = null;
+        if (location != null) {
+            try {
+                grammars = GrammarFactory.newInstance().createGrammars(location);
+                grammars.setSchemaId(id);
+            } catch (EXIException e) {
+                throw new IOException("Error building EXI grammar from schema " + location + ": " + e.getMessage());
+            }
+        }
+        synchronized (ExiCodecFactory.class) {
+            s_configuration = new ExiConfiguration(grammars, s_configuration);
+        }
+    }
+    
+    /**
+     * Get the current configuration.
+     * 
+     * @return configuration
+     */
+    private static synchronized ExiConfiguration getConfiguration() {
+        return s_configuration;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public XmlCodec createInstance(MediaType mediaType) {
+        return new ExiCodec(mediaType);
+    }
+    
+    /**
+     * Create an EXI factory with the options common to input and output.
+     * 
+     * @return factory
+     */
+    private static EXIFactory createFactory() {
+        EXIFactory factory = DefaultEXIFactory.newInstance();
+        FidelityOptions fidelity = FidelityOptions.createDefault();
+        try {
+            fidelity.setFidelity(FidelityOptions.FEATURE_PREFIX, true);
+        } catch (EXIException e) {
+            throw new IllegalStateException("Internal error - prefix preservation not supported: " + e.getMessage());
+        }
+        factory.setFidelityOptions(fidelity);
+        return factory;
+    }
+    
+    /**
+     * Immutable EXI configuration. A new instance is created for each change to the configuration, so codecs only need
+     * to compare references to detect changes. The factories are only used for creating encoders and decoders, which
+     * does not modify the factory state.
+     */
+    private static final class ExiConfiguration implements SchemaIdResolver
+    {
+        /** Factory used for output. */
+        private final EXIFactory m_outputFactory;
+        
+        /** Factory used for input. */
+        private final EXIFactory m_inputFactory;
+        
+        /** Map from schema identifier to grammars accepted for input (unmodifiable). */
+        private final Map m_inputGrammars;
+        
+        /**
+         * Constructor for initial configuration.
+         */
+        public ExiConfiguration() {
+            m_outputFactory = createFactory();
+            m_inputFactory = createFactory();
+            m_inputFactory.setSchemaIdResolver(this);
+            m_inputGrammars = Collections.EMPTY_MAP;
+        }
+        
+        /**
+         * Constructor for modified configuration.
+         * 
+         * @param grammars schema-informed grammars used for output (<code>null</code> if schema-less)
+         * @param base prior configuration
+         */
+        public ExiConfiguration(Grammars grammars, ExiConfiguration base) {
+            m_outputFactory = createFactory();
+            Map map = new HashMap(base.m_inputGrammars);
+            if (grammars != null) {
+                m_outputFactory.setGrammars(grammars);
+                EncodingOptions options = EncodingOptions.createDefault();
+                try {
+                    options.setOption(EncodingOptions.INCLUDE_OPTIONS);
+                    options.setOption(EncodingOptions.INCLUDE_SCHEMA_ID);
+                } catch (EXIException e) {
+                    throw new IllegalStateException("Internal error - header options not supported: " 
+                        + e.getMessage());
+                }
+                m_outputFactory.setEncodingOptions(options);
+                map.put(grammars.getSchemaId(), grammars);
+            }
+            m_inputGrammars = Collections.unmodifiableMap(map);
+            m_inputFactory = createFactory();
+            m_inputFactory.setSchemaIdResolver(this);
+        }
+        
+        /**
+         * Resolve the schema identifier from the header of a message being read.
+         * 
+         * @param id schema identifier
+         * @return grammars
+         * @throws EXIException if schema not configured
+         */
+        public Grammars resolveSchemaId(String id) throws EXIException {
+            if (id == null || id.length() == 0) {
+                return new SchemaLessGrammars();
+            }
+            Grammars grammars = (Grammars)m_inputGrammars.get(id);
+            if (grammars == null) {
+                throw new EXIException("Unknown EXI schema identifier " + id);
+            }
+            return grammars;
+        }
+    }
+    
+    /**
+     * Check if the EXI header of a message includes options. This also returns <code>true</code> for messages starting
+     * with an EXI cookie, which is never written by this implementation.
+     * 
+     * @param buff input buffer positioned at start of message
+     * @return <code>true</code> if options present, <code>false</code> if not
+     * @throws IOException on error reading input
+     */
+    private static boolean hasHeaderOptions(IInByteBuffer buff) throws IOException {
+        return buff.require(1) && (buff.getBuffer()[buff.getOffset()] & HEADER_OPTIONS_MASK) != 0;
+    }
+    
+    /**
+     * EXI codec implementation. The encoder and decoder, along with their grammars, are reused for all messages
+     * handled by an instance of the codec. This codec ignores all formatting options, including the character
+     * encoding.
+     * 
+     * @author Dennis M. Sosnoski
+     */
+    private static final class ExiCodec implements XmlCodec
+    {
+        /** Media type supported by codec. */
+        private final MediaType m_mediaType;
+        
+        /** Stream used by encoder (<code>null</code> if no writer created). */
+        private ByteBufferOutputStream m_outStream;
+        
+        /** Encoder instance (<code>null</code> if no writer created). */
+        private StAXEncoder m_encoder;
+        
+        /** Current writer instance (<code>null</code> if no writer created). */
+        private StAXDocumentWriter m_writer;
+        
+        /** Configuration used by encoder. */
+        private ExiConfiguration m_writerConfiguration;
+        
+        /** Stream used by decoder (<code>null</code> if no reader created). */
+        private ByteBufferInputStream m_inStream;
+        
+        /** Decoder instance (<code>null</code> if no reader created). */
+        private StAXDecoder m_decoder;
+        
+        /** Configuration used by decoder. */
+        private ExiConfiguration m_readerConfiguration;
+        
+        /** Decoder options changed by header of last message read flag. */
+        private boolean m_decoderModified;
+        
+        /**
+         * Constructor.
+         * 
+         * @param mediaType media type that this codec is implementing
+         */
+        public ExiCodec(MediaType mediaType) {
+            m_mediaType = mediaType;
+        }
+        
+        /**
+         * Get the media type that this codec is implementing.
+         * 
+         * @return name
+         */
+        public MediaType getMediaType() {
+            return m_mediaType;
+        }
+        
+        /**
+         * Initialize EXI writer. This must be called before beginning a new output operation using the codec. The EXI
+         * header is written by this call, so any XML declaration written using the returned writer is ignored. The
+         * returned writer instance may be the same one previously returned, or a new one.
+         * 
+         * @param buff output buffer to be used
+         * @param charcode (ignored)
+         * @param uris ordered array of URIs for namespaces used in document
+         * @return writer configured for the specified namespaces
+         * @throws IOException on error setting output
+         */
+        public IXMLWriter getWriter(IOutByteBuffer buff, String charcode, String[] uris) throws IOException {
+            if (m_outStream == null) {
+                m_outStream = new ByteBufferOutputStream(buff);
+            } else {
+                m_outStream.setBuffer(buff);
+            }
+            try {
+                ExiConfiguration config = getConfiguration();
+                if (config != m_writerConfiguration) {
+                    m_encoder = new StAXEncoder(config.m_outputFactory);
+                    m_writerConfiguration = config;
+                    m_writer = null;
+                }
+                m_encoder.setOutputStream(m_outStream);
+            } catch (EXIException e) {
+                throw new IOException("Error initializing EXI encoder: " + e.getMessage());
+            }
+            if (m_writer == null || m_writer.getNamespaces() != uris) {
+                m_writer = new StAXDocumentWriter(uris, m_encoder);
+            }
+            m_writer.setBuffer(buff);
+            m_writer.startDocument();
+            return m_writer;
+        }
+        
+        /**
+         * Initialize EXI reader. This must be called before beginning a new input operation using the codec. The
+         * returned reader instance may be the same one previously returned, or a new one.
+         * 
+         * @param buff input buffer to be used
+         * @param charcode (ignored)
+         * @param name document name (<code>null</code> if unknown)
+         * @param reset (ignored, since the decoder state is always reset)
+         * @return reader configured for the input buffer
+         * @throws IOException on error reading input stream
+         */
+        public IXMLReader getReader(IInByteBuffer buff, String charcode, String name, boolean reset)
+        throws IOException {
+            if (m_inStream == null) {
+                m_inStream = new ByteBufferInputStream(buff);
+            } else {
+                m_inStream.setBuffer(buff);
+            }
+            try {
+                
+                // decoder keeps any options set by a message header, so use a new instance after such a message
+                ExiConfiguration config = getConfiguration();
+                if (config != m_readerConfiguration || m_decoderModified) {
+                    m_decoder = new StAXDecoder(config.m_inputFactory);
+                    m_readerConfiguration = config;
+                }
+                m_decoderModified = hasHeaderOptions(buff);
+                m_decoder.setInputStream(m_inStream);
+            } catch (EXIException e) {
+                throw new IOException("Error initializing EXI decoder: " + e.getMessage());
+            } catch (XMLStreamException e) {
+                throw new IOException("Error reading EXI header: " + e.getMessage());
+            }
+            return new StAXReaderWrapper(m_decoder, name, true);
+        }
+    }
+}
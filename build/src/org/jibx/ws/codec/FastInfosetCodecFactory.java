@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.codec;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.IInByteBuffer;
+import org.jibx.runtime.impl.IOutByteBuffer;
+import org.jibx.runtime.impl.StAXReaderWrapper;
+import org.jibx.ws.io.ByteBufferInputStream;
+import org.jibx.ws.io.ByteBufferOutputStream;
+import org.jvnet.fastinfoset.ExternalVocabulary;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+
+/**
+ * Fast Infoset XML encoding factory. This creates encoding implementations using the Fast Infoset StAX serializer and
+ * parser, wrapped as JiBX writers and readers. The Fast Infoset library is an optional dependency, so the media types
+ * using this factory are only supported by {@link CodecDirectory} when the library is present on the classpath.
+ * <p>
+ * An external vocabulary can be configured with {@link #setExternalVocabulary(ExternalVocabulary)}. The element names,
+ * namespaces and other strings of the vocabulary are then preloaded into the tables used for every message written,
+ * and the vocabulary is recognized when referenced by messages being read, so that repeated names are never sent as
+ * literals. Peers need to be configured with the same external vocabulary to read the messages.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class FastInfosetCodecFactory implements CodecFactory
+{
+    /** Current vocabulary configuration (never <code>null</code>). */
+    private static VocabularyConfiguration s_vocabularyConfiguration = new VocabularyConfiguration(null);
+    
+    /**
+     * Set the external vocabulary. Once set, this vocabulary is used for all messages written by Fast Infoset codecs,
+     * and is also accepted by name for messages read. Any previously set external vocabulary continues to be accepted
+     * for messages read.
+     * 
+     * @param vocabulary external vocabulary (<code>null</code> to stop using an external vocabulary for output)
+     */
+    public static synchronized void setExternalVocabulary(ExternalVocabulary vocabulary) {
+        s_vocabularyConfiguration = new VocabularyConfiguration(vocabulary, s_vocabularyConfiguration);
+    }
+    
+    /**
+     * Get the current vocabulary configuration.
+     * 
+     * @return configuration
+     */
+    private static synchronized VocabularyConfiguration getVocabularyConfiguration() {
+        return s_vocabularyConfiguration;
+    }
+    
+    /**
+     * Constructor. This creates a serializer instance, so that the factory fails to initialize if the Fast Infoset
+     * library (or the StAX API it uses) is not present.
+     */
+    public FastInfosetCodecFactory() {
+        new StAXDocumentSerializer();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public XmlCodec createInstance(MediaType mediaType) {
+        return new FastInfosetCodec(mediaType);
+    }
+    
+    /**
+     * Immutable external vocabulary configuration. A new instance is created for each change to the configuration, so
+     * codecs only need to compare references to detect changes.
+     */
+    private static final class VocabularyConfiguration
+    {
+        /** External vocabulary used for output (<code>null</code> if none). */
+        private final ExternalVocabulary m_outputVocabulary;
+        
+        /** Map from URI to external vocabulary accepted for input (unmodifiable). */
+        private final Map m_inputVocabularies;
+        
+        /**
+         * Constructor for initial configuration.
+         * 
+         * @param vocabulary external vocabulary (<code>null</code> if none)
+         */
+        public VocabularyConfiguration(ExternalVocabulary vocabulary) {
+            m_outputVocabulary = vocabulary;
+            m_inputVocabularies = Collections.EMPTY_MAP;
+        }
+        
+        /**
+         * Constructor for modified configuration.
+         * 
+         * @param vocabulary external vocabulary (<code>null</code> if none)
+         * @param base prior configuration
+         */
+        public VocabularyConfiguration(ExternalVocabulary vocabulary, VocabularyConfiguration base) {
+            m_outputVocabulary = vocabulary;
+            Map vocabs = new HashMap(base.m_inputVocabularies);
+            if (vocabulary != null) {
+                vocabs.put(vocabulary.URI, vocabulary);
+            }
+            m_inputVocabularies = Collections.unmodifiableMap(vocabs);
+        }
+    }
+    
+    /**
+     * Fast Infoset codec implementation. The serializer and parser, along with their vocabulary tables, are reused for
+     * all messages handled by an instance of the codec. This codec ignores all formatting options, including the
+     * character encoding.
+     * 
+     * @author Dennis M. Sosnoski
+     */
+    private static final class FastInfosetCodec implements XmlCodec
+    {
+        /** Media type supported by codec. */
+        private final MediaType m_mediaType;
+        
+        /** Stream used by serializer (<code>null</code> if no writer created). */
+        private ByteBufferOutputStream m_outStream;
+        
+        /** Serializer instance (<code>null</code> if no writer created). */
+        private StAXDocumentSerializer m_serializer;
+        
+        /** Current writer instance (<code>null</code> if no writer created). */
+        private StAXDocumentWriter m_writer;
+        
+        /** Vocabulary configuration used by serializer. */
+        private VocabularyConfiguration m_writerConfiguration;
+        
+        /** Stream used by parser (<code>null</code> if no reader created). */
+        private ByteBufferInputStream m_inStream;
+        
+        /** Parser instance (<code>null</code> if no reader created). */
+        private StAXDocumentParser m_parser;
+        
+        /** Vocabulary configuration used by parser. */
+        private VocabularyConfiguration m_readerConfiguration;
+        
+        /**
+         * Constructor.
+         * 
+         * @param mediaType media type that this codec is implementing
+         */
+        public FastInfosetCodec(MediaType mediaType) {
+            m_mediaType = mediaType;
+        }
+        
+        /**
+         * Get the media type that this codec is implementing.
+         * 
+         * @return name
+         */
+        public MediaType getMediaType() {
+            return m_mediaType;
+        }
+        
+        /**
+         * Initialize Fast Infoset writer. This must be called before beginning a new output operation using the codec.
+         * The Fast Infoset document header is written by this call, so any XML declaration written using the returned
+         * writer is ignored. The returned writer instance may be the same one previously returned, or a new one.
+         * 
+         * @param buff output buffer to be used
+         * @param charcode (ignored)
+         * @param uris ordered array of URIs for namespaces used in document
+         * @return writer configured for the specified namespaces
+         * @throws IOException on error setting output
+         */
+        public IXMLWriter getWriter(IOutByteBuffer buff, String charcode, String[] uris) throws IOException {
+            if (m_outStream == null) {
+                m_outStream = new ByteBufferOutputStream(buff);
+            } else {
+                m_outStream.setBuffer(buff);
+            }
+            VocabularyConfiguration config = getVocabularyConfiguration();
+            if (config != m_writerConfiguration) {
+                
+                // serializer only resets an internally-created vocabulary, so use a new instance for each change
+                m_serializer = new StAXDocumentSerializer(m_outStream);
+                if (config.m_outputVocabulary != null) {
+                    m_serializer.setExternalVocabulary(config.m_outputVocabulary);
+                }
+                m_writerConfiguration = config;
+                m_writer = null;
+            }
+            if (m_writer == null || m_writer.getNamespaces() != uris) {
+                m_writer = new StAXDocumentWriter(uris, m_serializer);
+            }
+            m_writer.setBuffer(buff);
+            m_writer.startDocument();
+            return m_writer;
+        }
+        
+        /**
+         * Initialize Fast Infoset reader. This must be called before beginning a new input operation using the codec.
+         * The returned reader instance may be the same one previously returned, or a new one.
+         * 
+         * @param buff input buffer to be used
+         * @param charcode (ignored)
+         * @param name document name (<code>null</code> if unknown)
+         * @param reset (ignored, since the parser state is always reset)
+         * @return reader configured for the input buffer
+         * @throws IOException on error reading input stream
+         */
+        public IXMLReader getReader(IInByteBuffer buff, String charcode, String name, boolean reset)
+        throws IOException {
+            if (m_parser == null) {
+                m_inStream = new ByteBufferInputStream(buff);
+                m_parser = new StAXDocumentParser();
+            } else {
+                m_inStream.setBuffer(buff);
+                m_parser.reset();
+            }
+            VocabularyConfiguration config = getVocabularyConfiguration();
+            if (config != m_readerConfiguration) {
+                m_parser.setExternalVocabularies(config.m_inputVocabularies);
+                m_readerConfiguration = config;
+            }
+            m_parser.setInputStream(m_inStream);
+            return new StAXReaderWrapper(m_parser, name, true);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.codec;
+
+import java.io.IOException;
+
+import org.jibx.runtime.IXMLWriter;
+
+/**
+ * Fixed section of markup which can be written in pre-encoded form. Each template defines the writer calls used to
+ * generate the markup. Writers implementing {@link TemplateWriter} capture the encoded output the first time a template
+ * is written, and then copy those bytes directly to the output for later uses of the template.
+ * <p>
+ * The writer calls must generate the same markup every time they are used, and the template must always be written
+ * with the writer in the same namespace state. Only markup (start and end tags, with namespace declarations and
+ * attributes) may be written by a template, not text content.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public abstract class MarkupTemplate
+{
+    /** Number of templates created. */
+    private static int s_templateCount;
+    
+    /** Unique index number for template. */
+    private final int m_index;
+    
+    /**
+     * Constructor.
+     */
+    protected MarkupTemplate() {
+        synchronized (MarkupTemplate.class) {
+            m_index = s_templateCount++;
+        }
+    }
+    
+    /**
+     * Get the unique index number for this template. Writers use this to look up their encoded form of the template.
+     * 
+     * @return index
+     */
+    public final int getIndex() {
+        return m_index;
+    }
+    
+    /**
+     * Write the template markup using normal writer calls.
+     * 
+     * @param writer XML writer
+     * @throws IOException on error writing to document
+     */
+    public abstract void write(IXMLWriter writer) throws IOException;
+    
+    /**
+     * Write the template to a writer, using the pre-encoded form if the writer supports it.
+     * 
+     * @param writer XML writer
+     * @throws IOException on error writing to document
+     */
+    public final void writeTo(IXMLWriter writer) throws IOException {
+        if (writer instanceof TemplateWriter) {
+            ((TemplateWriter)writer).writeTemplate(this);
+        } else {
+            write(writer);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.codec;
+
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jibx.runtime.impl.IOutByteBuffer;
+import org.jibx.runtime.impl.StAXWriter;
+
+/**
+ * JiBX writer for binary encodings implemented as StAX writers. This adapts the base StAX writer to write the document
+ * start when a message is begun and the document termination as soon as the root element is closed, since some
+ * transports only flush the writer at the end of a message rather than closing it. The StAX writer data is flushed
+ * through to the output buffer along with the buffer itself.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+final class StAXDocumentWriter extends StAXWriter
+{
+    /** StAX writer used for output. */
+    private final XMLStreamWriter m_streamWriter;
+    
+    /** Buffer receiving serialized data. */
+    private IOutByteBuffer m_buffer;
+    
+    /** Document started but not yet terminated flag. */
+    private boolean m_documentOpen;
+    
+    /**
+     * Constructor.
+     * 
+     * @param uris ordered array of URIs for namespaces used in document
+     * @param writer StAX writer used for output
+     */
+    public StAXDocumentWriter(String[] uris, XMLStreamWriter writer) {
+        super(uris, writer);
+        m_streamWriter = writer;
+    }
+    
+    /**
+     * Set the buffer receiving serialized data.
+     * 
+     * @param buff output buffer
+     */
+    public void setBuffer(IOutByteBuffer buff) {
+        m_buffer = buff;
+    }
+    
+    /**
+     * Start a new document. This writes the encoding document header.
+     * 
+     * @throws IOException on error writing
+     */
+    public void startDocument() throws IOException {
+        try {
+            m_streamWriter.writeStartDocument();
+        } catch (XMLStreamException e) {
+            throw new IOException("Error starting document: " + e.getMessage());
+        }
+        m_documentOpen = true;
+    }
+    
+    /**
+     * Terminate the current document, if not already terminated.
+     * 
+     * @throws IOException on error writing
+     */
+    private void endDocument() throws IOException {
+        if (m_documentOpen) {
+            m_documentOpen = false;
+            try {
+                m_streamWriter.writeEndDocument();
+            } catch (XMLStreamException e) {
+                throw new IOException("Error ending document: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Close the current start tag as an empty element. This is also used for end tags by the base StAX writer, so
+     * the document is terminated here when the root element is closed.
+     * 
+     * @throws IOException on error writing
+     */
+    public void closeEmptyTag() throws IOException {
+        super.closeEmptyTag();
+        if (getNestingDepth() == 0) {
+            endDocument();
+        }
+    }
+    
+    /**
+     * Write XML declaration. This is ignored, since the document header has already been written.
+     * 
+     * @param version XML version text
+     * @param encoding text for encoding attribute (unspecified if <code>null</code>)
+     * @param standalone text for standalone attribute (unspecified if <code>null</code>)
+     */
+    public void writeXMLDecl(String version, String encoding, String standalone) {
+    }
+    
+    /**
+     * Flush document output. This flushes the StAX writer data through to the output buffer, and then flushes the
+     * buffer.
+     * 
+     * @throws IOException on error writing
+     */
+    public void flush() throws IOException {
+        try {
+            m_streamWriter.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Error writing document: " + e.getMessage());
+        }
+        m_buffer.flush();
+    }
+    
+    /**
+     * Close document output. This terminates the document and completes output to the buffer.
+     * 
+     * @throws IOException on error writing
+     */
+    public void close() throws IOException {
+        endDocument();
+        try {
+            m_streamWriter.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Error writing document: " + e.getMessage());
+        }
+        m_buffer.finish();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.codec;
+
+import java.io.IOException;
+
+import org.jibx.runtime.IXMLWriter;
+
+/**
+ * Pre-encoded markup template support shared by the template writers. This keeps the encoded bytes captured for each
+ * template, and implements {@link TemplateWriter#writeTemplate(MarkupTemplate)} for the writer. The writer supplies
+ * access to its output buffer by implementing the abstract methods, and checks {@link #isSuppressed()} before
+ * generating any markup output.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+abstract class TemplateEncoder
+{
+    /** Encoded templates, indexed by template number (entries <code>null</code> if not yet captured). */
+    private byte[][] m_templateBytes;
+    
+    /** Suppress output flag, used while updating state for a pre-encoded template. */
+    private boolean m_suppressed;
+    
+    /** Buffer flushed flag, used while capturing a template. */
+    private boolean m_flushed;
+    
+    /** Indenting output flag (templates are not pre-encoded when indenting). */
+    private boolean m_indented;
+    
+    /**
+     * Constructor.
+     */
+    protected TemplateEncoder() {
+        m_templateBytes = new byte[0][];
+    }
+    
+    /**
+     * Get the output buffer of the writer.
+     * 
+     * @return buffer
+     */
+    protected abstract byte[] getBuffer();
+    
+    /**
+     * Get the offset for the next byte of output in the buffer.
+     * 
+     * @return offset
+     */
+    protected abstract int getFillOffset();
+    
+    /**
+     * Set the offset for the next byte of output in the buffer.
+     * 
+     * @param offset
+     */
+    protected abstract void setFillOffset(int offset);
+    
+    /**
+     * Make sure there is space in the buffer for some number of bytes of output, flushing the buffer if necessary.
+     * 
+     * @param length number of bytes
+     * @throws IOException on error writing to document
+     */
+    protected abstract void makeSpace(int length) throws IOException;
+    
+    /**
+     * Close any start tag left open by previous output.
+     * 
+     * @throws IOException on error writing to document
+     */
+    protected abstract void flagContent() throws IOException;
+    
+    /**
+     * Set the indenting output flag. Templates are written normally while the output is indented.
+     * 
+     * @param indented <code>true</code> if output is indented, <code>false</code> if not
+     */
+    public void setIndented(boolean indented) {
+        m_indented = indented;
+    }
+    
+    /**
+     * Check if markup output is suppressed. The writer must not generate any output while this is <code>true</code>.
+     * 
+     * @return <code>true</code> if suppressed, <code>false</code> if not
+     */
+    public boolean isSuppressed() {
+        return m_suppressed;
+    }
+    
+    /**
+     * Record that the buffer was flushed. The writer must call this whenever output is flushed from the buffer, since
+     * a template is only captured if all its output is still in the buffer.
+     */
+    public void bufferFlushed() {
+        m_flushed = true;
+    }
+    
+    /**
+     * Write a markup template, using the encoded bytes if these have already been captured and otherwise capturing
+     * them from the normal output.
+     * 
+     * @param template markup template
+     * @param writer writer using this instance
+     * @throws IOException on error writing to document
+     */
+    public void writeTemplate(MarkupTemplate template, IXMLWriter writer) throws IOException {
+        flagContent();
+        int index = template.getIndex();
+        byte[] bytes = index < m_templateBytes.length ? m_templateBytes[index] : null;
+        if (bytes == null || m_indented) {
+            
+            // write template normally, capturing the output if it all goes into the buffer
+            int start = getFillOffset();
+            m_flushed = false;
+            template.write(writer);
+            flagContent();
+            if (!m_flushed && !m_indented) {
+                bytes = new byte[getFillOffset() - start];
+                System.arraycopy(getBuffer(), start, bytes, 0, bytes.length);
+                if (index >= m_templateBytes.length) {
+                    byte[][] grow = new byte[index + 1][];
+                    System.arraycopy(m_templateBytes, 0, grow, 0, m_templateBytes.length);
+                    m_templateBytes = grow;
+                }
+                m_templateBytes[index] = bytes;
+            }
+            
+        } else {
+            
+            // copy encoded template to output, then update state without generating output
+            makeSpace(bytes.length);
+            int offset = getFillOffset();
+            System.arraycopy(bytes, 0, getBuffer(), offset, bytes.length);
+            setFillOffset(offset + bytes.length);
+            m_suppressed = true;
+            try {
+                template.write(writer);
+                flagContent();
+            } finally {
+                m_suppressed = false;
+            }
+            
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.codec;
+
+import java.io.IOException;
+
+import org.jibx.runtime.impl.UTF8StreamWriter;
+
+/**
+ * UTF-8 writer with support for pre-encoded markup templates.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class TemplateUTF8StreamWriter extends UTF8StreamWriter implements TemplateWriter
+{
+    /** Encoded templates and capture state. */
+    private final TemplateEncoder m_templates;
+    
+    /**
+     * Constructor.
+     * 
+     * @param uris ordered array of URIs for namespaces used in document (must be constant; the value in position 0
+     * must always be the empty string "", and the value in position 1 must always be the XML namespace
+     * "http://www.w3.org/XML/1998/namespace")
+     */
+    public TemplateUTF8StreamWriter(String[] uris) {
+        super(uris);
+        m_templates = new TemplateEncoder() {
+            /** {@inheritDoc} */
+            protected byte[] getBuffer() {
+                return m_buffer;
+            }
+            
+            /** {@inheritDoc} */
+            protected int getFillOffset() {
+                return m_fillOffset;
+            }
+            
+            /** {@inheritDoc} */
+            protected void setFillOffset(int offset) {
+                m_fillOffset = offset;
+            }
+            
+            /** {@inheritDoc} */
+            protected void makeSpace(int length) throws IOException {
+                TemplateUTF8StreamWriter.this.makeSpace(length);
+            }
+            
+            /** {@inheritDoc} */
+            protected void flagContent() throws IOException {
+                TemplateUTF8StreamWriter.this.flagContent();
+            }
+        };
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public void setIndentSpaces(int count, String newline, char indent) {
+        super.setIndentSpaces(count, newline, indent);
+        m_templates.setIndented(count >= 0);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    protected void makeSpace(int length) throws IOException {
+        int offset = m_fillOffset;
+        super.makeSpace(length);
+        if (m_fillOffset != offset) {
+            m_templates.bufferFlushed();
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    protected void writeMarkup(String text) throws IOException {
+        if (!m_templates.isSuppressed()) {
+            super.writeMarkup(text);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    protected void writeMarkup(char chr) throws IOException {
+        if (!m_templates.isSuppressed()) {
+            super.writeMarkup(chr);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    protected void writePrefix(int index) throws IOException {
+        if (!m_templates.isSuppressed()) {
+            super.writePrefix(index);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    protected void writeAttributeText(String text) throws IOException {
+        if (!m_templates.isSuppressed()) {
+            super.writeAttributeText(text);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public void writeTemplate(MarkupTemplate template) throws IOException {
+        m_templates.writeTemplate(template, this);
+    }
+}
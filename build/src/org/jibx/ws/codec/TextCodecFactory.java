@@ -22,18 +22,21 @@
 package org.jibx.ws.codec;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 
 import org.jibx.runtime.IXMLReader;
 import org.jibx.runtime.IXMLWriter;
 import org.jibx.runtime.JiBXException;
 import org.jibx.runtime.impl.IInByteBuffer;
 import org.jibx.runtime.impl.IOutByteBuffer;
-import org.jibx.runtime.impl.ISO88591StreamWriter;
 import org.jibx.runtime.impl.IXMLReaderFactory;
 import org.jibx.runtime.impl.InputStreamWrapper;
 import org.jibx.runtime.impl.RuntimeSupport;
 import org.jibx.runtime.impl.StreamWriterBase;
-import org.jibx.runtime.impl.UTF8StreamWriter;
+import org.jibx.ws.io.ByteBufferInputStream;
 
 /**
  * Text XML encoding factory. This creates encoding implementations using normal text output.
@@ -46,6 +49,25 @@ public final class TextCodecFactory implements CodecFactory
      * Factory for creating XML readers.
      */
     private static final IXMLReaderFactory s_readerFactory = RuntimeSupport.loadFactory();
+    
+    /**
+     * Constructor for writer supporting arbitrary character encodings (<code>null</code> if not available, since the
+     * writer requires JDK 1.4 or later).
+     */
+    private static final Constructor s_charsetWriterConstructor;
+    
+    static {
+        Constructor cons = null;
+        try {
+            Class clas = Class.forName("org.jibx.ws.codec.CharsetStreamWriter");
+            cons = clas.getConstructor(new Class[] { String.class, String[].class });
+        } catch (Exception e) {
+            // leave constructor null, so only the built-in encodings are supported
+        } catch (LinkageError e) {
+            // leave constructor null, so only the built-in encodings are supported
+        }
+        s_charsetWriterConstructor = cons;
+    }
 
     /**
      * {@inheritDoc}
@@ -56,7 +78,7 @@ public final class TextCodecFactory implements CodecFactory
     
     /**
      * Text XML encoding implementation. This uses normal text output, and supports the full range of XML formatting
-     * options.
+     * options. The writers used support pre-encoded markup templates (see {@link TemplateWriter}).
      * 
      * @author Dennis M. Sosnoski
      */
@@ -103,7 +125,7 @@ public final class TextCodecFactory implements CodecFactory
          * @param charcode character encoding to be used (<code>null</code> if unspecified)
          * @param uris ordered array of URIs for namespaces used in document
          * @return writer configured for the specified character encoding and namespaces
-         * @throws IOException on error setting output
+         * @throws IOException on error setting output, or if the character encoding is not supported
          */
         public IXMLWriter getWriter(IOutByteBuffer buff, String charcode, String[] uris) throws IOException {
             if (m_writer != null && (charcode == null || charcode.equalsIgnoreCase(m_writer.getEncodingName()))) {
@@ -118,11 +140,11 @@ public final class TextCodecFactory implements CodecFactory
                     charcode = DEFAULT_ENCODING;
                 }
                 if ("UTF-8".equalsIgnoreCase(charcode)) {
-                    m_writer = new UTF8StreamWriter(uris);
+                    m_writer = new TemplateUTF8StreamWriter(uris);
                 } else if ("ISO-8859-1".equalsIgnoreCase(charcode)) {
-                    m_writer = new ISO88591StreamWriter(uris);
+                    m_writer = new TemplateISO88591StreamWriter(uris);
                 } else {
-                    throw new IllegalStateException("Unimplemented character encoding " + charcode);
+                    m_writer = createCharsetWriter(charcode, uris);
                 }
                 
             }
@@ -130,6 +152,32 @@ public final class TextCodecFactory implements CodecFactory
             return m_writer;
         }
         
+        /**
+         * Create a writer for a character encoding without a specialized implementation.
+         * 
+         * @param charcode character encoding to be used
+         * @param uris ordered array of URIs for namespaces used in document
+         * @return writer
+         * @throws IOException if the character encoding is not supported
+         */
+        private static StreamWriterBase createCharsetWriter(String charcode, String[] uris) throws IOException {
+            if (s_charsetWriterConstructor == null) {
+                throw new IOException("Unsupported character encoding " + charcode);
+            }
+            try {
+                return (StreamWriterBase)s_charsetWriterConstructor.newInstance(new Object[] { charcode, uris });
+            } catch (InvocationTargetException e) {
+                throw new IOException("Unsupported character encoding " + charcode + ": "
+                    + e.getTargetException().getMessage());
+            } catch (InstantiationException e) {
+                throw new IOException("Unable to create writer for character encoding " + charcode + ": "
+                    + e.getMessage());
+            } catch (IllegalAccessException e) {
+                throw new IOException("Unable to create writer for character encoding " + charcode + ": "
+                    + e.getMessage());
+            }
+        }
+        
         /**
          * Initialize text XML reader. This must be called before beginning a new input operation using the codec. The
          * returned reader instance may be the same one previously returned, or a new one.
@@ -150,11 +198,20 @@ public final class TextCodecFactory implements CodecFactory
             m_inWrapper.reset();
             m_inWrapper.setBuffer(buff);
             m_inWrapper.setEncoding(charcode);
+            Reader rdr = m_inWrapper.getReader();
+            String encoding = m_inWrapper.getEncoding();
+            if (!"UTF-8".equalsIgnoreCase(encoding) && !"ISO-8859-1".equalsIgnoreCase(encoding)
+                && !"ASCII".equalsIgnoreCase(encoding)) {
+                
+                // the wrapper loses data at buffer boundaries with general encodings, so read the buffer directly
+                rdr = new InputStreamReader(new ByteBufferInputStream(buff), encoding);
+                
+            }
             try {
                 if (m_reader == null) {
-                    m_reader = s_readerFactory.createReader(m_inWrapper.getReader(), name, true);
+                    m_reader = s_readerFactory.createReader(rdr, name, true);
                 } else {
-                    m_reader = s_readerFactory.recycleReader(m_reader, m_inWrapper.getReader(), name);
+                    m_reader = s_readerFactory.recycleReader(m_reader, rdr, name);
                 }
             } catch (JiBXException e) {
                 throw new IOException("Error creating reader: " + e.getMessage());
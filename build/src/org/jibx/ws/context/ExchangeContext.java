@@ -25,13 +25,44 @@ import java.util.ArrayList;
 
 /**
  *  Maintains the context for all messages in a message exchange.
+ *  <p>
+ *  When timing is enabled the exchange also records the time at which each of a series of points in request processing
+ *  is reached, so that the time spent in each phase of processing can be found. Timing is disabled by default, in which
+ *  case marking a point does nothing.
  * 
  * @author Nigel Charman
  */
 public final class ExchangeContext extends Context
 {
+    /** Timing point for start of request processing. */
+    public static final int MARK_START = 0;
+    
+    /** Timing point for start of message read from transport (ends read phase). */
+    public static final int MARK_READ = 1;
+    
+    /** Timing point for envelope and headers parsed (ends parse phase). */
+    public static final int MARK_PARSED = 2;
+    
+    /** Timing point for body unmarshalled (ends unmarshal phase). */
+    public static final int MARK_UNMARSHALLED = 3;
+    
+    /** Timing point for operation invoked (ends invoke phase). */
+    public static final int MARK_INVOKED = 4;
+    
+    /** Timing point for body marshalled (ends marshal phase). */
+    public static final int MARK_MARSHALLED = 5;
+    
+    /** Timing point for response flushed to transport (ends flush phase). */
+    public static final int MARK_FLUSHED = 6;
+    
+    /** Names of the phases ending at each timing point. */
+    private static final String[] PHASE_NAMES = { "start", "read", "parse", "unmarshal", "invoke", "marshal", "flush" };
+    
     private final ArrayList m_msgCtxs = new ArrayList();
     private int m_currMsgCtxIdx;
+    
+    /** Times at which each point was reached (<code>null</code> if timing disabled, zero if point not reached). */
+    private long[] m_markTimes;
 
     /**
      * Creates an {@link ExchangeContext} for an IN-ONLY message exchange.
@@ -124,11 +155,87 @@ public final class ExchangeContext extends Context
         m_currMsgCtxIdx++;
     }
     
+    /**
+     * Returns the name of the phase ending at a timing point.
+     *
+     * @param mark timing point
+     * @return phase name
+     */
+    public static String getPhaseName(int mark) {
+        return PHASE_NAMES[mark];
+    }
+    
+    /**
+     * Returns the number of timing points.
+     *
+     * @return count
+     */
+    public static int getMarkCount() {
+        return PHASE_NAMES.length;
+    }
+    
+    /**
+     * Enables or disables recording of the times at which processing points are reached.
+     *
+     * @param enabled <code>true</code> to record times, <code>false</code> if not
+     */
+    public void setTimingEnabled(boolean enabled) {
+        if (!enabled) {
+            m_markTimes = null;
+        } else if (m_markTimes == null) {
+            m_markTimes = new long[PHASE_NAMES.length];
+        }
+    }
+    
+    /**
+     * Returns whether recording of the times at which processing points are reached is enabled.
+     *
+     * @return <code>true</code> if times recorded, <code>false</code> if not
+     */
+    public boolean isTimingEnabled() {
+        return m_markTimes != null;
+    }
+    
+    /**
+     * Records the current time for a processing point, if timing is enabled.
+     *
+     * @param mark timing point
+     */
+    public void markTime(int mark) {
+        if (m_markTimes != null) {
+            m_markTimes[mark] = System.currentTimeMillis();
+        }
+    }
+    
+    /**
+     * Returns the time taken by the phase ending at a timing point. This is the time from the closest earlier point
+     * reached, so that a phase which was skipped in processing a message is counted as part of the following phase.
+     *
+     * @param mark timing point
+     * @return time in milliseconds, or -1 if the point was not reached (or timing is disabled)
+     */
+    public long getPhaseTime(int mark) {
+        if (m_markTimes == null || m_markTimes[mark] == 0) {
+            return -1;
+        }
+        for (int i = mark - 1; i >= 0; i--) {
+            if (m_markTimes[i] != 0) {
+                return m_markTimes[mark] - m_markTimes[i];
+            }
+        }
+        return -1;
+    }
+    
     /**
      * {@inheritDoc}
      */
     public void reset() {
         super.reset();
+        if (m_markTimes != null) {
+            for (int i = 0; i < m_markTimes.length; i++) {
+                m_markTimes[i] = 0;
+            }
+        }
         m_currMsgCtxIdx = 0;
         for (int i = 0; i < m_msgCtxs.size(); i++) {
             ((MessageContext) m_msgCtxs.get(i)).reset();
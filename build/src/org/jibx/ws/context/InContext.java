@@ -29,6 +29,7 @@ import java.util.Map;
 import org.jibx.runtime.IXMLReader;
 import org.jibx.ws.WsException;
 import org.jibx.ws.io.PayloadReader;
+import org.jibx.ws.io.UnmarshallingPayloadReader;
 import org.jibx.ws.io.handler.InHandler;
 
 /**
@@ -54,7 +55,8 @@ public final class InContext extends MessageContext
     
     /**
      * Invokes the reader for the body of the message and stores the body for subsequent retrieval with 
-     * {@link #getBody()}.
+     * {@link #getBody()}. If attachments have been set for the message, these are used to resolve XOP references in
+     * the body.
      * 
      * @param xmlReader the reader to read XML content from
      * @throws IOException on any I/O error
@@ -62,6 +64,9 @@ public final class InContext extends MessageContext
      */
     public void invokeBodyReader(IXMLReader xmlReader) throws IOException, WsException {
         if (m_bodyReader != null) {
+            if (m_bodyReader instanceof UnmarshallingPayloadReader) {
+                ((UnmarshallingPayloadReader) m_bodyReader).setAttachments(getAttachments());
+            }
             Object body = m_bodyReader.invoke(xmlReader);
             setBody(body);
         }
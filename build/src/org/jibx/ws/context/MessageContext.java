@@ -21,6 +21,7 @@
 
 package org.jibx.ws.context;
 
+import org.jibx.ws.encoding.xop.XopAttachments;
 
 /**
  * Defines the context for sending or receiving an individual message.
@@ -31,6 +32,9 @@ public abstract class MessageContext extends Context
 {
     private ExchangeContext m_exchangeContext;
     private Object m_body;
+    private XopAttachments m_attachments;
+    private String m_traceParent;
+    private String m_traceState;
 
     /**
      * Get the context of the enclosing message exchange. The exchange context stores state across all messages in the
@@ -76,6 +80,65 @@ public abstract class MessageContext extends Context
         this.m_body = body;
     }
 
+    /**
+     * Get the binary parts of an XOP package carrying the message.
+     *
+     * @return attachments, or <code>null</code> if the message is not sent as an XOP package
+     */
+    public final XopAttachments getAttachments() {
+        return m_attachments;
+    }
+
+    /**
+     * Set the binary parts of an XOP package carrying the message. The body reader or writer uses these to resolve
+     * <code>xop:Include</code> references in the message body.
+     *
+     * @param attachments attachments, or <code>null</code> if the message is not sent as an XOP package
+     */
+    public final void setAttachments(XopAttachments attachments) {
+        m_attachments = attachments;
+    }
+
+    /**
+     * Get the W3C trace context <code>traceparent</code> value for the message. For an inbound message this is the
+     * value received with the message, if valid, while for an outbound message it is the value to be sent with the
+     * message.
+     *
+     * @return trace parent, or <code>null</code> if none
+     * @see TraceContext
+     */
+    public final String getTraceParent() {
+        return m_traceParent;
+    }
+
+    /**
+     * Set the W3C trace context <code>traceparent</code> value for the message.
+     *
+     * @param traceParent trace parent, or <code>null</code> if none
+     */
+    public final void setTraceParent(String traceParent) {
+        m_traceParent = traceParent;
+    }
+
+    /**
+     * Get the W3C trace context <code>tracestate</code> value for the message. This is only used along with a trace
+     * parent value.
+     *
+     * @return trace state, or <code>null</code> if none
+     */
+    public final String getTraceState() {
+        return m_traceState;
+    }
+
+    /**
+     * Set the W3C trace context <code>tracestate</code> value for the message.
+     *
+     * @param traceState trace state, or <code>null</code> if none
+     */
+    public final void setTraceState(String traceState) {
+        m_traceState = traceState;
+    }
+
     /**
      * Resets the state of this context and all associated commands and handlers for subsequent re-use of this context.
      */
@@ -83,5 +146,8 @@ public abstract class MessageContext extends Context
         super.reset();
 
         m_body = null;
+        m_attachments = null;
+        m_traceParent = null;
+        m_traceState = null;
     }
 }
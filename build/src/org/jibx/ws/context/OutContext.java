@@ -28,6 +28,7 @@ import java.util.Map;
 
 import org.jibx.runtime.IXMLWriter;
 import org.jibx.ws.WsException;
+import org.jibx.ws.io.MarshallingPayloadWriter;
 import org.jibx.ws.io.PayloadWriter;
 import org.jibx.ws.io.handler.OutHandler;
 
@@ -54,7 +55,8 @@ public final class OutContext extends MessageContext
 
     /**
      * Invokes the writing of the body of the message.  Assumes that the setBody() method has been called with the
-     * body of the message.
+     * body of the message. If attachments have been set for the message, binary values in the body are added to the
+     * attachments.
      * 
      * @param xmlWriter the writer to write the body to
      * @throws IOException on any I/O error
@@ -62,6 +64,9 @@ public final class OutContext extends MessageContext
      */
     public void invokeBodyWriter(IXMLWriter xmlWriter) throws IOException, WsException {
         if (m_bodyWriter != null) {
+            if (m_bodyWriter instanceof MarshallingPayloadWriter) {
+                ((MarshallingPayloadWriter) m_bodyWriter).setAttachments(getAttachments());
+            }
             m_bodyWriter.invoke(xmlWriter, getBody());
         }
     }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.context;
+
+import org.jibx.ws.transport.InConnection;
+import org.jibx.ws.transport.MessageProperties;
+
+/**
+ * Propagation of W3C trace context values (<code>traceparent</code> and <code>tracestate</code>) through services and
+ * clients. The values are carried as HTTP headers, or as options of the first DIME record for TCP. On the server side
+ * the received values are stored in the {@link InContext} for the request, and that context is made the current trace
+ * context for the thread while the request is processed. Clients called from the service operation then send the same
+ * values with their requests, unless the values are set directly on the client {@link OutContext}.
+ * <p>
+ * Values are passed through unchanged, since JiBX/WS does not itself record trace spans. Received values which are not
+ * valid are ignored.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class TraceContext
+{
+    /** Transport property (HTTP header) name for trace parent. */
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    
+    /** Transport property (HTTP header) name for trace state. */
+    public static final String TRACESTATE_HEADER = "tracestate";
+    
+    /** Length of version 00 trace parent value. */
+    private static final int TRACEPARENT_LENGTH = 55;
+    
+    /** Message context holding trace context for current thread. */
+    private static final ThreadLocal s_current = new ThreadLocal();
+    
+    /** Hide constructor. */
+    private TraceContext() {
+    }
+    
+    /**
+     * Check if a character is a lowercase hexadecimal digit.
+     * 
+     * @param chr character
+     * @return <code>true</code> if hex digit, <code>false</code> if not
+     */
+    private static boolean isHex(char chr) {
+        return (chr >= '0' && chr <= '9') || (chr >= 'a' && chr <= 'f');
+    }
+    
+    /**
+     * Check if a field of a trace parent value is hexadecimal digits, not all zero.
+     * 
+     * @param text trace parent value
+     * @param start start offset of field
+     * @param end end offset of field
+     * @return <code>true</code> if valid, <code>false</code> if not
+     */
+    private static boolean isHexId(String text, int start, int end) {
+        boolean nonzero = false;
+        for (int i = start; i < end; i++) {
+            char chr = text.charAt(i);
+            if (!isHex(chr)) {
+                return false;
+            }
+            nonzero = nonzero || chr != '0';
+        }
+        return nonzero;
+    }
+    
+    /**
+     * Check if a trace parent value is valid. Values with versions later than 00 are accepted as long as they start
+     * with the version 00 fields.
+     * 
+     * @param traceparent value (may be <code>null</code>)
+     * @return <code>true</code> if valid, <code>false</code> if not
+     */
+    public static boolean isValid(String traceparent) {
+        if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH) {
+            return false;
+        }
+        char v0 = traceparent.charAt(0);
+        char v1 = traceparent.charAt(1);
+        if (!isHex(v0) || !isHex(v1) || (v0 == 'f' && v1 == 'f')) {
+            return false;
+        }
+        if (v0 == '0' && v1 == '0') {
+            if (traceparent.length() != TRACEPARENT_LENGTH) {
+                return false;
+            }
+        } else if (traceparent.length() > TRACEPARENT_LENGTH && traceparent.charAt(TRACEPARENT_LENGTH) != '-') {
+            return false;
+        }
+        return traceparent.charAt(2) == '-' && isHexId(traceparent, 3, 35) && traceparent.charAt(35) == '-'
+            && isHexId(traceparent, 36, 52) && traceparent.charAt(52) == '-' && isHex(traceparent.charAt(53))
+            && isHex(traceparent.charAt(54));
+    }
+    
+    /**
+     * Store the trace context received with a message in the message context. The values are cleared if the received
+     * trace parent is missing or not valid.
+     * 
+     * @param conn connection for message
+     * @param ctx message context
+     */
+    public static void receive(InConnection conn, MessageContext ctx) {
+        String traceparent = conn.getProperty(TRACEPARENT_HEADER);
+        if (isValid(traceparent)) {
+            ctx.setTraceParent(traceparent);
+            ctx.setTraceState(conn.getProperty(TRACESTATE_HEADER));
+        } else {
+            ctx.setTraceParent(null);
+            ctx.setTraceState(null);
+        }
+    }
+    
+    /**
+     * Set the trace context to be sent with a message as transport properties. If the message context does not have a
+     * trace parent set, the values from the current trace context for the thread (if any) are used instead. The
+     * message context itself is not modified, so a client reused for later calls picks up the trace context current
+     * at the time of each call.
+     * 
+     * @param ctx message context
+     * @param props transport properties for message
+     */
+    public static void send(MessageContext ctx, MessageProperties props) {
+        MessageContext source = ctx;
+        if (ctx.getTraceParent() == null) {
+            source = (MessageContext) s_current.get();
+        }
+        if (source != null && source.getTraceParent() != null) {
+            props.setProperty(TRACEPARENT_HEADER, source.getTraceParent());
+            String tracestate = source.getTraceState();
+            if (tracestate != null) {
+                props.setProperty(TRACESTATE_HEADER, tracestate);
+            }
+        }
+    }
+    
+    /**
+     * Set the current trace context for the thread.
+     * 
+     * @param ctx message context holding the trace context (<code>null</code> to clear)
+     */
+    public static void setCurrent(MessageContext ctx) {
+        s_current.set(ctx != null && ctx.getTraceParent() != null ? ctx : null);
+    }
+    
+    /**
+     * Get the current trace context for the thread.
+     * 
+     * @return message context holding the trace context, or <code>null</code> if none
+     */
+    public static MessageContext getCurrent() {
+        return (MessageContext) s_current.get();
+    }
+}
@@ -59,6 +59,12 @@ public abstract class DimeCommon
     public static final int TYPE_UNKNOWN = 0x30;
     public static final int TYPE_NONE = 0x40;
     
+    //
+    // Option element types used for trace context (application-defined, carried in the options field of the first
+    // record of a part, each element as a two-byte type, a two-byte length, and UTF-8 text)
+    public static final int OPTION_TRACEPARENT = 1;
+    public static final int OPTION_TRACESTATE = 2;
+    
     //
     // Message states
     public static final int MESSAGE_START = 0;         // expecting start of message next
@@ -71,6 +71,15 @@ public class DimeInputBuffer implements IInByteBuffer
     /** Type text for current message part. The interpretation depends on the {@link #m_partTypeCode} value. */
     private String m_partTypeText;
     
+    /** Trace parent option for current message part (<code>null</code> if none). */
+    private String m_partTraceParent;
+    
+    /** Trace state option for current message part (<code>null</code> if none). */
+    private String m_partTraceState;
+    
+    /** Debug logging enabled flag. This is checked once per message, to keep the logger calls off the data paths. */
+    private boolean m_debug;
+    
     /**
      * Constructor.
      */
@@ -94,7 +103,8 @@ public class DimeInputBuffer implements IInByteBuffer
         m_messageState = DimeCommon.MESSAGE_END;
         m_emptyOffset = m_endOffset = m_sizeRemaining = 0;
         m_chunked = false;
-        if (s_logger.isDebugEnabled()) {
+        m_debug = s_logger.isDebugEnabled();
+        if (m_debug) {
             s_logger.debug("Set buffer to instance of " + buff.getClass().getName());
         }
     }
@@ -109,6 +119,35 @@ public class DimeInputBuffer implements IInByteBuffer
         return ((m_buffer[offset] & 0xFF) << 8) + (m_buffer[offset + 1] & 0xFF);
     }
     
+    /**
+     * Read the option elements for a part. Only the trace context options are recognized, and any others are ignored.
+     * 
+     * @param buffer data buffer
+     * @param offset start offset of options
+     * @param length number of bytes of options
+     * @throws IOException on error decoding options
+     */
+    private void readOptions(byte[] buffer, int offset, int length) throws IOException {
+        m_partTraceParent = null;
+        m_partTraceState = null;
+        int limit = offset + length;
+        while (offset + 4 <= limit) {
+            int type = ((buffer[offset] & 0xFF) << 8) + (buffer[offset + 1] & 0xFF);
+            int size = ((buffer[offset + 2] & 0xFF) << 8) + (buffer[offset + 3] & 0xFF);
+            offset += 4;
+            if (offset + size > limit) {
+                s_logger.error("DIME option element extends past end of options field");
+                throw new IOException("DIME option element extends past end of options field");
+            }
+            if (type == DimeCommon.OPTION_TRACEPARENT) {
+                m_partTraceParent = new String(buffer, offset, size, "UTF-8");
+            } else if (type == DimeCommon.OPTION_TRACESTATE) {
+                m_partTraceState = new String(buffer, offset, size, "UTF-8");
+            }
+            offset += size;
+        }
+    }
+    
     /**
      * Read record header. If data is being retained, this also copy the retained data up over the header once it has
      * been processed. 
@@ -126,8 +165,7 @@ public class DimeInputBuffer implements IInByteBuffer
             byte[] buffer = m_buffer = m_byteBuffer.getBuffer();
             int start = m_byteBuffer.getOffset();
             int offset = start + retain + m_paddingNeeded;
-            boolean debug = s_logger.isDebugEnabled();
-            if (debug) {
+            if (m_debug) {
                 s_logger.debug("Read header:" + DimeCommon.dumpBytes(buffer, offset, DimeCommon.HEADER_SIZE));
             }
             
@@ -203,7 +241,9 @@ public class DimeInputBuffer implements IInByteBuffer
                 m_byteBuffer.require(length + optpadded + idpadded + typepadded);
                 buffer = m_byteBuffer.getBuffer();
                 start = m_byteBuffer.getOffset();
-                offset = start + retain + m_paddingNeeded + DimeCommon.HEADER_SIZE + optpadded;
+                offset = start + retain + m_paddingNeeded + DimeCommon.HEADER_SIZE;
+                readOptions(buffer, offset, optlength);
+                offset += optpadded;
                 if (idlength > 0) {
                     m_partIdentifier = new String(buffer, offset, idlength, "UTF-8");
                     offset += idpadded;
@@ -244,7 +284,7 @@ public class DimeInputBuffer implements IInByteBuffer
                 m_sizeRemaining = limit - m_endOffset;
             }
             m_paddingNeeded = ((length + 3) & -4) - length;
-            if (debug) {
+            if (m_debug) {
                 s_logger.debug("Processed header with data size " + length + " and message state " + m_messageState
                     + ", empty at " + m_emptyOffset + " and limit " + m_endOffset + ", with " + m_sizeRemaining
                     + " remaining in block (needs " + m_paddingNeeded + " bytes padding)");
@@ -285,7 +325,9 @@ public class DimeInputBuffer implements IInByteBuffer
     public boolean nextPart() throws IOException {
         
         // first discard all chunks in current part
-        s_logger.debug("Advancing to next part");
+        if (m_debug) {
+            s_logger.debug("Advancing to next part");
+        }
         do {
             
             // skip past any data not yet read from this chunk
@@ -316,7 +358,7 @@ public class DimeInputBuffer implements IInByteBuffer
                 throw new IOException("End of input before end of message");
             }
             
-        } else if (s_logger.isDebugEnabled()) {
+        } else if (m_debug) {
             s_logger.debug("End of message reached");
         }
         return false;
@@ -331,6 +373,24 @@ public class DimeInputBuffer implements IInByteBuffer
         return m_partIdentifier;
     }
     
+    /**
+     * Get the trace parent option for the current message part.
+     * 
+     * @return trace parent (<code>null</code> if none)
+     */
+    public String getPartTraceParent() {
+        return m_partTraceParent;
+    }
+    
+    /**
+     * Get the trace state option for the current message part.
+     * 
+     * @return trace state (<code>null</code> if none)
+     */
+    public String getPartTraceState() {
+        return m_partTraceState;
+    }
+    
     /**
      * Get the type code for the type text of the current message part. This type code (with values defined in {@link
      * DimeCommon}) tells how the type text returned by {@link #getPartTypeText()} should be interpreted.
@@ -357,19 +417,22 @@ public class DimeInputBuffer implements IInByteBuffer
      * @throws IOException on error reading stream
      */
     public boolean nextMessage() throws IOException {
-        s_logger.debug("Checking for next message");
+        m_debug = s_logger.isDebugEnabled();
+        if (m_debug) {
+            s_logger.debug("Checking for next message");
+        }
         while (nextPart()) {
             m_byteBuffer.setOffset(m_endOffset);
         }
         m_messageState = DimeCommon.MESSAGE_START;
         int size = DimeCommon.HEADER_SIZE + m_paddingNeeded;
-        if (s_logger.isDebugEnabled()) {
+        if (m_debug) {
             s_logger.debug("Attempting to read required " + size + " bytes of data");
         }
         boolean ret = m_byteBuffer.require(size);
         m_buffer = null;
         m_emptyOffset = m_endOffset = m_byteBuffer.getOffset();
-        if (s_logger.isDebugEnabled()) {
+        if (m_debug) {
             s_logger.debug("Returning " + ret);
         }
         return ret;
@@ -433,7 +496,7 @@ public class DimeInputBuffer implements IInByteBuffer
         }
         int avail = m_endOffset - m_emptyOffset;
         if (size > avail) {
-            if (s_logger.isDebugEnabled()) {
+            if (m_debug) {
                 s_logger.debug("Require " + size + " with " + avail + " available and " + m_sizeRemaining
                     + " remaining in block");
             }
@@ -473,7 +536,7 @@ public class DimeInputBuffer implements IInByteBuffer
                     } else {
                         m_sizeRemaining = limit - avail;
                     }
-                    if (s_logger.isDebugEnabled()) {
+                    if (m_debug) {
                         s_logger.debug("Requested more data with result " + result + ", empty at " + m_emptyOffset
                             + " and limit " + m_endOffset + ", with " + m_sizeRemaining + " remaining in block");
                     }
@@ -484,7 +547,9 @@ public class DimeInputBuffer implements IInByteBuffer
                 }
                 
             } while (size > avail);
-            s_logger.debug("Got required bytes");
+            if (m_debug) {
+                s_logger.debug("Got required bytes");
+            }
             return true;
             
         } else {
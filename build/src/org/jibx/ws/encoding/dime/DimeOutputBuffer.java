@@ -67,6 +67,9 @@ public class DimeOutputBuffer implements IOutByteBuffer
      for writing a separate header for the end of the message. */
     private boolean m_ended;
     
+    /** Debug logging enabled flag. This is checked once per message, to keep the logger calls off the data paths. */
+    private boolean m_debug;
+    
     /**
      * Constructor.
      */
@@ -88,7 +91,8 @@ public class DimeOutputBuffer implements IOutByteBuffer
         m_byteBuffer = buff;
         m_buffer = buff.getBuffer();
         m_offset = m_base = buff.getOffset();
-        if (s_logger.isDebugEnabled()) {
+        m_debug = s_logger.isDebugEnabled();
+        if (m_debug) {
             s_logger.debug("Set buffer to instance of " + buff.getClass().getName() + " with base " + m_offset);
         }
     }
@@ -102,7 +106,10 @@ public class DimeOutputBuffer implements IOutByteBuffer
         if (m_messageState == DimeCommon.MESSAGE_END) {
             m_messageState = DimeCommon.MESSAGE_START;
             m_ended = false;
-            s_logger.debug("Advanced to next message");
+            m_debug = s_logger.isDebugEnabled();
+            if (m_debug) {
+                s_logger.debug("Advanced to next message");
+            }
         } else {
             throw new IllegalStateException("Internal error - cannot start message until previous message finished");
         }
@@ -117,13 +124,29 @@ public class DimeOutputBuffer implements IOutByteBuffer
      * @param type type text (<code>null</code> if none)
      */
     public void nextPart(String id, int typecode, String type) {
+        nextPart(id, typecode, type, null, null);
+    }
+    
+    /**
+     * Initialize output for next message part, with trace context options. This must be called after the last part is
+     * completed, but before starting any output of data for the next part.
+     * 
+     * @param id part identifier (<code>null</code> if none)
+     * @param typecode code for type of type information (values from {@link DimeCommon})
+     * @param type type text (<code>null</code> if none)
+     * @param traceparent trace parent option (<code>null</code> if none)
+     * @param tracestate trace state option (<code>null</code> if none, ignored if no trace parent)
+     */
+    public void nextPart(String id, int typecode, String type, String traceparent, String tracestate) {
         if (m_messageState == DimeCommon.MESSAGE_END) {
             throw new IllegalStateException("Internal error - cannot start part after message finished");
         } else if (m_messageState == DimeCommon.MESSAGE_CHUNK) {
             throw new IllegalStateException("Internal error - cannot start part until last record finished");
         } else {
-            m_offset = initFirstHeader(id, typecode, type);
-            s_logger.debug("Advanced to next record");
+            m_offset = initFirstHeader(id, typecode, type, traceparent, tracestate);
+            if (m_debug) {
+                s_logger.debug("Advanced to next record");
+            }
         }
     }
     
@@ -158,6 +181,21 @@ public class DimeOutputBuffer implements IOutByteBuffer
         return offset;
     }
     
+    /**
+     * Fill an option element with string value (as UTF-8 bytes) at a specified offset.
+     * 
+     * @param offset
+     * @param opttype option type
+     * @param text
+     * @return offset past end of option element
+     */
+    private int fillOption(int offset, int opttype, String text) {
+        fillShort(offset, opttype);
+        int fill = fillString(offset + 4, text);
+        fillShort(offset + 2, fill - offset - 4);
+        return fill;
+    }
+    
     /**
      * Fill zero padding bytes to a multiple of four bytes.
      * 
@@ -178,9 +216,11 @@ public class DimeOutputBuffer implements IOutByteBuffer
      * @param id part identifier (<code>null</code> if none)
      * @param typecode code for type of type information (values from {@link DimeCommon})
      * @param type type text (<code>null</code> if none)
+     * @param traceparent trace parent option (<code>null</code> if none)
+     * @param tracestate trace state option (<code>null</code> if none)
      * @return data start offset, following the header
      */
-    private int initFirstHeader(String id, int typecode, String type) {
+    private int initFirstHeader(String id, int typecode, String type, String traceparent, String tracestate) {
         int offset = m_base + DimeCommon.HEADER_SIZE;
         switch (m_messageState) {
             case DimeCommon.MESSAGE_START:
@@ -188,7 +228,16 @@ public class DimeOutputBuffer implements IOutByteBuffer
                 
                 // build the header with variable-length fields
                 m_buffer[m_base + 1] = (byte)typecode;
-                int fill = fillString(offset, id);
+                int fill = offset;
+                if (traceparent != null) {
+                    fill = fillOption(fill, DimeCommon.OPTION_TRACEPARENT, traceparent);
+                    if (tracestate != null) {
+                        fill = fillOption(fill, DimeCommon.OPTION_TRACESTATE, tracestate);
+                    }
+                }
+                fillShort(m_base + 2, fill - offset);
+                offset = fillPadding(fill);
+                fill = fillString(offset, id);
                 fillShort(m_base + 4, fill - offset);
                 offset = fillPadding(fill);
                 fill = fillString(offset, type);
@@ -201,7 +250,7 @@ public class DimeOutputBuffer implements IOutByteBuffer
                 
         }
         m_headerSize = offset;
-        if (s_logger.isDebugEnabled()) {
+        if (m_debug) {
             s_logger.debug("Initialized new record header ending at offset " + offset + " with id " + id
                 + ", typecode " + typecode + ", type " + type);
         }
@@ -221,7 +270,7 @@ public class DimeOutputBuffer implements IOutByteBuffer
         }
         m_headerSize = m_base + DimeCommon.HEADER_SIZE;
         int offset = m_base + m_headerSize;
-        if (s_logger.isDebugEnabled()) {
+        if (m_debug) {
             s_logger.debug("Initialized chunk record header ending at offset " + offset);
         }
         return offset;
@@ -256,7 +305,7 @@ public class DimeOutputBuffer implements IOutByteBuffer
         // fill in the record size
         fillShort(m_base + 8, length >> 16);
         fillShort(m_base + 10, length);
-        if (s_logger.isDebugEnabled()) {
+        if (m_debug) {
             s_logger.debug("Finished header:" + DimeCommon.dumpBytes(m_buffer, 0, m_headerSize));
         }
         m_headerSize = 0;
@@ -278,7 +327,7 @@ public class DimeOutputBuffer implements IOutByteBuffer
         int total = fillPadding(length);
         m_offset = m_base + total;
         m_byteBuffer.setOffset(m_offset);
-        if (s_logger.isDebugEnabled()) {
+        if (m_debug) {
             s_logger.debug("Created chunk of length " + total);
         }
         
@@ -301,7 +350,9 @@ public class DimeOutputBuffer implements IOutByteBuffer
      * @throws IOException on I/O error
      */
     public void endMessage() throws IOException {
-        s_logger.debug("Ending message");
+        if (m_debug) {
+            s_logger.debug("Ending message");
+        }
         m_ended = true;
     }
     
@@ -350,7 +401,7 @@ public class DimeOutputBuffer implements IOutByteBuffer
             if (reserve >= m_offset) {
                 
                 // no reserve, just write the existing data as a record and verify space available
-                if (s_logger.isDebugEnabled()) {
+                if (m_debug) {
                     s_logger.debug("Creating chunk of size " + size);
                 }
                 createChunk(false, false);
@@ -362,7 +413,7 @@ public class DimeOutputBuffer implements IOutByteBuffer
             } else if (reserve > DimeCommon.DEFAULT_BUFFER_SIZE / 4) {
                 
                 // data to be preserved, but enough going to be worth writing as separate block
-                if (s_logger.isDebugEnabled()) {
+                if (m_debug) {
                     s_logger.debug("Copying to free " + size + " with offset " + m_offset + " and reserve " + reserve);
                 }
                 int keep = m_offset - reserve;
@@ -380,7 +431,7 @@ public class DimeOutputBuffer implements IOutByteBuffer
             } else {
                 
                 // data to be preserved, but not enough to write - just force resize
-                if (s_logger.isDebugEnabled()) {
+                if (m_debug) {
                     s_logger.debug("Resizing to free " + size + " with offset " + m_offset + " and reserve " + reserve);
                 }
                 m_byteBuffer.setOffset(m_offset);
@@ -397,7 +448,9 @@ public class DimeOutputBuffer implements IOutByteBuffer
      * @throws IOException on I/O error
      */
     public void flush() throws IOException {
-        s_logger.debug("Flushing output");
+        if (m_debug) {
+            s_logger.debug("Flushing output");
+        }
         if (m_messageState != DimeCommon.MESSAGE_END) {
             if (m_headerSize == 0) {
                 nextPart(null, DimeCommon.TYPE_NONE, null);
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.encoding.xop;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary parts of an XOP package. For output, parts are added as the binary values are marshalled and written after
+ * the XML document; for input, all parts are read from the package before the XML document is unmarshalled, so they can
+ * be looked up by content ID when an <code>xop:Include</code> reference is found.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class XopAttachments
+{
+    /** Domain used in generated content IDs. */
+    private static final String ID_DOMAIN = "@jibx.org";
+    
+    /** Content IDs for parts, in order added. */
+    private final ArrayList m_ids;
+    
+    /** Media types for parts, in order added. */
+    private final ArrayList m_types;
+    
+    /** Data for parts, in order added. */
+    private final ArrayList m_data;
+    
+    /** Map from content ID to data. */
+    private final Map m_idMap;
+    
+    /** Prefix for generated content IDs. */
+    private final String m_idPrefix;
+    
+    /**
+     * Constructor.
+     */
+    public XopAttachments() {
+        m_ids = new ArrayList();
+        m_types = new ArrayList();
+        m_data = new ArrayList();
+        m_idMap = new HashMap();
+        m_idPrefix = Integer.toHexString(System.identityHashCode(this)) + '.';
+    }
+    
+    /**
+     * Add a part to be sent, generating a content ID for the part.
+     * 
+     * @param data binary data
+     * @param type media type (<code>null</code> for the default <code>application/octet-stream</code>)
+     * @return content ID (without angle brackets or URL scheme)
+     */
+    public String addAttachment(byte[] data, String type) {
+        String id = m_idPrefix + (m_ids.size() + 1) + ID_DOMAIN;
+        addPart(id, type, data);
+        return id;
+    }
+    
+    /**
+     * Add a part with a known content ID.
+     * 
+     * @param id content ID (without angle brackets)
+     * @param type media type (<code>null</code> for the default <code>application/octet-stream</code>)
+     * @param data binary data
+     */
+    void addPart(String id, String type, byte[] data) {
+        m_ids.add(id);
+        m_types.add(type == null ? XopCommon.DEFAULT_PART_TYPE : type);
+        m_data.add(data);
+        m_idMap.put(id, data);
+    }
+    
+    /**
+     * Get the data for a part. The reference may either be a bare content ID or a <code>cid:</code> URL, in which case
+     * any escaped characters are decoded before the lookup.
+     * 
+     * @param ref part reference
+     * @return data, or <code>null</code> if no part matches
+     */
+    public byte[] getAttachment(String ref) {
+        String id = ref;
+        if (ref.regionMatches(true, 0, XopCommon.CID_SCHEME, 0, XopCommon.CID_SCHEME.length())) {
+            id = decode(ref.substring(XopCommon.CID_SCHEME.length()));
+        }
+        return (byte[]) m_idMap.get(id);
+    }
+    
+    /**
+     * Get the number of parts.
+     * 
+     * @return count
+     */
+    public int size() {
+        return m_ids.size();
+    }
+    
+    /**
+     * Get the content ID of a part.
+     * 
+     * @param index part index
+     * @return content ID (without angle brackets)
+     */
+    public String getContentId(int index) {
+        return (String) m_ids.get(index);
+    }
+    
+    /**
+     * Get the media type of a part.
+     * 
+     * @param index part index
+     * @return media type
+     */
+    public String getContentType(int index) {
+        return (String) m_types.get(index);
+    }
+    
+    /**
+     * Get the data of a part.
+     * 
+     * @param index part index
+     * @return data
+     */
+    public byte[] getData(int index) {
+        return (byte[]) m_data.get(index);
+    }
+    
+    /**
+     * Remove all parts.
+     */
+    public void clear() {
+        m_ids.clear();
+        m_types.clear();
+        m_data.clear();
+        m_idMap.clear();
+    }
+    
+    /**
+     * Decode URL escapes in a content ID. Content IDs are plain ASCII, so each escape is decoded as a single character.
+     * 
+     * @param text escaped text
+     * @return decoded text
+     */
+    private static String decode(String text) {
+        int split = text.indexOf('%');
+        if (split < 0) {
+            return text;
+        }
+        StringBuffer buff = new StringBuffer(text.length());
+        buff.append(text.substring(0, split));
+        for (int i = split; i < text.length(); i++) {
+            char chr = text.charAt(i);
+            if (chr == '%' && i + 2 < text.length()) {
+                int high = Character.digit(text.charAt(i + 1), 16);
+                int low = Character.digit(text.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    buff.append((char) (high * 16 + low));
+                    i += 2;
+                    continue;
+                }
+            }
+            buff.append(chr);
+        }
+        return buff.toString();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.encoding.xop;
+
+import java.io.IOException;
+
+import org.jibx.runtime.IAliasable;
+import org.jibx.runtime.IMarshaller;
+import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.IUnmarshaller;
+import org.jibx.runtime.IUnmarshallingContext;
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.Utility;
+import org.jibx.runtime.impl.MarshallingContext;
+import org.jibx.runtime.impl.UnmarshallingContext;
+
+/**
+ * Custom marshaller/unmarshaller for <code>byte[]</code> values which can be sent as XOP binary parts. This is used in
+ * a binding definition in place of the normal base64 handling for a binary value, as in:
+ * <pre>
+ *   &lt;structure name="image" field="m_image"
+ *       marshaller="org.jibx.ws.encoding.xop.XopBinaryMarshaller"
+ *       unmarshaller="org.jibx.ws.encoding.xop.XopBinaryMarshaller"/></pre>
+ * When the message is being sent as an XOP package the value is added to the package as a separate part and referenced
+ * by an <code>xop:Include</code> element; otherwise it is written inline as base64 text, the same as with the default
+ * handling. On input either form is accepted.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class XopBinaryMarshaller implements IMarshaller, IUnmarshaller, IAliasable
+{
+    /** Element namespace URI. */
+    private final String m_uri;
+    
+    /** Element namespace index. */
+    private final int m_index;
+    
+    /** Element name. */
+    private final String m_name;
+    
+    /**
+     * Aliased constructor, called by the JiBX binding code.
+     * 
+     * @param uri element namespace URI
+     * @param index element namespace index
+     * @param name element name
+     */
+    public XopBinaryMarshaller(String uri, int index, String name) {
+        m_uri = uri;
+        m_index = index;
+        m_name = name;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isExtension(String mapname) {
+        return false;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public void marshal(Object obj, IMarshallingContext ictx) throws JiBXException {
+        if (!(obj instanceof byte[])) {
+            throw new JiBXException("Invalid object type for marshaller");
+        } else if (!(ictx instanceof MarshallingContext)) {
+            throw new JiBXException("Invalid context type for marshaller");
+        }
+        MarshallingContext ctx = (MarshallingContext) ictx;
+        byte[] data = (byte[]) obj;
+        Object user = ctx.getUserContext();
+        if (user instanceof XopAttachments) {
+            
+            // add data as a separate part, referenced by an include element
+            String id = ((XopAttachments) user).addAttachment(data, null);
+            ctx.startTag(m_index, m_name);
+            IXMLWriter writer = ctx.getXmlWriter();
+            try {
+                int index = writer.getNamespaceCount();
+                writer.pushExtensionNamespaces(new String[] { XopCommon.XOP_NAMESPACE });
+                writer.pushTranslationTable(identityTable(index + 1));
+                writer.startTagNamespaces(index, XopCommon.INCLUDE_ELEMENT, new int[] { index },
+                    new String[] { XopCommon.XOP_PREFIX });
+                writer.addAttribute(0, XopCommon.HREF_ATTRIBUTE, XopCommon.CID_SCHEME + id);
+                writer.closeEmptyTag();
+                writer.popTranslationTable();
+                writer.popExtensionNamespaces();
+            } catch (IOException e) {
+                throw new JiBXException("Error writing to document", e);
+            }
+            ctx.endTag(m_index, m_name);
+            
+        } else {
+            ctx.element(m_index, m_name, Utility.serializeBase64(data));
+        }
+    }
+    
+    /**
+     * Create an identity translation table, used to write the include element with the actual writer namespace index
+     * while the binding's own translation table is active.
+     * 
+     * @param length table length
+     * @return table
+     */
+    private static int[] identityTable(int length) {
+        int[] table = new int[length];
+        for (int i = 0; i < length; i++) {
+            table[i] = i;
+        }
+        return table;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isPresent(IUnmarshallingContext ctx) throws JiBXException {
+        return ctx.isAt(m_uri, m_name);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public Object unmarshal(Object obj, IUnmarshallingContext ictx) throws JiBXException {
+        if (!(ictx instanceof UnmarshallingContext)) {
+            throw new JiBXException("Invalid context type for unmarshaller");
+        }
+        UnmarshallingContext ctx = (UnmarshallingContext) ictx;
+        ctx.parsePastStartTag(m_uri, m_name);
+        String text = ctx.accumulateText();
+        byte[] data;
+        if (ctx.isAt(XopCommon.XOP_NAMESPACE, XopCommon.INCLUDE_ELEMENT)) {
+            
+            // look up the referenced part
+            String href = ctx.attributeText(null, XopCommon.HREF_ATTRIBUTE);
+            Object user = ctx.getUserContext();
+            data = null;
+            if (user instanceof XopAttachments) {
+                data = ((XopAttachments) user).getAttachment(href);
+            }
+            if (data == null) {
+                ctx.throwStartTagException("No part found for XOP reference '" + href + '\'');
+            }
+            ctx.parsePastElement(XopCommon.XOP_NAMESPACE, XopCommon.INCLUDE_ELEMENT);
+            
+        } else {
+            data = Utility.deserializeBase64(text);
+        }
+        ctx.parsePastEndTag(m_uri, m_name);
+        return data;
+    }
+}
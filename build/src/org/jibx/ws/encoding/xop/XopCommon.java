@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.encoding.xop;
+
+import java.text.ParseException;
+import java.util.Iterator;
+
+import org.jibx.ws.codec.MediaType;
+
+/**
+ * Constants and helper methods shared by the XOP packaging classes. An XOP package is sent as a MIME multipart/related
+ * message, with the XML document as the root part and each binary value as a separate part referenced from the
+ * document by an <code>xop:Include</code> element.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public abstract class XopCommon
+{
+    private XopCommon() {
+    }
+    
+    /** Namespace used for the XOP include element. */
+    public static final String XOP_NAMESPACE = "http://www.w3.org/2004/08/xop/include";
+    
+    /** Prefix used for the XOP namespace in output. */
+    public static final String XOP_PREFIX = "xop";
+    
+    /** Name of the XOP include element. */
+    public static final String INCLUDE_ELEMENT = "Include";
+    
+    /** Name of the attribute giving the reference to the binary part. */
+    public static final String HREF_ATTRIBUTE = "href";
+    
+    /** URL scheme used for references to parts by content ID. */
+    public static final String CID_SCHEME = "cid:";
+    
+    /** Media type of the XML root part of an XOP package. */
+    public static final String XOP_MEDIA_TYPE = "application/xop+xml";
+    
+    /** Media type used for binary parts when no other type is given. */
+    public static final String DEFAULT_PART_TYPE = "application/octet-stream";
+    
+    /** Multipart primary media type. */
+    public static final String MULTIPART_TYPE = "multipart";
+    
+    /** Related multipart media subtype. */
+    public static final String RELATED_SUBTYPE = "related";
+    
+    //
+    // Parameters of the multipart/related media type
+    public static final String BOUNDARY_PARAM = "boundary";
+    public static final String TYPE_PARAM = "type";
+    public static final String START_PARAM = "start";
+    public static final String START_INFO_PARAM = "start-info";
+    public static final String CHARSET_PARAM = "charset";
+    
+    //
+    // MIME part headers
+    public static final String CONTENT_TYPE_HEADER = "Content-Type";
+    public static final String CONTENT_ID_HEADER = "Content-ID";
+    public static final String CONTENT_TRANSFER_ENCODING_HEADER = "Content-Transfer-Encoding";
+    
+    /**
+     * Check if a media type is for an XOP package.
+     * 
+     * @param type media type (<code>null</code> if unknown)
+     * @return <code>true</code> if multipart/related with XOP root part, <code>false</code> if not
+     */
+    public static boolean isXopPackage(MediaType type) {
+        return type != null && MULTIPART_TYPE.equals(type.getPrimaryType())
+            && RELATED_SUBTYPE.equals(type.getSubType())
+            && XOP_MEDIA_TYPE.equalsIgnoreCase(getParameter(type, TYPE_PARAM));
+    }
+    
+    /**
+     * Get the value of a media type parameter, with any quotes removed.
+     * 
+     * @param type media type
+     * @param name parameter name (matched ignoring case)
+     * @return value, or <code>null</code> if not present
+     */
+    public static String getParameter(MediaType type, String name) {
+        for (Iterator iter = type.getParameterList().iterator(); iter.hasNext();) {
+            MediaType.Parameter param = (MediaType.Parameter) iter.next();
+            if (name.equalsIgnoreCase(param.getName())) {
+                return unquote(param.getValue());
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get the media type of the XML carried by an XOP package. This is given by the <code>start-info</code> parameter
+     * of the package media type.
+     * 
+     * @param type package media type
+     * @return XML media type
+     * @throws ParseException if the parameter is missing or cannot be parsed
+     */
+    public static MediaType getRootMediaType(MediaType type) throws ParseException {
+        String info = getParameter(type, START_INFO_PARAM);
+        if (info == null) {
+            throw new ParseException("Missing '" + START_INFO_PARAM + "' parameter for XOP package", -1);
+        }
+        return new MediaType(info);
+    }
+    
+    /**
+     * Remove quotes from a value, if present.
+     * 
+     * @param value text (may be <code>null</code>)
+     * @return unquoted text
+     */
+    static String unquote(String value) {
+        if (value != null) {
+            value = value.trim();
+            if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                value = value.substring(1, value.length() - 1);
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Remove the angle brackets from a MIME content ID, if present.
+     * 
+     * @param id content ID (may be <code>null</code>)
+     * @return bare content ID
+     */
+    static String stripBrackets(String id) {
+        if (id != null) {
+            id = id.trim();
+            if (id.length() >= 2 && id.charAt(0) == '<' && id.charAt(id.length() - 1) == '>') {
+                id = id.substring(1, id.length() - 1);
+            }
+        }
+        return id;
+    }
+}
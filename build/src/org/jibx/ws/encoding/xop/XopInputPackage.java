@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.encoding.xop;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.Utility;
+import org.jibx.ws.codec.MediaType;
+
+/**
+ * Received XOP package. The complete package is read when this is constructed, since the binary parts referenced from
+ * the XML document normally follow the document in the package. The XML root part is then available as a stream, while
+ * the binary parts are available by content ID from the attachments.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class XopInputPackage
+{
+    /** Initial size for buffer used to read package. */
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    
+    /** Line terminator bytes. */
+    private static final byte[] CRLF = { '\r', '\n' };
+    
+    /** Complete package data. */
+    private byte[] m_data;
+    
+    /** Number of bytes of data in package. */
+    private int m_length;
+    
+    /** Offset of XML root part data. */
+    private int m_rootOffset;
+    
+    /** Length of XML root part data. */
+    private int m_rootLength;
+    
+    /** Content type of XML root part. */
+    private String m_rootContentType;
+    
+    /** Binary parts of package. */
+    private final XopAttachments m_attachments;
+    
+    /**
+     * Constructor. This reads and splits the entire package.
+     * 
+     * @param in stream supplying package data (read to end, but not closed)
+     * @param type package media type
+     * @throws IOException on error reading or parsing the package
+     */
+    public XopInputPackage(InputStream in, MediaType type) throws IOException {
+        String boundary = XopCommon.getParameter(type, XopCommon.BOUNDARY_PARAM);
+        if (boundary == null) {
+            throw new IOException("Missing '" + XopCommon.BOUNDARY_PARAM + "' parameter for XOP package");
+        }
+        m_attachments = new XopAttachments();
+        m_rootOffset = -1;
+        readAll(in);
+        split(("--" + boundary).getBytes("ISO-8859-1"),
+            XopCommon.stripBrackets(XopCommon.getParameter(type, XopCommon.START_PARAM)));
+    }
+    
+    /**
+     * Read all data from stream.
+     * 
+     * @param in stream
+     * @throws IOException on read error
+     */
+    private void readAll(InputStream in) throws IOException {
+        m_data = new byte[INITIAL_BUFFER_SIZE];
+        int count;
+        while ((count = in.read(m_data, m_length, m_data.length - m_length)) >= 0) {
+            m_length += count;
+            if (m_length == m_data.length) {
+                byte[] copy = new byte[m_length * 2];
+                System.arraycopy(m_data, 0, copy, 0, m_length);
+                m_data = copy;
+            }
+        }
+    }
+    
+    /**
+     * Split the package data into parts.
+     * 
+     * @param delim part delimiter (boundary with leading hyphens)
+     * @param start content ID of root part (<code>null</code> if first part is the root)
+     * @throws IOException on error in package structure
+     */
+    private void split(byte[] delim, String start) throws IOException {
+        
+        // find first delimiter, which may be preceded by a preamble
+        int offset = 0;
+        if (!matches(delim, 0)) {
+            offset = find(delim, 0);
+            if (offset < 0) {
+                throw new IOException("No parts found in XOP package");
+            }
+        }
+        offset += delim.length;
+        while (true) {
+            
+            // check for close delimiter, otherwise skip past rest of delimiter line
+            if (offset + 1 < m_length && m_data[offset] == '-' && m_data[offset + 1] == '-') {
+                break;
+            }
+            offset = find(CRLF, offset);
+            if (offset < 0) {
+                throw new IOException("Unterminated XOP package");
+            }
+            offset += CRLF.length;
+            
+            // read the part headers
+            String ctype = null;
+            String id = null;
+            String encoding = null;
+            while (true) {
+                int end = find(CRLF, offset);
+                if (end < 0) {
+                    throw new IOException("Unterminated part headers in XOP package");
+                }
+                String line = new String(m_data, offset, end - offset, "ISO-8859-1");
+                offset = end + CRLF.length;
+                if (line.length() == 0) {
+                    break;
+                }
+                int split = line.indexOf(':');
+                if (split > 0) {
+                    String name = line.substring(0, split).trim();
+                    String value = line.substring(split + 1).trim();
+                    if (XopCommon.CONTENT_TYPE_HEADER.equalsIgnoreCase(name)) {
+                        ctype = value;
+                    } else if (XopCommon.CONTENT_ID_HEADER.equalsIgnoreCase(name)) {
+                        id = XopCommon.stripBrackets(value);
+                    } else if (XopCommon.CONTENT_TRANSFER_ENCODING_HEADER.equalsIgnoreCase(name)) {
+                        encoding = value;
+                    }
+                }
+            }
+            
+            // find the end of the part data, which is followed by the next delimiter line
+            int end = find(delim, offset);
+            if (end < 0 || end < offset + CRLF.length || !matches(CRLF, end - CRLF.length)) {
+                throw new IOException("Missing delimiter after part in XOP package");
+            }
+            int length = end - CRLF.length - offset;
+            if (m_rootOffset < 0 && (start == null || start.equals(id))) {
+                m_rootOffset = offset;
+                m_rootLength = length;
+                m_rootContentType = ctype;
+            } else {
+                m_attachments.addPart(id, ctype, decode(offset, length, encoding));
+            }
+            offset = end + delim.length;
+        }
+        if (m_rootOffset < 0) {
+            throw new IOException("Root part '" + start + "' not found in XOP package");
+        }
+    }
+    
+    /**
+     * Get the data for a binary part, decoding if necessary.
+     * 
+     * @param offset data offset
+     * @param length data length
+     * @param encoding transfer encoding (<code>null</code> if none given)
+     * @return part data
+     * @throws IOException on unsupported encoding or decoding error
+     */
+    private byte[] decode(int offset, int length, String encoding) throws IOException {
+        if (encoding == null || "binary".equalsIgnoreCase(encoding) || "8bit".equalsIgnoreCase(encoding)
+            || "7bit".equalsIgnoreCase(encoding)) {
+            byte[] data = new byte[length];
+            System.arraycopy(m_data, offset, data, 0, length);
+            return data;
+        } else if ("base64".equalsIgnoreCase(encoding)) {
+            try {
+                return Utility.deserializeBase64(new String(m_data, offset, length, "ISO-8859-1"));
+            } catch (JiBXException e) {
+                throw new IOException("Invalid base64 part data in XOP package: " + e.getMessage());
+            }
+        } else {
+            throw new IOException("Unsupported transfer encoding '" + encoding + "' in XOP package");
+        }
+    }
+    
+    /**
+     * Check if a byte sequence is present in the data at a particular offset.
+     * 
+     * @param match byte sequence
+     * @param offset data offset
+     * @return <code>true</code> if matched, <code>false</code> if not
+     */
+    private boolean matches(byte[] match, int offset) {
+        if (offset + match.length > m_length) {
+            return false;
+        }
+        for (int i = 0; i < match.length; i++) {
+            if (m_data[offset + i] != match[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Find the next occurrence of a byte sequence in the data.
+     * 
+     * @param match byte sequence
+     * @param offset starting offset for search
+     * @return offset of sequence, or <code>-1</code> if not found
+     */
+    private int find(byte[] match, int offset) {
+        byte first = match[0];
+        int limit = m_length - match.length;
+        for (int i = offset; i <= limit; i++) {
+            if (m_data[i] == first && matches(match, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Get the XML root part data as a stream.
+     * 
+     * @return stream
+     */
+    public InputStream getRootStream() {
+        return new ByteArrayInputStream(m_data, m_rootOffset, m_rootLength);
+    }
+    
+    /**
+     * Get the character encoding of the XML root part.
+     * 
+     * @return character encoding, or <code>null</code> if not specified
+     */
+    public String getRootCharset() {
+        if (m_rootContentType != null) {
+            try {
+                return XopCommon.getParameter(new MediaType(m_rootContentType), XopCommon.CHARSET_PARAM);
+            } catch (ParseException e) {
+                // fall through to return null
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get the binary parts of the package.
+     * 
+     * @return attachments
+     */
+    public XopAttachments getAttachments() {
+        return m_attachments;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.encoding.xop;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jibx.ws.codec.MediaType;
+
+/**
+ * XOP package being sent. The transport writes the start of the XML root part with {@link #writeRootStart(OutputStream,
+ * String)} before the XML document, and the binary parts accumulated while the document was written with {@link
+ * #writeParts(OutputStream)} after the document is complete. The binary parts are written directly as raw data, with
+ * no transfer encoding.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class XopOutputPackage
+{
+    /** Default character encoding for the XML root part. */
+    private static final String DEFAULT_CHARSET = "UTF-8";
+    
+    /** Content ID for the XML root part. */
+    private static final String ROOT_ID = "root.message@jibx.org";
+    
+    /** Counter used to make boundaries unique. */
+    private static int s_boundaryCount;
+    
+    /** Media type of XML root part content. */
+    private final MediaType m_rootType;
+    
+    /** MIME boundary for parts. */
+    private final String m_boundary;
+    
+    /** Binary parts of package. */
+    private final XopAttachments m_attachments;
+    
+    /**
+     * Constructor.
+     * 
+     * @param rootType media type of XML carried by the package
+     */
+    public XopOutputPackage(MediaType rootType) {
+        m_rootType = rootType;
+        int count;
+        synchronized (XopOutputPackage.class) {
+            count = ++s_boundaryCount;
+        }
+        m_boundary = "MIMEBoundary_" + Long.toHexString(System.currentTimeMillis()) + '_'
+            + Integer.toHexString(System.identityHashCode(this)) + '_' + count;
+        m_attachments = new XopAttachments();
+    }
+    
+    /**
+     * Get the media type of the package, including all required parameters.
+     * 
+     * @param extraParams additional parameters to be included (<code>null</code> entries ignored)
+     * @return media type text
+     */
+    public String getContentType(MediaType.Parameter[] extraParams) {
+        MediaType type = new MediaType(XopCommon.MULTIPART_TYPE, XopCommon.RELATED_SUBTYPE);
+        type.addParameter(new MediaType.Parameter(XopCommon.TYPE_PARAM, '"' + XopCommon.XOP_MEDIA_TYPE + '"'));
+        type.addParameter(new MediaType.Parameter(XopCommon.BOUNDARY_PARAM, '"' + m_boundary + '"'));
+        type.addParameter(new MediaType.Parameter(XopCommon.START_PARAM, "\"<" + ROOT_ID + ">\""));
+        type.addParameter(new MediaType.Parameter(XopCommon.START_INFO_PARAM,
+            '"' + m_rootType.getBaseType() + '"'));
+        return type.toStringWithParams(extraParams);
+    }
+    
+    /**
+     * Write the delimiter and headers for the XML root part. The XML document must be written immediately following
+     * this.
+     * 
+     * @param out output stream
+     * @param charset character encoding used for the XML document (<code>null</code> if the default)
+     * @throws IOException on write error
+     */
+    public void writeRootStart(OutputStream out, String charset) throws IOException {
+        StringBuffer buff = new StringBuffer(256);
+        buff.append("--").append(m_boundary).append("\r\n");
+        buff.append(XopCommon.CONTENT_TYPE_HEADER).append(": ").append(XopCommon.XOP_MEDIA_TYPE).append("; ")
+            .append(XopCommon.CHARSET_PARAM).append('=').append(charset == null ? DEFAULT_CHARSET : charset)
+            .append("; ").append(XopCommon.TYPE_PARAM).append("=\"").append(m_rootType.getBaseType())
+            .append("\"\r\n");
+        appendPartHeaders(ROOT_ID, buff);
+        out.write(buff.toString().getBytes("ISO-8859-1"));
+    }
+    
+    /**
+     * Write the binary parts of the package, followed by the closing delimiter. The XML document must be complete
+     * before this is called.
+     * 
+     * @param out output stream
+     * @throws IOException on write error
+     */
+    public void writeParts(OutputStream out) throws IOException {
+        StringBuffer buff = new StringBuffer(256);
+        for (int i = 0; i < m_attachments.size(); i++) {
+            buff.setLength(0);
+            buff.append("\r\n--").append(m_boundary).append("\r\n");
+            buff.append(XopCommon.CONTENT_TYPE_HEADER).append(": ").append(m_attachments.getContentType(i))
+                .append("\r\n");
+            appendPartHeaders(m_attachments.getContentId(i), buff);
+            out.write(buff.toString().getBytes("ISO-8859-1"));
+            out.write(m_attachments.getData(i));
+        }
+        out.write(("\r\n--" + m_boundary + "--\r\n").getBytes("ISO-8859-1"));
+    }
+    
+    /**
+     * Append the transfer encoding and content ID headers for a part, followed by the blank line ending the headers.
+     * 
+     * @param id content ID
+     * @param buff header text buffer
+     */
+    private static void appendPartHeaders(String id, StringBuffer buff) {
+        buff.append(XopCommon.CONTENT_TRANSFER_ENCODING_HEADER).append(": binary\r\n");
+        buff.append(XopCommon.CONTENT_ID_HEADER).append(": <").append(id).append(">\r\n\r\n");
+    }
+    
+    /**
+     * Get the binary parts of the package. Parts added to this before {@link #writeParts(OutputStream)} is called are
+     * included in the package.
+     * 
+     * @return attachments
+     */
+    public XopAttachments getAttachments() {
+        return m_attachments;
+    }
+}
@@ -41,6 +41,10 @@ import org.jibx.ws.WsException;
 import org.jibx.ws.codec.CodecCache;
 import org.jibx.ws.codec.CodecDirectory;
 import org.jibx.ws.codec.MediaType;
+import org.jibx.ws.encoding.xop.XopAttachments;
+import org.jibx.ws.encoding.xop.XopCommon;
+import org.jibx.ws.encoding.xop.XopInputPackage;
+import org.jibx.ws.encoding.xop.XopOutputPackage;
 import org.jibx.ws.io.XmlOptions;
 import org.jibx.ws.soap.SoapProtocol;
 import org.jibx.ws.transport.Channel;
@@ -52,6 +56,7 @@ import org.jibx.ws.transport.OutConnectionBase;
 import org.jibx.ws.transport.SimpleDuplexConnection;
 import org.jibx.ws.transport.StreamBufferInPool;
 import org.jibx.ws.transport.StreamBufferOutPool;
+import org.jibx.ws.transport.XopConnection;
 import org.jibx.ws.transport.interceptor.InputStreamInterceptor;
 import org.jibx.ws.transport.interceptor.OutputStreamInterceptor;
 
@@ -113,13 +118,15 @@ public final class HttpChannel implements Channel
      * properties map.
      * @param connection
      * @param props
+     * @param pack XOP package for request (<code>null</code> if not sending an XOP package)
      * 
      * @throws ProtocolException
      */
-    private static void setupOutput(HttpURLConnection connection, MessageProperties props) throws ProtocolException {
+    private static void setupOutput(HttpURLConnection connection, MessageProperties props, XopOutputPackage pack)
+        throws ProtocolException {
         connection.setDoOutput(true);
         connection.setRequestMethod("POST");
-        connection.setRequestProperty(CONTENT_TYPE, getContentTypeProperty(props));
+        connection.setRequestProperty(CONTENT_TYPE, getContentTypeProperty(props, pack));
         connection.setRequestProperty(ACCEPT_TYPE, getAcceptTypeProperty(props));
         for (Iterator iter = props.getPropertyNames().iterator(); iter.hasNext();) {
             String propertyName = (String)iter.next();
@@ -127,7 +134,7 @@ public final class HttpChannel implements Channel
         }
     }
     
-    private static String getContentTypeProperty(MessageProperties props) {
+    private static String getContentTypeProperty(MessageProperties props, XopOutputPackage pack) {
         MediaType contentType = props.getContentType();
         MediaType.Parameter charset = null;
         MediaType.Parameter action = null;
@@ -137,6 +144,11 @@ public final class HttpChannel implements Channel
         if (props.getOperation() != null) {
             action = new MediaType.Parameter(ACTION_KEY, props.getOperation());
         }
+        if (pack != null) {
+            
+            // character set is given by the root part of the package
+            return pack.getContentType(new MediaType.Parameter[] {action});
+        }
         return contentType.toStringWithParams(new MediaType.Parameter[] {charset, action});
     }
 
@@ -167,9 +179,10 @@ public final class HttpChannel implements Channel
             WsConfigurationException {
         HttpURLConnection connection = (HttpURLConnection)m_url.openConnection();
         connection.setDoInput(false);
-        setupOutput(connection, properties);
+        XopOutputPackage pack = createOutputPackage(properties);
+        setupOutput(connection, properties, pack);
         connection.connect();
-        return createOutConnection(connection, properties, xmlOptions);
+        return createOutConnection(connection, properties, xmlOptions, pack);
     }
 
     /** {@inheritDoc} */
@@ -177,10 +190,24 @@ public final class HttpChannel implements Channel
             WsConfigurationException {
         HttpURLConnection connection = (HttpURLConnection)m_url.openConnection();
         connection.setDoInput(true);
-        setupOutput(connection, properties);
+        XopOutputPackage pack = createOutputPackage(properties);
+        setupOutput(connection, properties, pack);
         connection.connect();
         return new SimpleDuplexConnection(createInConnection(connection), 
-            createOutConnection(connection, properties, xmlOptions));
+            createOutConnection(connection, properties, xmlOptions, pack));
+    }
+    
+    /**
+     * Create the XOP package for a request, if MTOM is enabled.
+     * 
+     * @param properties message properties
+     * @return package, or <code>null</code> if not sending an XOP package
+     */
+    private XopOutputPackage createOutputPackage(MessageProperties properties) {
+        if (m_transportOptions.isMtomEnabled()) {
+            return new XopOutputPackage(properties.getContentType());
+        }
+        return null;
     }
     
     private HttpInConnection createInConnection(HttpURLConnection connection) throws WsConfigurationException {
@@ -192,8 +219,8 @@ public final class HttpChannel implements Channel
     }
     
     private HttpOutConnection createOutConnection(HttpURLConnection connection, MessageProperties properties, 
-            XmlOptions xmlOptions) throws WsConfigurationException {
-        HttpOutConnection outConn = new HttpOutConnection(connection, properties, xmlOptions);
+            XmlOptions xmlOptions, XopOutputPackage pack) throws WsConfigurationException {
+        HttpOutConnection outConn = new HttpOutConnection(connection, properties, xmlOptions, pack);
         if (m_transportOptions.getOutputStreamInterceptor() != null) {
             outConn.setInterceptor(m_transportOptions.getOutputStreamInterceptor());
         }
@@ -207,7 +234,7 @@ public final class HttpChannel implements Channel
     /**
      * An inbound connection wrapper for HttpURLConnection. 
      */
-    private class HttpInConnection implements InConnection
+    private class HttpInConnection implements InConnection, XopConnection
     {
         private static final int MIN_HTTP_ERROR_CODE = 400;
 
@@ -225,6 +252,12 @@ public final class HttpChannel implements Channel
         /** An interceptor to intercept the input stream. */
         private InputStreamInterceptor m_interceptor;
 
+        /** Media type of XOP package carrying the response, or <code>null</code> if not an XOP package. */
+        private MediaType m_xopType;
+
+        /** XOP package carrying the response (<code>null</code> if not an XOP package, or not yet read). */
+        private XopInputPackage m_package;
+
         /**
          * @param connection
          */
@@ -306,14 +339,26 @@ public final class HttpChannel implements Channel
                 if (m_interceptor != null) {
                     inputStream = m_interceptor.intercept(inputStream);
                 }
+                String charset = getCharacterEncoding();
+                if (m_xopType != null) {
+                    m_package = new XopInputPackage(inputStream, m_xopType);
+                    inputStream = m_package.getRootStream();
+                    charset = m_package.getRootCharset();
+                }
                 
                 m_buffer.setInput(inputStream);
                 m_reader = m_codecCache.getCodec(mediaType).getReader(m_buffer,
-                        getCharacterEncoding(), m_connection.getURL().toExternalForm(), true);
+                        charset, m_connection.getURL().toExternalForm(), true);
             }
             return m_reader;
         }
 
+        /** {@inheritDoc} */
+        public XopAttachments getAttachments() throws IOException, WsException {
+            getReader();
+            return m_package == null ? null : m_package.getAttachments();
+        }
+
         private MediaType getContentMediaType() throws IOException {
             MediaType mediaType = null;
             String ctype = getContentType();
@@ -321,6 +366,10 @@ public final class HttpChannel implements Channel
             if (ctype != null) {
                 try {
                     contentType = new MediaType(ctype);
+                    if (XopCommon.isXopPackage(contentType)) {
+                        m_xopType = contentType;
+                        contentType = XopCommon.getRootMediaType(contentType);
+                    }
                 } catch (ParseException e) {
                     throw new IOException("Unable to parse content-type '" + ctype + "'");
                 }
@@ -393,7 +442,7 @@ public final class HttpChannel implements Channel
     /**
      * An outbound connection wrapper for HttpURLConnection. 
      */
-    private class HttpOutConnection extends OutConnectionBase
+    private class HttpOutConnection extends OutConnectionBase implements XopConnection
     {
         /** Actual connection. */
         private final HttpURLConnection m_connection;
@@ -409,15 +458,24 @@ public final class HttpChannel implements Channel
 
         private MessageProperties m_msgProps;
         
+        /** XOP package used for request (<code>null</code> if not sending an XOP package). */
+        private final XopOutputPackage m_package;
+        
+        /** Stream used for output (<code>null</code> until writer created). */
+        private OutputStream m_stream;
+        
         /**
          * @param connection
          * @param msgProps message specific properties
          * @param xmlOptions XML formatting options
+         * @param pack XOP package for request (<code>null</code> if not sending an XOP package)
          */
-        public HttpOutConnection(HttpURLConnection connection, MessageProperties msgProps, XmlOptions xmlOptions) {
+        public HttpOutConnection(HttpURLConnection connection, MessageProperties msgProps, XmlOptions xmlOptions,
+            XopOutputPackage pack) {
             super(xmlOptions);
             m_connection = connection;
             m_msgProps = msgProps;
+            m_package = pack;
         }
         
         /** {@inheritDoc} */
@@ -429,8 +487,13 @@ public final class HttpChannel implements Channel
                 if (m_interceptor != null) {
                     outputStream = m_interceptor.intercept(outputStream);
                 }
+                if (m_package != null) {
+                    m_package.writeRootStart(outputStream, m_msgProps.getCharset());
+                }
+                m_stream = outputStream;
                 m_buffer.setOutput(outputStream);
-                m_writer = m_codecCache.getCodec(m_msgProps.getContentType()).getWriter(m_buffer, null, uris);
+                m_writer = m_codecCache.getCodec(m_msgProps.getContentType()).getWriter(m_buffer,
+                    m_msgProps.getCharset(), uris);
                 initializeWriter(m_writer);
             }
             return m_writer;
@@ -461,9 +524,18 @@ public final class HttpChannel implements Channel
             }
         }
 
+        /** {@inheritDoc} */
+        public XopAttachments getAttachments() {
+            return m_package == null ? null : m_package.getAttachments();
+        }
+        
         /** {@inheritDoc} */
         public void close() throws IOException {
             if (m_writer != null) {
+                if (m_package != null) {
+                    m_writer.flush();
+                    m_package.writeParts(m_stream);
+                }
                 m_writer.close();
                 m_writer.reset();
             }
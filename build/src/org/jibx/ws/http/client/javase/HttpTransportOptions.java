@@ -43,6 +43,7 @@ public final class HttpTransportOptions implements TransportOptions, InputStream
 {
     private OutputStreamInterceptor m_outputStreamInterceptor;
     private InputStreamInterceptor m_inputStreamInterceptor;
+    private boolean m_mtomEnabled;
     
     /**
      * Get outputStreamInterceptor.
@@ -79,5 +80,27 @@ public final class HttpTransportOptions implements TransportOptions, InputStream
     public void setInputStreamInterceptor(InputStreamInterceptor inputStreamInterceptor) {
         m_inputStreamInterceptor = inputStreamInterceptor;
     }
+    
+    /**
+     * Check if requests are sent using MTOM.
+     *
+     * @return <code>true</code> if requests are sent as XOP packages, <code>false</code> if not
+     */
+    public boolean isMtomEnabled() {
+        return m_mtomEnabled;
+    }
+    
+    /**
+     * Set whether requests are sent using MTOM. When enabled, each request is sent as an XOP package (a MIME
+     * multipart/related message), with any binary values handled by
+     * {@link org.jibx.ws.encoding.xop.XopBinaryMarshaller} sent as raw data in separate parts rather than as base64
+     * text.
+     * Responses sent as XOP packages are accepted whether or not this is set.
+     *
+     * @param enabled <code>true</code> to send requests as XOP packages, <code>false</code> if not
+     */
+    public void setMtomEnabled(boolean enabled) {
+        m_mtomEnabled = enabled;
+    }
 
 }
@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import javax.servlet.ServletContext;
@@ -38,8 +39,11 @@ import org.jibx.runtime.BindingDirectory;
 import org.jibx.runtime.IBindingFactory;
 import org.jibx.runtime.IUnmarshallingContext;
 import org.jibx.runtime.JiBXException;
+import org.jibx.ws.WsConfigurationException;
 import org.jibx.ws.WsException;
 import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.ManagementAgent;
+import org.jibx.ws.server.ManagementAgents;
 import org.jibx.ws.server.Service;
 import org.jibx.ws.server.ServiceDefinition;
 import org.jibx.ws.server.ServiceFactory;
@@ -61,6 +65,9 @@ public final class PathBasedServiceMapper implements ServiceMapper
 
     private static final Log logger = LogFactory.getLog(PathBasedServiceMapper.class);
 
+    /** Servlet context parameter giving the default concurrency limit for services hosted with other services. */
+    public static final String BULKHEAD_LIMIT_PARAM = "org.jibx.ws.bulkhead-limit";
+
     /** Singleton map from context+servlet names to service definition maps. */
     private static HashMap s_servletMap = new HashMap();
 
@@ -119,52 +126,113 @@ public final class PathBasedServiceMapper implements ServiceMapper
             throw new UnavailableException("Unable to initialize unmarshalling. \n" + getErrorDetails(e));
         }
 
-        // read and validate service definitions
-        String path = null;
-        String file = null;
-        try {
+        // loop through all initialization parameter pairs to read and validate service definitions
+        HashMap map = new HashMap();
+        Enumeration pnum = servlet.getInitParameterNames();
+        ServletContext serv = servlet.getServletContext();
+        while (pnum.hasMoreElements()) {
 
-            // loop through all initialization parameter pairs
-            HashMap map = new HashMap();
-            Enumeration pnum = servlet.getInitParameterNames();
-            ServletContext serv = servlet.getServletContext();
-            while (pnum.hasMoreElements()) {
+            // parameter name is path and value is service definition file
+            String path = (String) pnum.nextElement();
+            String file = "/WEB-INF/" + servlet.getInitParameter(path);
+            InputStream is = null;
+            try {
+                is = serv.getResourceAsStream(file);
+                if (is == null) {
+                    logger.error("Service definition not found for service " + path + " at " + file);
+                    throw new UnavailableException("Service definition not found for service " + path + " at "
+                        + file + ". Check configuration of servlet " + servlet.getServletName()
+                        + " in WEB-INF/web.xml.");
+                }
+                ServiceDefinition sdef = (ServiceDefinition) ctx.unmarshalDocument(is, null);
+                if (!path.startsWith("/")) {
+                    path = "/" + path;
+                }
+                map.put(path, sdef);
 
-                // parameter name is path and value is service definition file
-                path = (String) pnum.nextElement();
-                file = "/WEB-INF/" + servlet.getInitParameter(path);
-                InputStream is = null;
-                try {
-                    is = serv.getResourceAsStream(file);
-                    if (is == null) {
-                        logger.error("Service definition not found for service " + path + " at " + file);
-                        throw new UnavailableException("Service definition not found for service " + path + " at "
-                            + file + ". Check configuration of servlet " + servlet.getServletName()
-                            + " in WEB-INF/web.xml.");
-                    }
-                    ServiceDefinition sdef = (ServiceDefinition) ctx.unmarshalDocument(is, null);
-                    if (!path.startsWith("/")) {
-                        path = "/" + path;
-                    }
-                    map.put(path, sdef);
-
-                } finally {
-                    if (is != null) {
-                        try {
-                            is.close();
-                        } catch (IOException ignore) {
-                        }
+            } catch (JiBXException e) {
+                logger.error("Error reading service definition " + file + " for service " + path, e);
+                throw new UnavailableException("Error reading service definition " + file + " for service " + path
+                    + ".\n" + getErrorDetails(e));
+            } finally {
+                if (is != null) {
+                    try {
+                        is.close();
+                    } catch (IOException ignore) {
                     }
                 }
             }
+        }
 
-            // return map with all services entered
-            return map;
+        // isolate services from each other, then return map with all services entered
+        applyBulkheads(map, getBulkheadLimit(serv));
+        ManagementAgent agent = ManagementAgents.getAgent();
+        if (agent != null) {
+            for (Iterator iter = map.entrySet().iterator(); iter.hasNext();) {
+                Map.Entry entry = (Map.Entry) iter.next();
+                String path = (String) entry.getKey();
+                try {
+                    agent.serviceDefined((ServiceDefinition) entry.getValue());
+                } catch (WsConfigurationException e) {
+                    logger.error("Error configuring management for service " + path, e);
+                    throw new UnavailableException("Error configuring management for service " + path + ": "
+                        + e.getMessage());
+                }
+            }
+            agent.servletStarted();
+        }
+        return map;
+    }
 
-        } catch (JiBXException e) {
-            logger.error("Error reading service definition " + file + " for service " + path, e);
-            throw new UnavailableException("Error reading service definition " + file + " for service " + path + ".\n"
-                + getErrorDetails(e));
+    /**
+     * Get the default concurrency limit for services hosted with other services, from the servlet context parameter.
+     * 
+     * @param context servlet context
+     * @return limit (zero if not set)
+     * @throws UnavailableException if the parameter value is not a positive number
+     */
+    private static int getBulkheadLimit(ServletContext context) throws UnavailableException {
+        String value = context.getInitParameter(BULKHEAD_LIMIT_PARAM);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            int limit = Integer.parseInt(value.trim());
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) { /* handled below */ }
+        throw new UnavailableException("Invalid " + BULKHEAD_LIMIT_PARAM + " value '" + value
+            + "', must be a positive number");
+    }
+
+    /**
+     * Set up the concurrency limit for each service as a bulkhead. All the services of a servlet share the threads of
+     * the servlet container, so a service without a limit can tie up all the threads when it is slow, also blocking
+     * requests to the other services. When more than one service is hosted, a service without a limit set by the
+     * <b>admission-control</b> element of the service definition is given the default limit (if any).
+     * 
+     * @param map map from paths to service definitions
+     * @param limit default concurrency limit (zero if none)
+     */
+    static void applyBulkheads(Map map, int limit) {
+        if (map.size() > 1) {
+            for (Iterator iter = map.entrySet().iterator(); iter.hasNext();) {
+                Map.Entry entry = (Map.Entry) iter.next();
+                ServiceDefinition sdef = (ServiceDefinition) entry.getValue();
+                if (sdef.getAdmissionLimit() <= 0 && limit > 0) {
+                    sdef.setAdmissionLimit(limit);
+                }
+                if (sdef.getAdmissionLimit() > 0) {
+                    if (logger.isInfoEnabled()) {
+                        logger.info("Service " + entry.getKey() + " limited to " + sdef.getAdmissionLimit()
+                            + " concurrent requests");
+                    }
+                } else if (logger.isWarnEnabled()) {
+                    logger.warn("Service " + entry.getKey() + " has no concurrency limit, and can use all the threads "
+                        + "shared with the other " + (map.size() - 1) + " services of the servlet");
+                }
+            }
         }
     }
 
@@ -21,9 +21,11 @@
 
 package org.jibx.ws.http.servlet;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.text.ParseException;
 
 import javax.servlet.ServletContext;
@@ -43,16 +45,31 @@ import org.jibx.ws.codec.CodecDirectory;
 import org.jibx.ws.codec.CodecPool;
 import org.jibx.ws.codec.MediaType;
 import org.jibx.ws.codec.XmlCodec;
+import org.jibx.ws.encoding.xop.XopAttachments;
+import org.jibx.ws.encoding.xop.XopCommon;
+import org.jibx.ws.encoding.xop.XopInputPackage;
+import org.jibx.ws.encoding.xop.XopOutputPackage;
+import org.jibx.ws.io.CaptureOutputStream;
+import org.jibx.ws.io.CopiedOutputStream;
+import org.jibx.ws.io.CountingInputStream;
+import org.jibx.ws.io.CountingOutputStream;
 import org.jibx.ws.io.XmlOptions;
+import org.jibx.ws.metrics.PipelineEvent;
+import org.jibx.ws.metrics.PipelineEvents;
+import org.jibx.ws.server.AdmissionController;
 import org.jibx.ws.server.MediaTypeMapper;
 import org.jibx.ws.server.Service;
+import org.jibx.ws.transport.BufferedInConnection;
+import org.jibx.ws.transport.CapturingOutConnection;
 import org.jibx.ws.transport.InConnection;
 import org.jibx.ws.transport.OutConnectionBase;
 import org.jibx.ws.transport.OutServerConnection;
 import org.jibx.ws.transport.StreamBufferInPool;
 import org.jibx.ws.transport.StreamBufferOutPool;
+import org.jibx.ws.transport.XopConnection;
 import org.jibx.ws.transport.interceptor.InputStreamInterceptor;
 import org.jibx.ws.transport.interceptor.OutputStreamInterceptor;
+import org.jibx.ws.util.ErrorLog;
 import org.jibx.ws.wsdl.WsdlProvider;
 
 /**
@@ -72,8 +89,14 @@ public final class WsServletDelegate
 
     /** The key of the character set parameter, which can be used as a parameter to the CONTENT_TYPE header field. */  
     private static final String CHARSET_KEY = "charset";
+
+    /** Request header giving the SOAP action, used to assign request priorities. */
+    private static final String SOAP_ACTION_HEADER = "SOAPAction";
     
     private static final Log logger = LogFactory.getLog(WsServletDelegate.class);
+    
+    /** Rate-limited log for request processing errors. */
+    private static final ErrorLog s_errorLog = new ErrorLog(logger);
 
     /** Pool of codecs used for input and output. Access to this pool must be synchronized on the pool object. */
     private static final CodecPool s_codecPool = new CodecPool();
@@ -84,6 +107,36 @@ public final class WsServletDelegate
     /** Output byte buffer pool. Access to this pool must be synchronized on the {@link #s_codecPool} object. */
     private static final StreamBufferOutPool s_outBufferCache = new StreamBufferOutPool(BUFFER_SIZE);
 
+    /**
+     * Get the pool of codecs used for all requests. Access to this pool, and to the buffer pools, must be synchronized
+     * on the returned object.
+     * 
+     * @return pool
+     */
+    public static CodecPool getCodecPool() {
+        return s_codecPool;
+    }
+    
+    /**
+     * Get the pool of input buffers used for all requests.
+     * 
+     * @return pool
+     * @see #getCodecPool()
+     */
+    public static StreamBufferInPool getInBufferPool() {
+        return s_inBufferCache;
+    }
+    
+    /**
+     * Get the pool of output buffers used for all requests.
+     * 
+     * @return pool
+     * @see #getCodecPool()
+     */
+    public static StreamBufferOutPool getOutBufferPool() {
+        return s_outBufferCache;
+    }
+
     /** Maps the incoming request to a service. */
     private ServiceMapper m_serviceMapper;
     
@@ -111,15 +164,35 @@ public final class WsServletDelegate
         XmlCodec outcodec = null;
         InByteBuffer inbuff = null;
         OutByteBuffer outbuff = null;
+        AdmissionController admission = null;
+        long start = 0;
         try {
             // make sure we have a service instance
             serv = m_serviceMapper.getServiceInstance(req);
+            if (serv != null) {
+                admission = serv.getAdmissionController();
+            }
             if (serv == null) {
                 rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            } else if (admission != null && !admission.tryAcquire(admission.getPriority(
+                req.getHeader(SOAP_ACTION_HEADER), req.getRemoteAddr(),
+                req.getHeader(Service.PRIORITY_HEADER)))) {
+                
+                // shed load before reading any of the request
+                rsp.setHeader("Retry-After", Integer.toString(admission.getRetryAfter()));
+                admission = null;
+                rsp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
             } else {
-                MediaType intype = getMediaType(req.getContentType(), serv.getMediaTypeMapper());
+                start = System.currentTimeMillis();
+                String ctype = req.getContentType();
+                MediaType xoptype = getXopPackageType(ctype);
+                if (xoptype != null) {
+                    ctype = getXopRootType(xoptype);
+                }
+                MediaType intype = getMediaType(ctype, serv.getMediaTypeMapper());
                 MediaType outtype = getAcceptableMediaType(req.getHeader("Accept"), intype);
 
+                long checkout = PipelineEvents.isEnabled() ? System.currentTimeMillis() : 0;
                 synchronized (s_codecPool) {
                     // allocated codec(s) and buffers for the input and output
                     incodec = s_codecPool.getCodec(intype);
@@ -131,11 +204,20 @@ public final class WsServletDelegate
                     inbuff = (InByteBuffer) s_inBufferCache.getInstance();
                     outbuff = (OutByteBuffer) s_outBufferCache.getInstance();
                 }
+                if (checkout != 0) {
+                    PipelineEvents.stageCompleted(PipelineEvent.TYPE_CHECKOUT, serv.getServiceName(), null,
+                        intype.toString(), -1, -1, checkout);
+                }
 
                 // pass the processing on to the service
-                InboundConnection inconn = new InboundConnection(req, incodec, inbuff);
+                // an XOP request gets an XOP response, as long as the response uses the same XML media type
+                XopOutputPackage outpack = null;
+                if (xoptype != null && outtype.equals(intype)) {
+                    outpack = new XopOutputPackage(outtype);
+                }
+                InboundConnection inconn = new InboundConnection(req, incodec, inbuff, xoptype);
                 OutboundConnection outconn = new OutboundConnection(rsp, req.getCharacterEncoding(), 
-                    serv.getXmlOptions(), outcodec, outbuff);
+                    serv.getXmlOptions(), outcodec, outbuff, outpack);
                 HttpServletOptions options = (HttpServletOptions) serv.getTransportOptions(HttpServletOptions.class);
                 if (options != null) {
                     if (options.getInputStreamInterceptor() != null) {
@@ -146,26 +228,48 @@ public final class WsServletDelegate
                     }
                 }
                 serv.processRequest(inconn, outconn);
+                serv.recordTransfer(inconn.getByteCount(), outconn.getByteCount());
+                if (checkout != 0) {
+                    PipelineEvents.stageCompleted(PipelineEvent.TYPE_REQUEST, serv.getServiceName(),
+                        serv.getLastOperationName(), intype.toString(), inconn.getByteCount(), outconn.getByteCount(),
+                        start);
+                }
             }
 
         } catch (WsException e) {
-            logger.error("Error processing request", e);
+            s_errorLog.error("Error processing request", e);
             rsp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
         } finally {
+            if (admission != null) {
+                admission.release(System.currentTimeMillis() - start);
+            }
             synchronized (s_codecPool) {
 
                 // release all resources acquired for processing request
+                boolean abandoned = false;
                 if (serv != null) {
+                    abandoned = serv.isAbandoned();
                     serv.releaseInstance();
                 }
                 if (incodec != null) {
-                    s_codecPool.releaseCodec(incodec);
+                    
+                    // an abandoned operation may still be reading the input, so drop the input resources instead
+                    if (abandoned) {
+                        s_codecPool.getInstancePool(CodecDirectory.getCodecKey(incodec.getMediaType()))
+                            .discardInstance(incodec);
+                    } else {
+                        s_codecPool.releaseCodec(incodec);
+                    }
                 }
                 if (outcodec != null && outcodec != incodec) {
                     s_codecPool.releaseCodec(outcodec);
                 }
                 if (inbuff != null) {
-                    s_inBufferCache.endUsage(inbuff);
+                    if (abandoned) {
+                        s_inBufferCache.discardInstance(inbuff);
+                    } else {
+                        s_inBufferCache.endUsage(inbuff);
+                    }
                 }
                 if (outbuff != null) {
                     s_outBufferCache.endUsage(outbuff);
@@ -201,7 +305,7 @@ public final class WsServletDelegate
             } catch (ParseException e) {
                 throw new ServletException("Error parsing media type in content-type from request: " + mediastring);
             }
-            if (!CodecDirectory.hasCodecFor(media)) {
+            if (!CodecDirectory.hasCodecFor(media) || CodecDirectory.isConnectionScoped(media)) {
                 throw new ServletException("No supported media type in content-type from request: " + mediastring);
             }
         }
@@ -209,6 +313,43 @@ public final class WsServletDelegate
     }
 
 
+    /**
+     * Get the package media type for a request sent as an XOP package.
+     *
+     * @param mediastring media type string from request (<code>null</code> if none)
+     * @return package media type with parameters, or <code>null</code> if not an XOP package
+     * @throws ServletException if <code>mediastring</code> is an unparsable multipart type
+     */
+    private MediaType getXopPackageType(String mediastring) throws ServletException {
+        if (mediastring != null && mediastring.regionMatches(true, 0, XopCommon.MULTIPART_TYPE, 0,
+            XopCommon.MULTIPART_TYPE.length())) {
+            try {
+                MediaType media = new MediaType(mediastring);
+                if (XopCommon.isXopPackage(media)) {
+                    return media;
+                }
+            } catch (ParseException e) {
+                throw new ServletException("Error parsing media type in content-type from request: " + mediastring);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the media type of the XML carried by an XOP package.
+     *
+     * @param xoptype package media type
+     * @return XML media type string
+     * @throws ServletException if the package media type does not give a valid XML media type
+     */
+    private String getXopRootType(MediaType xoptype) throws ServletException {
+        try {
+            return XopCommon.getRootMediaType(xoptype).getBaseType();
+        } catch (ParseException e) {
+            throw new ServletException("Error parsing XOP package content-type from request: " + e.getMessage());
+        }
+    }
+
     /**
      * See {@link CodecDirectory#getAcceptableMediaType(String)}.
      */
@@ -272,7 +413,7 @@ public final class WsServletDelegate
     /**
      * Inbound connection (data received from client).
      */
-    private static class InboundConnection implements InConnection
+    private static class InboundConnection implements InConnection, XopConnection, BufferedInConnection
     {
         /** Request data. */
         private final HttpServletRequest m_request;
@@ -289,21 +430,38 @@ public final class WsServletDelegate
         /** An interceptor for intercepting input stream, or <code>null</code> if no interceptor. */  
         private InputStreamInterceptor m_interceptor;
 
+        /** Media type of XOP package carrying the request, or <code>null</code> if not an XOP package. */
+        private final MediaType m_xopType;
+
+        /** XOP package carrying the request (<code>null</code> if not an XOP package, or not yet read). */
+        private XopInputPackage m_package;
+
+        /** Request stream opened when the request was buffered (<code>null</code> if request not buffered). */
+        private InputStream m_stream;
+
+        /** Counter for bytes read (<code>null</code> if request not yet read). */
+        private CountingInputStream m_counter;
+
         /**
          * Constructor.
          * 
          * @param request
          * @param codec
          * @param buff
+         * @param xoptype media type of XOP package carrying the request (<code>null</code> if not an XOP package)
          */
-        public InboundConnection(HttpServletRequest request, XmlCodec codec, InByteBuffer buff) {
+        public InboundConnection(HttpServletRequest request, XmlCodec codec, InByteBuffer buff, MediaType xoptype) {
             m_request = request;
             m_codec = codec;
             m_buffer = buff;
+            m_xopType = xoptype;
         }
 
         /** {@inheritDoc} */
         public String getCharacterEncoding() {
+            if (m_package != null) {
+                return m_package.getRootCharset();
+            }
             return m_request.getCharacterEncoding();
         }
 
@@ -340,17 +498,92 @@ public final class WsServletDelegate
         /** {@inheritDoc} */
         public IXMLReader getReader() throws IOException {
             if (m_reader == null) {
-                InputStream inputStream = m_request.getInputStream();
-                if (m_interceptor != null) {
-                    inputStream = m_interceptor.intercept(inputStream);
+                InputStream inputStream = m_stream == null ? openStream() : m_stream;
+                if (m_xopType != null) {
+                    m_package = new XopInputPackage(inputStream, m_xopType);
+                    inputStream = m_package.getRootStream();
                 }
                 m_buffer.setInput(inputStream);
-                m_reader = m_codec.getReader(m_buffer, m_request.getCharacterEncoding(), m_request.getRemoteAddr(),
-                    true);
+                m_reader = m_codec.getReader(m_buffer, getCharacterEncoding(), m_request.getRemoteAddr(), true);
             }
             return m_reader;
         }
 
+        /**
+         * Open the request input stream, applying any interceptor.
+         *
+         * @return stream
+         * @throws IOException on I/O error
+         */
+        private InputStream openStream() throws IOException {
+            m_counter = new CountingInputStream(m_request.getInputStream());
+            InputStream inputStream = m_counter;
+            if (m_interceptor != null) {
+                inputStream = m_interceptor.intercept(inputStream);
+            }
+            return inputStream;
+        }
+
+        /**
+         * Get the number of request bytes read.
+         *
+         * @return count
+         */
+        private long getByteCount() {
+            return m_counter == null ? 0 : m_counter.getCount();
+        }
+
+        /** {@inheritDoc} */
+        public byte[] bufferRequest(int limit) throws IOException {
+            if (m_xopType != null) {
+                return null;
+            }
+            InputStream is = openStream();
+            int length = m_request.getContentLength();
+            if (length > limit) {
+                m_stream = is;
+                return null;
+            }
+            
+            // read up to one byte past the limit, to tell if the request fits
+            byte[] data = new byte[Math.min(length > 0 ? length : BUFFER_SIZE, limit + 1)];
+            int fill = 0;
+            int count;
+            while ((count = is.read(data, fill, data.length - fill)) >= 0) {
+                fill += count;
+                if (fill == data.length) {
+                    if (fill > limit) {
+                        break;
+                    }
+                    byte[] grow = new byte[Math.min(fill * 2, limit + 1)];
+                    System.arraycopy(data, 0, grow, 0, fill);
+                    data = grow;
+                }
+            }
+            if (fill > limit) {
+                
+                // continue with the rest of the request after the bytes already read
+                m_stream = new SequenceInputStream(new ByteArrayInputStream(data, 0, fill), is);
+                return null;
+            }
+            if (fill < data.length) {
+                byte[] trim = new byte[fill];
+                System.arraycopy(data, 0, trim, 0, fill);
+                data = trim;
+            }
+            m_stream = new ByteArrayInputStream(data);
+            return data;
+        }
+
+        /** {@inheritDoc} */
+        public XopAttachments getAttachments() throws IOException {
+            if (m_xopType == null) {
+                return null;
+            }
+            getReader();
+            return m_package.getAttachments();
+        }
+
         /** {@inheritDoc} */
         public void init() throws IOException {
             getReader();
@@ -391,7 +624,8 @@ public final class WsServletDelegate
     /**
      * Outbound connection (data sent to client).
      */
-    private static class OutboundConnection extends OutConnectionBase implements OutServerConnection
+    private static class OutboundConnection extends OutConnectionBase
+        implements OutServerConnection, XopConnection, CapturingOutConnection
     {
         /** Response data. */
         private final HttpServletResponse m_response;
@@ -411,6 +645,21 @@ public final class WsServletDelegate
         /** An interceptor for intercepting output stream, or <code>null</code> if no interceptor. */  
         private OutputStreamInterceptor m_interceptor;
 
+        /** XOP package used for response (<code>null</code> if not sending an XOP package). */
+        private final XopOutputPackage m_package;
+
+        /** Stream used for output (<code>null</code> until writer created). */
+        private OutputStream m_stream;
+
+        /** Copy of response bytes (<code>null</code> if response not captured). */
+        private CaptureOutputStream m_capture;
+
+        /** Content type set for response (<code>null</code> until writer created). */
+        private String m_contentType;
+
+        /** Counter for bytes written (<code>null</code> if nothing written). */
+        private CountingOutputStream m_counter;
+
         /**
          * Constructor.
          * 
@@ -419,14 +668,16 @@ public final class WsServletDelegate
          * @param xmlOptions formatting options for outbound XML
          * @param codec
          * @param buff
+         * @param pack XOP package for response (<code>null</code> if not sending an XOP package)
          */
         public OutboundConnection(HttpServletResponse response, String charcode, XmlOptions xmlOptions, XmlCodec codec, 
-                OutByteBuffer buff) {
+                OutByteBuffer buff, XopOutputPackage pack) {
             super(xmlOptions);
             m_response = response;
             m_buffer = buff;
             m_codec = codec;
             m_characterCode = charcode;
+            m_package = pack;
         }
 
 
@@ -456,17 +707,31 @@ public final class WsServletDelegate
                 if (m_characterCode != null) {
                     charset = new MediaType.Parameter(CHARSET_KEY, m_characterCode);
                 }
-                m_response.setContentType(contentType.toStringWithParams(new MediaType.Parameter[]{charset}));
+                if (m_package == null) {
+                    m_contentType = contentType.toStringWithParams(new MediaType.Parameter[]{charset});
+                } else {
+                    m_contentType = m_package.getContentType(new MediaType.Parameter[0]);
+                }
+                m_response.setContentType(m_contentType);
 
                 // set up the actual writer
-                OutputStream outputStream = m_response.getOutputStream();
+                // (any captured copy is taken before the interceptor, so it can be replayed through the interceptor)
+                m_counter = new CountingOutputStream(m_response.getOutputStream());
+                OutputStream outputStream = m_counter;
                 if (m_interceptor != null) {
                     outputStream = m_interceptor.intercept(outputStream);
                 }
+                if (m_capture != null) {
+                    outputStream = new CopiedOutputStream(outputStream, m_capture);
+                }
+                if (m_package != null) {
+                    m_package.writeRootStart(outputStream, m_characterCode);
+                }
+                m_stream = outputStream;
                 
                 m_buffer.setOutput(outputStream);
                 
-                m_writer = m_codec.getWriter(m_buffer, null, uris);
+                m_writer = m_codec.getWriter(m_buffer, m_characterCode, uris);
                 initializeWriter(m_writer);
             }
             return m_writer;
@@ -493,10 +758,65 @@ public final class WsServletDelegate
             }
         }
 
+        /** {@inheritDoc} */
+        public XopAttachments getAttachments() {
+            return m_package == null ? null : m_package.getAttachments();
+        }
+
+        /** {@inheritDoc} */
+        public String getResponseType() {
+            return m_package == null ? m_codec.getMediaType().toString() : XopCommon.XOP_MEDIA_TYPE;
+        }
+
+        /** {@inheritDoc} */
+        public void startCapture(int limit) {
+            m_capture = new CaptureOutputStream(BUFFER_SIZE, limit);
+        }
+
+        /** {@inheritDoc} */
+        public byte[] getCapturedBytes() {
+            return (m_capture == null || m_writer == null) ? null : m_capture.getBytes();
+        }
+
+        /** {@inheritDoc} */
+        public String getCapturedContentType() {
+            return m_contentType;
+        }
+
+        /** {@inheritDoc} */
+        public void sendCaptured(byte[] data, String ctype) throws IOException {
+            m_response.setContentType(ctype);
+            m_counter = new CountingOutputStream(m_response.getOutputStream());
+            OutputStream outputStream = m_counter;
+            if (m_interceptor == null) {
+                m_response.setContentLength(data.length);
+            } else {
+                
+                // captured data is the output before interception, so it needs to go through the interceptor again
+                outputStream = m_interceptor.intercept(outputStream);
+            }
+            outputStream.write(data);
+            outputStream.flush();
+            outputComplete();
+        }
+
+        /**
+         * Get the number of response bytes written.
+         *
+         * @return count
+         */
+        private long getByteCount() {
+            return m_counter == null ? 0 : m_counter.getCount();
+        }
+
         /** {@inheritDoc} */
         public void close() throws IOException {
             logger.debug("Closing output connection");
             if (m_writer != null) {
+                if (m_package != null) {
+                    m_writer.flush();
+                    m_package.writeParts(m_stream);
+                }
                 logger.debug("Closing writer");
                 m_writer.close();
                 m_writer.reset();
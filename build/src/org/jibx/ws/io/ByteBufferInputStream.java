@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jibx.runtime.impl.IInByteBuffer;
+
+/**
+ * Input stream reading from a JiBX byte buffer. This allows codecs built on stream-based parsers to take their input
+ * directly from the pooled buffer supplied by the transport, without any intermediate copy of the data.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class ByteBufferInputStream extends InputStream
+{
+    /** Buffer supplying data. */
+    private IInByteBuffer m_buffer;
+    
+    /**
+     * Constructor.
+     * 
+     * @param buff buffer supplying data
+     */
+    public ByteBufferInputStream(IInByteBuffer buff) {
+        m_buffer = buff;
+    }
+    
+    /**
+     * Set the buffer supplying data. This allows the stream to be reused for different input buffers.
+     * 
+     * @param buff buffer supplying data
+     */
+    public void setBuffer(IInByteBuffer buff) {
+        m_buffer = buff;
+    }
+    
+    /** {@inheritDoc} */
+    public int available() {
+        return m_buffer.getLimit() - m_buffer.getOffset();
+    }
+    
+    /** {@inheritDoc} */
+    public int read() throws IOException {
+        if (m_buffer.require(1)) {
+            int offset = m_buffer.getOffset();
+            int value = m_buffer.getBuffer()[offset] & 0xFF;
+            m_buffer.setOffset(offset + 1);
+            return value;
+        } else {
+            return -1;
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        } else if (m_buffer.require(1)) {
+            int offset = m_buffer.getOffset();
+            int count = Math.min(len, m_buffer.getLimit() - offset);
+            System.arraycopy(m_buffer.getBuffer(), offset, b, off, count);
+            m_buffer.setOffset(offset + count);
+            return count;
+        } else {
+            return -1;
+        }
+    }
+    
+    /**
+     * Close the stream. This does not close the underlying buffer, which is the responsibility of the transport.
+     */
+    public void close() {
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jibx.runtime.impl.IOutByteBuffer;
+
+/**
+ * Output stream writing to a JiBX byte buffer. This allows codecs built on stream-based serializers to write their
+ * output directly into the pooled buffer supplied by the transport, without any intermediate copy of the data.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class ByteBufferOutputStream extends OutputStream
+{
+    /** Buffer receiving data. */
+    private IOutByteBuffer m_buffer;
+    
+    /**
+     * Constructor.
+     * 
+     * @param buff buffer receiving data
+     */
+    public ByteBufferOutputStream(IOutByteBuffer buff) {
+        m_buffer = buff;
+    }
+    
+    /**
+     * Set the buffer receiving data. This allows the stream to be reused for different output buffers.
+     * 
+     * @param buff buffer receiving data
+     */
+    public void setBuffer(IOutByteBuffer buff) {
+        m_buffer = buff;
+    }
+    
+    /** {@inheritDoc} */
+    public void write(int b) throws IOException {
+        int offset = m_buffer.getOffset();
+        if (offset >= m_buffer.getBuffer().length) {
+            m_buffer.free(offset, 1);
+            offset = m_buffer.getOffset();
+        }
+        m_buffer.getBuffer()[offset] = (byte)b;
+        m_buffer.setOffset(offset + 1);
+    }
+    
+    /** {@inheritDoc} */
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int offset = m_buffer.getOffset();
+            byte[] bytes = m_buffer.getBuffer();
+            if (offset >= bytes.length) {
+                m_buffer.free(offset, Math.min(len, bytes.length));
+                offset = m_buffer.getOffset();
+                bytes = m_buffer.getBuffer();
+            }
+            int count = Math.min(len, bytes.length - offset);
+            System.arraycopy(b, off, bytes, offset, count);
+            m_buffer.setOffset(offset + count);
+            off += count;
+            len -= count;
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public void flush() throws IOException {
+        m_buffer.flush();
+    }
+    
+    /**
+     * Close the stream. This does not close the underlying buffer, which is the responsibility of the codec writer.
+     */
+    public void close() {
+    }
+}
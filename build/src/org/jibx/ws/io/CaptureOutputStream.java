@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.io;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * In-memory output stream with a size limit. Once the limit is exceeded all data written is discarded, and the stream
+ * no longer holds a copy, so that capturing a large message cannot use an unbounded amount of memory.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class CaptureOutputStream extends ByteArrayOutputStream
+{
+    /** Maximum number of bytes retained. */
+    private final int m_limit;
+    
+    /** Flag for limit exceeded. */
+    private boolean m_overflow;
+    
+    /**
+     * Constructor.
+     * 
+     * @param size initial buffer size
+     * @param limit maximum number of bytes retained
+     */
+    public CaptureOutputStream(int size, int limit) {
+        super(Math.min(size, limit));
+        m_limit = limit;
+    }
+    
+    /** {@inheritDoc} */
+    public synchronized void write(int b) {
+        if (!m_overflow) {
+            if (count < m_limit) {
+                super.write(b);
+            } else {
+                overflow();
+            }
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public synchronized void write(byte[] b, int off, int len) {
+        if (!m_overflow) {
+            if (count + len <= m_limit) {
+                super.write(b, off, len);
+            } else {
+                overflow();
+            }
+        }
+    }
+    
+    /**
+     * Discard the data captured when the limit is exceeded.
+     */
+    private void overflow() {
+        m_overflow = true;
+        buf = new byte[0];
+        count = 0;
+    }
+    
+    /**
+     * Check if the limit has been exceeded.
+     * 
+     * @return <code>true</code> if the limit was exceeded, <code>false</code> if not
+     */
+    public synchronized boolean isOverflow() {
+        return m_overflow;
+    }
+    
+    /**
+     * Get the captured data.
+     * 
+     * @return data, or <code>null</code> if the limit was exceeded
+     */
+    public synchronized byte[] getBytes() {
+        return m_overflow ? null : toByteArray();
+    }
+}
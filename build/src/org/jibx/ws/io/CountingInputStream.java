@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream which counts the bytes read from a wrapped stream.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class CountingInputStream extends FilterInputStream
+{
+    /** Number of bytes read. */
+    private long m_count;
+    
+    /**
+     * Constructor.
+     * 
+     * @param is wrapped stream
+     */
+    public CountingInputStream(InputStream is) {
+        super(is);
+    }
+    
+    /** {@inheritDoc} */
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            m_count++;
+        }
+        return b;
+    }
+    
+    /** {@inheritDoc} */
+    public int read(byte[] b, int off, int len) throws IOException {
+        int count = in.read(b, off, len);
+        if (count > 0) {
+            m_count += count;
+        }
+        return count;
+    }
+    
+    /** {@inheritDoc} */
+    public long skip(long n) throws IOException {
+        long count = in.skip(n);
+        m_count += count;
+        return count;
+    }
+    
+    /** {@inheritDoc} */
+    public boolean markSupported() {
+        return false;
+    }
+    
+    /**
+     * Get the number of bytes read.
+     * 
+     * @return count
+     */
+    public long getCount() {
+        return m_count;
+    }
+}
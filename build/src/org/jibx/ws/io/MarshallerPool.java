@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.io;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jibx.runtime.BindingDirectory;
+import org.jibx.runtime.IBindingFactory;
+import org.jibx.runtime.JiBXException;
+import org.jibx.ws.WsBindingException;
+import org.jibx.ws.WsException;
+import org.jibx.ws.util.ExpandingPool;
+
+/**
+ * Pool of payload marshallers for a binding factory. Pools are shared by all classes using the same binding factory,
+ * and the binding factory for each class is only looked up once. The pool methods inherited from {@link ExpandingPool}
+ * are not threadsafe, so the using code needs to synchronize on the pool before calling them.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class MarshallerPool extends ExpandingPool
+{
+    /** Map from class to pool for the binding factory of that class. */
+    private static final Map s_classPools = new HashMap();
+    
+    /** Map from binding factory to pool. */
+    private static final Map s_factoryPools = new HashMap();
+    
+    /** Binding factory used by marshallers. */
+    private final IBindingFactory m_factory;
+    
+    /**
+     * Constructor.
+     * 
+     * @param factory binding factory used by marshallers
+     */
+    private MarshallerPool(IBindingFactory factory) {
+        m_factory = factory;
+    }
+    
+    /**
+     * Get the pool for the binding factory of a class. This can only be used with classes that are mapped in only one
+     * binding.
+     * 
+     * @param clazz class to be marshalled
+     * @return pool
+     * @throws WsBindingException on any error in finding or accessing factory
+     */
+    public static MarshallerPool getPool(Class clazz) throws WsBindingException {
+        synchronized (s_classPools) {
+            MarshallerPool pool = (MarshallerPool)s_classPools.get(clazz);
+            if (pool == null) {
+                IBindingFactory factory;
+                try {
+                    factory = BindingDirectory.getFactory(clazz);
+                } catch (JiBXException e) {
+                    throw new WsBindingException("Error accessing binding.", e);
+                }
+                pool = (MarshallerPool)s_factoryPools.get(factory);
+                if (pool == null) {
+                    pool = new MarshallerPool(factory);
+                    s_factoryPools.put(factory, pool);
+                }
+                s_classPools.put(clazz, pool);
+            }
+            return pool;
+        }
+    }
+    
+    /**
+     * Get the binding factory used by marshallers in this pool.
+     * 
+     * @return factory
+     */
+    public IBindingFactory getFactory() {
+        return m_factory;
+    }
+    
+    /**
+     * Release a marshaller, resetting the marshalling state and returning it to the available list. The XML writer used
+     * by the marshaller is not reset, since the writer will normally still be in use for the rest of a message.
+     * 
+     * @param marshaller marshaller to release
+     */
+    public void endUsage(MarshallingPayloadWriter marshaller) {
+        marshaller.detach();
+        super.releaseInstance(marshaller);
+    }
+    
+    /**
+     * Create new instance for pool.
+     * 
+     * @return instance
+     * @throws WsException on error creating instance
+     */
+    protected Object createInstance() throws WsException {
+        return new MarshallingPayloadWriter(m_factory);
+    }
+}
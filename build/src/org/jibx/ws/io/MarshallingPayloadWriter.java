@@ -22,6 +22,8 @@
 package org.jibx.ws.io;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,10 +35,11 @@ import org.jibx.runtime.JiBXException;
 import org.jibx.runtime.impl.MarshallingContext;
 import org.jibx.ws.WsBindingException;
 import org.jibx.ws.WsException;
+import org.jibx.ws.encoding.xop.XopAttachments;
 
 /**
  * Marshalls a payload to an XML writer using JiBX bindings. The payload must be of a class that is in the binding
- * factory that this class has been constructed with.
+ * factory that this class has been constructed with, or a {@link StreamingPayload} supplying items of such classes.
  * <p>
  * This class is serially reusable.
  * 
@@ -46,8 +49,17 @@ public final class MarshallingPayloadWriter implements PayloadWriter
 {
     private static final Log logger = LogFactory.getLog(MarshallingPayloadWriter.class);
     
+    /** Maximum number of distinct writer namespace sets for which translations are cached. */
+    private static final int MAX_CACHED_TRANSLATIONS = 8;
+    
     private final MarshallingContext m_marshaller;
     private final String[] m_namespaces;
+    
+    /** Cached namespace translations, most recently added first (<code>null</code> if none). */
+    private NamespaceTranslation m_translations;
+    
+    /** Number of cached namespace translations. */
+    private int m_translationCount;
 
     /**
      * Configure the marshaller using the binding factory for the "target class". This method can only be used with
@@ -102,58 +114,138 @@ public final class MarshallingPayloadWriter implements PayloadWriter
         m_namespaces = m_marshaller.getNamespaces();
     }
     
+    /**
+     * Set the binary parts to which binary values in the payload are added as XOP references. This applies to all
+     * payloads written until changed.
+     * 
+     * @param attachments attachments (<code>null</code> to write binary values inline)
+     */
+    public void setAttachments(XopAttachments attachments) {
+        m_marshaller.setUserContext(attachments);
+    }
+    
     /** {@inheritDoc}  */
     public void invoke(IXMLWriter xmlWriter, Object payload) throws IOException, WsException {
         if (logger.isDebugEnabled()) {
             logger.debug("Attempting to marshall payload '" + payload + "'");
         }
+        if (payload instanceof StreamingPayload) {
+            invokeStreaming(xmlWriter, (StreamingPayload) payload);
+            return;
+        }
         if (!(payload instanceof IMarshallable)) {
             throw new WsException("Payload object must have a defined mapping");
         }
             
-        // find first difference between current namespaces and those needed for payload 
-        String[] nss = xmlWriter.getNamespaces();
-        int limit = Math.min(nss.length, m_namespaces.length);
-        int index = 0;
-        for (; index < limit; index++) {
-            if (!nss[index].equals(m_namespaces[index])) {
-                break;
-            }
+        // push payload namespaces as extension, with translation table to correct namespaces when accessed by index
+        NamespaceTranslation translation = getTranslation(xmlWriter);
+        if (translation.m_extensionNamespaces != null) {
+            xmlWriter.pushExtensionNamespaces(translation.m_extensionNamespaces);
+            xmlWriter.pushTranslationTable(translation.m_translationTable);
         }
-        if (index < m_namespaces.length) {
-            
-            // push payload namespaces as extension
-            int base = xmlWriter.getNamespaceCount();
-            String[] extnss = new String[m_namespaces.length - index];
-            System.arraycopy(m_namespaces, index, extnss, 0, extnss.length);
-            xmlWriter.pushExtensionNamespaces(extnss);
-            
-            // build translation table to correct namespaces when accessed by index
-            int[] xlates = new int[m_namespaces.length];
-            for (int i = 0; i < xlates.length; i++) {
-                if (i < index) {
-                    xlates[i] = i;
-                } else {
-                    xlates[i] = base + i - index;
-                }
+        try {
+            m_marshaller.setXmlWriter(xmlWriter);
+            marshal(payload);
+        } finally {
+            if (translation.m_extensionNamespaces != null) {
+                xmlWriter.popTranslationTable();
+                xmlWriter.popExtensionNamespaces();
             }
-            xmlWriter.pushTranslationTable(xlates);
-            
+        }
+    }
+    
+    /**
+     * Marshal a streaming payload. The wrapper element is written directly, then each item supplied by the iterator is
+     * marshalled in turn. The writer passes output on through the buffer whenever the buffer fills, so only the item
+     * currently being marshalled needs to be held in memory.
+     * 
+     * @param xmlWriter writer
+     * @param payload streaming payload
+     * @throws IOException on I/O error writing the XML content
+     * @throws WsException on errors other than I/O errors
+     */
+    private void invokeStreaming(IXMLWriter xmlWriter, StreamingPayload payload) throws IOException, WsException {
+        
+        // write wrapper start tag, adding the namespace as an extension if needed
+        String uri = payload.getUri();
+        int index = 0;
+        if (uri.length() > 0) {
+            index = xmlWriter.getNamespaceCount();
+            xmlWriter.pushExtensionNamespaces(new String[] { uri });
+            xmlWriter.startTagNamespaces(index, payload.getName(), new int[] { index },
+                new String[] { payload.getPrefix() });
+            xmlWriter.closeStartTag();
+        } else {
+            xmlWriter.startTagClosed(index, payload.getName());
+        }
+        
+        // marshal each item in turn, using the same translation for all items
+        NamespaceTranslation translation = getTranslation(xmlWriter);
+        if (translation.m_extensionNamespaces != null) {
+            xmlWriter.pushExtensionNamespaces(translation.m_extensionNamespaces);
+            xmlWriter.pushTranslationTable(translation.m_translationTable);
         }
         try {
             m_marshaller.setXmlWriter(xmlWriter);
-
-            try {
-                ((IMarshallable) payload).marshal(m_marshaller);
-            } catch (JiBXException e) {
-                throw new WsException("Unable to marshal payload.", e);
+            for (Iterator iter = payload.getItems(); iter.hasNext();) {
+                Object item = iter.next();
+                if (!(item instanceof IMarshallable)) {
+                    throw new WsException("Streamed item must have a defined mapping");
+                }
+                marshal(item);
             }
         } finally {
-            if (index < m_namespaces.length) {
+            if (translation.m_extensionNamespaces != null) {
                 xmlWriter.popTranslationTable();
                 xmlWriter.popExtensionNamespaces();
             }
         }
+        
+        // close the wrapper element
+        xmlWriter.endTag(index, payload.getName());
+        if (uri.length() > 0) {
+            xmlWriter.popExtensionNamespaces();
+        }
+    }
+    
+    /**
+     * Marshal an object with a defined mapping, using the current writer.
+     * 
+     * @param obj object to be marshalled
+     * @throws WsException on marshalling error
+     */
+    private void marshal(Object obj) throws WsException {
+        try {
+            ((IMarshallable) obj).marshal(m_marshaller);
+        } catch (JiBXException e) {
+            throw new WsException("Unable to marshal payload.", e);
+        }
+    }
+
+    /**
+     * Get the namespace translation for the current state of a writer. Translations are cached for each distinct set
+     * of writer namespaces (up to a fixed limit), so the same translation is reused for every message written with a
+     * particular protocol.
+     * 
+     * @param xmlWriter writer
+     * @return translation
+     */
+    private NamespaceTranslation getTranslation(IXMLWriter xmlWriter) {
+        String[] nss = xmlWriter.getNamespaces();
+        int base = xmlWriter.getNamespaceCount();
+        for (NamespaceTranslation trans = m_translations; trans != null; trans = trans.m_next) {
+            if (trans.m_base == base
+                && (trans.m_writerNamespaces == nss || Arrays.equals(trans.m_writerNamespaces, nss))) {
+                return trans;
+            }
+        }
+        NamespaceTranslation trans = new NamespaceTranslation(nss, base, m_namespaces);
+        if (m_translationCount < MAX_CACHED_TRANSLATIONS) {
+            trans.m_next = m_translations;
+            m_translations = trans;
+            m_translationCount++;
+        }
+        return trans;
     }
 
     private MarshallingContext createMarshaller(IBindingFactory factory) throws WsBindingException {
@@ -170,4 +262,72 @@ public final class MarshallingPayloadWriter implements PayloadWriter
     public void reset() {
         m_marshaller.reset();
     }
+
+    /**
+     * Reset the marshalling state for reuse, without resetting the XML writer last used by this instance. This is used
+     * when the writer is still in use for the rest of a message.
+     */
+    public void detach() {
+        m_marshaller.setXmlWriter(null);
+        m_marshaller.reset();
+    }
+
+    /**
+     * Namespace translation for writing the payload with a particular set of writer namespaces. This gives the payload
+     * namespaces which need to be added to the writer as an extension, along with the translation table from binding
+     * namespace indexes to writer namespace indexes.
+     */
+    private static final class NamespaceTranslation
+    {
+        /** Writer namespaces. */
+        private final String[] m_writerNamespaces;
+        
+        /** Writer namespace count, including any extension namespaces already active. */
+        private final int m_base;
+        
+        /** Payload namespaces to be added as extension (<code>null</code> if none needed). */
+        private final String[] m_extensionNamespaces;
+        
+        /** Translation table from binding namespace index to writer namespace index (<code>null</code> if none). */
+        private final int[] m_translationTable;
+        
+        /** Next translation in cache (<code>null</code> if none). */
+        private NamespaceTranslation m_next;
+        
+        /**
+         * Constructor.
+         * 
+         * @param nss writer namespaces
+         * @param base writer namespace count
+         * @param bindnss binding namespaces
+         */
+        private NamespaceTranslation(String[] nss, int base, String[] bindnss) {
+            m_writerNamespaces = nss;
+            m_base = base;
+            
+            // find first difference between current namespaces and those needed for payload
+            int limit = Math.min(nss.length, bindnss.length);
+            int index = 0;
+            for (; index < limit; index++) {
+                if (!nss[index].equals(bindnss[index])) {
+                    break;
+                }
+            }
+            if (index < bindnss.length) {
+                m_extensionNamespaces = new String[bindnss.length - index];
+                System.arraycopy(bindnss, index, m_extensionNamespaces, 0, m_extensionNamespaces.length);
+                m_translationTable = new int[bindnss.length];
+                for (int i = 0; i < m_translationTable.length; i++) {
+                    if (i < index) {
+                        m_translationTable[i] = i;
+                    } else {
+                        m_translationTable[i] = base + i - index;
+                    }
+                }
+            } else {
+                m_extensionNamespaces = null;
+                m_translationTable = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.io;
+
+import java.util.Iterator;
+
+/**
+ * Body payload consisting of a wrapper element containing a sequence of items supplied by an iterator. Service
+ * operations can return an instance of this class to have the items marshalled one at a time as they're supplied by
+ * the iterator, rather than building the entire result in memory. Each item must be an instance of a class with a
+ * mapping in the binding used for the body. The marshalled output is passed on through the output buffer whenever the
+ * buffer fills, so memory use is independent of the number of items.
+ * <p>
+ * The response may be committed before all items have been marshalled, in which case an error in the iterator can
+ * only abort the response, not generate a fault.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class StreamingPayload
+{
+    /** Wrapper element namespace URI ("" if no namespace). */
+    private final String m_uri;
+    
+    /** Wrapper element namespace prefix ("" if no namespace). */
+    private final String m_prefix;
+    
+    /** Wrapper element name. */
+    private final String m_name;
+    
+    /** Iterator supplying items. */
+    private final Iterator m_items;
+    
+    /**
+     * Constructor for wrapper element in a namespace.
+     * 
+     * @param uri wrapper element namespace URI ("" if no namespace)
+     * @param prefix prefix to be used for wrapper element namespace (must be non-empty if namespace used)
+     * @param name wrapper element name
+     * @param items iterator supplying the items to be marshalled as the content of the wrapper element
+     */
+    public StreamingPayload(String uri, String prefix, String name, Iterator items) {
+        if (uri.length() > 0 && (prefix == null || prefix.length() == 0)) {
+            throw new IllegalArgumentException("Prefix must be supplied for wrapper element namespace");
+        }
+        m_uri = uri;
+        m_prefix = uri.length() > 0 ? prefix : "";
+        m_name = name;
+        m_items = items;
+    }
+    
+    /**
+     * Constructor for wrapper element with no namespace.
+     * 
+     * @param name wrapper element name
+     * @param items iterator supplying the items to be marshalled as the content of the wrapper element
+     */
+    public StreamingPayload(String name, Iterator items) {
+        this("", null, name, items);
+    }
+    
+    /**
+     * Get the wrapper element namespace URI.
+     * 
+     * @return URI ("" if no namespace)
+     */
+    public String getUri() {
+        return m_uri;
+    }
+    
+    /**
+     * Get the wrapper element namespace prefix.
+     * 
+     * @return prefix ("" if no namespace)
+     */
+    public String getPrefix() {
+        return m_prefix;
+    }
+    
+    /**
+     * Get the wrapper element name.
+     * 
+     * @return name
+     */
+    public String getName() {
+        return m_name;
+    }
+    
+    /**
+     * Get the iterator supplying items.
+     * 
+     * @return iterator
+     */
+    public Iterator getItems() {
+        return m_items;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    public String toString() {
+        return "streaming payload with wrapper element " + (m_prefix.length() > 0 ? m_prefix + ':' : "") + m_name;
+    }
+}
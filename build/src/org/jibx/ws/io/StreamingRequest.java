@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.io;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.jibx.runtime.IUnmarshaller;
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.impl.UnmarshallingContext;
+import org.jibx.ws.UnhandledWsException;
+import org.jibx.ws.WsException;
+
+/**
+ * Body payload consisting of a wrapper element containing a sequence of repeated child elements, read incrementally.
+ * This is passed to service operations configured for streaming input in place of a fully unmarshalled body object.
+ * Each call to {@link #next()} unmarshals the next child element from the message, so only the current item needs to
+ * be held in memory, and the operation can begin processing items before the rest of the message has been received.
+ * <p>
+ * Errors in unmarshalling a child element are reported as unchecked exceptions (wrapped using
+ * {@link UnhandledWsException} where necessary). After the operation returns, the framework calls {@link #close()} to
+ * skip any unread items and complete reading the message.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class StreamingRequest implements Iterator
+{
+    /** Unmarshalling context, positioned inside wrapper element. */
+    private final UnmarshallingContext m_context;
+    
+    /** Wrapper element namespace URI ("" if no namespace). */
+    private final String m_uri;
+    
+    /** Wrapper element name. */
+    private final String m_name;
+    
+    /** Handler for completing message input (<code>null</code> if none). */
+    private Completion m_completion;
+    
+    /** End of wrapper element reached flag. */
+    private boolean m_ended;
+    
+    /** Completion handled flag. */
+    private boolean m_completed;
+    
+    /**
+     * Constructor. This must be called with the unmarshalling context positioned immediately after the wrapper element
+     * start tag.
+     * 
+     * @param ctx unmarshalling context
+     * @param uri wrapper element namespace URI ("" if no namespace)
+     * @param name wrapper element name
+     */
+    StreamingRequest(UnmarshallingContext ctx, String uri, String name) {
+        m_context = ctx;
+        m_uri = uri;
+        m_name = name;
+    }
+    
+    /**
+     * Build the key used to identify a wrapper element, in the form "{uri}name".
+     * 
+     * @param uri namespace URI ("" or <code>null</code> if no namespace)
+     * @param name element name
+     * @return key
+     */
+    public static String buildKey(String uri, String name) {
+        return "{" + (uri == null ? "" : uri) + "}" + name;
+    }
+    
+    /**
+     * Get the wrapper element namespace URI.
+     * 
+     * @return URI ("" if no namespace)
+     */
+    public String getUri() {
+        return m_uri;
+    }
+    
+    /**
+     * Get the wrapper element name.
+     * 
+     * @return name
+     */
+    public String getName() {
+        return m_name;
+    }
+    
+    /**
+     * Get the key identifying the wrapper element.
+     * 
+     * @return key, in the form "{uri}name"
+     */
+    public String getKey() {
+        return buildKey(m_uri, m_name);
+    }
+    
+    /**
+     * Set the handler for completing message input. This is called by the message processor when it defers the rest of
+     * the message processing until the streamed items have been read.
+     * 
+     * @param completion handler
+     */
+    public void setCompletion(Completion completion) {
+        m_completion = completion;
+    }
+    
+    /**
+     * Check if another item is present.
+     * 
+     * @return <code>true</code> if another child element is present, <code>false</code> if at end of wrapper
+     */
+    public boolean hasNext() {
+        if (m_ended) {
+            return false;
+        }
+        try {
+            if (m_context.toTag() == IXMLReader.START_TAG) {
+                return true;
+            } else {
+                m_ended = true;
+                return false;
+            }
+        } catch (JiBXException e) {
+            throw UnhandledWsException.wrap(new WsException("Error reading streamed request.", e));
+        }
+    }
+    
+    /**
+     * Unmarshal the next item.
+     * 
+     * @return item
+     * @throws NoSuchElementException if at end of wrapper element
+     */
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more items in streamed request");
+        }
+        try {
+            String name = m_context.getElementName();
+            String uri = m_context.getElementNamespace();
+            IUnmarshaller unmarshaller = m_context.getUnmarshaller(uri, name);
+            if (unmarshaller == null) {
+                throw new WsException("No mapping defined for streamed request element " + buildKey(uri, name));
+            }
+            return unmarshaller.unmarshal(null, m_context);
+        } catch (JiBXException e) {
+            throw UnhandledWsException.wrap(new WsException("Error in unmarshalling streamed request item.", e));
+        } catch (WsException e) {
+            throw UnhandledWsException.wrap(e);
+        }
+    }
+    
+    /**
+     * Unsupported operation.
+     */
+    public void remove() {
+        throw new UnsupportedOperationException("Items cannot be removed from a streamed request");
+    }
+    
+    /**
+     * Complete reading the message. Any items not read by the operation are skipped, then the rest of the message is
+     * processed. This method has no effect if called after the message has already been completed.
+     * 
+     * @throws IOException on I/O error reading the message
+     * @throws WsException on errors other than I/O errors
+     */
+    public void close() throws IOException, WsException {
+        if (!m_completed) {
+            m_completed = true;
+            try {
+                while (hasNext()) {
+                    m_context.skipElement();
+                }
+                m_context.parsePastEndTag(m_uri, m_name);
+            } catch (JiBXException e) {
+                if (m_completion != null) {
+                    m_completion.abort();
+                }
+                throw new WsException("Error reading end of streamed request.", e);
+            }
+            if (m_completion != null) {
+                m_completion.finish();
+            }
+        }
+    }
+    
+    /**
+     * Abandon reading the message, after an error. This releases the input without reading the rest of the message.
+     * This method has no effect if called after the message has already been completed.
+     */
+    public void abort() {
+        if (!m_completed) {
+            m_completed = true;
+            if (m_completion != null) {
+                m_completion.abort();
+            }
+        }
+    }
+    
+    /**
+     * Handler for completing message input after the streamed items have been read.
+     */
+    public interface Completion
+    {
+        /**
+         * Read the rest of the message following the wrapper element, and release the input.
+         * 
+         * @throws IOException on I/O error reading the message
+         * @throws WsException on errors other than I/O errors
+         */
+        void finish() throws IOException, WsException;
+        
+        /**
+         * Release the input without reading the rest of the message.
+         */
+        void abort();
+    }
+}
@@ -21,6 +21,9 @@
 
 package org.jibx.ws.io;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.jibx.runtime.BindingDirectory;
 import org.jibx.runtime.IBindingFactory;
 import org.jibx.runtime.IUnmarshaller;
@@ -29,6 +32,7 @@ import org.jibx.runtime.JiBXException;
 import org.jibx.runtime.impl.UnmarshallingContext;
 import org.jibx.ws.WsBindingException;
 import org.jibx.ws.WsException;
+import org.jibx.ws.encoding.xop.XopAttachments;
 
 /**
  * Unmarshalls a payload from an XML reader using JiBX bindings. The object to unmarshall must be of a class that is in
@@ -41,6 +45,12 @@ import org.jibx.ws.WsException;
 public final class UnmarshallingPayloadReader implements PayloadReader
 {
     private final UnmarshallingContext m_unmarshallCtx;
+    
+    /** Keys for wrapper elements read as {@link StreamingRequest}s (<code>null</code> if none). */
+    private Set m_streamingKeys;
+    
+    /** Binary parts for resolving XOP references (<code>null</code> if the message is not an XOP package). */
+    private XopAttachments m_attachments;
 
     /**
      * Create the unmarshaller using the binding factory for the "target class". This method can only be used with
@@ -102,14 +112,47 @@ public final class UnmarshallingPayloadReader implements PayloadReader
         return ctx;
     }
 
+    /**
+     * Set the binary parts available for resolving XOP references in the payload. This applies to all payloads read
+     * until changed.
+     * 
+     * @param attachments attachments (<code>null</code> if the message is not an XOP package)
+     */
+    public void setAttachments(XopAttachments attachments) {
+        m_attachments = attachments;
+    }
+
+    /**
+     * Add a wrapper element to be read as a {@link StreamingRequest}. When the payload is an instance of this element,
+     * the reader returns a streaming request positioned inside the element, rather than unmarshalling the entire
+     * payload.
+     * 
+     * @param uri wrapper element namespace URI ("" if no namespace)
+     * @param name wrapper element name
+     */
+    public void addStreamingElement(String uri, String name) {
+        if (m_streamingKeys == null) {
+            m_streamingKeys = new HashSet();
+        }
+        m_streamingKeys.add(StreamingRequest.buildKey(uri, name));
+    }
+
     /** {@inheritDoc} */
     public Object invoke(IXMLReader xmlReader) throws WsException {
         Object payload = null;
         m_unmarshallCtx.reset();
         m_unmarshallCtx.setDocument(xmlReader);
+        m_unmarshallCtx.setUserContext(m_attachments);
         String name;
         try {
             name = m_unmarshallCtx.toStart();
+            if (m_streamingKeys != null) {
+                String uri = xmlReader.getNamespace();
+                if (m_streamingKeys.contains(StreamingRequest.buildKey(uri, name))) {
+                    m_unmarshallCtx.parsePastStartTag(uri, name);
+                    return new StreamingRequest(m_unmarshallCtx, uri, name);
+                }
+            }
             IUnmarshaller unmarshaller = m_unmarshallCtx.getUnmarshaller(xmlReader.getNamespace(), name);
             if (unmarshaller != null) {
                 payload = unmarshaller.unmarshal(null, m_unmarshallCtx);
@@ -21,6 +21,8 @@
 
 package org.jibx.ws.io;
 
+import java.io.UnsupportedEncodingException;
+
 /**
  * Enumerates allowable XML encodings for JiBX/WS.
  *
@@ -31,12 +33,38 @@ public final class XmlEncoding
     /** UTF-8. */
     public static final XmlEncoding UTF_8 = new XmlEncoding("UTF-8");
 
+    /** ISO-8859-1. */
+    public static final XmlEncoding ISO_8859_1 = new XmlEncoding("ISO-8859-1");
+
     private final String m_version;
 
     private XmlEncoding(String version) {
         m_version = version;
     }
 
+    /**
+     * Get the encoding with a particular name. Encodings other than UTF-8 and ISO-8859-1 are only supported for text
+     * output when running on JDK 1.4 or later. The encoding must be one that can be used for XML output, which excludes
+     * forms such as "UTF-16" that add a byte order mark (use "UTF-16BE" or "UTF-16LE" instead).
+     *
+     * @param name character encoding name
+     * @return encoding
+     * @throws IllegalArgumentException if the encoding is not supported by the JVM
+     */
+    public static XmlEncoding forName(String name) {
+        if (UTF_8.m_version.equalsIgnoreCase(name)) {
+            return UTF_8;
+        } else if (ISO_8859_1.m_version.equalsIgnoreCase(name)) {
+            return ISO_8859_1;
+        }
+        try {
+            "".getBytes(name);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalArgumentException("Unsupported character encoding " + name);
+        }
+        return new XmlEncoding(name);
+    }
+
     /** 
      * Describes the encoding. 
      * 
@@ -25,11 +25,13 @@ import java.io.IOException;
 import org.jibx.runtime.IXMLWriter;
 import org.jibx.ws.WsException;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.io.MarshallerPool;
 import org.jibx.ws.io.MarshallingPayloadWriter;
 
 /**
  * Payload marshaller, where the payload that is passed to the constructor is marshalled on a subsequent call to 
- * {@link #invoke(OutContext, IXMLWriter)}.
+ * {@link #invoke(OutContext, IXMLWriter)}. The marshaller used is taken from the shared {@link MarshallerPool} for the
+ * payload class, so handlers can be created for each message without repeating the binding lookup.
  * 
  *  @author Nigel Charman
  */
@@ -48,7 +50,17 @@ public class MarshallingOutHandler implements OutHandler
 
     /** {@inheritDoc} */
     public void invoke(OutContext context, IXMLWriter xmlWriter) throws IOException, WsException {
-        MarshallingPayloadWriter marshaller = new MarshallingPayloadWriter(m_payload.getClass());
-        marshaller.invoke(xmlWriter, m_payload);
+        MarshallerPool pool = MarshallerPool.getPool(m_payload.getClass());
+        MarshallingPayloadWriter marshaller;
+        synchronized (pool) {
+            marshaller = (MarshallingPayloadWriter)pool.getInstance();
+        }
+        try {
+            marshaller.invoke(xmlWriter, m_payload);
+        } finally {
+            synchronized (pool) {
+                pool.endUsage(marshaller);
+            }
+        }
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.management;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jibx.ws.WsConfigurationException;
+import org.jibx.ws.codec.CodecPool;
+import org.jibx.ws.http.servlet.WsServletDelegate;
+import org.jibx.ws.server.ManagementAgent;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.tcp.server.TcpServer;
+
+/**
+ * Management agent registering JMX management beans for services and transports. The beans are registered in the
+ * {@link #DOMAIN} domain, with names of the form:
+ * <ul>
+ * <li><code>org.jibx.ws:type=Service,name=<i>service</i></code> for each service ({@link ServiceMonitor})</li>
+ * <li><code>org.jibx.ws:type=Pool,name=<i>pool</i></code> for the servlet codec and buffer pools
+ * ({@link PoolMonitor})</li>
+ * <li><code>org.jibx.ws:type=TcpServer,name=<i>service</i></code> for each TCP server ({@link TcpServerMonitor})</li>
+ * </ul>
+ * Errors in registering beans are logged, and otherwise ignored.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class JmxManagementAgent implements ManagementAgent
+{
+    /** Domain for object names. */
+    public static final String DOMAIN = "org.jibx.ws";
+    
+    private static final Log s_logger = LogFactory.getLog(JmxManagementAgent.class);
+    
+    /** Server for registering beans. */
+    private final MBeanServer m_server;
+    
+    /** Flag for servlet pools registered. */
+    private boolean m_servletRegistered;
+    
+    /**
+     * Constructor using the platform MBean server.
+     */
+    public JmxManagementAgent() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param server server for registering beans
+     */
+    public JmxManagementAgent(MBeanServer server) {
+        m_server = server;
+    }
+    
+    /**
+     * Register a bean, replacing any bean already registered with the same name.
+     * 
+     * @param type bean type
+     * @param name bean name
+     * @param bean bean to be registered
+     */
+    private void register(String type, String name, Object bean) {
+        try {
+            ObjectName oname = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            synchronized (m_server) {
+                if (m_server.isRegistered(oname)) {
+                    m_server.unregisterMBean(oname);
+                }
+                m_server.registerMBean(bean, oname);
+            }
+        } catch (JMException e) {
+            s_logger.error("Unable to register management bean for " + type + " " + name, e);
+        }
+    }
+    
+    /**
+     * {@inheritDoc} This installs a {@link ServiceMonitor} as the metrics collector for the service, passing calls on
+     * to the collector originally configured.
+     */
+    public void serviceDefined(ServiceDefinition sdef) throws WsConfigurationException {
+        
+        // resolve phase timing listener first, since it may share the original collector instance
+        sdef.getPhaseTimingListener();
+        ServiceMonitor monitor = new ServiceMonitor(sdef, sdef.getMetricsCollector());
+        sdef.setMetricsCollector(monitor);
+        register("Service", sdef.getServiceName(), monitor);
+    }
+    
+    /** {@inheritDoc} */
+    public synchronized void servletStarted() {
+        if (!m_servletRegistered) {
+            m_servletRegistered = true;
+            CodecPool codecs = WsServletDelegate.getCodecPool();
+            List keys;
+            synchronized (codecs) {
+                keys = codecs.getCodecKeys();
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                String key = (String) keys.get(i);
+                register("Pool", "codec " + key, new PoolMonitor(codecs.getInstancePool(key), codecs));
+            }
+            register("Pool", "servlet input buffers", new PoolMonitor(WsServletDelegate.getInBufferPool(), codecs));
+            register("Pool", "servlet output buffers", new PoolMonitor(WsServletDelegate.getOutBufferPool(), codecs));
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public void tcpServerStarted(TcpServer server) {
+        register("TcpServer", server.getServiceDefinition().getServiceName(), new TcpServerMonitor(server));
+    }
+}
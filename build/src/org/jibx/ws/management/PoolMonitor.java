@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.management;
+
+import org.jibx.ws.util.ExpandingPool;
+
+/**
+ * Management bean for a pool of instances. The pool is locked while it is accessed, using the same lock object as the
+ * code using the pool.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class PoolMonitor implements PoolMonitorMBean
+{
+    /** Pool being monitored. */
+    private final ExpandingPool m_pool;
+    
+    /** Object synchronized on for access to pool. */
+    private final Object m_lock;
+    
+    /**
+     * Constructor.
+     * 
+     * @param pool pool to be monitored
+     * @param lock object synchronized on for access to pool
+     */
+    public PoolMonitor(ExpandingPool pool, Object lock) {
+        m_pool = pool;
+        m_lock = lock;
+    }
+    
+    /** {@inheritDoc} */
+    public int getAvailableCount() {
+        synchronized (m_lock) {
+            return m_pool.getAvailableCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getInUseCount() {
+        synchronized (m_lock) {
+            return m_pool.getInUseCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getTotalCount() {
+        synchronized (m_lock) {
+            return m_pool.getTotalCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getHighWaterCount() {
+        synchronized (m_lock) {
+            return m_pool.getHighWaterCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getCreateCount() {
+        synchronized (m_lock) {
+            return m_pool.getCreateCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int trim(int keep) {
+        synchronized (m_lock) {
+            return m_pool.trim(keep);
+        }
+    }
+}
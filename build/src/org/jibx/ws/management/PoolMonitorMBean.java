@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.management;
+
+/**
+ * Management interface for a pool of instances.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public interface PoolMonitorMBean
+{
+    /**
+     * Get the number of instances available in the pool.
+     * 
+     * @return count
+     */
+    int getAvailableCount();
+    
+    /**
+     * Get the number of instances currently in use.
+     * 
+     * @return count
+     */
+    int getInUseCount();
+    
+    /**
+     * Get the number of instances created and not discarded, whether in use or available.
+     * 
+     * @return count
+     */
+    int getTotalCount();
+    
+    /**
+     * Get the highest number of instances in use at the same time.
+     * 
+     * @return count
+     */
+    int getHighWaterCount();
+    
+    /**
+     * Get the total number of instances created.
+     * 
+     * @return count
+     */
+    int getCreateCount();
+    
+    /**
+     * Discard available instances in excess of a minimum number.
+     * 
+     * @param keep number of available instances to keep
+     * @return number of instances discarded
+     */
+    int trim(int keep);
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.management;
+
+import org.jibx.ws.metrics.MetricsCollector;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.util.ExpandingPool;
+
+/**
+ * Management bean for a service. This is installed as the metrics collector for the service, counting requests and
+ * faults before passing each call on to the metrics collector originally configured for the service. Rates are found
+ * from the counts for each second of the last minute.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class ServiceMonitor implements ServiceMonitorMBean, MetricsCollector
+{
+    /** Number of seconds covered by rates. */
+    private static final int WINDOW_SECONDS = 60;
+    
+    /** Service definition. */
+    private final ServiceDefinition m_serviceDefinition;
+    
+    /** Metrics collector originally configured for service. */
+    private final MetricsCollector m_delegate;
+    
+    /** Total number of requests. */
+    private long m_requestCount;
+    
+    /** Total number of requests with fault responses. */
+    private long m_faultCount;
+    
+    /** Second (since epoch) counted by each slot. */
+    private final long[] m_slotSeconds;
+    
+    /** Number of requests counted in each slot. */
+    private final int[] m_slotRequests;
+    
+    /** Number of faults counted in each slot. */
+    private final int[] m_slotFaults;
+    
+    /**
+     * Constructor.
+     * 
+     * @param sdef service definition
+     * @param delegate metrics collector originally configured for service
+     */
+    public ServiceMonitor(ServiceDefinition sdef, MetricsCollector delegate) {
+        m_serviceDefinition = sdef;
+        m_delegate = delegate;
+        m_slotSeconds = new long[WINDOW_SECONDS];
+        m_slotRequests = new int[WINDOW_SECONDS];
+        m_slotFaults = new int[WINDOW_SECONDS];
+    }
+    
+    /** {@inheritDoc} */
+    public void requestCompleted(String service, String operation, long millis, boolean fault) {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % WINDOW_SECONDS);
+        synchronized (this) {
+            if (m_slotSeconds[slot] != second) {
+                m_slotSeconds[slot] = second;
+                m_slotRequests[slot] = 0;
+                m_slotFaults[slot] = 0;
+            }
+            m_requestCount++;
+            m_slotRequests[slot]++;
+            if (fault) {
+                m_faultCount++;
+                m_slotFaults[slot]++;
+            }
+        }
+        m_delegate.requestCompleted(service, operation, millis, fault);
+    }
+    
+    /** {@inheritDoc} */
+    public void bytesTransferred(String service, String operation, long in, long out) {
+        m_delegate.bytesTransferred(service, operation, in, out);
+    }
+    
+    /**
+     * Get the metrics collector originally configured for the service.
+     * 
+     * @return collector
+     */
+    public MetricsCollector getDelegate() {
+        return m_delegate;
+    }
+    
+    /** {@inheritDoc} */
+    public synchronized long getRequestCount() {
+        return m_requestCount;
+    }
+    
+    /** {@inheritDoc} */
+    public synchronized long getFaultCount() {
+        return m_faultCount;
+    }
+    
+    /**
+     * Get the sum of the counts in the window ending at the current second.
+     * 
+     * @param counts slot counts
+     * @return sum
+     */
+    private synchronized int sumWindow(int[] counts) {
+        long first = System.currentTimeMillis() / 1000 - WINDOW_SECONDS;
+        int sum = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (m_slotSeconds[i] > first) {
+                sum += counts[i];
+            }
+        }
+        return sum;
+    }
+    
+    /** {@inheritDoc} */
+    public double getRequestRate() {
+        return sumWindow(m_slotRequests) / (double) WINDOW_SECONDS;
+    }
+    
+    /** {@inheritDoc} */
+    public synchronized double getErrorRate() {
+        int requests = sumWindow(m_slotRequests);
+        return requests == 0 ? 0.0 : sumWindow(m_slotFaults) / (double) requests;
+    }
+    
+    /** {@inheritDoc} */
+    public int getPoolAvailableCount() {
+        ExpandingPool pool = ServicePool.getPool(m_serviceDefinition);
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.getAvailableCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getPoolInUseCount() {
+        ExpandingPool pool = ServicePool.getPool(m_serviceDefinition);
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.getInUseCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getPoolHighWaterCount() {
+        ExpandingPool pool = ServicePool.getPool(m_serviceDefinition);
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.getHighWaterCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getPoolCreateCount() {
+        ExpandingPool pool = ServicePool.getPool(m_serviceDefinition);
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.getCreateCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int getPoolDiscardCount() {
+        ExpandingPool pool = ServicePool.getPool(m_serviceDefinition);
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.getDiscardCount();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public int trimPool(int keep) {
+        ExpandingPool pool = ServicePool.getPool(m_serviceDefinition);
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.trim(keep);
+        }
+    }
+}
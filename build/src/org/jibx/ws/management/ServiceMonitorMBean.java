@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.management;
+
+/**
+ * Management interface for a service.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public interface ServiceMonitorMBean
+{
+    /**
+     * Get the total number of requests.
+     * 
+     * @return count
+     */
+    long getRequestCount();
+    
+    /**
+     * Get the total number of requests with fault responses.
+     * 
+     * @return count
+     */
+    long getFaultCount();
+    
+    /**
+     * Get the average rate of requests over the last minute.
+     * 
+     * @return requests per second
+     */
+    double getRequestRate();
+    
+    /**
+     * Get the fraction of requests over the last minute with fault responses.
+     * 
+     * @return fraction from 0.0 to 1.0 (0.0 if no requests)
+     */
+    double getErrorRate();
+    
+    /**
+     * Get the number of service instances available in the pool.
+     * 
+     * @return count
+     */
+    int getPoolAvailableCount();
+    
+    /**
+     * Get the number of service instances currently in use.
+     * 
+     * @return count
+     */
+    int getPoolInUseCount();
+    
+    /**
+     * Get the highest number of service instances in use at the same time.
+     * 
+     * @return count
+     */
+    int getPoolHighWaterCount();
+    
+    /**
+     * Get the total number of service instances created.
+     * 
+     * @return count
+     */
+    int getPoolCreateCount();
+    
+    /**
+     * Get the total number of service instances discarded because an operation using the instance did not complete
+     * within its time limit.
+     * 
+     * @return count
+     */
+    int getPoolDiscardCount();
+    
+    /**
+     * Discard available service instances in excess of a minimum number.
+     * 
+     * @param keep number of available instances to keep
+     * @return number of instances discarded
+     */
+    int trimPool(int keep);
+}
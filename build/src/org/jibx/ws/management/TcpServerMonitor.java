@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.management;
+
+import org.jibx.ws.tcp.server.SocketRunner;
+import org.jibx.ws.tcp.server.TcpServer;
+
+/**
+ * Management bean for a TCP server.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public class TcpServerMonitor implements TcpServerMonitorMBean
+{
+    /** Server being monitored. */
+    private final TcpServer m_server;
+    
+    /**
+     * Constructor.
+     * 
+     * @param server server to be monitored
+     */
+    public TcpServerMonitor(TcpServer server) {
+        m_server = server;
+    }
+    
+    /** {@inheritDoc} */
+    public int getConnectionCount() {
+        return m_server.getRunners().length;
+    }
+    
+    /** {@inheritDoc} */
+    public String[] getConnections() {
+        SocketRunner[] runners = m_server.getRunners();
+        String[] descripts = new String[runners.length];
+        for (int i = 0; i < runners.length; i++) {
+            SocketRunner runner = runners[i];
+            descripts[i] = runner.getClientAddress() + " messages=" + runner.getMessageCount() + " idle="
+                + runner.getIdleTime() / 1000 + "s";
+        }
+        return descripts;
+    }
+    
+    /** {@inheritDoc} */
+    public int closeIdleConnections(long seconds) {
+        SocketRunner[] runners = m_server.getRunners();
+        int count = 0;
+        for (int i = 0; i < runners.length; i++) {
+            if (runners[i].closeIfIdle(seconds * 1000)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
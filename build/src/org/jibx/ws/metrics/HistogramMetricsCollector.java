@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metrics collector keeping counts, byte totals, and a latency histogram for each operation of each service. The
+ * metrics for an operation are created the first time a request to the operation completes, and are then only looked
+ * up for later requests. Lookups do not lock, since the map of metrics is replaced by a copy whenever an operation is
+ * added rather than being modified in place. This can also be used as the phase timing listener for a service, in which case a histogram
+ * of the times for each phase of processing is kept as part of the metrics for each operation.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class HistogramMetricsCollector implements MetricsCollector, PhaseTimingListener
+{
+    /**
+     * Map from service name to map from operation name to {@link OperationMetrics}. Neither level of map is modified
+     * after being set, so the maps can be read without locking.
+     */
+    private volatile Map m_serviceMap;
+    
+    /**
+     * Constructor.
+     */
+    public HistogramMetricsCollector() {
+        m_serviceMap = new HashMap();
+    }
+    
+    /**
+     * Get the metrics for an operation, creating them if necessary.
+     * 
+     * @param service service name
+     * @param operation operation name
+     * @return metrics
+     */
+    private OperationMetrics findMetrics(String service, String operation) {
+        OperationMetrics metrics = getOperationMetrics(service, operation);
+        return metrics == null ? addMetrics(service, operation) : metrics;
+    }
+    
+    /**
+     * Add the metrics for an operation, unless already added by another thread. The maps are copied with the new
+     * metrics added, and the copy then replaces the current map.
+     * 
+     * @param service service name
+     * @param operation operation name
+     * @return metrics
+     */
+    private synchronized OperationMetrics addMetrics(String service, String operation) {
+        Map servmap = m_serviceMap;
+        Map opmap = (Map) servmap.get(service);
+        OperationMetrics metrics = opmap == null ? null : (OperationMetrics) opmap.get(operation);
+        if (metrics == null) {
+            metrics = new OperationMetrics(service, operation);
+            opmap = opmap == null ? new HashMap() : new HashMap(opmap);
+            opmap.put(operation, metrics);
+            servmap = new HashMap(servmap);
+            servmap.put(service, opmap);
+            m_serviceMap = servmap;
+        }
+        return metrics;
+    }
+    
+    /** {@inheritDoc} */
+    public void requestCompleted(String service, String operation, long millis, boolean fault) {
+        findMetrics(service, operation).requestCompleted(millis, fault);
+    }
+    
+    /** {@inheritDoc} */
+    public void bytesTransferred(String service, String operation, long in, long out) {
+        findMetrics(service, operation).bytesTransferred(in, out);
+    }
+    
+    /** {@inheritDoc} */
+    public void onTiming(PhaseTimingEvent event) {
+        findMetrics(event.getServiceName(), event.getOperationName()).phasesCompleted(event);
+    }
+    
+    /**
+     * Get the metrics for an operation.
+     * 
+     * @param service service name
+     * @param operation operation name
+     * @return metrics, or <code>null</code> if no requests recorded for the operation
+     */
+    public OperationMetrics getOperationMetrics(String service, String operation) {
+        Map opmap = (Map) m_serviceMap.get(service);
+        return opmap == null ? null : (OperationMetrics) opmap.get(operation);
+    }
+    
+    /**
+     * Get the metrics for all operations with requests recorded.
+     * 
+     * @return list of {@link OperationMetrics}
+     */
+    public List getAllMetrics() {
+        List list = new ArrayList();
+        for (Iterator iter = m_serviceMap.values().iterator(); iter.hasNext();) {
+            list.addAll(((Map) iter.next()).values());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.metrics;
+
+/**
+ * Histogram of latency values, in milliseconds. Values are counted in buckets with eight linear steps for each power of
+ * two, so a percentile is accurate to within about 12%, using a fixed amount of memory however many values are
+ * recorded. Recording a value only does a short calculation and increments a count, holding the lock on the histogram
+ * just for the increment.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class LatencyHistogram
+{
+    /** Number of linear steps in each power of two (must be a power of two). */
+    private static final int SUB_BUCKETS = 8;
+    
+    /** Number of bits used for the linear steps. */
+    private static final int SUB_BITS = 3;
+    
+    /** Number of powers of two covered (sufficient for any millisecond value in a long). */
+    private static final int MAX_POWER = 63;
+    
+    /** Counts for each bucket. */
+    private final long[] m_counts;
+    
+    /** Total number of values. */
+    private long m_count;
+    
+    /** Sum of all values. */
+    private long m_sum;
+    
+    /** Maximum value. */
+    private long m_max;
+    
+    /**
+     * Constructor.
+     */
+    public LatencyHistogram() {
+        m_counts = new long[SUB_BUCKETS + (MAX_POWER - SUB_BITS) * SUB_BUCKETS];
+    }
+    
+    /**
+     * Get the bucket index for a value.
+     * 
+     * @param value value (non-negative)
+     * @return index
+     */
+    private static int getIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int power = SUB_BITS;
+        while ((value >> (power + 1)) != 0) {
+            power++;
+        }
+        int sub = (int) (value >> (power - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (power - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+    
+    /**
+     * Get the largest value counted in a bucket.
+     * 
+     * @param index bucket index
+     * @return value
+     */
+    private static long getUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+    
+    /**
+     * Record a value.
+     * 
+     * @param value latency in milliseconds (negative values are counted as zero)
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int index = getIndex(value);
+        synchronized (this) {
+            m_counts[index]++;
+            m_count++;
+            m_sum += value;
+            if (value > m_max) {
+                m_max = value;
+            }
+        }
+    }
+    
+    /**
+     * Get the number of values recorded.
+     * 
+     * @return count
+     */
+    public synchronized long getCount() {
+        return m_count;
+    }
+    
+    /**
+     * Get the mean of the values recorded.
+     * 
+     * @return mean (zero if none recorded)
+     */
+    public synchronized double getMean() {
+        return m_count == 0 ? 0 : (double) m_sum / m_count;
+    }
+    
+    /**
+     * Get the maximum value recorded.
+     * 
+     * @return maximum (zero if none recorded)
+     */
+    public synchronized long getMax() {
+        return m_max;
+    }
+    
+    /**
+     * Get a percentile of the values recorded. This returns the largest value which would be counted in the bucket
+     * containing the percentile, limited to the maximum value recorded.
+     * 
+     * @param percent percentile (from 0 to 100)
+     * @return value (zero if none recorded)
+     */
+    public synchronized long getPercentile(double percent) {
+        if (m_count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(m_count * percent / 100.0);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long total = 0;
+        for (int i = 0; i < m_counts.length; i++) {
+            total += m_counts[i];
+            if (total >= rank) {
+                return Math.min(getUpperBound(i), m_max);
+            }
+        }
+        return m_max;
+    }
+    
+    /**
+     * Clear all values recorded.
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < m_counts.length; i++) {
+            m_counts[i] = 0;
+        }
+        m_count = 0;
+        m_sum = 0;
+        m_max = 0;
+    }
+}
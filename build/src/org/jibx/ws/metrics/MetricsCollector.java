@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.metrics;
+
+/**
+ * Service provider interface for collecting metrics on request processing. A single collector instance is shared by
+ * all instances of a service, so implementations must be threadsafe. The methods are called on the request processing
+ * thread, so they should do as little work as possible.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public interface MetricsCollector
+{
+    /** Operation name used for requests where the operation is not known (such as a response taken from a cache). */
+    String UNKNOWN_OPERATION = "";
+    
+    /**
+     * Record the completion of a request.
+     * 
+     * @param service service name
+     * @param operation operation name, or {@link #UNKNOWN_OPERATION}
+     * @param millis time taken to process the request, in milliseconds
+     * @param fault <code>true</code> if a fault or error response was returned, <code>false</code> if not
+     */
+    void requestCompleted(String service, String operation, long millis, boolean fault);
+    
+    /**
+     * Record the number of bytes transferred for a request. This is called by the transport after the request has
+     * completed, and only when the transport is able to track the number of bytes.
+     * 
+     * @param service service name
+     * @param operation operation name, or {@link #UNKNOWN_OPERATION}
+     * @param in number of request bytes read
+     * @param out number of response bytes written
+     */
+    void bytesTransferred(String service, String operation, long in, long out);
+}
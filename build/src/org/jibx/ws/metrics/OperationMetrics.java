@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.metrics;
+
+import org.jibx.ws.context.ExchangeContext;
+
+/**
+ * Metrics for a single operation of a service, as kept by {@link HistogramMetricsCollector}.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class OperationMetrics
+{
+    /** Service name. */
+    private final String m_serviceName;
+    
+    /** Operation name. */
+    private final String m_operationName;
+    
+    /** Latencies of requests. */
+    private final LatencyHistogram m_latency;
+    
+    /** Times for each phase of processing, indexed by the timing point ending the phase. */
+    private final LatencyHistogram[] m_phaseLatencies;
+    
+    /** Number of requests. */
+    private long m_requestCount;
+    
+    /** Number of requests with fault responses. */
+    private long m_faultCount;
+    
+    /** Number of requests with byte counts. */
+    private long m_transferCount;
+    
+    /** Total request bytes. */
+    private long m_inBytes;
+    
+    /** Total response bytes. */
+    private long m_outBytes;
+    
+    /**
+     * Constructor.
+     * 
+     * @param service service name
+     * @param operation operation name
+     */
+    public OperationMetrics(String service, String operation) {
+        m_serviceName = service;
+        m_operationName = operation;
+        m_latency = new LatencyHistogram();
+        m_phaseLatencies = new LatencyHistogram[ExchangeContext.getMarkCount()];
+        for (int i = ExchangeContext.MARK_START + 1; i < m_phaseLatencies.length; i++) {
+            m_phaseLatencies[i] = new LatencyHistogram();
+        }
+    }
+    
+    /**
+     * Record the completion of a request.
+     * 
+     * @param millis time taken to process the request, in milliseconds
+     * @param fault <code>true</code> if a fault response was returned, <code>false</code> if not
+     */
+    public void requestCompleted(long millis, boolean fault) {
+        m_latency.record(millis);
+        synchronized (this) {
+            m_requestCount++;
+            if (fault) {
+                m_faultCount++;
+            }
+        }
+    }
+    
+    /**
+     * Record the phase times for a request. Phases which were not reached are ignored.
+     * 
+     * @param event phase timing event
+     */
+    public void phasesCompleted(PhaseTimingEvent event) {
+        for (int i = ExchangeContext.MARK_START + 1; i < m_phaseLatencies.length; i++) {
+            long time = event.getPhaseTime(i);
+            if (time >= 0) {
+                m_phaseLatencies[i].record(time);
+            }
+        }
+    }
+    
+    /**
+     * Record the number of bytes transferred for a request.
+     * 
+     * @param in number of request bytes
+     * @param out number of response bytes
+     */
+    public synchronized void bytesTransferred(long in, long out) {
+        m_transferCount++;
+        m_inBytes += in;
+        m_outBytes += out;
+    }
+    
+    /**
+     * Get the service name.
+     * 
+     * @return name
+     */
+    public String getServiceName() {
+        return m_serviceName;
+    }
+    
+    /**
+     * Get the operation name.
+     * 
+     * @return name ({@link MetricsCollector#UNKNOWN_OPERATION} for requests where the operation was not known)
+     */
+    public String getOperationName() {
+        return m_operationName;
+    }
+    
+    /**
+     * Get the histogram of request latencies.
+     * 
+     * @return histogram
+     */
+    public LatencyHistogram getLatency() {
+        return m_latency;
+    }
+    
+    /**
+     * Get the histogram of times for a phase of request processing. Phase times are only recorded when this collector
+     * is also used as the phase timing listener for the service.
+     * 
+     * @param mark timing point ending the phase, one of the <code>MARK_xxx</code> constants of {@link ExchangeContext}
+     * other than {@link ExchangeContext#MARK_START}
+     * @return histogram
+     */
+    public LatencyHistogram getPhaseLatency(int mark) {
+        return m_phaseLatencies[mark];
+    }
+    
+    /**
+     * Get the number of requests.
+     * 
+     * @return count
+     */
+    public synchronized long getRequestCount() {
+        return m_requestCount;
+    }
+    
+    /**
+     * Get the number of requests with fault responses.
+     * 
+     * @return count
+     */
+    public synchronized long getFaultCount() {
+        return m_faultCount;
+    }
+    
+    /**
+     * Get the total number of request bytes.
+     * 
+     * @return bytes
+     */
+    public synchronized long getInBytes() {
+        return m_inBytes;
+    }
+    
+    /**
+     * Get the total number of response bytes.
+     * 
+     * @return bytes
+     */
+    public synchronized long getOutBytes() {
+        return m_outBytes;
+    }
+    
+    /**
+     * Get the average number of request bytes.
+     * 
+     * @return bytes (zero if no byte counts recorded)
+     */
+    public synchronized long getAverageInBytes() {
+        return m_transferCount == 0 ? 0 : m_inBytes / m_transferCount;
+    }
+    
+    /**
+     * Get the average number of response bytes.
+     * 
+     * @return bytes (zero if no byte counts recorded)
+     */
+    public synchronized long getAverageOutBytes() {
+        return m_transferCount == 0 ? 0 : m_outBytes / m_transferCount;
+    }
+}
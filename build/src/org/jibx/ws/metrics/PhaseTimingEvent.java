@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.metrics;
+
+import org.jibx.ws.context.ExchangeContext;
+
+/**
+ * Details of the phase times for a completed request. The event is only valid during the call to the listener, since
+ * the exchange context is reset for reuse as soon as the listener returns.
+ * 
+ * @author Dennis M. Sosnoski
+ * @see PhaseTimingListener
+ */
+public final class PhaseTimingEvent
+{
+    private final String m_serviceName;
+    private final String m_operationName;
+    private final ExchangeContext m_exchangeCtx;
+    
+    /**
+     * Constructor.
+     * 
+     * @param service service name
+     * @param operation operation name, or {@link MetricsCollector#UNKNOWN_OPERATION}
+     * @param exchangeCtx exchange context for the request
+     */
+    public PhaseTimingEvent(String service, String operation, ExchangeContext exchangeCtx) {
+        m_serviceName = service;
+        m_operationName = operation;
+        m_exchangeCtx = exchangeCtx;
+    }
+    
+    /**
+     * Get the service name.
+     * 
+     * @return name
+     */
+    public String getServiceName() {
+        return m_serviceName;
+    }
+    
+    /**
+     * Get the operation name.
+     * 
+     * @return name ({@link MetricsCollector#UNKNOWN_OPERATION} if the operation was not known)
+     */
+    public String getOperationName() {
+        return m_operationName;
+    }
+    
+    /**
+     * Get the exchange context for the request.
+     * 
+     * @return context
+     */
+    public ExchangeContext getExchangeContext() {
+        return m_exchangeCtx;
+    }
+    
+    /**
+     * Get the time taken by the phase ending at a timing point.
+     * 
+     * @param mark timing point, one of the <code>MARK_xxx</code> constants of {@link ExchangeContext}
+     * @return time in milliseconds, or -1 if the phase was not reached
+     */
+    public long getPhaseTime(int mark) {
+        return m_exchangeCtx.getPhaseTime(mark);
+    }
+}
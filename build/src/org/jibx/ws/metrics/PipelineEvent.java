@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.metrics;
+
+/**
+ * Event for a stage of the message processing pipeline, reported to a {@link PipelineEventListener} when the stage
+ * completes. Each event gives the stage type, the time the stage started and how long it took, along with whatever
+ * details of the request are known at that stage.
+ * 
+ * @author Dennis M. Sosnoski
+ * @see PipelineEvents
+ */
+public final class PipelineEvent
+{
+    /** Complete handling of a request by a transport, from receiving the request to completing the response. */
+    public static final int TYPE_REQUEST = 0;
+    
+    /** Receiving and unmarshalling a request message. */
+    public static final int TYPE_RECEIVE = 1;
+    
+    /** Invoking a service operation. */
+    public static final int TYPE_INVOKE = 2;
+    
+    /** Marshalling and sending a response message. */
+    public static final int TYPE_SEND = 3;
+    
+    /** Checking out a pooled service instance or codec, including any time spent waiting for the pool lock. */
+    public static final int TYPE_CHECKOUT = 4;
+    
+    /** Names of the event types. */
+    private static final String[] TYPE_NAMES = { "request", "receive", "invoke", "send", "checkout" };
+    
+    private final int m_type;
+    private final String m_serviceName;
+    private final String m_operationName;
+    private final String m_mediaType;
+    private final long m_inBytes;
+    private final long m_outBytes;
+    private final long m_startTime;
+    private final long m_duration;
+    
+    /**
+     * Constructor.
+     * 
+     * @param type event type, one of the <code>TYPE_xxx</code> constants
+     * @param service service name (<code>null</code> if not known)
+     * @param operation operation name (<code>null</code> if not known)
+     * @param media media type (<code>null</code> if not known)
+     * @param in number of request bytes (-1 if not known)
+     * @param out number of response bytes (-1 if not known)
+     * @param start time the stage started, in milliseconds
+     * @param duration time taken by the stage, in milliseconds
+     */
+    public PipelineEvent(int type, String service, String operation, String media, long in, long out, long start,
+        long duration) {
+        m_type = type;
+        m_serviceName = service;
+        m_operationName = operation;
+        m_mediaType = media;
+        m_inBytes = in;
+        m_outBytes = out;
+        m_startTime = start;
+        m_duration = duration;
+    }
+    
+    /**
+     * Get the name for an event type.
+     * 
+     * @param type event type
+     * @return name
+     */
+    public static String getTypeName(int type) {
+        return TYPE_NAMES[type];
+    }
+    
+    /**
+     * Get the event type.
+     * 
+     * @return type, one of the <code>TYPE_xxx</code> constants
+     */
+    public int getType() {
+        return m_type;
+    }
+    
+    /**
+     * Get the service name.
+     * 
+     * @return name (<code>null</code> if not known)
+     */
+    public String getServiceName() {
+        return m_serviceName;
+    }
+    
+    /**
+     * Get the operation name.
+     * 
+     * @return name (<code>null</code> or {@link MetricsCollector#UNKNOWN_OPERATION} if not known)
+     */
+    public String getOperationName() {
+        return m_operationName;
+    }
+    
+    /**
+     * Get the media type.
+     * 
+     * @return media type (<code>null</code> if not known)
+     */
+    public String getMediaType() {
+        return m_mediaType;
+    }
+    
+    /**
+     * Get the number of request bytes.
+     * 
+     * @return bytes (-1 if not known)
+     */
+    public long getInBytes() {
+        return m_inBytes;
+    }
+    
+    /**
+     * Get the number of response bytes.
+     * 
+     * @return bytes (-1 if not known)
+     */
+    public long getOutBytes() {
+        return m_outBytes;
+    }
+    
+    /**
+     * Get the time the stage started.
+     * 
+     * @return time in milliseconds
+     */
+    public long getStartTime() {
+        return m_startTime;
+    }
+    
+    /**
+     * Get the time taken by the stage.
+     * 
+     * @return time in milliseconds
+     */
+    public long getDuration() {
+        return m_duration;
+    }
+    
+    /**
+     * Get a string representation of the event, for logging.
+     * 
+     * @return description
+     */
+    public String toString() {
+        return TYPE_NAMES[m_type] + " service=" + m_serviceName + " operation=" + m_operationName + " media="
+            + m_mediaType + " in=" + m_inBytes + " out=" + m_outBytes + " time=" + m_duration + "ms";
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.metrics;
+
+/**
+ * Reports events from the message processing pipeline to a single global listener. When no listener is set the
+ * pipeline only checks {@link #isEnabled()} at each stage, so there's no cost beyond a field access.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class PipelineEvents
+{
+    /** Listener for events (<code>null</code> if none). */
+    private static volatile PipelineEventListener s_listener;
+    
+    /** Hide constructor. */
+    private PipelineEvents() {
+    }
+    
+    /**
+     * Set the listener for events.
+     * 
+     * @param listener listener (<code>null</code> to stop reporting events)
+     */
+    public static void setListener(PipelineEventListener listener) {
+        s_listener = listener;
+    }
+    
+    /**
+     * Get the listener for events.
+     * 
+     * @return listener (<code>null</code> if none)
+     */
+    public static PipelineEventListener getListener() {
+        return s_listener;
+    }
+    
+    /**
+     * Check if events are being reported. Code reporting events should check this before getting the start time for a
+     * stage.
+     * 
+     * @return <code>true</code> if a listener is set, <code>false</code> if not
+     */
+    public static boolean isEnabled() {
+        return s_listener != null;
+    }
+    
+    /**
+     * Report the completion of a stage of processing. The time taken by the stage is measured from the supplied start
+     * time to the current time. This does nothing if no listener is set.
+     * 
+     * @param type event type, one of the <code>TYPE_xxx</code> constants of {@link PipelineEvent}
+     * @param service service name (<code>null</code> if not known)
+     * @param operation operation name (<code>null</code> if not known)
+     * @param media media type (<code>null</code> if not known)
+     * @param in number of request bytes (-1 if not known)
+     * @param out number of response bytes (-1 if not known)
+     * @param start time the stage started, in milliseconds
+     */
+    public static void stageCompleted(int type, String service, String operation, String media, long in, long out,
+        long start) {
+        PipelineEventListener listener = s_listener;
+        if (listener != null) {
+            listener.onEvent(new PipelineEvent(type, service, operation, media, in, out, start,
+                System.currentTimeMillis() - start));
+        }
+    }
+}
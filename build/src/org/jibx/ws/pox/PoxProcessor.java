@@ -32,16 +32,20 @@ import java.io.IOException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.jibx.runtime.IXMLReader;
 import org.jibx.runtime.impl.MarshallingContext;
 import org.jibx.ws.WsException;
 import org.jibx.ws.context.ExchangeContext;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.MessageContext;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.context.TraceContext;
+import org.jibx.ws.io.StreamingRequest;
 import org.jibx.ws.process.Processor;
 import org.jibx.ws.transport.InConnection;
 import org.jibx.ws.transport.OutConnection;
 import org.jibx.ws.transport.WsTransportException;
+import org.jibx.ws.transport.XopConnection;
 
 /**
  * Processor for POX messages. The sequence of message exchanges is defined by the {@link ExchangeContext}, which
@@ -118,18 +122,23 @@ public final class PoxProcessor implements Processor
 
         try {
             logger.debug("Starting send message");
+            if (conn instanceof XopConnection) {
+                context.setAttachments(((XopConnection) conn).getAttachments());
+            }
             context.invokeBodyWriter(conn.getNormalWriter(DEFAULT_NS));
+            m_exchangeCtx.markTime(ExchangeContext.MARK_MARSHALLED);
             logger.debug("Message sent");
         } finally {
             conn.outputComplete();
             conn.close();
         }
+        m_exchangeCtx.markTime(ExchangeContext.MARK_FLUSHED);
     }
 
     /**
      * {@inheritDoc}
      */
-    public void receiveMessage(InConnection conn) throws IOException, WsException {
+    public void receiveMessage(final InConnection conn) throws IOException, WsException {
         if (m_exchangeCtx.getCurrentMessageContext() == null) {
             throw new IllegalStateException("No message context available for receiving message");
         }
@@ -138,19 +147,43 @@ public final class PoxProcessor implements Processor
         }
         InContext context = (InContext) m_exchangeCtx.getCurrentMessageContext();
 
+        boolean deferred = false;
         try {
             conn.init();
             if (conn.hasError()) {
                 throw new WsTransportException(conn.getErrorMessage());
             }
             logger.debug("Starting receive message");
-            context.invokeBodyReader(conn.getReader());
+            m_exchangeCtx.markTime(ExchangeContext.MARK_READ);
+            TraceContext.receive(conn, context);
+            IXMLReader xmlReader = conn.getReader();
+            if (conn instanceof XopConnection) {
+                context.setAttachments(((XopConnection) conn).getAttachments());
+            }
+            m_exchangeCtx.markTime(ExchangeContext.MARK_PARSED);
+            context.invokeBodyReader(xmlReader);
+            m_exchangeCtx.markTime(ExchangeContext.MARK_UNMARSHALLED);
             if (context.getBody() == null) {
                 throw new WsException("No handlers could be found for unmarshalling the body payload");
             }
+            if (context.getBody() instanceof StreamingRequest) {
+                
+                // release the input after the operation has read the streamed items
+                ((StreamingRequest) context.getBody()).setCompletion(new StreamingRequest.Completion() {
+                    public void finish() {
+                        conn.inputComplete();
+                    }
+                    public void abort() {
+                        conn.inputComplete();
+                    }
+                });
+                deferred = true;
+            }
             logger.debug("Message received");
         } finally {
-            conn.inputComplete();
+            if (!deferred) {
+                conn.inputComplete();
+            }
         }
     }
 
@@ -31,6 +31,7 @@ import org.jibx.ws.client.Client;
 import org.jibx.ws.context.ExchangeContext;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.context.TraceContext;
 import org.jibx.ws.io.MessageOptions;
 import org.jibx.ws.pox.PoxProcessor;
 import org.jibx.ws.pox.PoxProtocol;
@@ -106,6 +107,9 @@ public final class PoxClient extends Client
 
         String opname = null;
         MessageProperties msgProps = PoxProtocol.INSTANCE.buildMessageProperties(opname, getMessageOptions());
+        m_outCtx.setTraceParent(getTraceParent());
+        m_outCtx.setTraceState(getTraceState());
+        TraceContext.send(m_outCtx, msgProps);
         DuplexConnection duplex = getChannel().getDuplex(msgProps, getMessageOptions().getXmlOptions());
         processor.invoke(duplex.getOutbound(), duplex.getInbound());
 
@@ -25,6 +25,7 @@ import org.jibx.ws.WsException;
 import org.jibx.ws.context.ExchangeContext;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.pox.PoxProcessor;
 import org.jibx.ws.process.Processor;
 import org.jibx.ws.server.MediaTypeMapper;
 import org.jibx.ws.server.Service;
@@ -72,6 +73,11 @@ public final class PoxService extends Service
         return ExchangeContext.createInOutExchange(inCtx, outCtx);
     }
 
+    /** {@inheritDoc} */
+    protected Processor createFaultProcessor() {
+        return new PoxProcessor(ExchangeContext.createInOutExchange(new InContext(), new OutContext()));
+    }
+
     /**
      * Not supported for PoxService.
      * {@inheritDoc}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.server;
+
+/**
+ * Concurrency limit for requests to a service. Transports check each request with {@link #tryAcquire()} before doing
+ * any other processing, and reject the request immediately if the limit has been reached, so that requests which are
+ * accepted still complete promptly when the server is overloaded. Each accepted request must be ended with a call to
+ * {@link #release(long)}.
+ * <p>
+ * The limit is either fixed, or adjusted to the measured latency when a target latency is set. In the adaptive case
+ * the limit grows slowly while requests complete within the target latency and are using most of the current limit
+ * (additive increase), and shrinks quickly when requests take longer (multiplicative decrease).
+ * <p>
+ * Requests over the limit can optionally wait a short time for an earlier request to complete, with a bound on the
+ * number of requests waiting. This makes the limit act as a bulkhead which absorbs small bursts, while still failing
+ * fast once the service falls behind.
+ * <p>
+ * Requests can also be given a priority, using {@link #getPriority(String, String, String)}. Waiting requests are
+ * admitted in order of priority, and low priority requests can be shed under load by only admitting them while the
+ * number of requests in progress is below a share of the limit. Low priority requests are then rejected first, leaving
+ * room for more important work.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class AdmissionController
+{
+    /** Default time in seconds suggested to rejected clients before retrying. */
+    public static final int DEFAULT_RETRY_AFTER = 1;
+    
+    /** Priority for background work, which is shed first under load. */
+    public static final int PRIORITY_LOW = 0;
+    
+    /** Default priority. */
+    public static final int PRIORITY_NORMAL = 1;
+    
+    /** Priority for interactive work, admitted first when requests are waiting. */
+    public static final int PRIORITY_HIGH = 2;
+    
+    /** Priority names, indexed by value. */
+    private static final String[] PRIORITY_NAMES = { "low", "normal", "high" };
+    
+    /** Factor applied to the limit when latency exceeds the target. */
+    private static final double BACKOFF_RATIO = 0.9;
+    
+    /** Minimum limit used for adaptive limits. */
+    private static final int MINIMUM_LIMIT = 1;
+    
+    /** Maximum limit for adaptive limits. */
+    private final int m_maxLimit;
+    
+    /** Target latency in milliseconds (zero if limit is fixed). */
+    private final long m_targetLatency;
+    
+    /** Time in seconds suggested to rejected clients before retrying. */
+    private final int m_retryAfter;
+    
+    /** Maximum time in milliseconds a request waits for admission (zero if rejected immediately). */
+    private final long m_maxWait;
+    
+    /** Maximum number of requests waiting for admission. */
+    private final int m_maxQueue;
+    
+    /** Number of requests waiting for admission. */
+    private int m_waiting;
+    
+    /** Number of requests waiting for admission at each priority. */
+    private final int[] m_waitingByPriority;
+    
+    /** Rules used to assign request priorities (empty if none). */
+    private PriorityRule[] m_priorityRules;
+    
+    /** Percentage of limit available to low priority requests. */
+    private int m_lowShare;
+    
+    /** Current limit. */
+    private double m_limit;
+    
+    /** Number of requests in progress. */
+    private int m_inFlight;
+    
+    /** Number of requests rejected. */
+    private long m_rejectedCount;
+    
+    /**
+     * Constructor.
+     * 
+     * @param limit initial (or fixed) concurrency limit
+     * @param max maximum concurrency limit (ignored if limit is fixed)
+     * @param latency target latency in milliseconds (zero or negative for a fixed limit)
+     * @param retry time in seconds suggested to rejected clients before retrying
+     */
+    public AdmissionController(int limit, int max, long latency, int retry) {
+        this(limit, max, latency, retry, 0, 0);
+    }
+    
+    /**
+     * Constructor allowing requests to wait for admission.
+     * 
+     * @param limit initial (or fixed) concurrency limit
+     * @param max maximum concurrency limit (ignored if limit is fixed)
+     * @param latency target latency in milliseconds (zero or negative for a fixed limit)
+     * @param retry time in seconds suggested to rejected clients before retrying
+     * @param wait maximum time in milliseconds a request waits for admission (zero if rejected immediately)
+     * @param queue maximum number of requests waiting for admission
+     */
+    public AdmissionController(int limit, int max, long latency, int retry, long wait, int queue) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be greater than zero");
+        }
+        m_limit = limit;
+        m_maxLimit = Math.max(limit, max);
+        m_targetLatency = latency > 0 ? latency : 0;
+        m_retryAfter = retry;
+        m_maxWait = wait > 0 ? wait : 0;
+        m_maxQueue = queue;
+        m_waitingByPriority = new int[PRIORITY_NAMES.length];
+        m_priorityRules = new PriorityRule[0];
+        m_lowShare = 100;
+    }
+    
+    /**
+     * Get the priority value for a name.
+     * 
+     * @param name priority name ('high', 'normal', or 'low', ignoring case)
+     * @return priority value, or -1 if not recognized
+     */
+    public static int getPriority(String name) {
+        if (name != null) {
+            for (int i = 0; i < PRIORITY_NAMES.length; i++) {
+                if (PRIORITY_NAMES[i].equalsIgnoreCase(name.trim())) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Set up priority scheduling. This must be called before the controller is used.
+     * 
+     * @param rules rules used to assign request priorities, checked in order
+     * @param share percentage of the limit available to low priority requests (100 if no shedding)
+     */
+    public void setPriorityScheduling(PriorityRule[] rules, int share) {
+        m_priorityRules = rules;
+        m_lowShare = share;
+    }
+    
+    /**
+     * Get the priority of a request. The first of the priority rules to match the request determines the priority. If
+     * no rule matches, the priority requested by the client is used, or the default of {@link #PRIORITY_NORMAL} if
+     * the client does not request a priority.
+     * 
+     * @param action SOAPAction of request (<code>null</code> if none)
+     * @param addr client address (<code>null</code> if unknown)
+     * @param requested priority name requested by client (<code>null</code> if none)
+     * @return priority value
+     */
+    public int getPriority(String action, String addr, String requested) {
+        if (action != null && action.length() > 1 && action.startsWith("\"") && action.endsWith("\"")) {
+            action = action.substring(1, action.length() - 1);
+        }
+        for (int i = 0; i < m_priorityRules.length; i++) {
+            PriorityRule rule = m_priorityRules[i];
+            if (rule.matches(action, addr)) {
+                return rule.getPriority();
+            }
+        }
+        int priority = getPriority(requested);
+        return priority < 0 ? PRIORITY_NORMAL : priority;
+    }
+    
+    /**
+     * Get the concurrency limit for low priority requests.
+     * 
+     * @return limit
+     */
+    private int getLowLimit() {
+        return Math.max(MINIMUM_LIMIT, (int) (m_limit * m_lowShare / 100));
+    }
+    
+    /**
+     * Check if any requests are waiting with a priority at or above a value.
+     * 
+     * @param priority priority value
+     * @return <code>true</code> if requests waiting, <code>false</code> if not
+     */
+    private boolean isWaiting(int priority) {
+        for (int i = priority; i < m_waitingByPriority.length; i++) {
+            if (m_waitingByPriority[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Check if a request with a given priority can be admitted now.
+     * 
+     * @param priority priority value
+     * @param waiting <code>true</code> if the request is already waiting, <code>false</code> if just arrived
+     * @return <code>true</code> if request can be admitted, <code>false</code> if not
+     */
+    private boolean isAdmissible(int priority, boolean waiting) {
+        if (m_inFlight >= (int) m_limit || (priority == PRIORITY_LOW && m_inFlight >= getLowLimit())) {
+            return false;
+        }
+        
+        // a new request cannot pass waiting requests of the same priority, a waiting request only higher priority
+        return !isWaiting(waiting ? priority + 1 : priority);
+    }
+    
+    /**
+     * Try to admit a request with the default priority.
+     *
+     * @return <code>true</code> if admitted, <code>false</code> if the request must be rejected
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(PRIORITY_NORMAL);
+    }
+    
+    /**
+     * Try to admit a request. If the limit has been reached and waiting is allowed, this waits for up to the maximum
+     * wait time for an earlier request to complete, unless the maximum number of requests are already waiting.
+     * Waiting requests are admitted highest priority first.
+     *
+     * @param priority request priority
+     * @return <code>true</code> if admitted, <code>false</code> if the request must be rejected
+     */
+    public synchronized boolean tryAcquire(int priority) {
+        if (isAdmissible(priority, false)) {
+            m_inFlight++;
+            return true;
+        }
+        if (m_maxWait > 0 && m_waiting < m_maxQueue) {
+            m_waiting++;
+            m_waitingByPriority[priority]++;
+            try {
+                long end = System.currentTimeMillis() + m_maxWait;
+                long remain = m_maxWait;
+                while (remain > 0) {
+                    wait(remain);
+                    if (isAdmissible(priority, true)) {
+                        m_inFlight++;
+                        return true;
+                    }
+                    remain = end - System.currentTimeMillis();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                m_waiting--;
+                m_waitingByPriority[priority]--;
+                if (m_waiting > 0) {
+                    notifyAll();
+                }
+            }
+        }
+        m_rejectedCount++;
+        return false;
+    }
+    
+    /**
+     * End an admitted request, adjusting the limit if adaptive.
+     *
+     * @param latency time in milliseconds taken to process the request
+     */
+    public synchronized void release(long latency) {
+        if (m_targetLatency > 0) {
+            if (latency > m_targetLatency) {
+                m_limit = Math.max(MINIMUM_LIMIT, m_limit * BACKOFF_RATIO);
+            } else if (m_inFlight * 2 >= (int) m_limit) {
+                m_limit = Math.min(m_maxLimit, m_limit + 1 / m_limit);
+            }
+        }
+        m_inFlight--;
+        if (m_waiting > 0) {
+            notifyAll();
+        }
+    }
+    
+    /**
+     * Get the current concurrency limit.
+     *
+     * @return limit
+     */
+    public synchronized int getLimit() {
+        return (int) m_limit;
+    }
+    
+    /**
+     * Get the number of requests in progress.
+     *
+     * @return count
+     */
+    public synchronized int getInFlight() {
+        return m_inFlight;
+    }
+    
+    /**
+     * Get the number of requests waiting for admission.
+     *
+     * @return count
+     */
+    public synchronized int getWaiting() {
+        return m_waiting;
+    }
+    
+    /**
+     * Get the number of requests rejected.
+     *
+     * @return count
+     */
+    public synchronized long getRejectedCount() {
+        return m_rejectedCount;
+    }
+    
+    /**
+     * Get the time suggested to rejected clients before retrying.
+     *
+     * @return time in seconds
+     */
+    public int getRetryAfter() {
+        return m_retryAfter;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.server;
+
+/**
+ * Deadline for processing a request. When an operation is invoked with a time limit, the deadline is available to the
+ * operation method through {@link #current()}. Long-running methods should check {@link #isCancelled()} at convenient
+ * points and abandon processing once it returns <code>true</code>. The thread running the method is also interrupted
+ * when the deadline passes, which ends most blocking waits.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class Deadline
+{
+    /** Deadline for the operation running on the current thread. */
+    private static final ThreadLocal s_current = new ThreadLocal();
+    
+    /** Time in milliseconds at which the deadline expires. */
+    private final long m_expires;
+    
+    /** Flag for processing cancelled. */
+    private volatile boolean m_cancelled;
+    
+    /**
+     * Constructor.
+     * 
+     * @param timeout time in milliseconds until the deadline expires
+     */
+    public Deadline(long timeout) {
+        m_expires = System.currentTimeMillis() + timeout;
+    }
+    
+    /**
+     * Get the deadline for the operation running on the current thread.
+     *
+     * @return deadline, or <code>null</code> if the operation has no time limit
+     */
+    public static Deadline current() {
+        return (Deadline) s_current.get();
+    }
+    
+    /**
+     * Set the deadline for the operation running on the current thread.
+     *
+     * @param deadline deadline (<code>null</code> to clear)
+     */
+    static void setCurrent(Deadline deadline) {
+        s_current.set(deadline);
+    }
+    
+    /**
+     * Get the time remaining before the deadline expires.
+     *
+     * @return time in milliseconds (zero if expired)
+     */
+    public long getRemaining() {
+        long remain = m_expires - System.currentTimeMillis();
+        return remain > 0 ? remain : 0;
+    }
+    
+    /**
+     * Check if the deadline has expired.
+     *
+     * @return <code>true</code> if expired, <code>false</code> if not
+     */
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= m_expires;
+    }
+    
+    /**
+     * Cancel processing. This is called when the caller stops waiting for the result, either because the deadline
+     * expired or because the request was abandoned.
+     */
+    public void cancel() {
+        m_cancelled = true;
+    }
+    
+    /**
+     * Check if processing has been cancelled.
+     *
+     * @return <code>true</code> if cancelled, or if the deadline has expired, <code>false</code> if not
+     */
+    public boolean isCancelled() {
+        return m_cancelled || isExpired();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.server;
+
+import org.jibx.ws.WsConfigurationException;
+import org.jibx.ws.tcp.server.TcpServer;
+
+/**
+ * Agent for runtime management of services and transports. The transports notify the agent as services and servers are
+ * started, so that it can make them available to management tools. An agent is only used when one is configured, by
+ * {@link ManagementAgents}.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public interface ManagementAgent
+{
+    /**
+     * Notifies the agent that a service is being made available. This is called before any instances of the service
+     * are created, so the agent can replace the metrics collector for the service.
+     * 
+     * @param sdef service definition
+     * @throws WsConfigurationException on error in service configuration
+     */
+    void serviceDefined(ServiceDefinition sdef) throws WsConfigurationException;
+    
+    /**
+     * Notifies the agent that the servlet transport has been started. This is called each time a servlet is
+     * initialized, though the pools used by the servlet transport are shared by all servlets.
+     */
+    void servletStarted();
+    
+    /**
+     * Notifies the agent that a TCP server has been started.
+     * 
+     * @param server TCP server
+     */
+    void tcpServerStarted(TcpServer server);
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.server;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jibx.ws.util.Utility;
+
+/**
+ * Access to the configured {@link ManagementAgent}. The agent is set either directly, or by naming the agent class with
+ * the <code>org.jibx.ws.management.agent</code> system property (for instance,
+ * <code>org.jibx.ws.management.JmxManagementAgent</code>).
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class ManagementAgents
+{
+    /** System property giving agent class name. */
+    public static final String AGENT_PROPERTY = "org.jibx.ws.management.agent";
+    
+    private static final Log s_logger = LogFactory.getLog(ManagementAgents.class);
+    
+    /** Configured agent (<code>null</code> if none). */
+    private static ManagementAgent s_agent;
+    
+    /** Flag for agent class property checked. */
+    private static boolean s_checked;
+    
+    /** Hide constructor. */
+    private ManagementAgents() {
+    }
+    
+    /**
+     * Set the agent.
+     * 
+     * @param agent agent (<code>null</code> if none)
+     */
+    public static synchronized void setAgent(ManagementAgent agent) {
+        s_agent = agent;
+        s_checked = true;
+    }
+    
+    /**
+     * Get the agent. The first time this is called, unless an agent has been set directly, this creates an instance of
+     * the class named by the {@link #AGENT_PROPERTY} system property. Errors in creating the agent are logged, and
+     * management is then disabled.
+     * 
+     * @return agent, or <code>null</code> if none
+     */
+    public static synchronized ManagementAgent getAgent() {
+        if (!s_checked) {
+            s_checked = true;
+            String cname = System.getProperty(AGENT_PROPERTY);
+            if (cname != null) {
+                Class clas = Utility.loadClass(cname);
+                if (clas == null) {
+                    s_logger.error("Management agent class " + cname + " not found in classpath");
+                } else {
+                    try {
+                        s_agent = (ManagementAgent) clas.newInstance();
+                    } catch (Exception e) {
+                        s_logger.error("Unable to create management agent " + cname, e);
+                    }
+                }
+            }
+        }
+        return s_agent;
+    }
+}
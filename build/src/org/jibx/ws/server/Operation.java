@@ -27,10 +27,14 @@ import java.lang.reflect.Modifier;
 import org.jibx.runtime.JiBXException;
 import org.jibx.ws.WsConfigurationException;
 import org.jibx.ws.WsException;
+import org.jibx.ws.WsTimeoutException;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.MessageContext;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.context.TraceContext;
+import org.jibx.ws.io.StreamingRequest;
 import org.jibx.ws.process.Processor;
+import org.jibx.ws.util.WorkerPool;
 
 /**
  * An operation that can be invoked by a service. Each {@link Service} is associated with a Java class. Each
@@ -43,6 +47,25 @@ import org.jibx.ws.process.Processor;
  */
 public final class Operation
 {
+    /** System property giving the maximum number of threads running operations with a time limit. */
+    public static final String MAX_THREADS_PROPERTY = "org.jibx.ws.operation.max-threads";
+    
+    /** Default maximum number of threads running operations with a time limit. */
+    public static final int DEFAULT_MAX_THREADS = 200;
+    
+    /** System property giving the maximum time in milliseconds a request waits on processing for other requests. */
+    public static final String MAX_WAIT_PROPERTY = "org.jibx.ws.operation.max-wait";
+    
+    /** Default maximum time in milliseconds a request waits on processing for other requests. */
+    public static final long DEFAULT_MAX_WAIT = 60000;
+    
+    /** Maximum time in milliseconds a request waits on processing for other requests, when there is no time limit. */
+    private static volatile long s_maxWait = Long.getLong(MAX_WAIT_PROPERTY, DEFAULT_MAX_WAIT).longValue();
+    
+    /** Threads used to run operations with a time limit. */
+    private static final WorkerPool s_workerPool = new WorkerPool("jibxws-operation", WorkerPool.DEFAULT_IDLE_TIME,
+        Integer.getInteger(MAX_THREADS_PROPERTY, DEFAULT_MAX_THREADS).intValue());
+    
 //    private final String m_operationName;
 //    private final String m_inputMessageName;
 //    private final String m_outputMessageName;
@@ -50,6 +73,24 @@ public final class Operation
     private final Class m_inputClass;
     private final Class m_outputClass;
     private final ParamIndices m_idxs;
+    
+    /** Wrapper element namespace URI for streaming input (<code>null</code> if input not streamed). */
+    private final String m_inputElementUri;
+    
+    /** Wrapper element name for streaming input (<code>null</code> if input not streamed). */
+    private final String m_inputElementName;
+    
+    /** Time to live for cached responses in milliseconds (zero if responses are not cached). */
+    private final long m_cacheTtl;
+    
+    /** Flag for concurrent identical requests to share a single invocation. */
+    private final boolean m_coalesce;
+    
+    /** Batcher combining concurrent requests (<code>null</code> if requests are not batched). */
+    private final RequestBatcher m_batcher;
+    
+    /** Time limit for processing in milliseconds (zero if unlimited). */
+    private final long m_timeout;
 
     /**
      * Constructs an {@link Operation} that corresponds to the method of the specified <code>serviceClass</code> that
@@ -65,6 +106,8 @@ public final class Operation
      * <li>The method may have an additional parameter of type {@link InContext}, or</li>
      * <li>The method may have 2 additional parameters of type {@link InContext} and {@link OutContext}.</li>
      * </ul>
+     * If {@link OperationDefinition#getInputElement()} is <code>non-null</code>, the first parameter of the method must
+     * instead accept a {@link StreamingRequest}.
      * 
      * @param serviceClass the class that contains the method to be associated with the <code>Operation</code>
      * @param opdef the definition of the <code>Operation</code>
@@ -77,13 +120,34 @@ public final class Operation
             throw new IllegalArgumentException("Method Name must be set on operation definition");
         }
 
+        // split streaming input element name into namespace and local name
+        String elemUri = null;
+        String elemName = null;
+        String elem = opdef.getInputElement();
+        if (elem != null) {
+            if (elem.startsWith("{")) {
+                int split = elem.indexOf('}');
+                if (split < 0 || split == elem.length() - 1) {
+                    throw new WsConfigurationException("Invalid input element name '" + elem + "' for method "
+                        + methodName);
+                }
+                elemUri = elem.substring(1, split);
+                elemName = elem.substring(split + 1);
+            } else {
+                elemUri = "";
+                elemName = elem;
+            }
+        }
+
         Method[] methods = serviceClass.getMethods();
         for (int i = 0; i < methods.length; i++) {
             if (methodName.equals(methods[i].getName())) {
                 Method method = methods[i];
-                ParamIndices idxs = matchSignature(method, opdef.getInputClassName(), opdef.getOutputClassName());
+                ParamIndices idxs = matchSignature(method, opdef.getInputClassName(), opdef.getOutputClassName(),
+                    elem != null);
                 if (idxs != null) {
-                    return new Operation(opdef, method, idxs);
+                    return new Operation(opdef, method, idxs, elemUri, elemName,
+                        opdef.getRequestBatcher(serviceClass));
                 }
             }
         }
@@ -98,10 +162,20 @@ public final class Operation
      * @param opdef the definition of the operation
      * @param method the method to be associated with the Operation
      * @param idxs specifies the indices of the method parameters
+     * @param elemUri wrapper element namespace URI for streaming input (<code>null</code> if input not streamed)
+     * @param elemName wrapper element name for streaming input (<code>null</code> if input not streamed)
+     * @param batcher batcher combining concurrent requests (<code>null</code> if requests are not batched)
      */
-    private Operation(OperationDefinition opdef, Method method, ParamIndices idxs) {
+    private Operation(OperationDefinition opdef, Method method, ParamIndices idxs, String elemUri,
+        String elemName, RequestBatcher batcher) {
         m_method = method;
         m_idxs = idxs;
+        m_inputElementUri = elemUri;
+        m_inputElementName = elemName;
+        m_cacheTtl = opdef.getCacheTtl();
+        m_coalesce = opdef.isCoalesce();
+        m_batcher = batcher;
+        m_timeout = opdef.getTimeout();
 
         Class[] params = method.getParameterTypes();
         m_inputClass = (params.length == 0) ? null : params[0];
@@ -134,7 +208,8 @@ public final class Operation
     /**
      * Invokes the method that is associated with this operation, passing the optional payload as a parameter. If the
      * method definition includes {@link InContext} or {@link OutContext} parameters, the current contexts are retrieved
-     * from the specified {@link Processor}.
+     * from the specified {@link Processor}. For a batched operation, the payload is instead added to a batch passed to
+     * the batch method, and this call blocks until the batch has been processed.
      * 
      * @param serviceObj the current Service object, on which to invoke the method. If the method is static, this
      * parameter may be set to <code>null</code>. For non-static methods, the parameter must be <code>non-null</code>.
@@ -145,11 +220,14 @@ public final class Operation
      * @return the return value from the method, or <code>null</code> for void methods.
      * @throws InvocationTargetException wraps an exception thrown by the method that was invoked
      * @throws WsException if the processor is in an invalid state to provide <code>InContext</code> or
-     * <code>OutContext</code> parameters
+     * <code>OutContext</code> parameters, or on error processing a batch
      */
     public Object invoke(Object serviceObj, Object payload, Processor processor) throws InvocationTargetException,
         WsException {
 
+        if (m_batcher != null) {
+            return m_batcher.invoke(serviceObj, payload);
+        }
         Object[] args = null;
 
         if (m_idxs.m_paramCount > 0) {
@@ -183,20 +261,104 @@ public final class Operation
         }
     }
 
+    /**
+     * Invokes the method that is associated with this operation with a time limit. The method is run on a separate
+     * thread, with a {@link Deadline} available through {@link Deadline#current()}. If the method does not complete
+     * within the time limit the deadline is cancelled, the thread running the method is interrupted, and this call
+     * returns by throwing an exception. Since the method may continue running after this call returns, the caller must
+     * not reuse the <code>serviceObj</code> or <code>processor</code> for other requests.
+     * <p>
+     * Threads running methods which ignore the interrupt stay busy after the call returns. To keep a hung backend from
+     * using up an unlimited number of threads, the number of threads running methods with a time limit is capped (see
+     * {@link #setMaxTimedThreads(int)}). When all the threads are busy the method is not run, and this call fails
+     * immediately with an exception.
+     * 
+     * @param serviceObj the current Service object, on which to invoke the method
+     * @param payload the object to pass as an input parameter
+     * @param processor the current processor
+     * @param timeout time limit in milliseconds (zero or negative if unlimited, in which case the method is run on the
+     * calling thread)
+     * @return the return value from the method, or <code>null</code> for void methods.
+     * @throws InvocationTargetException wraps an exception thrown by the method that was invoked
+     * @throws WsTimeoutException if the method did not complete within the time limit, or could not be started because
+     * all threads for running methods are busy
+     * @throws WsException on error invoking the method
+     * @see #invoke(Object, Object, Processor)
+     */
+    public Object invoke(Object serviceObj, Object payload, Processor processor, long timeout)
+        throws InvocationTargetException, WsException {
+        if (timeout <= 0) {
+            return invoke(serviceObj, payload, processor);
+        }
+        TimedInvocation invocation = new TimedInvocation(serviceObj, payload, processor, new Deadline(timeout));
+        if (s_workerPool.execute(invocation) == null) {
+            throw new WsTimeoutException("Operation " + m_method.getName() + " not started, all "
+                + s_workerPool.getMaxBusy() + " threads for operations with time limits are busy");
+        }
+        return invocation.await(timeout);
+    }
+    
+    /**
+     * Set the maximum number of threads running operations with a time limit. The initial value is taken from the
+     * {@link #MAX_THREADS_PROPERTY} system property, if set, and is otherwise {@link #DEFAULT_MAX_THREADS}.
+     * 
+     * @param max maximum number of threads (zero if unlimited)
+     */
+    public static void setMaxTimedThreads(int max) {
+        s_workerPool.setMaxBusy(max);
+    }
+    
+    /**
+     * Set the maximum time a request waits on processing for other requests (a batch, or an identical request in
+     * progress) when the request has no time limit. The initial value is taken from the {@link #MAX_WAIT_PROPERTY}
+     * system property, if set, and is otherwise {@link #DEFAULT_MAX_WAIT}.
+     * 
+     * @param millis maximum time in milliseconds
+     */
+    public static void setMaxWait(long millis) {
+        s_maxWait = millis;
+    }
+    
+    /**
+     * Get the maximum time a request waits on processing for other requests when the request has no time limit.
+     * 
+     * @return maximum time in milliseconds
+     */
+    public static long getMaxWait() {
+        return s_maxWait;
+    }
+    
+    /**
+     * Get the number of threads running operations with a time limit. This includes threads still running operations
+     * which did not complete within the time limit.
+     * 
+     * @return count
+     */
+    public static int getTimedThreadCount() {
+        return s_workerPool.getBusyCount();
+    }
+
     /**
      * Check for signature match with method. If the signature matches, this saves the method information.
      * 
      * @throws JiBXException on nesting error
      */
-    private static ParamIndices matchSignature(Method method, String inputClassName, String outputClassName) {
+    private static ParamIndices matchSignature(Method method, String inputClassName, String outputClassName,
+        boolean streaming) {
         ParamIndices idxs = new ParamIndices();
         Class[] params = method.getParameterTypes();
         if (params.length == 0) {
-            if (inputClassName != null) {
+            if (inputClassName != null || streaming) {
                 return null;
             }
         } else {
-            if (inputClassName == null || inputClassName.equals(params[0].getName())) {
+            if (streaming) {
+                if (params[0].isAssignableFrom(StreamingRequest.class)) {
+                    idxs.m_payloadIndex = 0;
+                } else {
+                    return null;
+                }
+            } else if (inputClassName == null || inputClassName.equals(params[0].getName())) {
                 idxs.m_payloadIndex = 0;
             } else {
                 return null;
@@ -255,6 +417,71 @@ public final class Operation
         return m_inputClass;
     }
 
+    /**
+     * Returns whether the input to the operation is streamed. If so, the payload passed to the
+     * {@link #invoke(Object, Object, Processor)} method must be a {@link StreamingRequest} for the wrapper element
+     * given by {@link #getInputElementUri()} and {@link #getInputElementName()}.
+     * 
+     * @return <code>true</code> if input streamed, <code>false</code> if not
+     */
+    public boolean isStreamingInput() {
+        return m_inputElementName != null;
+    }
+
+    /**
+     * Returns the namespace URI of the wrapper element for streaming input.
+     * 
+     * @return namespace URI ("" if no namespace, <code>null</code> if input not streamed)
+     */
+    public String getInputElementUri() {
+        return m_inputElementUri;
+    }
+
+    /**
+     * Returns the name of the wrapper element for streaming input.
+     * 
+     * @return name (<code>null</code> if input not streamed)
+     */
+    public String getInputElementName() {
+        return m_inputElementName;
+    }
+
+    /**
+     * Returns the time to live for cached responses to the operation.
+     * 
+     * @return time to live in milliseconds (zero if responses are not cached)
+     */
+    public long getCacheTtl() {
+        return m_cacheTtl;
+    }
+
+    /**
+     * Returns whether concurrent identical requests to the operation are coalesced.
+     * 
+     * @return <code>true</code> if requests coalesced, <code>false</code> if not
+     */
+    public boolean isCoalesce() {
+        return m_coalesce;
+    }
+
+    /**
+     * Returns whether concurrent requests to the operation are combined into batches.
+     * 
+     * @return <code>true</code> if requests batched, <code>false</code> if not
+     */
+    public boolean isBatched() {
+        return m_batcher != null;
+    }
+
+    /**
+     * Returns the time limit for processing a request to the operation.
+     * 
+     * @return time limit in milliseconds (zero if unlimited)
+     */
+    public long getTimeout() {
+        return m_timeout;
+    }
+
     /**
      * Returns the class of the return value of the method, or <code>null</code> if it has a <code>void</code>
      * return type. The {@link #invoke(Object, Object, Processor)} method will return an object of this type.
@@ -265,6 +492,15 @@ public final class Operation
         return m_outputClass;
     }
 
+    /**
+     * Returns the name of the method called for the operation.
+     * 
+     * @return method name
+     */
+    public String getMethodName() {
+        return m_method.getName();
+    }
+
 //    /**
 //     * Returns the name of the operation. This will be set to the value from
 //     * {@link OperationDefinition#getOperationName()} if <code>non-null</code>, or to the method name otherwise.
@@ -300,13 +536,13 @@ public final class Operation
 //    }
 
     /**
-     * Returns whether the associated method is static.
+     * Returns whether the associated method is static. For a batched operation, the batch method must also be static.
      *
      * @return <code>true</code> if the method is static, <code>false</code> otherwise.
      */
     public boolean isStaticMethod() {
         int mods = m_method.getModifiers();
-        return Modifier.isStatic(mods);
+        return Modifier.isStatic(mods) && (m_batcher == null || m_batcher.isStaticMethod());
     }
 
     /** {@inheritDoc} */
@@ -314,6 +550,115 @@ public final class Operation
         return m_method.toString();
     }
     
+    /** Invocation of the method on a pooled thread, with a deadline. */
+    private final class TimedInvocation implements Runnable
+    {
+        private final Object m_serviceObj;
+        private final Object m_payload;
+        private final Processor m_processor;
+        private final Deadline m_deadline;
+        
+        /** Trace context of the calling thread (<code>null</code> if none). */
+        private final MessageContext m_trace;
+        
+        /** Thread running the method (<code>null</code> if not running). */
+        private Thread m_thread;
+        
+        /** Completed flag. */
+        private boolean m_done;
+        
+        /** Value returned by method. */
+        private Object m_result;
+        
+        /** Exception thrown in invoking method (<code>null</code> if none). */
+        private Throwable m_exception;
+        
+        /**
+         * Constructor.
+         *
+         * @param serviceObj
+         * @param payload
+         * @param processor
+         * @param deadline
+         */
+        public TimedInvocation(Object serviceObj, Object payload, Processor processor, Deadline deadline) {
+            m_serviceObj = serviceObj;
+            m_payload = payload;
+            m_processor = processor;
+            m_deadline = deadline;
+            m_trace = TraceContext.getCurrent();
+        }
+        
+        /**
+         * Invoke the method, unless cancelled before starting.
+         */
+        public void run() {
+            synchronized (this) {
+                if (m_deadline.isCancelled()) {
+                    return;
+                }
+                m_thread = Thread.currentThread();
+            }
+            Object result = null;
+            Throwable exception = null;
+            Deadline.setCurrent(m_deadline);
+            TraceContext.setCurrent(m_trace);
+            try {
+                result = invoke(m_serviceObj, m_payload, m_processor);
+            } catch (Throwable e) {
+                exception = e;
+            } finally {
+                Deadline.setCurrent(null);
+                TraceContext.setCurrent(null);
+                synchronized (this) {
+                    m_result = result;
+                    m_exception = exception;
+                    m_done = true;
+                    m_thread = null;
+                    notifyAll();
+                }
+            }
+        }
+        
+        /**
+         * Wait for the invocation to complete, cancelling it if the time limit is reached.
+         *
+         * @param timeout time limit in milliseconds
+         * @return the return value from the method
+         * @throws InvocationTargetException wraps an exception thrown by the method
+         * @throws WsTimeoutException if the method did not complete within the time limit
+         * @throws WsException on error invoking the method
+         */
+        public synchronized Object await(long timeout) throws InvocationTargetException, WsException {
+            try {
+                long remain;
+                while (!m_done && (remain = m_deadline.getRemaining()) > 0) {
+                    wait(remain);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!m_done) {
+                m_deadline.cancel();
+                if (m_thread != null) {
+                    m_thread.interrupt();
+                }
+                throw new WsTimeoutException("Operation " + m_method.getName() + " did not complete within "
+                    + timeout + " ms", true);
+            } else if (m_exception instanceof InvocationTargetException) {
+                throw (InvocationTargetException) m_exception;
+            } else if (m_exception instanceof WsException) {
+                throw (WsException) m_exception;
+            } else if (m_exception instanceof RuntimeException) {
+                throw (RuntimeException) m_exception;
+            } else if (m_exception instanceof Error) {
+                throw (Error) m_exception;
+            } else {
+                return m_result;
+            }
+        }
+    }
+    
     /** Stores the indices of the parameters to the method. */
     private static final class ParamIndices
     {
@@ -20,6 +20,7 @@
  */
 package org.jibx.ws.server;
 
+import org.jibx.ws.WsConfigurationException;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.OutContext;
 
@@ -61,12 +62,36 @@ public final class OperationDefinition
     /** Input message class name, will be determined from method signature if not supplied. */
     private String m_inputClassName;
 
+    /** Wrapper element for streaming input, in the form "{uri}name" or "name" (<code>null</code> if not streamed). */
+    private String m_inputElement;
+
 //    /** Input message name, will be derived from class name if not supplied. */
 //    private String m_inputMessageName;
 
     /** Output message class name, will be determined from method signature if not supplied. */
     private String m_outputClassName;
 
+    /** Time to live for cached responses in milliseconds (zero if responses are not cached). */
+    private long m_cacheTtl;
+
+    /** Flag for concurrent identical requests to share a single invocation. */
+    private boolean m_coalesce;
+
+    /** Time limit for processing in milliseconds (zero if unlimited). */
+    private long m_timeout;
+
+    /** Batch method name (<code>null</code> if requests are not batched). */
+    private String m_batchMethodName;
+
+    /** Time in milliseconds that a batch remains open for requests (zero if default). */
+    private long m_batchWindow;
+
+    /** Maximum number of requests in a batch (zero if default). */
+    private int m_batchSize;
+
+    /** Batcher shared by all operations created from this definition (<code>null</code> until first used). */
+    private RequestBatcher m_requestBatcher;
+
 //    /** Output message name, will be derived from class name if not supplied. */
 //    private String m_outputMessageName;
 
@@ -145,6 +170,27 @@ public final class OperationDefinition
         return m_inputClassName;
     }
 
+    /**
+     * Sets the wrapper element for streaming input. When set, the method must take a {@link
+     * org.jibx.ws.io.StreamingRequest} (or {@link java.util.Iterator}) parameter in place of the unmarshalled input
+     * object, and the child elements of the wrapper are unmarshalled one at a time as the method reads them.
+     * 
+     * @param inputElement wrapper element name, in the form "{uri}name" for a namespaced element or just "name" for an
+     * element with no namespace
+     */
+    public void setInputElement(String inputElement) {
+        m_inputElement = inputElement;
+    }
+
+    /**
+     * Get the wrapper element for streaming input.
+     * 
+     * @return wrapper element name, or <code>null</code> if input is not streamed
+     */
+    public String getInputElement() {
+        return m_inputElement;
+    }
+
 //    /**
 //     * Set the name of the input message for use in the WSDL definition. If not set, this will default to the class 
 //     * name of the input class, with package prefixes removed.
@@ -183,6 +229,139 @@ public final class OperationDefinition
         return m_outputClassName;
     }
 
+    /**
+     * Sets the time to live for cached responses. Setting a non-zero value enables caching of the serialized responses
+     * for the operation, so that a request matching an earlier request is answered directly from the cache without
+     * invoking the method. This must only be used for idempotent operations, where the response depends only on the
+     * request.
+     * 
+     * @param ttl time to live in milliseconds (zero if responses are not cached)
+     */
+    public void setCacheTtl(long ttl) {
+        m_cacheTtl = ttl;
+    }
+
+    /**
+     * Get the time to live for cached responses.
+     * 
+     * @return time to live in milliseconds (zero if responses are not cached)
+     */
+    public long getCacheTtl() {
+        return m_cacheTtl;
+    }
+
+    /**
+     * Sets whether concurrent identical requests are coalesced. When set, a request which arrives while an identical
+     * request (with the same body bytes) is being processed waits for that request to complete and is sent the same
+     * response, rather than invoking the method again. This must only be used for idempotent operations.
+     * 
+     * @param coalesce <code>true</code> if requests coalesced, <code>false</code> if not
+     */
+    public void setCoalesce(boolean coalesce) {
+        m_coalesce = coalesce;
+    }
+
+    /**
+     * Check if concurrent identical requests are coalesced.
+     * 
+     * @return <code>true</code> if requests coalesced, <code>false</code> if not
+     */
+    public boolean isCoalesce() {
+        return m_coalesce;
+    }
+
+    /**
+     * Sets the time limit for processing a request. When set, the method is run on a separate thread, and if it does not
+     * complete within the time limit a fault response is returned. The method can check the {@link Deadline} for the
+     * request to stop processing early once the response is no longer wanted.
+     * 
+     * @param timeout time limit in milliseconds (zero if unlimited)
+     */
+    public void setTimeout(long timeout) {
+        m_timeout = timeout;
+    }
+
+    /**
+     * Get the time limit for processing a request.
+     * 
+     * @return time limit in milliseconds (zero if unlimited)
+     */
+    public long getTimeout() {
+        return m_timeout;
+    }
+
+    /**
+     * Sets the name of the batch method. When set, concurrent requests to the operation are combined into batches and
+     * passed as a {@link java.util.List} of payloads to this method of the service class, which must return a {@link
+     * java.util.List} of the responses in the same order. The method named by {@link #setMethodName(String)} is still
+     * used to determine the input and output types of the operation.
+     * 
+     * @param name batch method name (<code>null</code> if requests are not batched)
+     */
+    public void setBatchMethodName(String name) {
+        m_batchMethodName = name;
+    }
+
+    /**
+     * Get the batch method name.
+     * 
+     * @return batch method name (<code>null</code> if requests are not batched)
+     */
+    public String getBatchMethodName() {
+        return m_batchMethodName;
+    }
+
+    /**
+     * Sets the time that a batch remains open for additional requests, after the first request of the batch arrives.
+     * 
+     * @param window time in milliseconds (zero for the default of {@link RequestBatcher#DEFAULT_WINDOW})
+     */
+    public void setBatchWindow(long window) {
+        m_batchWindow = window;
+    }
+
+    /**
+     * Get the time that a batch remains open for additional requests.
+     * 
+     * @return time in milliseconds (zero if default)
+     */
+    public long getBatchWindow() {
+        return m_batchWindow;
+    }
+
+    /**
+     * Sets the maximum number of requests in a batch. A full batch is processed without waiting for the batch window
+     * to elapse.
+     * 
+     * @param size maximum number of requests (zero for the default of {@link RequestBatcher#DEFAULT_SIZE})
+     */
+    public void setBatchSize(int size) {
+        m_batchSize = size;
+    }
+
+    /**
+     * Get the maximum number of requests in a batch.
+     * 
+     * @return maximum number of requests (zero if default)
+     */
+    public int getBatchSize() {
+        return m_batchSize;
+    }
+
+    /**
+     * Get the request batcher shared by all operations created from this definition, creating it if necessary.
+     * 
+     * @param serviceClass service class
+     * @return batcher, or <code>null</code> if requests are not batched
+     * @throws WsConfigurationException if the batch method is not found
+     */
+    synchronized RequestBatcher getRequestBatcher(Class serviceClass) throws WsConfigurationException {
+        if (m_requestBatcher == null && m_batchMethodName != null) {
+            m_requestBatcher = RequestBatcher.newInstance(serviceClass, m_batchMethodName, m_batchWindow, m_batchSize);
+        }
+        return m_requestBatcher;
+    }
+
 //    /**
 //     * Set the name of the output message for use in the WSDL definition. If not set, this will default to the class
 //     * name of the output class, with package prefixes removed.
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.server;
+
+import org.jibx.ws.WsConfigurationException;
+
+/**
+ * Rule assigning a scheduling priority to requests, based on the SOAPAction of the request or the address of the
+ * client. Rules are checked before any of the request is read, so they cannot use the content of the request.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class PriorityRule
+{
+    /** SOAPAction value matched (<code>null</code> if any). */
+    private String m_soapAction;
+    
+    /** Client address matched (<code>null</code> if any). */
+    private String m_clientAddress;
+    
+    /** Priority name. */
+    private String m_priorityName;
+    
+    /** Priority value, set by {@link #init()}. */
+    private int m_priority;
+    
+    /**
+     * Validate the rule and convert the priority name to a value.
+     * 
+     * @throws WsConfigurationException if the priority name is not recognized
+     */
+    public void init() throws WsConfigurationException {
+        m_priority = AdmissionController.getPriority(m_priorityName);
+        if (m_priority < 0) {
+            throw new WsConfigurationException("Unknown priority '" + m_priorityName
+                + "' (must be 'high', 'normal', or 'low')");
+        }
+    }
+    
+    /**
+     * Set the SOAPAction value matched by this rule.
+     * 
+     * @param action SOAPAction value (<code>null</code> if any)
+     */
+    public void setSoapAction(String action) {
+        m_soapAction = action;
+    }
+    
+    /**
+     * Set the client address matched by this rule.
+     * 
+     * @param addr client address (<code>null</code> if any)
+     */
+    public void setClientAddress(String addr) {
+        m_clientAddress = addr;
+    }
+    
+    /**
+     * Set the priority assigned by this rule.
+     * 
+     * @param name priority name ('high', 'normal', or 'low')
+     */
+    public void setPriorityName(String name) {
+        m_priorityName = name;
+    }
+    
+    /**
+     * Get the priority assigned by this rule.
+     * 
+     * @return priority value
+     */
+    public int getPriority() {
+        return m_priority;
+    }
+    
+    /**
+     * Check if this rule matches a request.
+     * 
+     * @param action SOAPAction of request (<code>null</code> if none)
+     * @param addr client address (<code>null</code> if unknown)
+     * @return <code>true</code> if matched, <code>false</code> if not
+     */
+    public boolean matches(String action, String addr) {
+        return (m_soapAction == null || m_soapAction.equals(action))
+            && (m_clientAddress == null || m_clientAddress.equals(addr));
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.server;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jibx.ws.WsConfigurationException;
+import org.jibx.ws.WsException;
+import org.jibx.ws.WsTimeoutException;
+
+/**
+ * Combines concurrent requests to an operation into batches processed by a single call to a batch method of the service
+ * class. The batch method must take a {@link List} of request payloads and return a {@link List} of the corresponding
+ * responses, in the same order. The first request to arrive opens a batch and waits for either the batch window to
+ * elapse or the maximum batch size to be reached, then invokes the batch method on behalf of all requests in the batch.
+ * Each request thread then continues with its own response, so responses are still sent on the connection for the
+ * request.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class RequestBatcher
+{
+    /** Default time in milliseconds that a batch remains open for additional requests. */
+    public static final long DEFAULT_WINDOW = 10;
+    
+    /** Default maximum number of requests in a batch. */
+    public static final int DEFAULT_SIZE = 100;
+    
+    /** Batch method. */
+    private final Method m_method;
+    
+    /** Time in milliseconds that a batch remains open. */
+    private final long m_window;
+    
+    /** Maximum number of requests in a batch. */
+    private final int m_maxSize;
+    
+    /** Batch currently open for requests (<code>null</code> if none). Access must be synchronized on this object. */
+    private Batch m_open;
+
+    /**
+     * Constructor.
+     * 
+     * @param method batch method
+     * @param window time in milliseconds that a batch remains open for requests
+     * @param size maximum number of requests in a batch
+     */
+    private RequestBatcher(Method method, long window, int size) {
+        m_method = method;
+        m_window = window;
+        m_maxSize = size;
+    }
+    
+    /**
+     * Create a batcher for the batch method of a service class.
+     *
+     * @param serviceClass service class
+     * @param methodName batch method name
+     * @param window time in milliseconds that a batch remains open for requests (zero or negative for default)
+     * @param size maximum number of requests in a batch (zero or negative for default)
+     * @return batcher
+     * @throws WsConfigurationException if no public method with the required signature is found
+     */
+    public static RequestBatcher newInstance(Class serviceClass, String methodName, long window, int size)
+        throws WsConfigurationException {
+        Method[] methods = serviceClass.getMethods();
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            if (methodName.equals(method.getName())) {
+                Class[] params = method.getParameterTypes();
+                if (params.length == 1 && params[0].isAssignableFrom(ArrayList.class)
+                    && List.class.isAssignableFrom(method.getReturnType())) {
+                    return new RequestBatcher(method, window > 0 ? window : DEFAULT_WINDOW,
+                        size > 0 ? size : DEFAULT_SIZE);
+                }
+            }
+        }
+        throw new WsConfigurationException("Batch method " + methodName + " not found in " + serviceClass.getName()
+            + " with expected signature");
+    }
+    
+    /**
+     * Returns whether the batch method is static.
+     *
+     * @return <code>true</code> if the method is static, <code>false</code> otherwise.
+     */
+    public boolean isStaticMethod() {
+        return Modifier.isStatic(m_method.getModifiers());
+    }
+    
+    /**
+     * Process a request as part of a batch. This blocks until the batch containing the request has been processed.
+     * The wait for a batch opened by another request is limited to the batch window plus the time remaining for this
+     * request, if the request has a {@link Deadline}, or otherwise plus the maximum wait set by the
+     * {@link Operation#MAX_WAIT_PROPERTY} system property.
+     *
+     * @param serviceObj the object on which the batch method is invoked, if this request opens the batch (ignored if
+     * the method is static)
+     * @param payload request payload
+     * @return response for request
+     * @throws InvocationTargetException if the batch method throws an exception
+     * @throws WsTimeoutException if the batch was not processed within the time allowed
+     * @throws WsException if interrupted while waiting, or if the batch method returns the wrong number of responses
+     */
+    public Object invoke(Object serviceObj, Object payload) throws InvocationTargetException, WsException {
+        Batch batch;
+        int index;
+        boolean leader;
+        synchronized (this) {
+            batch = m_open;
+            leader = batch == null;
+            if (leader) {
+                batch = new Batch();
+                m_open = batch;
+            }
+            index = batch.m_payloads.size();
+            batch.m_payloads.add(payload);
+            if (batch.m_payloads.size() >= m_maxSize) {
+                m_open = null;
+                notifyAll();
+            }
+            if (leader) {
+                
+                // wait for the window to elapse or another request to fill the batch
+                long end = System.currentTimeMillis() + m_window;
+                try {
+                    long now;
+                    while (m_open == batch && (now = System.currentTimeMillis()) < end) {
+                        wait(end - now);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (m_open == batch) {
+                    m_open = null;
+                }
+            }
+        }
+        if (leader) {
+            batch.process(serviceObj);
+        } else {
+            Deadline deadline = Deadline.current();
+            long limit = m_window + (deadline == null ? Operation.getMaxWait() : deadline.getRemaining());
+            synchronized (this) {
+                try {
+                    long end = System.currentTimeMillis() + limit;
+                    long now;
+                    while (!batch.m_done && (now = System.currentTimeMillis()) < end) {
+                        wait(end - now);
+                    }
+                } catch (InterruptedException e) {
+                    throw new WsException("Interrupted while waiting for batch to be processed");
+                }
+                if (!batch.m_done) {
+                    throw new WsTimeoutException("Batch for method " + m_method.getName()
+                        + " was not processed within " + limit + " ms");
+                }
+            }
+        }
+        return batch.getResult(index);
+    }
+    
+    /**
+     * Requests combined for processing.
+     */
+    private final class Batch
+    {
+        /** Request payloads. */
+        private final ArrayList m_payloads = new ArrayList();
+        
+        /** Processing completed flag. Access must be synchronized on the owning batcher. */
+        private boolean m_done;
+        
+        /** Responses, in the same order as the requests (<code>null</code> if processing failed). */
+        private List m_results;
+        
+        /** Exception thrown by the batch method (<code>null</code> if none). */
+        private InvocationTargetException m_exception;
+        
+        /** Error in processing the batch (<code>null</code> if none). */
+        private WsException m_error;
+        
+        /** Error thrown by the batch method or in invoking it (<code>null</code> if none). */
+        private Error m_failure;
+        
+        /**
+         * Invoke the batch method, and wake all requests waiting on the batch.
+         *
+         * @param serviceObj the object on which the batch method is invoked
+         */
+        private void process(Object serviceObj) {
+            try {
+                Object result = m_method.invoke(serviceObj, new Object[] { m_payloads });
+                if (result == null || ((List) result).size() != m_payloads.size()) {
+                    m_error = new WsException("Batch method " + m_method.getName() + " returned "
+                        + (result == null ? "null" : Integer.toString(((List) result).size()) + " responses") + " for "
+                        + m_payloads.size() + " requests");
+                } else {
+                    m_results = (List) result;
+                }
+            } catch (InvocationTargetException e) {
+                m_exception = e;
+            } catch (IllegalAccessException e) {
+                m_error = new WsException("Batch method " + m_method.getName() + " is not accessible", e);
+            } catch (RuntimeException e) {
+                m_error = new WsException("Error invoking batch method " + m_method.getName(), e);
+            } catch (Error e) {
+                m_failure = e;
+            } catch (Throwable e) {
+                m_error = new WsException("Error invoking batch method " + m_method.getName(), e);
+            } finally {
+                synchronized (RequestBatcher.this) {
+                    m_done = true;
+                    RequestBatcher.this.notifyAll();
+                }
+            }
+        }
+        
+        /**
+         * Get the response for a request.
+         *
+         * @param index position of request in batch
+         * @return response
+         * @throws InvocationTargetException if the batch method threw an exception
+         * @throws WsException on error processing the batch
+         * @throws Error if the batch method threw an error
+         */
+        private Object getResult(int index) throws InvocationTargetException, WsException {
+            if (m_failure != null) {
+                throw m_failure;
+            } else if (m_exception != null) {
+                throw m_exception;
+            } else if (m_error != null) {
+                throw m_error;
+            } else {
+                return m_results.get(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.server;
+
+import java.util.HashMap;
+
+/**
+ * Coalesces concurrent identical requests, so that only one of them invokes the operation and the others share its
+ * serialized response. Requests are identified by the same keys used for the {@link ResponseCache}. The first request
+ * for a key becomes the leader, and must always end its flight by calling either {@link #complete(Object, byte[],
+ * String)} or {@link #abandon(Object)}. Requests arriving while the flight is in progress wait for the leader's result.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class RequestCoalescer
+{
+    /** Map from request key to {@link Flight} in progress. Access must be synchronized on the map. */
+    private final HashMap m_flights = new HashMap();
+    
+    /**
+     * Join the flight for a request. If no flight is in progress for the key, a new flight is started with the caller
+     * as leader.
+     *
+     * @param key request key
+     * @return flight in progress to be waited on, or <code>null</code> if the caller is the leader of a new flight
+     */
+    public Flight join(Object key) {
+        synchronized (m_flights) {
+            Flight flight = (Flight) m_flights.get(key);
+            if (flight == null) {
+                m_flights.put(key, new Flight());
+            }
+            return flight;
+        }
+    }
+    
+    /**
+     * Complete a flight, passing the response to any waiting requests.
+     *
+     * @param key request key
+     * @param data serialized response (<code>null</code> if the response cannot be shared)
+     * @param ctype content type of response
+     */
+    public void complete(Object key, byte[] data, String ctype) {
+        Flight flight;
+        synchronized (m_flights) {
+            flight = (Flight) m_flights.remove(key);
+        }
+        if (flight != null) {
+            flight.finish(data, ctype);
+        }
+    }
+    
+    /**
+     * Abandon a flight without a response. Any waiting requests need to be processed separately.
+     *
+     * @param key request key
+     */
+    public void abandon(Object key) {
+        complete(key, null, null);
+    }
+    
+    /**
+     * Get the number of flights in progress.
+     *
+     * @return count
+     */
+    public int size() {
+        synchronized (m_flights) {
+            return m_flights.size();
+        }
+    }
+    
+    /**
+     * Request in progress, with the result once completed.
+     */
+    public static final class Flight
+    {
+        /** Completed flag. */
+        private boolean m_done;
+        
+        /** Serialized response (<code>null</code> if none). */
+        private byte[] m_data;
+        
+        /** Content type of response. */
+        private String m_contentType;
+        
+        /**
+         * Set the result and wake all waiting requests.
+         *
+         * @param data serialized response (<code>null</code> if none)
+         * @param ctype content type of response
+         */
+        private synchronized void finish(byte[] data, String ctype) {
+            m_data = data;
+            m_contentType = ctype;
+            m_done = true;
+            notifyAll();
+        }
+        
+        /**
+         * Wait for the flight to complete.
+         *
+         * @return <code>true</code> if a shared response is available, <code>false</code> if not
+         * @throws InterruptedException if interrupted while waiting
+         */
+        public boolean await() throws InterruptedException {
+            return await(0);
+        }
+        
+        /**
+         * Wait for the flight to complete, up to a time limit. If the limit is reached first, {@link #isDone()} returns
+         * <code>false</code>.
+         *
+         * @param timeout maximum time to wait in milliseconds (zero or negative for no limit)
+         * @return <code>true</code> if a shared response is available, <code>false</code> if not
+         * @throws InterruptedException if interrupted while waiting
+         */
+        public synchronized boolean await(long timeout) throws InterruptedException {
+            if (timeout > 0) {
+                long end = System.currentTimeMillis() + timeout;
+                long remaining = timeout;
+                while (!m_done && remaining > 0) {
+                    wait(remaining);
+                    remaining = end - System.currentTimeMillis();
+                }
+            } else {
+                while (!m_done) {
+                    wait();
+                }
+            }
+            return m_data != null;
+        }
+        
+        /**
+         * Check if the flight has completed.
+         *
+         * @return <code>true</code> if completed, <code>false</code> if still in progress
+         */
+        public synchronized boolean isDone() {
+            return m_done;
+        }
+        
+        /**
+         * Get the serialized response. This is only valid after {@link #await()} has returned <code>true</code>.
+         *
+         * @return data
+         */
+        public byte[] getData() {
+            return m_data;
+        }
+        
+        /**
+         * Get the content type of the response. This is only valid after {@link #await()} has returned
+         * <code>true</code>.
+         *
+         * @return content type
+         */
+        public String getContentType() {
+            return m_contentType;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.server;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jibx.ws.transport.InConnection;
+import org.jibx.ws.util.LruCache;
+
+/**
+ * Cache of serialized responses for idempotent operations. Responses are keyed by a digest of the request body bytes
+ * together with the request headers which can affect the response, and the media type of the response, so that a
+ * separate response is retained for each codec. Entries are evicted when they expire, or when the cache is full and
+ * the entry is the least recently used.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class ResponseCache
+{
+    /** Default maximum number of responses retained. */
+    public static final int DEFAULT_SIZE = 100;
+    
+    /** Default maximum size of a request or response matched through the cache, in bytes. */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 65536;
+    
+    /** Request header giving the SOAP action, which is included in keys. */
+    private static final String ACTION_HEADER = "SOAPAction";
+    
+    /** Digest algorithm used for keys. */
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    
+    /** Entries in cache. */
+    private final LruCache m_cache;
+
+    /**
+     * Constructor.
+     * 
+     * @param size maximum number of responses retained
+     */
+    public ResponseCache(int size) {
+        m_cache = new LruCache(size);
+    }
+    
+    /**
+     * Build the key for a request. The key covers the body bytes, the content type and SOAP action of the request,
+     * and the media type of the response. Content types are compared without regard to case or whitespace, and the
+     * action without regard to leading or trailing whitespace.
+     *
+     * @param iconn the connection that the request is read from
+     * @param rtype media type of response
+     * @param body request body bytes
+     * @return key
+     */
+    public static Object buildKey(InConnection iconn, String rtype, byte[] body) {
+        String ctype = iconn.getContentType();
+        String action = iconn.getProperty(ACTION_HEADER);
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            addHeader(digest, canonicalType(ctype));
+            addHeader(digest, action == null ? null : action.trim());
+            addHeader(digest, canonicalType(rtype));
+            digest.update(body);
+            return new Key(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest algorithm " + DIGEST_ALGORITHM + " not available");
+        }
+    }
+    
+    /**
+     * Add a header value to a digest. Each value is terminated by a zero byte, with a <code>null</code> value
+     * represented by the zero byte alone.
+     *
+     * @param digest
+     * @param value header value (<code>null</code> if none)
+     */
+    private static void addHeader(MessageDigest digest, String value) {
+        if (value != null) {
+            try {
+                digest.update(value.getBytes("UTF-8"));
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException("UTF-8 encoding not supported");
+            }
+        }
+        digest.update((byte) 0);
+    }
+    
+    /**
+     * Convert a media type to canonical form, with whitespace removed and in lowercase.
+     *
+     * @param type media type (<code>null</code> if none)
+     * @return canonical form (<code>null</code> if none)
+     */
+    private static String canonicalType(String type) {
+        if (type == null) {
+            return null;
+        }
+        StringBuffer buff = new StringBuffer(type.length());
+        for (int i = 0; i < type.length(); i++) {
+            char chr = type.charAt(i);
+            if (!Character.isWhitespace(chr)) {
+                buff.append(Character.toLowerCase(chr));
+            }
+        }
+        return buff.toString();
+    }
+    
+    /**
+     * Get the cached response for a key. An expired response is removed from the cache, and not returned.
+     *
+     * @param key request key
+     * @return response, or <code>null</code> if none cached
+     */
+    public CachedResponse get(Object key) {
+        CachedResponse rsp = (CachedResponse) m_cache.get(key);
+        if (rsp != null && rsp.m_expires <= System.currentTimeMillis()) {
+            m_cache.remove(key);
+            rsp = null;
+        }
+        return rsp;
+    }
+    
+    /**
+     * Add a response to the cache.
+     *
+     * @param key request key
+     * @param data serialized response
+     * @param ctype content type of response
+     * @param ttl time to live for the response, in milliseconds
+     */
+    public void put(Object key, byte[] data, String ctype, long ttl) {
+        m_cache.put(key, new CachedResponse(data, ctype, System.currentTimeMillis() + ttl));
+    }
+    
+    /**
+     * Remove all cached responses.
+     */
+    public void clear() {
+        m_cache.clear();
+    }
+    
+    /**
+     * Get the number of responses in the cache. This may include expired responses which have not yet been removed.
+     *
+     * @return count
+     */
+    public int size() {
+        return m_cache.size();
+    }
+    
+    /**
+     * Request key, wrapping the digest value.
+     */
+    private static final class Key
+    {
+        /** Digest value. */
+        private final byte[] m_digest;
+        
+        /** Hash code computed from digest. */
+        private final int m_hash;
+        
+        /**
+         * Constructor.
+         * 
+         * @param digest
+         */
+        public Key(byte[] digest) {
+            m_digest = digest;
+            int hash = 0;
+            for (int i = 0; i < 4 && i < digest.length; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            m_hash = hash;
+        }
+        
+        /** {@inheritDoc} */
+        public int hashCode() {
+            return m_hash;
+        }
+        
+        /** {@inheritDoc} */
+        public boolean equals(Object obj) {
+            if (obj instanceof Key) {
+                byte[] comp = ((Key) obj).m_digest;
+                if (comp.length == m_digest.length) {
+                    for (int i = 0; i < comp.length; i++) {
+                        if (comp[i] != m_digest[i]) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Cached response information.
+     */
+    public static final class CachedResponse
+    {
+        /** Serialized response. */
+        private final byte[] m_data;
+        
+        /** Content type of response. */
+        private final String m_contentType;
+        
+        /** Expiry time, in milliseconds. */
+        private final long m_expires;
+        
+        /**
+         * Constructor.
+         * 
+         * @param data
+         * @param ctype
+         * @param expires
+         */
+        private CachedResponse(byte[] data, String ctype, long expires) {
+            m_data = data;
+            m_contentType = ctype;
+            m_expires = expires;
+        }
+        
+        /**
+         * Get the serialized response.
+         *
+         * @return data
+         */
+        public byte[] getData() {
+            return m_data;
+        }
+        
+        /**
+         * Get the content type of the response.
+         *
+         * @return content type
+         */
+        public String getContentType() {
+            return m_contentType;
+        }
+    }
+}
@@ -23,7 +23,6 @@ package org.jibx.ws.server;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,16 +37,29 @@ import org.jibx.runtime.JiBXException;
 import org.jibx.ws.WsBindingException;
 import org.jibx.ws.WsConfigurationException;
 import org.jibx.ws.WsException;
+import org.jibx.ws.WsTimeoutException;
+import org.jibx.ws.context.ExchangeContext;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.context.TraceContext;
 import org.jibx.ws.io.MarshallingPayloadWriter;
+import org.jibx.ws.io.StreamingPayload;
+import org.jibx.ws.io.StreamingRequest;
 import org.jibx.ws.io.UnmarshallingPayloadReader;
 import org.jibx.ws.io.XmlOptions;
+import org.jibx.ws.metrics.MetricsCollector;
+import org.jibx.ws.metrics.PhaseTimingEvent;
+import org.jibx.ws.metrics.PhaseTimingListener;
+import org.jibx.ws.metrics.PipelineEvent;
+import org.jibx.ws.metrics.PipelineEvents;
 import org.jibx.ws.process.Processor;
+import org.jibx.ws.transport.BufferedInConnection;
+import org.jibx.ws.transport.CapturingOutConnection;
 import org.jibx.ws.transport.InConnection;
 import org.jibx.ws.transport.OutServerConnection;
 import org.jibx.ws.transport.OutputCompletionEvent;
 import org.jibx.ws.transport.OutputCompletionListener;
+import org.jibx.ws.util.ErrorLog;
 import org.jibx.ws.util.ExpandingPool;
 import org.jibx.ws.wsdl.InputStreamWsdlProvider;
 import org.jibx.ws.wsdl.WsdlLocationToRequestUrlAdapter;
@@ -60,7 +72,16 @@ import org.jibx.ws.wsdl.WsdlProvider;
  */
 public abstract class Service
 {
+    /** Request header giving the time in milliseconds the client will wait for a response. */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    
+    /** Request header giving the priority requested by the client ('high', 'normal', or 'low'). */
+    public static final String PRIORITY_HEADER = "X-Request-Priority";
+    
     private static final Log logger = LogFactory.getLog(Service.class);
+    
+    /** Rate-limited log for errors after a response has been committed. */
+    private static final ErrorLog s_errorLog = new ErrorLog(logger);
 
     /** Instance of service class used for processing requests. */
     private final Object m_serviceObj;
@@ -70,6 +91,9 @@ public abstract class Service
     /** Owning pool of instances. */
     private ExpandingPool m_owningPool;
     
+    /** Flag for instance abandoned to an operation which did not complete, so that it must not be reused. */
+    private boolean m_abandoned;
+    
     /** Map from input class name (of SOAP body) to {@link OperationDefinition}. */ 
     private final Map m_operationByBodyMap;
 
@@ -92,6 +116,30 @@ public abstract class Service
     private final Processor m_processor; 
     
     private final MediaTypeMapper m_mediaTypeMapper;
+    
+    /** Cache of serialized responses (<code>null</code> if no operation has response caching enabled). */
+    private final ResponseCache m_responseCache;
+    
+    /** Coalescer for concurrent identical requests (<code>null</code> if no operation has coalescing enabled). */
+    private final RequestCoalescer m_requestCoalescer;
+    
+    /** Maximum size of a request or response held in memory for caching or coalescing. */
+    private final int m_maxCaptureSize;
+    
+    /** Concurrency limit for requests (<code>null</code> if unlimited). */
+    private final AdmissionController m_admissionController;
+    
+    /** Collector for request metrics. */
+    private final MetricsCollector m_metricsCollector;
+    
+    /** Listener for phase times (<code>null</code> if phase times not recorded). */
+    private final PhaseTimingListener m_phaseTimingListener;
+    
+    /** Service name used for metrics. */
+    private final String m_serviceName;
+    
+    /** Name of operation for last request processed ({@link MetricsCollector#UNKNOWN_OPERATION} if not known). */
+    private String m_lastOperationName;
 
     /**
      * Create service from definition.
@@ -113,23 +161,51 @@ public abstract class Service
             Class clas = null;
             boolean hasInputs = false;
             boolean hasOutputs = false;
+            boolean hasCached = false;
+            boolean hasCoalesced = false;
             for (int i = 0; i < sdef.getOperationDefinitions().size(); i++) {
                 OperationDefinition odef = (OperationDefinition) sdef.getOperationDefinitions().get(i);
                 Operation op = Operation.newInstance(sdef.getServiceClass(), odef);
                 String iname = "";
-                if (op.getInputClass() != null) {
+                if (op.isStreamingInput()) {
+                    
+                    // streamed input is keyed by wrapper element, and binding must be configured
+                    iname = StreamingRequest.buildKey(op.getInputElementUri(), op.getInputElementName());
+                    hasInputs = true;
+                    
+                } else if (op.getInputClass() != null) {
                     clas = op.getInputClass();
                     iname = clas.getName();
                     hasInputs = true;
+                } else if (op.getOutputClass() != null
+                    && StreamingPayload.class.isAssignableFrom(op.getOutputClass())) {
+                    
+                    // streamed items are bound but the payload itself is not, so binding must be configured
+                    hasOutputs = true;
+                    
                 } else if (clas == null && op.getOutputClass() != null) {
                     clas = op.getOutputClass();
                     hasOutputs = true;
                 }
+                if (op.getCacheTtl() > 0) {
+                    hasCached = true;
+                }
+                if (op.isCoalesce()) {
+                    hasCoalesced = true;
+                }
                 if (logger.isDebugEnabled()) {
                     logger.debug("Adding operation '" + op.toString() + "' to service map with key '" + iname + "'");
                 }
                 m_operationByBodyMap.put(iname, op);
             }
+            m_responseCache = hasCached ? sdef.getResponseCache() : null;
+            m_requestCoalescer = hasCoalesced ? sdef.getRequestCoalescer() : null;
+            m_maxCaptureSize = sdef.getResponseCacheEntrySize();
+            m_admissionController = sdef.getAdmissionController();
+            m_metricsCollector = sdef.getMetricsCollector();
+            m_phaseTimingListener = sdef.getPhaseTimingListener();
+            m_serviceName = sdef.getServiceName();
+            m_lastOperationName = MetricsCollector.UNKNOWN_OPERATION;
 
             if (sdef.getServiceObject() != null) {
                 m_serviceObj = sdef.getServiceObject();
@@ -232,12 +308,29 @@ public abstract class Service
     
     /**
      * Release instance, returning it to the available list. This method must be called when processing is completed.
+     * An instance abandoned to an operation still running is discarded instead, and replaced by a new instance when
+     * needed. The number of abandoned instances is bounded by the limit on threads running operations with a time
+     * limit (see {@link Operation#setMaxTimedThreads(int)}).
      */
     public void releaseInstance() {
         synchronized (m_owningPool) {
-            m_owningPool.releaseInstance(this);
+            if (m_abandoned) {
+                m_owningPool.discardInstance(this);
+            } else {
+                m_owningPool.releaseInstance(this);
+            }
         }
     }
+    
+    /**
+     * Check if this instance was abandoned to an operation which did not complete. The operation may still be reading
+     * a streamed request, so the caller must not reuse the resources for the input connection of the last request.
+     * 
+     * @return <code>true</code> if abandoned, <code>false</code> if not
+     */
+    public boolean isAbandoned() {
+        return m_abandoned;
+    }
 
     /**
      * Process service request. This first unmarshalls and processes the request headers through any configured
@@ -250,12 +343,73 @@ public abstract class Service
      */
     public final void processRequest(InConnection iconn, OutServerConnection oconn) {
         OutContext outCtx = null; 
+        Object body = null;
+        Object key = null;
+        boolean leader = false;
+        long start = System.currentTimeMillis();
+        String opname = MetricsCollector.UNKNOWN_OPERATION;
+        boolean fault = false;
+        ExchangeContext exchangeCtx = null;
+        if (m_phaseTimingListener != null) {
+            exchangeCtx = getProcessor().getCurrentMessageContext().getExchangeContext();
+            exchangeCtx.setTimingEnabled(true);
+            exchangeCtx.markTime(ExchangeContext.MARK_START);
+        }
         try {
+            
+            // buffer the request only if some operation could use it, and only up to the size limit
+            if ((m_responseCache != null || m_requestCoalescer != null) && iconn instanceof BufferedInConnection
+                && oconn instanceof CapturingOutConnection) {
+                key = getRequestKey(iconn, oconn);
+                
+                // cached responses are only present for operations with caching enabled, so check before parsing
+                if (key != null && m_responseCache != null && sendCachedResponse(key, oconn)) {
+                    return;
+                }
+            }
+            long stage = PipelineEvents.isEnabled() ? System.currentTimeMillis() : 0;
             getProcessor().receiveMessage(iconn);
-            Object body = getProcessor().getCurrentMessageContext().getBody();
+            stage = reportStage(stage, PipelineEvent.TYPE_RECEIVE, null);
+            body = getProcessor().getCurrentMessageContext().getBody();
+            TraceContext.setCurrent(getProcessor().getCurrentMessageContext());
 
             try {
-                Object response = invokeOperation(body);
+                Operation op = getOperation(body);
+                if (op == null) {
+                    throw new NoSuchMethodException("No operation defined for payload type " + (body == null ? "null"
+                        : body.getClass().getName()));
+                }
+                opname = op.getMethodName();
+                long timeout = getTimeout(op, iconn);
+                if (key != null && (op.getCacheTtl() > 0 || op.isCoalesce()) && !(body instanceof StreamingRequest)) {
+                    if (op.isCoalesce()) {
+                        RequestCoalescer.Flight flight = m_requestCoalescer.join(key);
+                        if (flight == null) {
+                            leader = true;
+                        } else {
+                            long wait = System.currentTimeMillis();
+                            if (sendCoalescedResponse(flight, op, timeout, oconn)) {
+                                return;
+                            }
+                            
+                            // only the time left after waiting is allowed for processing the request directly
+                            if (timeout > 0) {
+                                timeout = Math.max(1, timeout - (System.currentTimeMillis() - wait));
+                            }
+                        }
+                    }
+                    ((CapturingOutConnection) oconn).startCapture(m_maxCaptureSize);
+                } else {
+                    key = null;
+                }
+                Object response = op.invoke(m_serviceObj, body, getProcessor(), timeout);
+                if (exchangeCtx != null) {
+                    exchangeCtx.markTime(ExchangeContext.MARK_INVOKED);
+                }
+                stage = reportStage(stage, PipelineEvent.TYPE_INVOKE, opname);
+                if (body instanceof StreamingRequest) {
+                    ((StreamingRequest) body).close();
+                }
 
                 getProcessor().switchMessageContext();
                 if (logger.isDebugEnabled()) {
@@ -264,40 +418,263 @@ public abstract class Service
                 outCtx = (OutContext) getProcessor().getCurrentMessageContext();
                 outCtx.setBody(response);
                 getProcessor().sendMessage(oconn);
+                reportStage(stage, PipelineEvent.TYPE_SEND, opname);
+                if (key != null) {
+                    shareResponse(key, op, (CapturingOutConnection) oconn, leader);
+                    leader = false;
+                }
             } catch (NoSuchMethodException e) {
+                fault = true;
+                if (body instanceof StreamingRequest) {
+                    ((StreamingRequest) body).abort();
+                }
                 oconn.sendNotFoundError();
             }
         } catch (Throwable e) {
+            fault = true;
+            if (e instanceof WsTimeoutException && ((WsTimeoutException) e).isAbandoned()) {
+                
+                // operation may still be running, so this instance can't be reused
+                m_abandoned = true;
+            }
+            if (body instanceof StreamingRequest && !m_abandoned) {
+                ((StreamingRequest) body).abort();
+            }
+            
             // check if it's too late to send a fault response
             if (oconn.isCommitted()) {
-                logger.error("Aborted response due to error after commit", e);
+                s_errorLog.error("Aborted response due to error after commit", e);
             } else {
-                getProcessor().switchMessageContext();
-                outCtx = (OutContext) getProcessor().getCurrentMessageContext();
-                getServiceExceptionHandler().handleException(e, getProcessor(), oconn);
+                
+                // an abandoned operation may still be using the processor, so send the fault with a separate one
+                Processor processor = m_abandoned ? createFaultProcessor() : getProcessor();
+                processor.switchMessageContext();
+                outCtx = (OutContext) processor.getCurrentMessageContext();
+                getServiceExceptionHandler().handleException(e, processor, oconn);
             }
         } finally {
+            TraceContext.setCurrent(null);
+            if (leader) {
+                m_requestCoalescer.abandon(key);
+            }
+            m_lastOperationName = opname;
             try {
+                m_metricsCollector.requestCompleted(m_serviceName, opname, System.currentTimeMillis() - start, fault);
+                if (exchangeCtx != null) {
+                    m_phaseTimingListener.onTiming(new PhaseTimingEvent(m_serviceName, opname, exchangeCtx));
+                }
                 if (m_outputCompletionListener != null && outCtx != null) {
                     logger.debug("Calling output completion listener");
                     m_outputCompletionListener.onComplete(new OutputCompletionEvent(outCtx));
                 }
             } finally {
-                getProcessor().reset();
+                if (!m_abandoned) {
+                    getProcessor().reset();
+                }
             }
         }
     }
 
-    private Object invokeOperation(Object payload) throws NoSuchMethodException, IllegalAccessException,
-        InvocationTargetException, WsException {
+    /**
+     * Report the completion of a stage of processing as a pipeline event.
+     * 
+     * @param start time the stage started (zero if events not being reported)
+     * @param type event type
+     * @param opname operation name (<code>null</code> if not known)
+     * @return start time for next stage (zero if events not being reported)
+     */
+    private long reportStage(long start, int type, String opname) {
+        if (start == 0) {
+            return 0;
+        }
+        PipelineEvents.stageCompleted(type, m_serviceName, opname, null, -1, -1, start);
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Reject a request without processing, because the service or client is over a limit. This sends a fault response
+     * in the same way as for an error in processing the request. Transports which have a way of reporting the overload at the
+     * transport level (such as an HTTP status code) should use that instead.
+     * 
+     * @param oconn the connection that the response is to written to
+     * @param msg reason for rejecting the request, returned to the client
+     */
+    public final void rejectRequest(OutServerConnection oconn, String msg) {
+        m_lastOperationName = MetricsCollector.UNKNOWN_OPERATION;
+        try {
+            m_metricsCollector.requestCompleted(m_serviceName, MetricsCollector.UNKNOWN_OPERATION, 0, true);
+            getProcessor().switchMessageContext();
+            getServiceExceptionHandler().handleException(new WsException(msg), getProcessor(), oconn);
+        } finally {
+            getProcessor().reset();
+        }
+    }
+
+    /**
+     * Record the number of bytes transferred for the last request processed by this instance. Transports which track
+     * the number of bytes call this after {@link #processRequest(InConnection, OutServerConnection)} or {@link
+     * #rejectRequest(OutServerConnection, String)} returns.
+     * 
+     * @param in number of request bytes read
+     * @param out number of response bytes written
+     */
+    public final void recordTransfer(long in, long out) {
+        m_metricsCollector.bytesTransferred(m_serviceName, m_lastOperationName, in, out);
+    }
+
+    /**
+     * Get the service name.
+     * 
+     * @return name
+     */
+    public final String getServiceName() {
+        return m_serviceName;
+    }
+
+    /**
+     * Get the name of the operation for the last request processed by this instance.
+     * 
+     * @return name ({@link MetricsCollector#UNKNOWN_OPERATION} if not known)
+     */
+    public final String getLastOperationName() {
+        return m_lastOperationName;
+    }
+
+    /**
+     * Get the concurrency limit for requests to this service. Transports must check each request against the limit
+     * before processing it.
+     * 
+     * @return limit, or <code>null</code> if unlimited
+     */
+    public final AdmissionController getAdmissionController() {
+        return m_admissionController;
+    }
 
-        Operation op = getOperation(payload);
-        if (op == null) {
-            throw new NoSuchMethodException("No operation defined for payload type " + payload == null ? "null"
-                : payload.getClass().getName());
+    /**
+     * Get the time limit for processing a request. This is the smaller of the time limit configured for the operation
+     * and the time the client will wait for a response, if given by the {@link #TIMEOUT_HEADER} request header.
+     * 
+     * @param op operation to be invoked
+     * @param iconn the connection that the request was read from
+     * @return time limit in milliseconds (zero if unlimited)
+     */
+    private long getTimeout(Operation op, InConnection iconn) {
+        long timeout = op.getTimeout();
+        String value = iconn.getProperty(TIMEOUT_HEADER);
+        if (value != null) {
+            try {
+                long limit = Long.parseLong(value.trim());
+                if (limit > 0 && (timeout <= 0 || limit < timeout)) {
+                    timeout = limit;
+                }
+            } catch (NumberFormatException e) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Ignoring invalid " + TIMEOUT_HEADER + " header value '" + value + "'");
+                }
+            }
         }
+        return timeout;
+    }
 
-        return op.invoke(m_serviceObj, payload, getProcessor());
+    /**
+     * Get the key identifying a request for response caching and coalescing. This reads the request bytes into memory
+     * before the request is parsed.
+     * 
+     * @param iconn the connection that the request is to be read from
+     * @param oconn the connection that the response is to written to
+     * @return key, or <code>null</code> if the request cannot be matched against other requests
+     * @throws IOException on error reading request
+     */
+    private Object getRequestKey(InConnection iconn, OutServerConnection oconn) throws IOException {
+        byte[] bytes = ((BufferedInConnection) iconn).bufferRequest(m_maxCaptureSize);
+        if (bytes == null) {
+            return null;
+        } else {
+            return ResponseCache.buildKey(iconn, ((CapturingOutConnection) oconn).getResponseType(), bytes);
+        }
+    }
+    
+    /**
+     * Send the cached response for a request, if present.
+     * 
+     * @param key request key
+     * @param oconn the connection that the response is to written to
+     * @return <code>true</code> if cached response sent, <code>false</code> if not cached
+     * @throws IOException on error sending response
+     */
+    private boolean sendCachedResponse(Object key, OutServerConnection oconn) throws IOException {
+        ResponseCache.CachedResponse cached = m_responseCache.get(key);
+        if (cached == null) {
+            return false;
+        } else {
+            logger.debug("Sending cached response");
+            ((CapturingOutConnection) oconn).sendCaptured(cached.getData(), cached.getContentType());
+            return true;
+        }
+    }
+    
+    /**
+     * Wait for an identical request in progress to complete, and send the same response if possible. The wait is
+     * limited by the time allowed for the request, so that waiting requests are not held indefinitely by one which
+     * never completes. If the request has no time limit the wait is limited by {@link Operation#getMaxWait()}, after
+     * which the request is processed directly.
+     * 
+     * @param flight identical request in progress
+     * @param op operation for request
+     * @param timeout maximum time allowed for the request in milliseconds (zero or negative if no limit)
+     * @param oconn the connection that the response is to written to
+     * @return <code>true</code> if shared response sent, <code>false</code> if the request needs to be processed
+     * @throws IOException on error sending response
+     * @throws InterruptedException if interrupted while waiting
+     * @throws WsTimeoutException if the identical request did not complete within the time allowed
+     */
+    private boolean sendCoalescedResponse(RequestCoalescer.Flight flight, Operation op, long timeout,
+        OutServerConnection oconn) throws IOException, InterruptedException, WsTimeoutException {
+        logger.debug("Waiting on identical request in progress");
+        if (flight.await(timeout > 0 ? timeout : Operation.getMaxWait())) {
+            logger.debug("Sending response shared from identical request");
+            ((CapturingOutConnection) oconn).sendCaptured(flight.getData(), flight.getContentType());
+            return true;
+        } else if (!flight.isDone()) {
+            if (timeout > 0) {
+                throw new WsTimeoutException("Identical request for operation " + op.getMethodName()
+                    + " did not complete within " + timeout + " ms");
+            }
+            logger.debug("Identical request did not complete within maximum wait, processing request directly");
+            return false;
+        } else {
+            return false;
+        }
+    }
+    
+    /**
+     * Share the response captured from a connection, adding it to the cache and passing it to identical requests
+     * waiting on this one, as configured for the operation.
+     * 
+     * @param key request key
+     * @param op operation invoked for request
+     * @param oconn the connection that the response was written to
+     * @param leader flag for request leading a coalesced flight
+     */
+    private void shareResponse(Object key, Operation op, CapturingOutConnection oconn, boolean leader) {
+        boolean cached = op.getCacheTtl() > 0;
+        if (!cached && !leader) {
+            return;
+        }
+        byte[] data = oconn.getCapturedBytes();
+        if (data != null && data.length == 0) {
+            data = null;
+        }
+        String ctype = oconn.getCapturedContentType();
+        if (data != null && cached) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Caching response for operation '" + op.toString() + "'");
+            }
+            m_responseCache.put(key, data, ctype, op.getCacheTtl());
+        }
+        if (leader) {
+            m_requestCoalescer.complete(key, data, ctype);
+        }
     }
 
     /**
@@ -308,7 +685,9 @@ public abstract class Service
      */
     private Operation getOperation(Object body) {
         String cname = "";
-        if (body != null) {
+        if (body instanceof StreamingRequest) {
+            cname = ((StreamingRequest) body).getKey();
+        } else if (body != null) {
             cname = body.getClass().getName();
         }
         if (logger.isDebugEnabled()) {
@@ -370,7 +749,14 @@ public abstract class Service
     
         IBindingFactory inBodyBindingFactory = getInBodyBindingFactory();
         if (inBodyBindingFactory != null) {
-            inCtx.setBodyReader(new UnmarshallingPayloadReader(inBodyBindingFactory));
+            UnmarshallingPayloadReader reader = new UnmarshallingPayloadReader(inBodyBindingFactory);
+            for (Iterator iter = m_operationByBodyMap.values().iterator(); iter.hasNext();) {
+                Operation op = (Operation) iter.next();
+                if (op.isStreamingInput()) {
+                    reader.addStreamingElement(op.getInputElementUri(), op.getInputElementName());
+                }
+            }
+            inCtx.setBodyReader(reader);
         }
     }
     /**
@@ -394,6 +780,14 @@ public abstract class Service
     protected Processor getProcessor() {
         return m_processor;
     }
+    
+    /**
+     * Create a separate processor for sending a fault response, used when the processor for this instance may still
+     * be in use by an abandoned operation. The processor has new message contexts without any handlers.
+     * 
+     * @return processor
+     */
+    protected abstract Processor createFaultProcessor();
 
    /**
     * Returns formatting options for outbound xml.
@@ -34,6 +34,9 @@ import org.jibx.runtime.JiBXException;
 import org.jibx.ws.WsBindingException;
 import org.jibx.ws.WsConfigurationException;
 import org.jibx.ws.io.XmlOptions;
+import org.jibx.ws.metrics.MetricsCollector;
+import org.jibx.ws.metrics.NullMetricsCollector;
+import org.jibx.ws.metrics.PhaseTimingListener;
 import org.jibx.ws.transport.OutputCompletionListener;
 import org.jibx.ws.util.Utility;
 
@@ -102,12 +105,63 @@ public final class ServiceDefinition
     /** Whether to include stack trace in default fault handling. */
     private boolean m_includeStackTraceOnFault;
 
+    /** Maximum number of cached responses (zero if default). */
+    private int m_responseCacheSize;
+
+    /** Maximum size of a request or response held for caching or coalescing (zero if default). */
+    private int m_responseCacheEntrySize;
+
+    /** Response cache shared by all services created from this definition (<code>null</code> until first used). */
+    private ResponseCache m_responseCache;
+
+    /** Coalescer shared by all services created from this definition (<code>null</code> until first used). */
+    private RequestCoalescer m_requestCoalescer;
+
+    /** Concurrency limit for requests (zero if unlimited). */
+    private int m_admissionLimit;
+
+    /** Maximum concurrency limit when adaptive (zero if default). */
+    private int m_admissionMaxLimit;
+
+    /** Target latency in milliseconds for adaptive concurrency limit (zero if fixed limit). */
+    private long m_admissionLatency;
+
+    /** Time in seconds suggested to rejected clients before retrying (zero if default). */
+    private int m_retryAfter;
+
+    /** Maximum time in milliseconds a request waits for admission (zero if rejected immediately). */
+    private long m_admissionMaxWait;
+
+    /** Maximum number of requests waiting for admission (zero if default). */
+    private int m_admissionMaxQueue;
+
+    /** Percentage of concurrency limit available to low priority requests (zero if default). */
+    private int m_lowPriorityShare;
+
+    /** List of {@link PriorityRule} (<code>null</code> if none). */
+    private List m_priorityRules;
+
+    /** Admission controller shared by all services created from this definition (<code>null</code> until used). */
+    private AdmissionController m_admissionController;
+
     /** Output Completion Listener object. */
     private OutputCompletionListener m_outputCompletionListenerObject;
 
     /** Output Completion Listener class. */
     private Class m_outputCompletionListenerClass;
 
+    /** Metrics collector class (<code>null</code> if not set). */
+    private Class m_metricsCollectorClass;
+
+    /** Metrics collector shared by all services created from this definition (<code>null</code> until used). */
+    private MetricsCollector m_metricsCollector;
+
+    /** Phase timing listener class (<code>null</code> if not set). */
+    private Class m_phaseTimingListenerClass;
+
+    /** Phase timing listener shared by all services created from this definition (<code>null</code> until used). */
+    private PhaseTimingListener m_phaseTimingListener;
+
     /** Options for formatting outbound XML. */
     private XmlOptions m_xmlOptions;
 
@@ -147,6 +201,12 @@ public final class ServiceDefinition
             hdef.init();
         }
 
+        if (m_priorityRules != null) {
+            for (int i = 0; i < m_priorityRules.size(); i++) {
+                ((PriorityRule) m_priorityRules.get(i)).init();
+            }
+        }
+
         checkForDuplicateTransportOptionDefinitions();
         for (Iterator iterator = getTransportOptionsDefinitions().iterator(); iterator.hasNext();) {
             TransportOptionsDefinition todef = (TransportOptionsDefinition) iterator.next();
@@ -644,6 +704,242 @@ public final class ServiceDefinition
     public boolean getIncludeStackTraceOnFault() {
         return m_includeStackTraceOnFault;
     }
+
+    /**
+     * Sets the maximum number of responses retained in the cache used by operations with response caching enabled.
+     * When the cache is full, the least recently used response is discarded.
+     * 
+     * @param size maximum number of responses (zero for the default of {@link ResponseCache#DEFAULT_SIZE})
+     * @see OperationDefinition#setCacheTtl(long)
+     */
+    public void setResponseCacheSize(int size) {
+        m_responseCacheSize = size;
+    }
+
+    /**
+     * Get the maximum number of responses retained in the response cache.
+     * 
+     * @return maximum number of responses
+     */
+    public int getResponseCacheSize() {
+        return m_responseCacheSize > 0 ? m_responseCacheSize : ResponseCache.DEFAULT_SIZE;
+    }
+
+    /**
+     * Sets the maximum size of a request or response held in memory for response caching and request coalescing. A
+     * request is only matched against others, and a response only cached or shared, if it is within this size.
+     * 
+     * @param size maximum size in bytes (zero for the default of {@link ResponseCache#DEFAULT_MAX_ENTRY_SIZE})
+     */
+    public void setResponseCacheEntrySize(int size) {
+        m_responseCacheEntrySize = size;
+    }
+
+    /**
+     * Get the maximum size of a request or response held in memory for response caching and request coalescing.
+     * 
+     * @return maximum size in bytes
+     */
+    public int getResponseCacheEntrySize() {
+        return m_responseCacheEntrySize > 0 ? m_responseCacheEntrySize : ResponseCache.DEFAULT_MAX_ENTRY_SIZE;
+    }
+
+    /**
+     * Get the response cache shared by all service instances created from this definition, creating it if necessary.
+     * 
+     * @return cache
+     */
+    synchronized ResponseCache getResponseCache() {
+        if (m_responseCache == null) {
+            m_responseCache = new ResponseCache(getResponseCacheSize());
+        }
+        return m_responseCache;
+    }
+
+    /**
+     * Get the request coalescer shared by all service instances created from this definition, creating it if
+     * necessary.
+     * 
+     * @return coalescer
+     */
+    synchronized RequestCoalescer getRequestCoalescer() {
+        if (m_requestCoalescer == null) {
+            m_requestCoalescer = new RequestCoalescer();
+        }
+        return m_requestCoalescer;
+    }
+
+    /**
+     * Sets the concurrency limit for requests to the service. Requests received when the limit has been reached are
+     * rejected immediately, without any processing.
+     * 
+     * @param limit maximum number of requests processed at the same time (zero if unlimited), or the initial limit if
+     * a target latency is set
+     * @see #setAdmissionLatency(long)
+     */
+    public void setAdmissionLimit(int limit) {
+        m_admissionLimit = limit;
+    }
+
+    /**
+     * Get the concurrency limit for requests to the service.
+     * 
+     * @return maximum number of requests processed at the same time (zero if unlimited)
+     */
+    public int getAdmissionLimit() {
+        return m_admissionLimit;
+    }
+
+    /**
+     * Sets the maximum concurrency limit, for use when the limit is adjusted to the measured latency.
+     * 
+     * @param max maximum limit (zero for the default of ten times the initial limit)
+     */
+    public void setAdmissionMaxLimit(int max) {
+        m_admissionMaxLimit = max;
+    }
+
+    /**
+     * Get the maximum concurrency limit.
+     * 
+     * @return maximum limit
+     */
+    public int getAdmissionMaxLimit() {
+        return m_admissionMaxLimit > 0 ? m_admissionMaxLimit : m_admissionLimit * 10;
+    }
+
+    /**
+     * Sets the target latency for requests. When set, the concurrency limit is adjusted based on the time taken to
+     * process each request, decreasing when the latency is above the target and increasing slowly otherwise.
+     * 
+     * @param latency target latency in milliseconds (zero for a fixed limit)
+     */
+    public void setAdmissionLatency(long latency) {
+        m_admissionLatency = latency;
+    }
+
+    /**
+     * Get the target latency for requests.
+     * 
+     * @return target latency in milliseconds (zero for a fixed limit)
+     */
+    public long getAdmissionLatency() {
+        return m_admissionLatency;
+    }
+
+    /**
+     * Sets the time suggested to rejected clients before retrying. For HTTP this is returned as the Retry-After
+     * header.
+     * 
+     * @param seconds time in seconds (zero for the default of {@link AdmissionController#DEFAULT_RETRY_AFTER})
+     */
+    public void setRetryAfter(int seconds) {
+        m_retryAfter = seconds;
+    }
+
+    /**
+     * Get the time suggested to rejected clients before retrying.
+     * 
+     * @return time in seconds
+     */
+    public int getRetryAfter() {
+        return m_retryAfter > 0 ? m_retryAfter : AdmissionController.DEFAULT_RETRY_AFTER;
+    }
+
+    /**
+     * Sets the maximum time a request over the concurrency limit waits for an earlier request to complete. This lets
+     * the limit absorb short bursts of requests, while still rejecting requests once the service falls behind.
+     * 
+     * @param wait maximum wait in milliseconds (zero if rejected immediately)
+     */
+    public void setAdmissionMaxWait(long wait) {
+        m_admissionMaxWait = wait;
+    }
+
+    /**
+     * Get the maximum time a request over the concurrency limit waits for an earlier request to complete.
+     * 
+     * @return maximum wait in milliseconds (zero if rejected immediately)
+     */
+    public long getAdmissionMaxWait() {
+        return m_admissionMaxWait;
+    }
+
+    /**
+     * Sets the maximum number of requests waiting for admission. Requests over this number are rejected immediately.
+     * 
+     * @param max maximum waiting requests (zero for the default of the concurrency limit)
+     */
+    public void setAdmissionMaxQueue(int max) {
+        m_admissionMaxQueue = max;
+    }
+
+    /**
+     * Get the maximum number of requests waiting for admission.
+     * 
+     * @return maximum waiting requests
+     */
+    public int getAdmissionMaxQueue() {
+        return m_admissionMaxQueue > 0 ? m_admissionMaxQueue : m_admissionLimit;
+    }
+
+    /**
+     * Sets the share of the concurrency limit available to low priority requests. Low priority requests are rejected
+     * when the number of requests in progress is at or above this share of the limit, so they are shed first under
+     * load.
+     * 
+     * @param share percentage of limit (zero for the default of 100, meaning no shedding)
+     */
+    public void setLowPriorityShare(int share) {
+        m_lowPriorityShare = share;
+    }
+
+    /**
+     * Get the share of the concurrency limit available to low priority requests.
+     * 
+     * @return percentage of limit
+     */
+    public int getLowPriorityShare() {
+        return m_lowPriorityShare > 0 ? m_lowPriorityShare : 100;
+    }
+
+    /**
+     * Sets the rules used to assign priorities to requests. The first rule matching a request determines the priority.
+     * 
+     * @param rules list of {@link PriorityRule}
+     */
+    public void setPriorityRules(List rules) {
+        m_priorityRules = rules;
+    }
+
+    /**
+     * Get the rules used to assign priorities to requests.
+     * 
+     * @return list of {@link PriorityRule}, or an empty list if none defined
+     */
+    public List getPriorityRules() {
+        if (m_priorityRules == null) {
+            return Collections.EMPTY_LIST;
+        }
+        return m_priorityRules;
+    }
+
+    /**
+     * Get the admission controller shared by all service instances created from this definition, creating it if
+     * necessary.
+     * 
+     * @return controller, or <code>null</code> if requests are not limited
+     */
+    public synchronized AdmissionController getAdmissionController() {
+        if (m_admissionController == null && m_admissionLimit > 0) {
+            m_admissionController = new AdmissionController(m_admissionLimit, getAdmissionMaxLimit(),
+                m_admissionLatency, getRetryAfter(), m_admissionMaxWait, getAdmissionMaxQueue());
+            List rules = getPriorityRules();
+            m_admissionController.setPriorityScheduling((PriorityRule[]) rules.toArray(new PriorityRule[rules.size()]),
+                getLowPriorityShare());
+        }
+        return m_admissionController;
+    }
     
     /**
      * Sets the fully qualified name of class to be notified of the completion of output. A separate instance of the 
@@ -693,6 +989,120 @@ public final class ServiceDefinition
         return m_outputCompletionListenerClass;
     }
 
+    /**
+     * Sets the fully qualified name of the class used to collect metrics on request processing. A single instance of
+     * the specified class is constructed, and shared by all instances of the service.
+     * 
+     * @param className the full name of the collector class, which must implement {@link MetricsCollector}
+     * @throws WsConfigurationException if collector class unavailable
+     * @see #setMetricsCollector(MetricsCollector)
+     */
+    public void setMetricsCollectorClassName(String className) throws WsConfigurationException {
+        if (className != null) {
+            m_metricsCollectorClass = Utility.loadClass(className);
+            if (m_metricsCollectorClass == null) {
+                throw new WsConfigurationException("Metrics collector class " + className
+                    + " not found in classpath");
+            } else if (!MetricsCollector.class.isAssignableFrom(m_metricsCollectorClass)) {
+                throw new WsConfigurationException("Metrics collector class " + className
+                    + " must implement MetricsCollector");
+            }
+        }
+    }
+
+    /**
+     * Sets the object used to collect metrics on request processing.
+     * 
+     * @param collector the collector, shared by all instances of the service
+     * @see #setMetricsCollectorClassName(String)
+     */
+    public synchronized void setMetricsCollector(MetricsCollector collector) {
+        m_metricsCollector = collector;
+    }
+
+    /**
+     * Get the object used to collect metrics on request processing, creating it if necessary.
+     * 
+     * @return collector ({@link NullMetricsCollector#INSTANCE} if none configured)
+     * @throws WsConfigurationException if the collector class cannot be instantiated
+     */
+    public synchronized MetricsCollector getMetricsCollector() throws WsConfigurationException {
+        if (m_metricsCollector == null) {
+            if (m_metricsCollectorClass == null) {
+                m_metricsCollector = NullMetricsCollector.INSTANCE;
+            } else {
+                try {
+                    m_metricsCollector = (MetricsCollector) m_metricsCollectorClass.newInstance();
+                } catch (InstantiationException e) {
+                    throw new WsConfigurationException("Unable to create metrics collector "
+                        + m_metricsCollectorClass.getName(), e);
+                } catch (IllegalAccessException e) {
+                    throw new WsConfigurationException("Unable to create metrics collector "
+                        + m_metricsCollectorClass.getName(), e);
+                }
+            }
+        }
+        return m_metricsCollector;
+    }
+
+    /**
+     * Sets the fully qualified name of the class used to receive the times taken by each phase of request processing.
+     * A single instance of the specified class is constructed, and shared by all instances of the service. If this is
+     * the same class as the metrics collector the metrics collector instance is used.
+     * 
+     * @param className the full name of the listener class, which must implement {@link PhaseTimingListener}
+     * @throws WsConfigurationException if listener class unavailable
+     * @see #setPhaseTimingListener(PhaseTimingListener)
+     */
+    public void setPhaseTimingListenerClassName(String className) throws WsConfigurationException {
+        if (className != null) {
+            m_phaseTimingListenerClass = Utility.loadClass(className);
+            if (m_phaseTimingListenerClass == null) {
+                throw new WsConfigurationException("Phase timing listener class " + className
+                    + " not found in classpath");
+            } else if (!PhaseTimingListener.class.isAssignableFrom(m_phaseTimingListenerClass)) {
+                throw new WsConfigurationException("Phase timing listener class " + className
+                    + " must implement PhaseTimingListener");
+            }
+        }
+    }
+
+    /**
+     * Sets the object used to receive the times taken by each phase of request processing.
+     * 
+     * @param listener the listener, shared by all instances of the service
+     * @see #setPhaseTimingListenerClassName(String)
+     */
+    public synchronized void setPhaseTimingListener(PhaseTimingListener listener) {
+        m_phaseTimingListener = listener;
+    }
+
+    /**
+     * Get the object used to receive the times taken by each phase of request processing, creating it if necessary.
+     * 
+     * @return listener (<code>null</code> if none configured)
+     * @throws WsConfigurationException if the listener class cannot be instantiated
+     */
+    public synchronized PhaseTimingListener getPhaseTimingListener() throws WsConfigurationException {
+        if (m_phaseTimingListener == null && m_phaseTimingListenerClass != null) {
+            Object collector = getMetricsCollector();
+            if (collector.getClass() == m_phaseTimingListenerClass) {
+                m_phaseTimingListener = (PhaseTimingListener) collector;
+            } else {
+                try {
+                    m_phaseTimingListener = (PhaseTimingListener) m_phaseTimingListenerClass.newInstance();
+                } catch (InstantiationException e) {
+                    throw new WsConfigurationException("Unable to create phase timing listener "
+                        + m_phaseTimingListenerClass.getName(), e);
+                } catch (IllegalAccessException e) {
+                    throw new WsConfigurationException("Unable to create phase timing listener "
+                        + m_phaseTimingListenerClass.getName(), e);
+                }
+            }
+        }
+        return m_phaseTimingListener;
+    }
+
     /**
      * Sets the definition of options that are specific to a particular transport. At most one definition may be 
      * supplied for each transport.
@@ -717,6 +1127,23 @@ public final class ServiceDefinition
         return m_transportOptDefs;
     }
 
+    /**
+     * Gets the definition of options for a particular transport. This is used by transports which apply the options
+     * to the service as a whole, rather than to each service instance.
+     * 
+     * @param defClass {@link TransportOptionsDefinition} class for the transport
+     * @return definition, or <code>null</code> if none defined
+     */
+    public TransportOptionsDefinition getTransportOptionsDefinition(Class defClass) {
+        for (Iterator iterator = getTransportOptionsDefinitions().iterator(); iterator.hasNext();) {
+            Object def = iterator.next();
+            if (defClass.isInstance(def)) {
+                return (TransportOptionsDefinition) def;
+            }
+        }
+        return null;
+    }
+
     /**
      * Sets the path to an existing WSDL file.
      * 
@@ -31,6 +31,8 @@ package org.jibx.ws.server;
 import java.util.HashMap;
 
 import org.jibx.ws.WsException;
+import org.jibx.ws.metrics.PipelineEvent;
+import org.jibx.ws.metrics.PipelineEvents;
 import org.jibx.ws.util.ExpandingPool;
 
 /**
@@ -50,6 +52,18 @@ public final class ServicePool
     /** Map from service definition to service pool. */
     private static HashMap s_factoryMap = new HashMap();
 
+    /**
+     * Get the pool of instances for a service. The returned pool must be synchronized on when it is accessed.
+     * 
+     * @param sdef service definition
+     * @return pool, or <code>null</code> if no instances of the service have been used
+     */
+    public static ExpandingPool getPool(ServiceDefinition sdef) {
+        synchronized (s_factoryMap) {
+            return (ExpandingPool) s_factoryMap.get(sdef);
+        }
+    }
+
     /**
      * Get a service instance for a specific service. This will either get an available instance from the pool, or
      * create a new instance if none are currently available.
@@ -74,8 +88,15 @@ public final class ServicePool
                 s_factoryMap.put(sdef, pool);
             }
         }
+        long start = PipelineEvents.isEnabled() ? System.currentTimeMillis() : 0;
+        Service service;
         synchronized (pool) {
-            return (Service) pool.getInstance();
+            service = (Service) pool.getInstance();
+        }
+        if (start != 0) {
+            PipelineEvents.stageCompleted(PipelineEvent.TYPE_CHECKOUT, sdef.getServiceName(), null, null, -1, -1,
+                start);
         }
+        return service;
     }
 }
@@ -34,12 +34,15 @@ import org.jibx.ws.context.ExchangeContext;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.MessageContext;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.context.TraceContext;
+import org.jibx.ws.io.StreamingRequest;
 import org.jibx.ws.io.XmlReaderWrapper;
 import org.jibx.ws.io.handler.OutHandler;
 import org.jibx.ws.process.Processor;
 import org.jibx.ws.transport.InConnection;
 import org.jibx.ws.transport.OutConnection;
 import org.jibx.ws.transport.WsTransportException;
+import org.jibx.ws.transport.XopConnection;
 
 /**
  * Processor for SOAP messages. The sequence of message exchanges is defined by the {@link ExchangeContext}, which
@@ -134,6 +137,9 @@ public final class SoapProcessor implements Processor
         boolean requestCompleted = false;
         try {
             logger.debug("Starting send message");
+            if (conn instanceof XopConnection) {
+                context.setAttachments(((XopConnection) conn).getAttachments());
+            }
             soapWriter.startMessage(m_encodingStyle);
             IXMLWriter xmlWriter = soapWriter.getWriter();
             if (context.hasHandlers(SoapPhase.HEADER)) {
@@ -143,9 +149,11 @@ public final class SoapProcessor implements Processor
             }
             soapWriter.startBody();
             context.invokeBodyWriter(xmlWriter);
+            m_exchangeCtx.markTime(ExchangeContext.MARK_MARSHALLED);
             logger.debug("Ending send message body");
             soapWriter.endBody();
             soapWriter.sendMessageCompletely();
+            m_exchangeCtx.markTime(ExchangeContext.MARK_FLUSHED);
             logger.debug("Message sent");
             requestCompleted = true;
         } finally {
@@ -230,7 +238,7 @@ public final class SoapProcessor implements Processor
     /**
      * {@inheritDoc}
      */
-    public void receiveMessage(InConnection conn) throws IOException, WsException {
+    public void receiveMessage(final InConnection conn) throws IOException, WsException {
         if (m_exchangeCtx.getCurrentMessageContext() == null) {
             throw new IllegalStateException("No message context available for receiving message");
         }
@@ -239,11 +247,14 @@ public final class SoapProcessor implements Processor
         }
         InContext context = (InContext) m_exchangeCtx.getCurrentMessageContext();
 
-        SoapReader soapReader = new SoapReader(conn);
+        final SoapReader soapReader = new SoapReader(conn);
 
+        boolean deferred = false;
         try {
             logger.debug("Starting receive message");
             soapReader.startMessage();
+            m_exchangeCtx.markTime(ExchangeContext.MARK_READ);
+            TraceContext.receive(conn, context);
             IXMLReader xmlReader = soapReader.getReader();
     
             if (soapReader.hasHeaders()) {
@@ -264,10 +275,29 @@ public final class SoapProcessor implements Processor
                     context.setBody(fault);
                 } else {
                     // Handle SOAP body
+                    if (conn instanceof XopConnection) {
+                        context.setAttachments(((XopConnection) conn).getAttachments());
+                    }
+                    m_exchangeCtx.markTime(ExchangeContext.MARK_PARSED);
                     context.invokeBodyReader(xmlReader);
+                    m_exchangeCtx.markTime(ExchangeContext.MARK_UNMARSHALLED);
                     if (context.getBody() == null) {
                         throw new WsException("No handlers could be found for unmarshalling the SOAP body payload");
                     }
+                    if (context.getBody() instanceof StreamingRequest) {
+                        
+                        // finish reading the message after the operation has read the streamed items
+                        ((StreamingRequest) context.getBody()).setCompletion(new StreamingRequest.Completion() {
+                            public void finish() throws IOException, WsException {
+                                finishMessage(soapReader, conn);
+                            }
+                            public void abort() {
+                                conn.inputComplete();
+                            }
+                        });
+                        deferred = true;
+                        return;
+                    }
                 }
             }
             soapReader.endBody();
@@ -278,6 +308,31 @@ public final class SoapProcessor implements Processor
             } else {
                 throw e;
             }
+        } finally {
+            if (!deferred) {
+                conn.inputComplete();
+            }
+        }
+    }
+
+    /**
+     * Finish reading a received message with streamed input, from the end of the SOAP body.
+     * 
+     * @param soapReader SOAP reader for message
+     * @param conn transport connection
+     * @throws IOException on an I/O error
+     * @throws WsException on any error other than I/O
+     */
+    private void finishMessage(SoapReader soapReader, InConnection conn) throws IOException, WsException {
+        try {
+            soapReader.endBody();
+            soapReader.endMessage();
+        } catch (WsException e) {
+            if (conn.hasError()) {
+                throw new WsTransportException(conn.getErrorMessage());
+            } else {
+                throw e;
+            }
         } finally {
             conn.inputComplete();
         }
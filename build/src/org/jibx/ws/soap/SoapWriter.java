@@ -26,10 +26,12 @@ import java.io.IOException;
 import org.jibx.runtime.IXMLWriter;
 import org.jibx.runtime.impl.MarshallingContext;
 import org.jibx.ws.WsException;
+import org.jibx.ws.codec.MarkupTemplate;
 import org.jibx.ws.transport.OutConnection;
 
 /**
- * SOAP writer class. This handles all SOAP message generation.
+ * SOAP writer class. This handles all SOAP message generation. The fixed envelope markup is written using
+ * {@link MarkupTemplate}s, so that writers supporting templates can copy the pre-encoded bytes directly to the output.
  * 
  * @author Dennis Sosnoski
  */
@@ -43,6 +45,44 @@ final class SoapWriter
     /** The index of the SOAP_URI in SOAP_NAMESPACES. */
     private static final int SOAP_NS_IDX = 2;
     
+    /** Envelope start tag (with no encodingStyle attribute). */
+    private static final MarkupTemplate ENVELOPE_START = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.startTagNamespaces(SOAP_NS_IDX, SoapConstants.SOAP_ENVNAME, new int[] { SOAP_NS_IDX },
+                SoapConstants.SOAP_PREFIX_ARRAY);
+            writer.closeStartTag();
+        }
+    };
+    
+    /** Header start tag. */
+    private static final MarkupTemplate HEADER_START = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.startTagClosed(SOAP_NS_IDX, SoapConstants.SOAP_HEADERNAME);
+        }
+    };
+    
+    /** Header end tag. */
+    private static final MarkupTemplate HEADER_END = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.endTag(SOAP_NS_IDX, SoapConstants.SOAP_HEADERNAME);
+        }
+    };
+    
+    /** Body start tag. */
+    private static final MarkupTemplate BODY_START = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.startTagClosed(SOAP_NS_IDX, SoapConstants.SOAP_BODYNAME);
+        }
+    };
+    
+    /** Body and envelope end tags. */
+    private static final MarkupTemplate BODY_END = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.endTag(SOAP_NS_IDX, SoapConstants.SOAP_BODYNAME);
+            writer.endTag(SOAP_NS_IDX, SoapConstants.SOAP_ENVNAME);
+        }
+    };
+    
     /** The client's transport connection to the SOAP service. */
     private OutConnection m_connection;
     
@@ -89,11 +129,13 @@ final class SoapWriter
      * @throws IOException on any write error   
      */
     public void startMessage(String encodingStyle) throws IOException {
+        if (encodingStyle == null) {
+            ENVELOPE_START.writeTo(m_writer);
+            return;
+        }
         m_writer.startTagNamespaces(SOAP_NS_IDX, SoapConstants.SOAP_ENVNAME, new int[] { SOAP_NS_IDX },
             SoapConstants.SOAP_PREFIX_ARRAY);
-        if (encodingStyle != null) {
-            m_writer.addAttribute(SOAP_NS_IDX, SoapConstants.ENCODING_STYLE, encodingStyle);
-        }
+        m_writer.addAttribute(SOAP_NS_IDX, SoapConstants.ENCODING_STYLE, encodingStyle);
         m_writer.closeStartTag();
     }
     
@@ -103,7 +145,7 @@ final class SoapWriter
      * @throws IOException on any write error   
      */
     public void startHeader() throws IOException {
-        m_writer.startTagClosed(SOAP_NS_IDX, SoapConstants.SOAP_HEADERNAME);
+        HEADER_START.writeTo(m_writer);
     }
     
     /**
@@ -112,7 +154,7 @@ final class SoapWriter
      * @throws IOException on any write error   
      */
     public void endHeader() throws IOException {
-        m_writer.endTag(SOAP_NS_IDX, SoapConstants.SOAP_HEADERNAME);
+        HEADER_END.writeTo(m_writer);
     }
     
     /**
@@ -121,7 +163,7 @@ final class SoapWriter
      * @throws IOException on any write error   
      */
     public void startBody() throws IOException {
-        m_writer.startTagClosed(SOAP_NS_IDX, SoapConstants.SOAP_BODYNAME);
+        BODY_START.writeTo(m_writer);
     }
     
     /**
@@ -130,8 +172,7 @@ final class SoapWriter
      * @throws IOException on any write error   
      */
     public void endBody() throws IOException {
-        m_writer.endTag(SOAP_NS_IDX, SoapConstants.SOAP_BODYNAME);
-        m_writer.endTag(SOAP_NS_IDX, SoapConstants.SOAP_ENVNAME);
+        BODY_END.writeTo(m_writer);
     }
     
     /**
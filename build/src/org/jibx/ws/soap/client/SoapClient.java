@@ -34,6 +34,7 @@ import org.jibx.ws.client.Client;
 import org.jibx.ws.context.ExchangeContext;
 import org.jibx.ws.context.InContext;
 import org.jibx.ws.context.OutContext;
+import org.jibx.ws.context.TraceContext;
 import org.jibx.ws.io.MessageOptions;
 import org.jibx.ws.io.handler.InHandler;
 import org.jibx.ws.io.handler.MarshallingOutHandler;
@@ -410,6 +411,9 @@ public final class SoapClient extends Client
         m_outCtx.setBody(request);
 
         MessageProperties msgProps = m_protocol.buildMessageProperties(m_operationName, getMessageOptions());
+        m_outCtx.setTraceParent(getTraceParent());
+        m_outCtx.setTraceState(getTraceState());
+        TraceContext.send(m_outCtx, msgProps);
         DuplexConnection duplex = getChannel().getDuplex(msgProps, getMessageOptions().getXmlOptions());
         processor.invoke(duplex.getOutbound(), duplex.getInbound());
 
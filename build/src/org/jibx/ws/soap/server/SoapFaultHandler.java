@@ -29,6 +29,7 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package org.jibx.ws.soap.server;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,6 +41,7 @@ import org.jibx.ws.soap.SoapFaultException;
 import org.jibx.ws.soap.SoapProcessor;
 import org.jibx.ws.soap.WsNotUnderstoodException;
 import org.jibx.ws.transport.OutServerConnection;
+import org.jibx.ws.util.ErrorLog;
 
 /**
  * Sends a SOAP Fault message.
@@ -49,6 +51,10 @@ import org.jibx.ws.transport.OutServerConnection;
 public final class SoapFaultHandler implements ServiceExceptionHandler
 {
     private static final Log logger = LogFactory.getLog(SoapFaultHandler.class);
+    
+    /** Rate-limited log for errors resulting in faults, with counts for each type of error. */
+    private static final ErrorLog s_errorLog = new ErrorLog(logger);
+    
     private boolean m_includeStackTrace;
 
     /**
@@ -61,6 +67,15 @@ public final class SoapFaultHandler implements ServiceExceptionHandler
     }
 
 
+    /**
+     * Get the counts of errors resulting in faults, for all services.
+     * 
+     * @return map from error type (exception class name) to <code>Long</code> count
+     */
+    public static Map getFaultCounts() {
+        return s_errorLog.getCounts();
+    }
+
     /**
      * Handle an error that occurred during processing.
      * @param e the error
@@ -69,16 +84,16 @@ public final class SoapFaultHandler implements ServiceExceptionHandler
      */
     public void handleException(Throwable e, Processor processor, OutServerConnection outConn) {
         // generate fault response with error information
-        logger.warn("Error processing request. Generating SOAP Fault response.", e);
+        if (e instanceof InvocationTargetException) {
+            Throwable wrapped = ((InvocationTargetException) e).getTargetException();
+            if (wrapped != null) {
+                e = wrapped;
+            }
+        }
+        s_errorLog.warn("Error processing request. Generating SOAP Fault response.", e);
     
         outConn.setInternalServerError();   
         try {
-            if (e instanceof InvocationTargetException) {
-                Throwable wrapped = ((InvocationTargetException) e).getTargetException();
-                if (wrapped != null) {
-                    e = wrapped;
-                }
-            }
     
             SoapProcessor soapProcessor = ((SoapProcessor) processor);
             SoapFault fault;
@@ -34,6 +34,8 @@ import org.jibx.ws.server.Service;
 import org.jibx.ws.server.ServiceDefinition;
 import org.jibx.ws.server.ServiceExceptionHandlerFactory;
 import org.jibx.ws.soap.SoapPhase;
+import org.jibx.ws.soap.SoapProcessor;
+import org.jibx.ws.soap.SoapVersion;
 import org.jibx.ws.wsdl.WsdlProvider;
 
 /**
@@ -110,6 +112,12 @@ public final class SoapService extends Service // implements WsdlProvider
         }
     }
 
+    /** {@inheritDoc} */
+    protected Processor createFaultProcessor() {
+        return new SoapProcessor(SoapVersion.SOAP1_1, ExchangeContext.createInOutExchange(new InContext(),
+            new OutContext()));
+    }
+
     /** {@inheritDoc} */
     public void setWsdlProvider(WsdlProvider wsdlProvider) {
         m_wsdlProvider = wsdlProvider;
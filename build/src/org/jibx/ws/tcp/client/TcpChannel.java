@@ -33,6 +33,7 @@ import org.jibx.ws.WsConfigurationException;
 import org.jibx.ws.codec.CodecCache;
 import org.jibx.ws.codec.CodecDirectory;
 import org.jibx.ws.codec.MediaType;
+import org.jibx.ws.context.TraceContext;
 import org.jibx.ws.encoding.dime.DimeCommon;
 import org.jibx.ws.encoding.dime.DimeInputBuffer;
 import org.jibx.ws.encoding.dime.DimeOutputBuffer;
@@ -112,8 +113,8 @@ public final class TcpChannel implements Channel
     }
     
     /**
-     * Setup output using the socket connection. This uses only the SEND_TYPE property from the supplied list (if
-     * present).
+     * Setup output using the socket connection. This uses only the SEND_TYPE property and the trace context properties
+     * from the supplied list (if present).
      * 
      * @param msgProps message specific properties
      * @throws IOException 
@@ -128,7 +129,8 @@ public final class TcpChannel implements Channel
         MediaType type = msgProps.getContentType();
         int typecode = type == null ? DimeCommon.TYPE_NONE : DimeCommon.TYPE_MEDIA;
         m_dimeOutput.nextMessage();
-        m_dimeOutput.nextPart(null, typecode, type == null ? null : type.toString());
+        m_dimeOutput.nextPart(null, typecode, type == null ? null : type.toString(),
+            msgProps.getProperty(TraceContext.TRACEPARENT_HEADER), msgProps.getProperty(TraceContext.TRACESTATE_HEADER));
     }
     
     /** {@inheritDoc} */
@@ -301,7 +303,8 @@ public final class TcpChannel implements Channel
             if (!m_initialized) {
                 
                 // create the writer instance
-                m_writer = m_codecCache.getCodec(m_msgProps.getContentType()).getWriter(m_dimeOutput, null, uris);
+                m_writer = m_codecCache.getCodec(m_msgProps.getContentType()).getWriter(m_dimeOutput,
+                    m_msgProps.getCharset(), uris);
                 initializeWriter(m_writer);
                 m_initialized = true;
                 
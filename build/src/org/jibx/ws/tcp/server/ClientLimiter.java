@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.tcp.server;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Limits for the connections and requests from each client address to a {@link TcpServer}. This tracks the number of
+ * open connections for each client address, uses a token bucket for each client address to limit the rate of
+ * requests, and optionally limits the number of requests processed at the same time. With fair scheduling, requests
+ * waiting for processing are admitted taking turns between the client addresses with requests waiting, rather than in
+ * whatever order the waiting threads happen to be woken.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class ClientLimiter
+{
+    /** Maximum number of open connections from a single client address (zero if unlimited). */
+    private final int m_maxConnections;
+    
+    /** Requests per second added to the token bucket for each client address (zero if unlimited). */
+    private final int m_requestRate;
+    
+    /** Size of the token bucket for each client address. */
+    private final int m_requestBurst;
+    
+    /** Maximum number of requests processed at the same time (zero if unlimited). */
+    private final int m_maxConcurrent;
+    
+    /** Flag for fair scheduling of waiting requests. */
+    private final boolean m_fair;
+    
+    /** Map from client address to client state. */
+    private final Map m_clients;
+    
+    /** Clients with requests waiting to be processed, in order of their turn. */
+    private final LinkedList m_readyClients;
+    
+    /** State used for all waiting requests when scheduling is not fair. */
+    private final Client m_sharedClient;
+    
+    /** Time needed to refill an empty token bucket, in milliseconds. */
+    private final long m_refillPeriod;
+    
+    /** Time of next sweep for idle client state. */
+    private long m_nextSweep;
+    
+    /** Number of requests being processed. */
+    private int m_active;
+    
+    /** Number of connections rejected. */
+    private long m_rejectedConnections;
+    
+    /** Number of requests rejected. */
+    private long m_rejectedRequests;
+    
+    /**
+     * Constructor.
+     * 
+     * @param conns maximum number of open connections from a single client address (zero if unlimited)
+     * @param rate sustained requests per second allowed from a single client address (zero if unlimited)
+     * @param burst number of requests a client address can send in a burst (zero to use rate)
+     * @param max maximum number of requests processed at the same time (zero if unlimited)
+     * @param fair schedule waiting requests fairly between client addresses flag
+     */
+    public ClientLimiter(int conns, int rate, int burst, int max, boolean fair) {
+        m_maxConnections = conns;
+        m_requestRate = rate;
+        m_requestBurst = burst > 0 ? burst : rate;
+        m_maxConcurrent = max;
+        m_fair = fair;
+        m_clients = new HashMap();
+        m_readyClients = new LinkedList();
+        m_sharedClient = new Client(0);
+        m_refillPeriod = rate > 0 ? Math.max(1000, m_requestBurst * 1000L / rate) : 1000;
+    }
+    
+    /**
+     * Get the state for a client address, creating it if necessary.
+     * 
+     * @param addr client address
+     * @return state
+     */
+    private Client getClient(String addr) {
+        Client client = (Client) m_clients.get(addr);
+        if (client == null) {
+            client = new Client(m_requestBurst);
+            m_clients.put(addr, client);
+        }
+        return client;
+    }
+    
+    /**
+     * Check if the state for a client address no longer has anything to track. The state is kept as long as the token
+     * bucket is not full, so that closing and reopening connections does not reset the rate limit.
+     * 
+     * @param client state
+     * @param now current time
+     * @return <code>true</code> if idle, <code>false</code> if not
+     */
+    private boolean isIdle(Client client, long now) {
+        if (client.m_connections == 0 && client.m_waiting == 0) {
+            client.refill(m_requestRate, m_requestBurst, now);
+            return m_requestRate == 0 || client.m_tokens >= m_requestBurst;
+        } else {
+            return false;
+        }
+    }
+    
+    /**
+     * Drop the state for all idle client addresses. This catches clients which closed their last connection with a
+     * partly empty token bucket, and so could not be dropped at the time. It is run at most once per refill period, by
+     * which time the bucket of any client without connections will be full.
+     * 
+     * @param now current time
+     */
+    private void sweepIdleClients(long now) {
+        if (now >= m_nextSweep) {
+            for (Iterator iter = m_clients.values().iterator(); iter.hasNext();) {
+                if (isIdle((Client) iter.next(), now)) {
+                    iter.remove();
+                }
+            }
+            m_nextSweep = now + m_refillPeriod;
+        }
+    }
+    
+    /**
+     * Open a connection from a client address.
+     * 
+     * @param addr client address
+     * @return <code>true</code> if accepted, <code>false</code> if the connection must be closed
+     */
+    public synchronized boolean openConnection(String addr) {
+        sweepIdleClients(System.currentTimeMillis());
+        Client client = getClient(addr);
+        if (m_maxConnections > 0 && client.m_connections >= m_maxConnections) {
+            m_rejectedConnections++;
+            return false;
+        } else {
+            client.m_connections++;
+            return true;
+        }
+    }
+    
+    /**
+     * Close a connection accepted by {@link #openConnection(String)}.
+     * 
+     * @param addr client address
+     */
+    public synchronized void closeConnection(String addr) {
+        Client client = (Client) m_clients.get(addr);
+        if (client != null) {
+            client.m_connections--;
+            if (isIdle(client, System.currentTimeMillis())) {
+                m_clients.remove(addr);
+            }
+        }
+    }
+    
+    /**
+     * Check if a request from a client address is within the rate limit, using up a token if it is.
+     * 
+     * @param addr client address
+     * @return <code>true</code> if accepted, <code>false</code> if the request must be rejected
+     */
+    public synchronized boolean tryRequest(String addr) {
+        if (m_requestRate == 0) {
+            return true;
+        }
+        Client client = getClient(addr);
+        client.refill(m_requestRate, m_requestBurst, System.currentTimeMillis());
+        if (client.m_tokens >= 1) {
+            client.m_tokens--;
+            return true;
+        } else {
+            m_rejectedRequests++;
+            return false;
+        }
+    }
+    
+    /**
+     * Start processing a request from a client address. If the limit on the number of requests processed at the same
+     * time has been reached this waits for a turn. Each call must be matched by a call to {@link #endRequest()}.
+     * 
+     * @param addr client address
+     */
+    public synchronized void startRequest(String addr) {
+        if (m_maxConcurrent == 0) {
+            return;
+        }
+        if (m_active < m_maxConcurrent && m_readyClients.isEmpty()) {
+            m_active++;
+        } else {
+            Client client = m_fair ? getClient(addr) : m_sharedClient;
+            if (client.m_waiting++ == 0) {
+                m_readyClients.addLast(client);
+            }
+            boolean interrupted = false;
+            while (client.m_granted == 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            client.m_granted--;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * End processing of a request, passing the turn on to the next client with a request waiting.
+     */
+    public synchronized void endRequest() {
+        if (m_maxConcurrent == 0) {
+            return;
+        }
+        if (m_readyClients.isEmpty()) {
+            m_active--;
+        } else {
+            
+            // hand the slot directly to the next client, which goes to the back of the line if it has more waiting
+            Client client = (Client) m_readyClients.removeFirst();
+            client.m_granted++;
+            if (--client.m_waiting > 0) {
+                m_readyClients.addLast(client);
+            }
+            notifyAll();
+        }
+    }
+    
+    /**
+     * Get the number of requests waiting to be processed.
+     * 
+     * @return count
+     */
+    public synchronized int getWaitingCount() {
+        int count = 0;
+        for (int i = 0; i < m_readyClients.size(); i++) {
+            count += ((Client) m_readyClients.get(i)).m_waiting;
+        }
+        return count;
+    }
+    
+    /**
+     * Get the number of client addresses with state tracked.
+     * 
+     * @return count
+     */
+    synchronized int getClientCount() {
+        return m_clients.size();
+    }
+    
+    /**
+     * Get the number of connections rejected.
+     * 
+     * @return count
+     */
+    public synchronized long getRejectedConnections() {
+        return m_rejectedConnections;
+    }
+    
+    /**
+     * Get the number of requests rejected.
+     * 
+     * @return count
+     */
+    public synchronized long getRejectedRequests() {
+        return m_rejectedRequests;
+    }
+    
+    /**
+     * State tracked for a client address. All access is synchronized on the containing limiter.
+     */
+    private static class Client
+    {
+        /** Number of open connections. */
+        private int m_connections;
+        
+        /** Tokens available in bucket. */
+        private double m_tokens;
+        
+        /** Time tokens were last added to bucket. */
+        private long m_refillTime;
+        
+        /** Number of requests waiting to be processed. */
+        private int m_waiting;
+        
+        /** Number of turns granted to waiting requests but not yet taken. */
+        private int m_granted;
+        
+        /**
+         * Constructor.
+         * 
+         * @param tokens initial number of tokens in bucket
+         */
+        private Client(int tokens) {
+            m_tokens = tokens;
+            m_refillTime = System.currentTimeMillis();
+        }
+        
+        /**
+         * Add the tokens earned since the last refill.
+         * 
+         * @param rate tokens added per second
+         * @param size maximum tokens in bucket
+         * @param now current time
+         */
+        private void refill(int rate, int size, long now) {
+            if (now > m_refillTime) {
+                m_tokens = Math.min(size, m_tokens + (now - m_refillTime) * rate / 1000.0);
+                m_refillTime = now;
+            }
+        }
+    }
+}
@@ -35,12 +35,18 @@ import org.jibx.ws.codec.CodecCache;
 import org.jibx.ws.codec.CodecDirectory;
 import org.jibx.ws.codec.MediaType;
 import org.jibx.ws.codec.XmlCodec;
+import org.jibx.ws.context.TraceContext;
 import org.jibx.ws.encoding.dime.DimeCommon;
 import org.jibx.ws.encoding.dime.DimeInputBuffer;
 import org.jibx.ws.encoding.dime.DimeOutputBuffer;
+import org.jibx.ws.io.CountingInputStream;
+import org.jibx.ws.io.CountingOutputStream;
 import org.jibx.ws.io.XmlOptions;
+import org.jibx.ws.metrics.PipelineEvent;
+import org.jibx.ws.metrics.PipelineEvents;
 import org.jibx.ws.protocol.Protocol;
 import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.AdmissionController;
 import org.jibx.ws.server.Service;
 import org.jibx.ws.server.ServiceDefinition;
 import org.jibx.ws.server.ServiceFactory;
@@ -48,6 +54,7 @@ import org.jibx.ws.server.ServicePool;
 import org.jibx.ws.transport.InConnection;
 import org.jibx.ws.transport.OutConnectionBase;
 import org.jibx.ws.transport.OutServerConnection;
+import org.jibx.ws.util.ErrorLog;
 
 /**
  * Handles the client connection to a service. Each service uses a unique port, and each client receives its own socket
@@ -59,6 +66,9 @@ public class SocketRunner implements Runnable
 {
     private static final Log s_logger = LogFactory.getLog(SocketRunner.class);
     
+    /** Rate-limited log for connection errors. */
+    private static final ErrorLog s_errorLog = new ErrorLog(s_logger);
+    
     /** Socket to be handled. */
     private final Socket m_socket;
     
@@ -86,9 +96,24 @@ public class SocketRunner implements Runnable
     /** DIME output buffer. */
     private DimeOutputBuffer m_dimeOutput;
     
+    /** Counter for bytes read from socket. */
+    private final CountingInputStream m_inCounter;
+    
+    /** Counter for bytes written to socket. */
+    private final CountingOutputStream m_outCounter;
+    
     /** Thread exit flag. */
     private boolean m_exit;
     
+    /** Number of messages processed. */
+    private long m_messageCount;
+    
+    /** Flag for message being processed. */
+    private boolean m_busy;
+    
+    /** Time processing of last message completed (or connection was opened, if no messages processed). */
+    private long m_lastActivity;
+    
     /**
      * Constructor.
      * 
@@ -106,12 +131,71 @@ public class SocketRunner implements Runnable
         m_dimeInput = new DimeInputBuffer();
         InByteBuffer ibuff = new InByteBuffer();
         m_dimeInput.setBuffer(ibuff);
-        ibuff.setInput(socket.getInputStream());
+        m_inCounter = new CountingInputStream(socket.getInputStream());
+        ibuff.setInput(m_inCounter);
         m_dimeOutput = new DimeOutputBuffer();
         OutByteBuffer obuff = new OutByteBuffer();
-        obuff.setOutput(socket.getOutputStream());
+        m_outCounter = new CountingOutputStream(socket.getOutputStream());
+        obuff.setOutput(m_outCounter);
         m_dimeOutput.setBuffer(obuff);
         m_codecCache = new CodecCache();
+        m_lastActivity = System.currentTimeMillis();
+    }
+    
+    /**
+     * Get the client address.
+     * 
+     * @return address
+     */
+    public String getClientAddress() {
+        return m_clientAddress;
+    }
+    
+    /**
+     * Get the number of messages processed on this connection.
+     * 
+     * @return count
+     */
+    public synchronized long getMessageCount() {
+        return m_messageCount;
+    }
+    
+    /**
+     * Get the time this connection has been idle.
+     * 
+     * @return time in milliseconds since the last message completed, or zero if a message is being processed
+     */
+    public synchronized long getIdleTime() {
+        return m_busy ? 0 : System.currentTimeMillis() - m_lastActivity;
+    }
+    
+    /**
+     * Close the connection if it has been idle for at least a minimum time. This is done with the connection locked, so
+     * it cannot start processing a message while being checked.
+     * 
+     * @param idle minimum idle time in milliseconds
+     * @return <code>true</code> if closed, <code>false</code> if not
+     */
+    public synchronized boolean closeIfIdle(long idle) {
+        if (!m_busy && System.currentTimeMillis() - m_lastActivity >= idle) {
+            setExit(true);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Set the flag for a message being processed, updating the message count and activity time at the end of a
+     * message.
+     * 
+     * @param busy <code>true</code> at start of message, <code>false</code> at end
+     */
+    private synchronized void setBusy(boolean busy) {
+        m_busy = busy;
+        if (!busy) {
+            m_messageCount++;
+            m_lastActivity = System.currentTimeMillis();
+        }
     }
     
     /**
@@ -130,6 +214,15 @@ public class SocketRunner implements Runnable
         }
     }
     
+    /**
+     * Check if the thread exit flag has been set.
+     * 
+     * @return <code>true</code> if thread is to exit, <code>false</code> otherwise
+     */
+    private synchronized boolean isExit() {
+        return m_exit;
+    }
+    
     /**
      * Thread execution method. The execution loop is simple, consisting of the thread reading messages from the
      * socket and running the associated service code to send the response. Execution continues until either the
@@ -137,8 +230,12 @@ public class SocketRunner implements Runnable
      */
     public void run() {
         try {
+            long inmark = 0;
+            long outmark = 0;
             while (!m_exit && m_dimeInput.nextMessage() && m_dimeInput.nextPart()) {
                 Service serv = null;
+                long start = PipelineEvents.isEnabled() ? System.currentTimeMillis() : 0;
+                setBusy(true);
                 try {
                     if (s_logger.isDebugEnabled()) {
                         s_logger.debug("Beginning processing of receive message from " + m_clientAddress);
@@ -159,16 +256,42 @@ public class SocketRunner implements Runnable
                         mediaType = CodecDirectory.TEXT_XML_MEDIA_TYPE;
                     }
                     XmlCodec codec = m_codecCache.getCodec(mediaType);
-                    IXMLReader reader = codec.getReader(m_dimeInput, null, m_clientAddress, false);
                     Protocol protocol = ProtocolDirectory.getProtocol(m_sdef.getProtocolName());
                     ServiceFactory serviceFactory = protocol.getServiceFactory();
-                    serv = ServicePool.getInstance(serviceFactory, m_sdef);
-                    serv.processRequest(new TcpInConnection(m_dimeInput, reader), new TcpOutConnection(codec, 
-                        serv.getXmlOptions()));
-                    if (s_logger.isDebugEnabled()) {
-                        s_logger.debug("Completed processing of receive message from " + m_clientAddress);
+                    
+                    // check the client limits before taking a service instance, so waiting clients don't hold one
+                    ClientLimiter limiter = m_server.getClientLimiter();
+                    if (limiter != null && !limiter.tryRequest(m_clientAddress)) {
+                        serv = ServicePool.getInstance(serviceFactory, m_sdef);
+                        rejectMessage(serv, codec, mediaType, "client request rate exceeded",
+                            "Request rate limit exceeded for client " + m_clientAddress);
+                    } else {
+                        if (limiter != null) {
+                            limiter.startRequest(m_clientAddress);
+                        }
+                        try {
+                            serv = ServicePool.getInstance(serviceFactory, m_sdef);
+                            processMessage(serv, codec, mediaType);
+                        } finally {
+                            if (limiter != null) {
+                                limiter.endRequest();
+                            }
+                        }
+                    }
+                    
+                    // input is read ahead, so the count for a message may include part of the next message
+                    long incount = m_inCounter.getCount();
+                    long outcount = m_outCounter.getCount();
+                    serv.recordTransfer(incount - inmark, outcount - outmark);
+                    if (start != 0) {
+                        PipelineEvents.stageCompleted(PipelineEvent.TYPE_REQUEST, serv.getServiceName(),
+                            serv.getLastOperationName(), mediaType.toString(), incount - inmark, outcount - outmark,
+                            start);
                     }
+                    inmark = incount;
+                    outmark = outcount;
                 } finally {
+                    setBusy(false);
                     if (serv != null) {
                         serv.releaseInstance();
                     }
@@ -176,9 +299,14 @@ public class SocketRunner implements Runnable
             }
         } catch (Exception e) {
             
-            // just log the error and exit
-            e.printStackTrace();
-            s_logger.error("TCP service error with client " + m_clientAddress, e);
+            // just log the error and exit (an error after the socket was closed by the server is expected)
+            if (isExit()) {
+                if (s_logger.isDebugEnabled()) {
+                    s_logger.debug("Connection with client " + m_clientAddress + " closed by server");
+                }
+            } else {
+                s_errorLog.error("TCP service error with client " + m_clientAddress, e);
+            }
             
         } finally {
             
@@ -191,6 +319,79 @@ public class SocketRunner implements Runnable
             
             // unlink from service list
             m_server.unlink(this);
+            if (m_server.getClientLimiter() != null) {
+                m_server.getClientLimiter().closeConnection(m_clientAddress);
+            }
+        }
+    }
+    
+    /**
+     * Process a received message, unless the service is over its concurrency limit. The priority requested by the
+     * client for the message is taken from the identifier of the first part of the message.
+     * 
+     * @param serv service instance
+     * @param codec codec for message
+     * @param type media type of message
+     * @throws IOException on error reading message
+     */
+    private void processMessage(Service serv, XmlCodec codec, MediaType type) throws IOException {
+        AdmissionController admission = serv.getAdmissionController();
+        if (admission != null && !admission.tryAcquire(admission.getPriority(null, m_clientAddress,
+            m_dimeInput.getPartIdentifier()))) {
+            rejectMessage(serv, codec, type, "service overloaded",
+                "Service overloaded, retry after " + admission.getRetryAfter() + " seconds");
+        } else {
+            long start = System.currentTimeMillis();
+            try {
+                IXMLReader reader = codec.getReader(m_dimeInput, null, m_clientAddress, false);
+                serv.processRequest(new TcpInConnection(m_dimeInput, reader), new TcpOutConnection(codec,
+                    serv.getXmlOptions()));
+                if (serv.isAbandoned()) {
+                    
+                    // an abandoned operation may still be reading the message, so the input can't be used again
+                    if (s_logger.isDebugEnabled()) {
+                        s_logger.debug("Closing connection with client " + m_clientAddress
+                            + " after abandoned request");
+                    }
+                    setExit(true);
+                }
+            } finally {
+                if (admission != null) {
+                    admission.release(System.currentTimeMillis() - start);
+                }
+            }
+            if (s_logger.isDebugEnabled()) {
+                s_logger.debug("Completed processing of receive message from " + m_clientAddress);
+            }
+        }
+    }
+    
+    /**
+     * Reject a received message without reading it. The unread parts are skipped when the next message is read, but a
+     * codec which keeps state across messages (see {@link CodecDirectory#isConnectionScoped(MediaType)}) would then no
+     * longer match the client's codec. For these codecs the rest of the message is skipped and the connection is
+     * closed after sending the rejection, so that the client starts over with a new connection.
+     * 
+     * @param serv service instance
+     * @param codec codec for message
+     * @param type media type of message
+     * @param reason reason for rejection, for logging
+     * @param msg message returned to client
+     * @throws IOException on error skipping message
+     */
+    private void rejectMessage(Service serv, XmlCodec codec, MediaType type, String reason, String msg)
+        throws IOException {
+        s_errorLog.warn("Rejected message from " + m_clientAddress + ", " + reason, null);
+        boolean close = CodecDirectory.isConnectionScoped(type);
+        if (close) {
+            m_dimeInput.finish();
+        }
+        serv.rejectRequest(new TcpOutConnection(codec, serv.getXmlOptions()), msg);
+        if (close) {
+            if (s_logger.isDebugEnabled()) {
+                s_logger.debug("Closing connection with client " + m_clientAddress + " after rejected message");
+            }
+            setExit(true);
         }
     }
     
@@ -252,7 +453,13 @@ public class SocketRunner implements Runnable
         
         /** {@inheritDoc} */
         public String getProperty(String name) {
-            return null;
+            if (TraceContext.TRACEPARENT_HEADER.equals(name)) {
+                return m_dimeInput.getPartTraceParent();
+            } else if (TraceContext.TRACESTATE_HEADER.equals(name)) {
+                return m_dimeInput.getPartTraceState();
+            } else {
+                return null;
+            }
         }
         
         /** {@inheritDoc} */
@@ -26,13 +26,19 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ServerSocket;
+import java.net.Socket;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jibx.runtime.BindingDirectory;
 import org.jibx.runtime.IUnmarshallingContext;
 import org.jibx.runtime.JiBXException;
+import org.jibx.ws.WsConfigurationException;
+import org.jibx.ws.server.ManagementAgent;
+import org.jibx.ws.server.ManagementAgents;
 import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.TransportOptionsDefinition;
+import org.jibx.ws.util.ErrorLog;
 
 /**
  * Server implementation for TCP protocol using DIME message exchange. A separate instance of this class is created for
@@ -45,12 +51,18 @@ public final class TcpServer extends Thread
 {
     private static final Log s_logger = LogFactory.getLog(TcpServer.class);
 
+    /** Rate-limited log for rejected connections. */
+    private static final ErrorLog s_errorLog = new ErrorLog(s_logger);
+
     /** Socket to be handled. */
     private final ServerSocket m_socket;
 
     /** Service accessed by this socket. */
     private final ServiceDefinition m_service;
 
+    /** Limits for client connections and requests (<code>null</code> if none). */
+    private final ClientLimiter m_limiter;
+
     /** Service exit flag. */
     private boolean m_exit;
 
@@ -65,10 +77,57 @@ public final class TcpServer extends Thread
      *
      * @param socket
      * @param service
+     * @throws WsConfigurationException on error in the TCP server options or management configuration
      */
-    private TcpServer(ServerSocket socket, ServiceDefinition service) {
+    TcpServer(ServerSocket socket, ServiceDefinition service) throws WsConfigurationException {
         m_socket = socket;
         m_service = service;
+        TransportOptionsDefinition tsodef = service.getTransportOptionsDefinition(TcpServerOptionsDefinition.class);
+        if (tsodef == null) {
+            m_limiter = null;
+        } else {
+            m_limiter = ((TcpServerOptions) tsodef.createTransportOptions()).createClientLimiter();
+        }
+        ManagementAgent agent = ManagementAgents.getAgent();
+        if (agent != null) {
+            agent.serviceDefined(service);
+        }
+    }
+
+    /**
+     * Get the definition of the service accessed through this server.
+     *
+     * @return definition
+     */
+    public ServiceDefinition getServiceDefinition() {
+        return m_service;
+    }
+
+    /**
+     * Get the runners for the open connections.
+     *
+     * @return runners
+     */
+    public synchronized SocketRunner[] getRunners() {
+        int count = 0;
+        for (SocketRunner runner = m_head; runner != null; runner = runner.m_next) {
+            count++;
+        }
+        SocketRunner[] runners = new SocketRunner[count];
+        count = 0;
+        for (SocketRunner runner = m_head; runner != null; runner = runner.m_next) {
+            runners[count++] = runner;
+        }
+        return runners;
+    }
+
+    /**
+     * Get the limits for client connections and requests.
+     *
+     * @return limiter (<code>null</code> if none)
+     */
+    ClientLimiter getClientLimiter() {
+        return m_limiter;
     }
 
     /**
@@ -79,7 +138,27 @@ public final class TcpServer extends Thread
     public void run() {
         while (true) {
             try {
-                SocketRunner runner = new SocketRunner(m_socket.accept(), m_service, this);
+                Socket socket = m_socket.accept();
+                String addr = socket.getInetAddress().getHostAddress();
+                if (m_limiter != null && !m_limiter.openConnection(addr)) {
+                    s_errorLog.warn("Closing connection from " + addr + " to service " + m_service.getServiceName()
+                        + ", client connection limit reached", null);
+                    try {
+                        socket.close();
+                    } catch (IOException e) {
+                        // nothing to be done if this fails
+                    }
+                    continue;
+                }
+                SocketRunner runner;
+                try {
+                    runner = new SocketRunner(socket, m_service, this);
+                } catch (IOException e) {
+                    if (m_limiter != null) {
+                        m_limiter.closeConnection(addr);
+                    }
+                    throw e;
+                }
                 synchronized (this) {
                     if (m_head == null) {
                         m_head = m_tail = runner;
@@ -119,7 +198,7 @@ public final class TcpServer extends Thread
      *
      * @param exit <code>true</code> if thread is to exit, <code>false</code> otherwise
      */
-    private synchronized void setExit(boolean exit) {
+    synchronized void setExit(boolean exit) {
         m_exit = exit;
         if (exit) {
             try {
@@ -224,9 +303,16 @@ public final class TcpServer extends Thread
                     servers[i] = new TcpServer(socket, sdefs[i]);
                     Thread thread = new Thread(servers[i]);
                     thread.start();
+                    ManagementAgent agent = ManagementAgents.getAgent();
+                    if (agent != null) {
+                        agent.tcpServerStarted(servers[i]);
+                    }
                 } catch (IOException e) {
                     System.err.println("Error opening socket on port " + ports[i] + " for service " 
                         + sdefs[i].getServiceName());
+                } catch (WsConfigurationException e) {
+                    System.err.println("Error in TCP server or management configuration for service "
+                        + sdefs[i].getServiceName() + ": " + e.getMessage());
                 }
             }
 
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.tcp.server;
+
+import org.jibx.ws.context.InContext;
+import org.jibx.ws.context.OutContext;
+import org.jibx.ws.server.TransportOptions;
+
+/**
+ * Optional settings that are specific to the TCP server transport. These are only used by the {@link TcpServer}, which
+ * applies the limits to all connections for the service.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class TcpServerOptions implements TransportOptions
+{
+    /** Definition supplying the option values. */
+    private final TcpServerOptionsDefinition m_definition;
+    
+    /**
+     * Construct the options from the supplied definition.
+     * 
+     * @param tsodef TCP server options definition
+     */
+    public TcpServerOptions(TcpServerOptionsDefinition tsodef) {
+        m_definition = tsodef;
+    }
+    
+    /** {@inheritDoc} */
+    public void setMessageContexts(InContext inCtx, OutContext outCtx) {
+    }
+    
+    /**
+     * Create a limiter for the client connections to a server, using these options.
+     * 
+     * @return limiter
+     */
+    public ClientLimiter createClientLimiter() {
+        return new ClientLimiter(m_definition.getMaxClientConnections(), m_definition.getClientRequestRate(),
+            m_definition.getClientRequestBurst(), m_definition.getMaxConcurrent(), m_definition.isFair());
+    }
+}
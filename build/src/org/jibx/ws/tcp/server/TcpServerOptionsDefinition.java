@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.tcp.server;
+
+import org.jibx.ws.WsConfigurationException;
+import org.jibx.ws.server.TransportOptions;
+import org.jibx.ws.server.TransportOptionsDefinition;
+
+/**
+ * Defines options that are specific to the TCP server transport. These set limits applied separately to each client
+ * address, so that a single client cannot monopolize the server threads.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class TcpServerOptionsDefinition implements TransportOptionsDefinition
+{
+    /** Maximum number of open connections from a single client address (zero if unlimited). */
+    private int m_maxClientConnections;
+    
+    /** Sustained rate of requests per second allowed from a single client address (zero if unlimited). */
+    private int m_clientRequestRate;
+    
+    /** Number of requests a client address can send in a burst over the sustained rate (zero if same as rate). */
+    private int m_clientRequestBurst;
+    
+    /** Maximum number of requests processed at the same time over all clients (zero if unlimited). */
+    private int m_maxConcurrent;
+    
+    /** Flag for requests waiting to be processed to be scheduled fairly between client addresses. */
+    private boolean m_fair;
+    
+    /** {@inheritDoc} */
+    public void init() throws WsConfigurationException {
+        if (m_maxClientConnections < 0 || m_clientRequestRate < 0 || m_clientRequestBurst < 0 || m_maxConcurrent < 0) {
+            throw new WsConfigurationException("TCP server option values cannot be negative");
+        }
+        if (m_fair && m_maxConcurrent == 0) {
+            throw new WsConfigurationException("Fair scheduling requires a max-concurrent value");
+        }
+    }
+    
+    /** {@inheritDoc} */
+    public TransportOptions createTransportOptions() throws WsConfigurationException {
+        return new TcpServerOptions(this);
+    }
+    
+    /**
+     * Get the maximum number of open connections from a single client address.
+     * 
+     * @return maximum connections (zero if unlimited)
+     */
+    public int getMaxClientConnections() {
+        return m_maxClientConnections;
+    }
+    
+    /**
+     * Set the maximum number of open connections from a single client address. Connections over the limit are closed
+     * as soon as they are accepted.
+     * 
+     * @param max maximum connections (zero if unlimited)
+     */
+    public void setMaxClientConnections(int max) {
+        m_maxClientConnections = max;
+    }
+    
+    /**
+     * Get the sustained rate of requests allowed from a single client address.
+     * 
+     * @return requests per second (zero if unlimited)
+     */
+    public int getClientRequestRate() {
+        return m_clientRequestRate;
+    }
+    
+    /**
+     * Set the sustained rate of requests allowed from a single client address. Requests over the rate are rejected
+     * with a fault response.
+     * 
+     * @param rate requests per second (zero if unlimited)
+     */
+    public void setClientRequestRate(int rate) {
+        m_clientRequestRate = rate;
+    }
+    
+    /**
+     * Get the number of requests a client address can send in a burst.
+     * 
+     * @return burst size
+     */
+    public int getClientRequestBurst() {
+        return m_clientRequestBurst > 0 ? m_clientRequestBurst : m_clientRequestRate;
+    }
+    
+    /**
+     * Set the number of requests a client address can send in a burst, before being limited to the sustained rate.
+     * 
+     * @param burst burst size (zero to use the rate)
+     */
+    public void setClientRequestBurst(int burst) {
+        m_clientRequestBurst = burst;
+    }
+    
+    /**
+     * Get the maximum number of requests processed at the same time.
+     * 
+     * @return maximum requests (zero if unlimited)
+     */
+    public int getMaxConcurrent() {
+        return m_maxConcurrent;
+    }
+    
+    /**
+     * Set the maximum number of requests processed at the same time over all clients. Requests over the limit wait
+     * until an earlier request completes.
+     * 
+     * @param max maximum requests (zero if unlimited)
+     */
+    public void setMaxConcurrent(int max) {
+        m_maxConcurrent = max;
+    }
+    
+    /**
+     * Check if waiting requests are scheduled fairly between client addresses.
+     * 
+     * @return <code>true</code> if fair, <code>false</code> if not
+     */
+    public boolean isFair() {
+        return m_fair;
+    }
+    
+    /**
+     * Set the scheduling of waiting requests. With fair scheduling, requests waiting when the {@link
+     * #setMaxConcurrent(int)} limit has been reached are admitted taking turns between the client addresses, so a
+     * client sending many requests at once only delays its own requests.
+     * 
+     * @param fair <code>true</code> if fair, <code>false</code> if not
+     */
+    public void setFair(boolean fair) {
+        m_fair = fair;
+    }
+}
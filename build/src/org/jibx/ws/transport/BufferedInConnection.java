@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.transport;
+
+import java.io.IOException;
+
+/**
+ * Interface implemented by inbound connections which are able to read the bytes of a request into memory before it
+ * is parsed, so that the request can be matched against other requests without first being unmarshalled.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public interface BufferedInConnection
+{
+    /**
+     * Read the request into memory. This must be called before the reader for the connection is first used. The
+     * request is parsed from the buffered bytes when it is read, so the request is still processed normally if it
+     * exceeds the size limit or cannot be buffered.
+     *
+     * @param limit maximum number of bytes buffered
+     * @return request bytes, or <code>null</code> if the limit was exceeded or the request cannot be buffered in this
+     * form (as for a request which is carried as a multipart package)
+     * @throws IOException on error reading request
+     */
+    byte[] bufferRequest(int limit) throws IOException;
+}
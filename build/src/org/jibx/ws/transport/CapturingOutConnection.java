@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.transport;
+
+import java.io.IOException;
+
+/**
+ * Interface implemented by outbound server connections which are able to capture the bytes of a response as it is
+ * sent, and to send previously captured bytes directly as a response. The captured bytes are those written before any
+ * transformation applied by the connection (such as an output stream interceptor), and the same transformation is
+ * applied again when the bytes are sent as a response.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public interface CapturingOutConnection
+{
+    /**
+     * Get the media type used for normal responses on this connection. Responses captured for connections with
+     * different response types are not interchangeable.
+     *
+     * @return response media type
+     */
+    String getResponseType();
+    
+    /**
+     * Enable capture of the response. This must be called before a writer is obtained from the connection. If the
+     * response exceeds the size limit the capture is abandoned.
+     * 
+     * @param limit maximum number of bytes captured
+     */
+    void startCapture(int limit);
+    
+    /**
+     * Get the captured response bytes. This is only valid after the connection has been closed.
+     *
+     * @return captured bytes, or <code>null</code> if capture was not enabled, the limit was exceeded, or no response
+     * was written
+     */
+    byte[] getCapturedBytes();
+    
+    /**
+     * Get the content type sent with the captured response.
+     *
+     * @return content type, or <code>null</code> if no response was written
+     */
+    String getCapturedContentType();
+    
+    /**
+     * Send a previously captured response directly, and close the connection. This is used in place of obtaining a
+     * writer from the connection.
+     *
+     * @param data response bytes
+     * @param ctype content type for response
+     * @throws IOException on I/O error sending the response
+     */
+    void sendCaptured(byte[] data, String ctype) throws IOException;
+}
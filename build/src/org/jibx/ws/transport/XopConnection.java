@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.transport;
+
+import java.io.IOException;
+
+import org.jibx.ws.WsException;
+import org.jibx.ws.encoding.xop.XopAttachments;
+
+/**
+ * Interface implemented by connections which support sending or receiving messages as XOP packages, with binary content
+ * carried as separate MIME parts rather than base64 text.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public interface XopConnection
+{
+    /**
+     * Get the binary parts of the message. For an inbound connection these are the parts received with the message,
+     * used to resolve the <code>xop:Include</code> references in the XML. For an outbound connection, parts added while
+     * the XML is being written are sent following the XML.
+     *
+     * @return attachments, or <code>null</code> if the message is not carried as an XOP package
+     * @throws IOException on I/O error reading the message
+     * @throws WsException on error in the message package
+     */
+    XopAttachments getAttachments() throws IOException, WsException;
+}
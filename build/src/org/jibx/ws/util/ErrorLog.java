@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Rate-limited logging of errors from request processing, with counts kept for each type of error. For each error type
+ * (the class of the exception reported) only the first few entries within each time interval are logged in full, with
+ * stack trace. Past that limit only a sample of the entries are logged, without stack trace, and the rest are counted
+ * but suppressed. Entries which are logged report the total count for the error type and the number of entries
+ * suppressed since the last logged entry.
+ * <p>
+ * The actual log output is written by a single background thread shared by all instances, so that formatting and
+ * writing the log does not delay the thread reporting the error. If the background thread falls too far behind,
+ * entries are discarded and a count of discarded entries is logged when the thread catches up. The methods defined by
+ * this class are threadsafe.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class ErrorLog
+{
+    /** Default time interval in milliseconds for rate limiting. */
+    public static final long DEFAULT_INTERVAL = 10000;
+    
+    /** Default number of entries of each type logged in full per interval. */
+    public static final int DEFAULT_BURST = 5;
+    
+    /** Default sampling rate for entries past the burst limit (one entry in this number is logged). */
+    public static final int DEFAULT_SAMPLE_RATE = 100;
+    
+    /** Maximum number of entries waiting to be written. */
+    private static final int QUEUE_LIMIT = 1000;
+    
+    /** Entries waiting to be written. Access must be synchronized on this list. */
+    private static final ArrayList s_queue = new ArrayList();
+    
+    /** Number of entries discarded because the queue was full. Access must be synchronized on the queue. */
+    private static int s_discardCount;
+    
+    /** Entries currently being written by the background thread. Access must be synchronized on the queue. */
+    private static int s_writingCount;
+    
+    /** Background thread writing the log output (<code>null</code> until first used). */
+    private static Thread s_writer;
+    
+    /** Log used for output. */
+    private final Log m_log;
+    
+    /** Time interval in milliseconds for rate limiting. */
+    private final long m_interval;
+    
+    /** Number of entries of each type logged in full per interval. */
+    private final int m_burst;
+    
+    /** Sampling rate for entries past the burst limit (no sampling if zero). */
+    private final int m_sampleRate;
+    
+    /** Map from error type name to counter. Access must be synchronized on this log. */
+    private final HashMap m_counterMap;
+    
+    /**
+     * Constructor using default limits.
+     * 
+     * @param log log used for output
+     */
+    public ErrorLog(Log log) {
+        this(log, DEFAULT_INTERVAL, DEFAULT_BURST, DEFAULT_SAMPLE_RATE);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param log log used for output
+     * @param interval time interval in milliseconds for rate limiting
+     * @param burst number of entries of each type logged in full per interval
+     * @param sample sampling rate for entries past the burst limit (one entry in this number is logged, none if zero)
+     */
+    public ErrorLog(Log log, long interval, int burst, int sample) {
+        if (interval <= 0 || burst < 0 || sample < 0) {
+            throw new IllegalArgumentException("Invalid error log limits");
+        }
+        m_log = log;
+        m_interval = interval;
+        m_burst = burst;
+        m_sampleRate = sample;
+        m_counterMap = new HashMap();
+    }
+    
+    /**
+     * Report an error at warning level.
+     * 
+     * @param message message text
+     * @param t exception (<code>null</code> if none)
+     */
+    public void warn(String message, Throwable t) {
+        report(false, message, t);
+    }
+    
+    /**
+     * Report an error at error level.
+     * 
+     * @param message message text
+     * @param t exception (<code>null</code> if none)
+     */
+    public void error(String message, Throwable t) {
+        report(true, message, t);
+    }
+    
+    /**
+     * Report an error. This counts the error, and queues it for logging if it passes the rate limit and the log level
+     * is enabled.
+     * 
+     * @param error <code>true</code> if error level, <code>false</code> if warning level
+     * @param message message text
+     * @param t exception (<code>null</code> if none)
+     */
+    private void report(boolean error, String message, Throwable t) {
+        String type = t == null ? "none" : t.getClass().getName();
+        boolean enabled = error ? m_log.isErrorEnabled() : m_log.isWarnEnabled();
+        long now = System.currentTimeMillis();
+        Entry entry = null;
+        synchronized (this) {
+            Counter counter = (Counter) m_counterMap.get(type);
+            if (counter == null) {
+                counter = new Counter();
+                m_counterMap.put(type, counter);
+            }
+            counter.m_total++;
+            if (now - counter.m_intervalStart >= m_interval) {
+                counter.m_intervalStart = now;
+                counter.m_intervalCount = 0;
+            }
+            int count = ++counter.m_intervalCount;
+            boolean full = count <= m_burst;
+            if (enabled && (full || (m_sampleRate > 0 && (count - m_burst) % m_sampleRate == 0))) {
+                entry = new Entry(this, error, message, type, full ? t : null, t == null ? null : t.getMessage(),
+                    counter.m_total, counter.m_suppressed);
+                counter.m_suppressed = 0;
+            } else {
+                counter.m_suppressed++;
+            }
+        }
+        if (entry != null) {
+            enqueue(entry);
+        }
+    }
+    
+    /**
+     * Get the number of errors reported with a particular type.
+     * 
+     * @param type error type (exception class name)
+     * @return count
+     */
+    public synchronized long getCount(String type) {
+        Counter counter = (Counter) m_counterMap.get(type);
+        return counter == null ? 0 : counter.m_total;
+    }
+    
+    /**
+     * Get the counts of errors reported for all types.
+     * 
+     * @return map from error type (exception class name) to <code>Long</code> count
+     */
+    public synchronized Map getCounts() {
+        HashMap counts = new HashMap();
+        for (Iterator iter = m_counterMap.entrySet().iterator(); iter.hasNext();) {
+            Map.Entry mapent = (Map.Entry) iter.next();
+            counts.put(mapent.getKey(), new Long(((Counter) mapent.getValue()).m_total));
+        }
+        return counts;
+    }
+    
+    /**
+     * Add an entry to the queue to be written, starting the background thread if necessary.
+     * 
+     * @param entry log entry
+     */
+    private static void enqueue(Entry entry) {
+        synchronized (s_queue) {
+            if (s_queue.size() >= QUEUE_LIMIT) {
+                s_discardCount++;
+            } else {
+                s_queue.add(entry);
+                if (s_writer == null) {
+                    s_writer = new Thread(new Writer(), "jibxws-error-log");
+                    s_writer.setDaemon(true);
+                    s_writer.start();
+                }
+                s_queue.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Wait for all queued entries to be written.
+     * 
+     * @param wait maximum time to wait in milliseconds
+     * @return <code>true</code> if all entries written, <code>false</code> if timed out
+     */
+    public static boolean flush(long wait) {
+        long end = System.currentTimeMillis() + wait;
+        synchronized (s_queue) {
+            while (s_queue.size() > 0 || s_writingCount > 0) {
+                long remain = end - System.currentTimeMillis();
+                if (remain <= 0) {
+                    return false;
+                }
+                try {
+                    s_queue.wait(remain);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Error counter for a particular type.
+     */
+    private static final class Counter
+    {
+        /** Total number of errors reported. */
+        private long m_total;
+        
+        /** Start time of current rate limiting interval. */
+        private long m_intervalStart;
+        
+        /** Number of errors reported in current interval. */
+        private int m_intervalCount;
+        
+        /** Number of errors suppressed since the last logged entry. */
+        private int m_suppressed;
+    }
+    
+    /**
+     * Log entry waiting to be written.
+     */
+    private static final class Entry
+    {
+        /** Owning error log. */
+        private final ErrorLog m_owner;
+        
+        /** Error level flag (<code>false</code> for warning level). */
+        private final boolean m_error;
+        
+        /** Message text. */
+        private final String m_message;
+        
+        /** Error type. */
+        private final String m_type;
+        
+        /** Exception for stack trace (<code>null</code> if none, or if a sampled entry). */
+        private final Throwable m_throwable;
+        
+        /** Exception message (<code>null</code> if none). */
+        private final String m_reason;
+        
+        /** Total count for error type. */
+        private final long m_count;
+        
+        /** Number of entries suppressed since the last logged entry. */
+        private final int m_suppressed;
+        
+        /**
+         * Constructor.
+         * 
+         * @param owner owning error log
+         * @param error error level flag (<code>false</code> for warning level)
+         * @param message message text
+         * @param type error type
+         * @param t exception for stack trace (<code>null</code> if none)
+         * @param reason exception message (<code>null</code> if none)
+         * @param count total count for error type
+         * @param suppressed number of entries suppressed since the last logged entry
+         */
+        private Entry(ErrorLog owner, boolean error, String message, String type, Throwable t, String reason,
+            long count, int suppressed) {
+            m_owner = owner;
+            m_error = error;
+            m_message = message;
+            m_type = type;
+            m_throwable = t;
+            m_reason = reason;
+            m_count = count;
+            m_suppressed = suppressed;
+        }
+        
+        /**
+         * Write the entry to the log. The output consists of the message text followed by bracketed name=value fields
+         * giving the error type, total count, number suppressed, and (for sampled entries without stack trace) the
+         * exception message.
+         */
+        private void write() {
+            StringBuffer buff = new StringBuffer(m_message);
+            buff.append(" [type=").append(m_type).append(", count=").append(m_count);
+            buff.append(", suppressed=").append(m_suppressed);
+            if (m_throwable == null && m_reason != null) {
+                buff.append(", reason=").append(m_reason);
+            }
+            buff.append(']');
+            Log log = m_owner.m_log;
+            if (m_error) {
+                log.error(buff.toString(), m_throwable);
+            } else {
+                log.warn(buff.toString(), m_throwable);
+            }
+        }
+    }
+    
+    /**
+     * Background writer for queued entries.
+     */
+    private static final class Writer implements Runnable
+    {
+        /**
+         * Write entries as they are queued.
+         */
+        public void run() {
+            while (true) {
+                Object[] entries;
+                int discards;
+                synchronized (s_queue) {
+                    s_writingCount = 0;
+                    s_queue.notifyAll();
+                    while (s_queue.size() == 0) {
+                        try {
+                            s_queue.wait();
+                        } catch (InterruptedException e) {
+                            // ignore and continue waiting
+                        }
+                    }
+                    entries = s_queue.toArray();
+                    s_queue.clear();
+                    s_writingCount = entries.length;
+                    discards = s_discardCount;
+                    s_discardCount = 0;
+                }
+                for (int i = 0; i < entries.length; i++) {
+                    Entry entry = (Entry) entries[i];
+                    try {
+                        entry.write();
+                        if (discards > 0 && i == entries.length - 1) {
+                            entry.m_owner.m_log.warn("Discarded " + discards
+                                + " error log entries, logging fell behind");
+                        }
+                    } catch (Throwable t) {
+                        // nothing to be done if logging fails
+                    }
+                }
+            }
+        }
+    }
+}
@@ -46,6 +46,15 @@ public abstract class ExpandingPool
     /** Lowest number of available service instances since reset. */
     private int m_lowCount;
     
+    /** Highest number of instances in use at the same time. */
+    private int m_highWaterCount;
+    
+    /** Total number of instances created. */
+    private int m_createCount;
+    
+    /** Total number of instances discarded without being returned to the pool. */
+    private int m_discardCount;
+    
 //    /** Number of passes since last create or release. */
 //    private int m_passCount;
     
@@ -77,8 +86,13 @@ public abstract class ExpandingPool
         if (m_lowCount > count) {
             m_lowCount = count;
         }
+        int inuse = m_totalCount - count + 1;
+        if (m_highWaterCount < inuse) {
+            m_highWaterCount = inuse;
+        }
         if (count == 0) {
             m_totalCount++;
+            m_createCount++;
             return createInstance();
         } else {
             return m_availables.remove(count - 1);
@@ -93,4 +107,95 @@ public abstract class ExpandingPool
     public void releaseInstance(Object inst) {
         m_availables.add(inst);
     }
+    
+    /**
+     * Add a newly created instance to the available list. This can be used to populate the pool initially.
+     * 
+     * @param inst instance to add
+     */
+    public void addInstance(Object inst) {
+        m_totalCount++;
+        m_createCount++;
+        m_availables.add(inst);
+    }
+    
+    /**
+     * Discard an instance which can no longer be used, rather than returning it to the available list.
+     * 
+     * @param inst instance to discard
+     */
+    public void discardInstance(Object inst) {
+        m_totalCount--;
+        m_discardCount++;
+    }
+    
+    /**
+     * Discard available instances in excess of a minimum number.
+     * 
+     * @param keep number of available instances to keep
+     * @return number of instances discarded
+     */
+    public int trim(int keep) {
+        int count = 0;
+        while (m_availables.size() > keep) {
+            m_availables.remove(m_availables.size() - 1);
+            m_totalCount--;
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Get the number of instances available in the pool.
+     * 
+     * @return count
+     */
+    public int getAvailableCount() {
+        return m_availables.size();
+    }
+    
+    /**
+     * Get the number of instances currently in use.
+     * 
+     * @return count
+     */
+    public int getInUseCount() {
+        return m_totalCount - m_availables.size();
+    }
+    
+    /**
+     * Get the number of instances created and not discarded, whether in use or available.
+     * 
+     * @return count
+     */
+    public int getTotalCount() {
+        return m_totalCount;
+    }
+    
+    /**
+     * Get the highest number of instances in use at the same time.
+     * 
+     * @return count
+     */
+    public int getHighWaterCount() {
+        return m_highWaterCount;
+    }
+    
+    /**
+     * Get the total number of instances created.
+     * 
+     * @return count
+     */
+    public int getCreateCount() {
+        return m_createCount;
+    }
+    
+    /**
+     * Get the total number of instances discarded without being returned to the pool.
+     * 
+     * @return count
+     */
+    public int getDiscardCount() {
+        return m_discardCount;
+    }
 }
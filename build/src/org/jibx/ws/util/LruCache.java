@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.jibx.ws.util;
+
+import java.util.HashMap;
+
+/**
+ * Size-bounded cache with least-recently-used eviction. Entries are kept in a doubly-linked list in access order, with
+ * a hash map giving direct access to the list entries. When a new entry would take the cache over the maximum size the
+ * least recently used entry is discarded. The methods defined by this class are threadsafe.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class LruCache
+{
+    /** Maximum number of entries retained. */
+    private final int m_maxSize;
+    
+    /** Map from key to list entry. */
+    private final HashMap m_entryMap;
+    
+    /** List head sentinel (most recently used entry follows, least recently used entry precedes). */
+    private final Entry m_head;
+    
+    /**
+     * Constructor.
+     * 
+     * @param size maximum number of entries retained
+     */
+    public LruCache(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than zero");
+        }
+        m_maxSize = size;
+        m_entryMap = new HashMap();
+        m_head = new Entry(null, null);
+        m_head.m_next = m_head;
+        m_head.m_prior = m_head;
+    }
+    
+    /**
+     * Get the value for a key. If present, the entry for the key becomes the most recently used.
+     * 
+     * @param key lookup key
+     * @return value, or <code>null</code> if not present
+     */
+    public synchronized Object get(Object key) {
+        Entry entry = (Entry)m_entryMap.get(key);
+        if (entry == null) {
+            return null;
+        } else {
+            entry.unlink();
+            entry.linkAfter(m_head);
+            return entry.m_value;
+        }
+    }
+    
+    /**
+     * Add or replace the value for a key. The entry for the key becomes the most recently used, and if the cache has
+     * grown past the maximum size the least recently used entry is discarded.
+     * 
+     * @param key lookup key
+     * @param value value to be cached (non-<code>null</code>)
+     */
+    public synchronized void put(Object key, Object value) {
+        Entry entry = (Entry)m_entryMap.get(key);
+        if (entry == null) {
+            entry = new Entry(key, value);
+            m_entryMap.put(key, entry);
+            if (m_entryMap.size() > m_maxSize) {
+                Entry eldest = m_head.m_prior;
+                eldest.unlink();
+                m_entryMap.remove(eldest.m_key);
+            }
+        } else {
+            entry.m_value = value;
+            entry.unlink();
+        }
+        entry.linkAfter(m_head);
+    }
+    
+    /**
+     * Remove the entry for a key.
+     * 
+     * @param key lookup key
+     * @return value removed, or <code>null</code> if not present
+     */
+    public synchronized Object remove(Object key) {
+        Entry entry = (Entry)m_entryMap.remove(key);
+        if (entry == null) {
+            return null;
+        } else {
+            entry.unlink();
+            return entry.m_value;
+        }
+    }
+    
+    /**
+     * Discard all entries.
+     */
+    public synchronized void clear() {
+        m_entryMap.clear();
+        m_head.m_next = m_head;
+        m_head.m_prior = m_head;
+    }
+    
+    /**
+     * Get the number of entries currently present.
+     * 
+     * @return entry count
+     */
+    public synchronized int size() {
+        return m_entryMap.size();
+    }
+    
+    /**
+     * Get the maximum number of entries retained.
+     * 
+     * @return maximum size
+     */
+    public int getMaxSize() {
+        return m_maxSize;
+    }
+    
+    /**
+     * Cache entry, linked into the access order list.
+     */
+    private static class Entry
+    {
+        private final Object m_key;
+        private Object m_value;
+        private Entry m_prior;
+        private Entry m_next;
+        
+        /**
+         * Constructor.
+         * 
+         * @param key
+         * @param value
+         */
+        public Entry(Object key, Object value) {
+            m_key = key;
+            m_value = value;
+        }
+        
+        /**
+         * Remove this entry from the list.
+         */
+        public void unlink() {
+            m_prior.m_next = m_next;
+            m_next.m_prior = m_prior;
+        }
+        
+        /**
+         * Link this entry into the list immediately following another entry.
+         * 
+         * @param entry entry to be followed
+         */
+        public void linkAfter(Entry entry) {
+            m_prior = entry;
+            m_next = entry.m_next;
+            entry.m_next.m_prior = this;
+            entry.m_next = this;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026, Sosnoski Software Associates Limited. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+ * following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+ * disclaimer. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the
+ * following disclaimer in the documentation and/or other materials provided with the distribution. Neither the name of
+ * JiBX nor the names of its contributors may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.jibx.ws.util;
+
+import java.util.ArrayList;
+
+/**
+ * Pool of worker threads for running tasks outside the calling thread. Threads are created as needed, and reused for
+ * later tasks while they remain idle for no longer than the idle time limit. The number of threads running tasks at
+ * the same time can be limited, in which case tasks are refused when all the allowed threads are busy. All threads are
+ * daemon threads, so the pool never blocks the exit of the application.
+ * 
+ * @author Dennis M. Sosnoski
+ */
+public final class WorkerPool
+{
+    /** Default time in milliseconds that an idle thread is kept. */
+    public static final long DEFAULT_IDLE_TIME = 60000;
+    
+    /** Base name for threads. */
+    private final String m_name;
+    
+    /** Time in milliseconds that an idle thread is kept. */
+    private final long m_idleTime;
+    
+    /** Idle workers. Access must be synchronized on this pool. */
+    private final ArrayList m_idleWorkers;
+    
+    /** Number of threads created, used for naming. */
+    private int m_threadCount;
+    
+    /** Maximum number of threads running tasks (zero if unlimited). Access must be synchronized on this pool. */
+    private int m_maxBusy;
+    
+    /** Number of threads running tasks. Access must be synchronized on this pool. */
+    private int m_busyCount;
+    
+    /** Number of tasks refused because all allowed threads were busy. Access must be synchronized on this pool. */
+    private long m_refusedCount;
+    
+    /**
+     * Constructor with no limit on the number of threads.
+     * 
+     * @param name base name for threads
+     * @param idle time in milliseconds that an idle thread is kept
+     */
+    public WorkerPool(String name, long idle) {
+        this(name, idle, 0);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param name base name for threads
+     * @param idle time in milliseconds that an idle thread is kept
+     * @param max maximum number of threads running tasks at the same time (zero if unlimited)
+     */
+    public WorkerPool(String name, long idle, int max) {
+        m_name = name;
+        m_idleTime = idle;
+        m_idleWorkers = new ArrayList();
+        m_maxBusy = max;
+    }
+    
+    /**
+     * Set the maximum number of threads running tasks at the same time. Lowering the limit does not affect tasks that
+     * are already running.
+     * 
+     * @param max maximum number of threads (zero if unlimited)
+     */
+    public synchronized void setMaxBusy(int max) {
+        m_maxBusy = max;
+    }
+    
+    /**
+     * Get the maximum number of threads running tasks at the same time.
+     * 
+     * @return maximum number of threads (zero if unlimited)
+     */
+    public synchronized int getMaxBusy() {
+        return m_maxBusy;
+    }
+    
+    /**
+     * Run a task on a pooled thread, creating a new thread if none are idle. If the maximum number of threads are
+     * already running tasks the task is refused, so that tasks which never complete cannot tie up an unlimited number
+     * of threads.
+     *
+     * @param task task to be run
+     * @return thread running the task, or <code>null</code> if refused
+     */
+    public Thread execute(Runnable task) {
+        Worker worker;
+        synchronized (this) {
+            if (m_maxBusy > 0 && m_busyCount >= m_maxBusy) {
+                m_refusedCount++;
+                return null;
+            }
+            m_busyCount++;
+            int count = m_idleWorkers.size();
+            if (count > 0) {
+                worker = (Worker) m_idleWorkers.remove(count - 1);
+            } else {
+                worker = new Worker(m_name + '-' + ++m_threadCount);
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+        worker.assign(task);
+        return worker;
+    }
+    
+    /**
+     * Get the number of idle threads.
+     *
+     * @return count
+     */
+    public synchronized int getIdleCount() {
+        return m_idleWorkers.size();
+    }
+    
+    /**
+     * Get the number of threads running tasks. This includes threads still running tasks which have been abandoned by
+     * the caller.
+     *
+     * @return count
+     */
+    public synchronized int getBusyCount() {
+        return m_busyCount;
+    }
+    
+    /**
+     * Get the number of tasks refused because all allowed threads were busy.
+     *
+     * @return count
+     */
+    public synchronized long getRefusedCount() {
+        return m_refusedCount;
+    }
+    
+    /**
+     * Return a worker to the idle list.
+     *
+     * @param worker
+     */
+    private synchronized void release(Worker worker) {
+        m_busyCount--;
+        m_idleWorkers.add(worker);
+    }
+    
+    /**
+     * Remove a worker from the idle list, if present.
+     *
+     * @param worker
+     * @return <code>true</code> if removed, <code>false</code> if the worker has already been assigned a task
+     */
+    private synchronized boolean retire(Worker worker) {
+        return m_idleWorkers.remove(worker);
+    }
+    
+    /**
+     * Pooled thread.
+     */
+    private final class Worker extends Thread
+    {
+        /** Task to be run (<code>null</code> if none). Access must be synchronized on this worker. */
+        private Runnable m_task;
+        
+        /**
+         * Constructor.
+         * 
+         * @param name thread name
+         */
+        public Worker(String name) {
+            super(name);
+        }
+        
+        /**
+         * Assign a task to the worker.
+         *
+         * @param task
+         */
+        private synchronized void assign(Runnable task) {
+            m_task = task;
+            notify();
+        }
+        
+        /**
+         * Run tasks as assigned, until idle for longer than the limit.
+         */
+        public void run() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    long end = System.currentTimeMillis() + m_idleTime;
+                    while (m_task == null) {
+                        long wait = end - System.currentTimeMillis();
+                        if (wait <= 0 && retire(this)) {
+                            return;
+                        }
+                        try {
+                            wait(wait > 0 ? wait : m_idleTime);
+                        } catch (InterruptedException e) {
+                            // interrupt left over from cancelled task, just ignore
+                        }
+                    }
+                    task = m_task;
+                    m_task = null;
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // task is responsible for reporting its own errors
+                }
+                interrupted();
+                release(this);
+            }
+        }
+    }
+}
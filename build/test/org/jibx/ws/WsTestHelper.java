@@ -57,6 +57,7 @@ public final class WsTestHelper
                 "org/jibx/ws/soap/testdata/basic/test-error-binding.xml",
                 "org/jibx/ws/soap/testdata/basic/test1-binding.xml",
                 "org/jibx/ws/soap/testdata/header/test2-binding.xml",
+                "org/jibx/ws/soap/testdata/xop/test3-binding.xml",
                 "service-mapping.xml"
             });
         }
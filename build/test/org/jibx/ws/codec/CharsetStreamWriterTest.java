@@ -0,0 +1,175 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.codec;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.ISO88591StreamWriter;
+import org.jibx.runtime.impl.InByteBuffer;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jibx.runtime.impl.UTF8StreamWriter;
+import org.junit.Test;
+
+/**
+ * Tests {@link CharsetStreamWriter}, as used by {@link TextCodecFactory}.
+ */
+public class CharsetStreamWriterTest
+{
+    private static final String[] URIS = { "", "http://www.w3.org/XML/1998/namespace", "urn:test" };
+    
+    private static final int TEST_NS_IDX = 2;
+    
+    private static final String SAMPLE_TEXT = "caf\u00E9 \u20AC10 & <more> ]]> \"quoted\"";
+    
+    private static XmlCodec getCodec() throws Exception {
+        return CodecDirectory.getCodec(new MediaType("text/xml"));
+    }
+    
+    private static byte[] writeDocument(XmlCodec codec, String charcode, String text, int size) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer(size);
+        buff.setOutput(bos);
+        IXMLWriter writer = codec.getWriter(buff, charcode, URIS);
+        writer.writeXMLDecl("1.0", charcode, null);
+        writer.startTagNamespaces(TEST_NS_IDX, "root", new int[] { TEST_NS_IDX }, new String[] { "t" });
+        writer.addAttribute(0, "attr", text);
+        writer.closeStartTag();
+        writer.startTagClosed(TEST_NS_IDX, "value");
+        writer.writeTextContent(text);
+        writer.endTag(TEST_NS_IDX, "value");
+        writer.endTag(TEST_NS_IDX, "root");
+        writer.close();
+        writer.reset();
+        return bos.toByteArray();
+    }
+    
+    private static String readDocument(XmlCodec codec, String charcode, byte[] data) throws Exception {
+        InByteBuffer buff = new InByteBuffer();
+        buff.setInput(new ByteArrayInputStream(data));
+        IXMLReader reader = codec.getReader(buff, charcode, "test", true);
+        assertThat(reader.next(), is(IXMLReader.START_TAG));
+        assertThat(reader.getName(), is("root"));
+        assertThat(reader.getNamespace(), is("urn:test"));
+        String attr = reader.getAttributeValue(null, "attr");
+        assertThat(reader.next(), is(IXMLReader.START_TAG));
+        assertThat(reader.getName(), is("value"));
+        StringBuffer text = new StringBuffer();
+        while (reader.next() == IXMLReader.TEXT) {
+            text.append(reader.getText());
+        }
+        assertThat(text.toString(), is(attr));
+        return attr;
+    }
+    
+    private static void assertRoundTrip(String charcode, String text, int size) throws Exception {
+        XmlCodec codec = getCodec();
+        byte[] data = writeDocument(codec, charcode, text, size);
+        assertThat(readDocument(codec, charcode, data), is(text));
+    }
+    
+    @Test
+    public final void getWriter_shouldUseSpecializedWritersWhereAvailable() throws Exception {
+        XmlCodec codec = getCodec();
+        assertThat(codec.getWriter(new OutByteBuffer(), "UTF-8", URIS), instanceOf(UTF8StreamWriter.class));
+        assertThat(codec.getWriter(new OutByteBuffer(), "iso-8859-1", URIS), instanceOf(ISO88591StreamWriter.class));
+        assertThat(codec.getWriter(new OutByteBuffer(), "windows-1252", URIS), instanceOf(CharsetStreamWriter.class));
+    }
+    
+    @Test(expected=IOException.class)
+    public final void getWriter_shouldRejectUnknownEncoding() throws Exception {
+        getCodec().getWriter(new OutByteBuffer(), "x-no-such-encoding", URIS);
+    }
+    
+    @Test(expected=IOException.class)
+    public final void getWriter_shouldRejectEncodingWithByteOrderMark() throws Exception {
+        getCodec().getWriter(new OutByteBuffer(), "UTF-16", URIS);
+    }
+    
+    @Test
+    public final void writer_shouldEncodeLegacyCharacters() throws Exception {
+        byte[] data = writeDocument(getCodec(), "windows-1252", "\u20AC", 1024);
+        String text = new String(data, "ISO-8859-1");
+        assertThat(text.indexOf("<t:value>\u0080</t:value>") > 0, is(true));
+        assertRoundTrip("windows-1252", SAMPLE_TEXT, 1024);
+    }
+    
+    @Test
+    public final void writer_shouldWriteCharacterReferencesForUnmappableCharacters() throws Exception {
+        String sample = "caf\u00E9 \uD83D\uDE00";
+        byte[] data = writeDocument(getCodec(), "US-ASCII", sample, 1024);
+        String text = new String(data, "US-ASCII");
+        assertThat(text.indexOf("<t:value>caf&#xE9; &#x1F600;</t:value>") > 0, is(true));
+        assertRoundTrip("US-ASCII", SAMPLE_TEXT, 1024);
+    }
+    
+    @Test
+    public final void writer_shouldHandleEncodingWithoutAsciiCompatibility() throws Exception {
+        assertRoundTrip("UTF-16BE", SAMPLE_TEXT, 1024);
+        assertRoundTrip("UTF-16LE", SAMPLE_TEXT + " \uD83D\uDE00", 1024);
+    }
+    
+    @Test
+    public final void writer_shouldReturnStatefulEncodingToInitialState() throws Exception {
+        assertRoundTrip("ISO-2022-JP", "\u65E5\u672C\u8A9E & text \u30C6\u30B9\u30C8", 1024);
+    }
+    
+    @Test
+    public final void writer_shouldHandleTextLargerThanBuffer() throws Exception {
+        StringBuffer buff = new StringBuffer();
+        StringBuffer escaped = new StringBuffer();
+        for (int i = 0; i < 500; i++) {
+            buff.append("\u20AC\u00E9 ").append(i).append(" &");
+            escaped.append("\u20AC\u00E9 ").append(i).append(" &amp;");
+        }
+        String[] charcodes = { "windows-1252", "UTF-16BE" };
+        for (int i = 0; i < charcodes.length; i++) {
+            byte[] data = writeDocument(getCodec(), charcodes[i], buff.toString(), 64);
+            String text = new String(data, charcodes[i]);
+            assertThat(text.indexOf("<t:value>" + escaped + "</t:value>") > 0, is(true));
+            assertRoundTrip(charcodes[i], buff.toString(), 64);
+        }
+    }
+    
+    @Test(expected=IOException.class)
+    public final void writeCData_shouldRejectUnmappableCharacter() throws Exception {
+        OutByteBuffer buff = new OutByteBuffer();
+        buff.setOutput(new ByteArrayOutputStream());
+        IXMLWriter writer = getCodec().getWriter(buff, "US-ASCII", URIS);
+        writer.startTagClosed(0, "root");
+        writer.writeCData("caf\u00E9");
+    }
+}
@@ -31,6 +31,7 @@ package org.jibx.ws.codec;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.text.ParseException;
@@ -88,4 +89,68 @@ public class CodecDirectoryTest
     public final void hasCodecFor_shouldReturnFalseIfCodecUnavailable() throws Exception {
         assertThat(CodecDirectory.hasCodecFor(new MediaType("donkey/xml")), is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public final void isConnectionScoped_shouldReturnTrueForXbisStream() throws Exception {
+        MediaType type = new MediaType("application/x-xbis-stream");
+        assertThat(CodecDirectory.hasCodecFor(type), is(true));
+        assertThat(CodecDirectory.isConnectionScoped(type), is(true));
+        assertThat(CodecDirectory.isConnectionScoped(XBIS_MEDIA_TYPE), is(false));
+    }
+
+    @Test
+    public final void getMediaTypes_shouldExcludeConnectionScopedTypes() throws Exception {
+        assertThat(CodecDirectory.getMediaTypes().contains(new MediaType("application/x-xbis-stream")), is(false));
+        assertThat(CodecDirectory.getMediaTypes().contains(XBIS_MEDIA_TYPE), is(true));
+    }
+
+    @Test
+    public final void getAcceptableMediaType_shouldNotSelectConnectionScopedType() throws Exception {
+        MediaType type = new MediaType("application/x-xbis-stream");
+        assertThat(CodecDirectory.getAcceptableMediaType("application/x-xbis-stream", TEXT_XML_MEDIA_TYPE),
+            is(nullValue()));
+        assertThat(CodecDirectory.getAcceptableMediaType(null, type), is(MOST_PREFERRED_MEDIA_TYPE));
+    }
+
+    @Test
+    public final void getAcceptableMediaType_shouldPreferHighestQuality() throws Exception {
+        assertThat(CodecDirectory.getAcceptableMediaType("application/*;q=0.4, text/xml;q=0.6", UNKNOWN_MEDIA_TYPE),
+            is(TEXT_XML_MEDIA_TYPE));
+    }
+
+    @Test
+    public final void getAcceptableMediaType_shouldUseQualityOfMostSpecificRange() throws Exception {
+        assertThat(CodecDirectory.getAcceptableMediaType("application/*, application/x-xbis;q=0", UNKNOWN_MEDIA_TYPE),
+            is(SOAP_XBIS_MEDIA_TYPE));
+    }
+
+    @Test
+    public final void getAcceptableMediaType_shouldReturnNullIfAllExcluded() throws Exception {
+        assertThat(CodecDirectory.getAcceptableMediaType("*/*;q=0", TEXT_XML_MEDIA_TYPE), is(nullValue()));
+    }
+
+    @Test
+    public final void getAcceptableMediaType_shouldReturnPreferredTypeForEqualQuality() throws Exception {
+        assertThat(CodecDirectory.getAcceptableMediaType("text/xml;q=0.5, application/x-xbis;q=0.5", 
+            TEXT_XML_MEDIA_TYPE), is(MOST_PREFERRED_MEDIA_TYPE));
+    }
+
+    @Test
+    public final void getAcceptableMediaType_shouldReturnCachedResult() throws Exception {
+        
+        // with only a wildcard the content type instance itself is returned, so a cached result gives the first one
+        MediaType firstType = new MediaType("text", "xml");
+        MediaType secondType = new MediaType("text", "xml");
+        MediaType first = CodecDirectory.getAcceptableMediaType(new StringBuffer("*/*;q=0.7, foo/bar").toString(),
+            firstType);
+        MediaType second = CodecDirectory.getAcceptableMediaType(new StringBuffer("*/*;q=0.7, foo/bar").toString(),
+            secondType);
+        assertThat(first, sameInstance(firstType));
+        assertThat(second, sameInstance(firstType));
+    }
+
+    @Test(expected=ParseException.class)
+    public final void getAcceptableMediaType_shouldThrowParseExceptionGivenInvalidQuality() throws Exception {
+        CodecDirectory.getAcceptableMediaType("text/xml;q=high", TEXT_XML_MEDIA_TYPE);
+    }
+}
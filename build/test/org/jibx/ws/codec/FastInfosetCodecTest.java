@@ -0,0 +1,146 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.codec;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.xml.namespace.QName;
+
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.InByteBuffer;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.jvnet.fastinfoset.Vocabulary;
+import org.junit.Test;
+
+/**
+ * Tests {@link FastInfosetCodecFactory}.
+ */
+public class FastInfosetCodecTest
+{
+    private static final String[] URIS = { "", "http://www.w3.org/XML/1998/namespace", "urn:test" };
+    
+    private static final int TEST_NS_IDX = 2;
+    
+    private static byte[] writeDocument(XmlCodec codec, String text, boolean close) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer();
+        buff.setOutput(bos);
+        IXMLWriter writer = codec.getWriter(buff, null, URIS);
+        writer.writeXMLDecl("1.0", null, null);
+        writer.startTagNamespaces(TEST_NS_IDX, "root", new int[] { TEST_NS_IDX }, new String[] { "t" });
+        writer.closeStartTag();
+        writer.startTagClosed(TEST_NS_IDX, "value");
+        writer.writeTextContent(text);
+        writer.endTag(TEST_NS_IDX, "value");
+        writer.endTag(TEST_NS_IDX, "root");
+        if (close) {
+            writer.close();
+            writer.reset();
+        } else {
+            writer.flush();
+        }
+        return bos.toByteArray();
+    }
+    
+    private static String readDocument(XmlCodec codec, byte[] data) throws Exception {
+        InByteBuffer buff = new InByteBuffer();
+        buff.setInput(new ByteArrayInputStream(data));
+        IXMLReader reader = codec.getReader(buff, null, "test", true);
+        assertThat(reader.next(), is(IXMLReader.START_TAG));
+        assertThat(reader.getName(), is("root"));
+        assertThat(reader.getNamespace(), is("urn:test"));
+        assertThat(reader.next(), is(IXMLReader.START_TAG));
+        assertThat(reader.getName(), is("value"));
+        assertThat(reader.next(), is(IXMLReader.TEXT));
+        String text = reader.getText();
+        assertThat(reader.next(), is(IXMLReader.END_TAG));
+        assertThat(reader.next(), is(IXMLReader.END_TAG));
+        assertThat(reader.next(), is(IXMLReader.END_DOCUMENT));
+        return text;
+    }
+    
+    @Test
+    public final void getCodec_shouldReturnFastInfosetCodecs() throws Exception {
+        assertThat(CodecDirectory.getCodec(new MediaType("application/fastinfoset")).getMediaType(), 
+            is(new MediaType("application/fastinfoset")));
+        assertThat(CodecDirectory.hasCodecFor(new MediaType("application/soap+fastinfoset")), is(true));
+    }
+    
+    @Test
+    public final void codec_shouldRoundTripDocument() throws Exception {
+        XmlCodec codec = CodecDirectory.getCodec(new MediaType("application/fastinfoset"));
+        byte[] data = writeDocument(codec, "first value", true);
+        assertThat(readDocument(codec, data), is("first value"));
+    }
+    
+    @Test
+    public final void codec_shouldReuseStateForSuccessiveDocuments() throws Exception {
+        XmlCodec codec = CodecDirectory.getCodec(new MediaType("application/fastinfoset"));
+        byte[] first = writeDocument(codec, "first value", true);
+        byte[] second = writeDocument(codec, "second value", true);
+        assertThat(readDocument(codec, first), is("first value"));
+        assertThat(readDocument(codec, second), is("second value"));
+    }
+    
+    @Test
+    public final void codec_shouldTerminateDocumentWithoutClose() throws Exception {
+        XmlCodec codec = CodecDirectory.getCodec(new MediaType("application/fastinfoset"));
+        byte[] data = writeDocument(codec, "flushed value", false);
+        assertThat(readDocument(codec, data), is("flushed value"));
+    }
+    
+    @Test
+    public final void codec_shouldUseExternalVocabulary() throws Exception {
+        XmlCodec codec = CodecDirectory.getCodec(new MediaType("application/fastinfoset"));
+        byte[] plain = writeDocument(codec, "value", true);
+        Vocabulary vocab = new Vocabulary();
+        vocab.namespaceNames.add("urn:test");
+        vocab.prefixes.add("t");
+        vocab.elements.add(new QName("urn:test", "root", "t"));
+        vocab.elements.add(new QName("urn:test", "value", "t"));
+        FastInfosetCodecFactory.setExternalVocabulary(new ExternalVocabulary("urn:test:vocabulary", vocab));
+        try {
+            byte[] first = writeDocument(codec, "value", true);
+            byte[] second = writeDocument(codec, "value", true);
+            assertThat(first.length < plain.length, is(true));
+            assertThat(second.length, is(first.length));
+            assertThat(readDocument(codec, first), is("value"));
+            assertThat(readDocument(codec, second), is("value"));
+        } finally {
+            FastInfosetCodecFactory.setExternalVocabulary(null);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.codec;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.junit.Test;
+
+/**
+ * Tests {@link TemplateWriter} implementations, as used by {@link TextCodecFactory}.
+ */
+public class TemplateWriterTest
+{
+    private static final String[] URIS = { "", "http://www.w3.org/XML/1998/namespace", "urn:test" };
+    
+    private static final int TEST_NS_IDX = 2;
+    
+    private static final String SAMPLE_TEXT = "caf\u00E9 & <more>";
+    
+    private static final String EXPECTED_XML = "<t:root xmlns:t=\"urn:test\" t:attr=\"x\"><t:value>caf\u00E9 &amp; "
+        + "&lt;more></t:value><t:value/></t:root>";
+    
+    private static final MarkupTemplate ROOT_START = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.startTagNamespaces(TEST_NS_IDX, "root", new int[] { TEST_NS_IDX }, new String[] { "t" });
+            writer.addAttribute(TEST_NS_IDX, "attr", "x");
+            writer.closeStartTag();
+        }
+    };
+    
+    private static final MarkupTemplate VALUE_START = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.startTagClosed(TEST_NS_IDX, "value");
+        }
+    };
+    
+    private static final MarkupTemplate ROOT_END = new MarkupTemplate() {
+        public void write(IXMLWriter writer) throws IOException {
+            writer.endTag(TEST_NS_IDX, "root");
+        }
+    };
+    
+    private static XmlCodec getCodec() throws Exception {
+        return CodecDirectory.getCodec(new MediaType("text/xml"));
+    }
+    
+    private static String writeDocument(XmlCodec codec, String charcode, int size, int indent) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer(size);
+        buff.setOutput(bos);
+        IXMLWriter writer = codec.getWriter(buff, charcode, URIS);
+        writer.setIndentSpaces(indent, null, ' ');
+        ROOT_START.writeTo(writer);
+        VALUE_START.writeTo(writer);
+        writer.writeTextContent(SAMPLE_TEXT);
+        writer.endTag(TEST_NS_IDX, "value");
+        writer.startTagClosed(TEST_NS_IDX, "value");
+        writer.endTag(TEST_NS_IDX, "value");
+        ROOT_END.writeTo(writer);
+        writer.close();
+        writer.reset();
+        return new String(bos.toByteArray(), charcode);
+    }
+    
+    private static void verifyEncoding(String charcode) throws Exception {
+        XmlCodec codec = getCodec();
+        assertThat(codec.getWriter(new OutByteBuffer(), charcode, URIS), instanceOf(TemplateWriter.class));
+        
+        // first document captures templates, later documents use pre-encoded form
+        for (int i = 0; i < 3; i++) {
+            assertThat(writeDocument(codec, charcode, OutByteBuffer.DEFAULT_BUFFER_SIZE, -1), is(EXPECTED_XML));
+        }
+    }
+    
+    @Test
+    public final void writeTemplate_shouldReuseEncodedMarkupForUTF8() throws Exception {
+        verifyEncoding("UTF-8");
+    }
+    
+    @Test
+    public final void writeTemplate_shouldReuseEncodedMarkupForISO88591() throws Exception {
+        verifyEncoding("ISO-8859-1");
+    }
+    
+    @Test
+    public final void writeTemplate_shouldReuseEncodedMarkupForOtherEncoding() throws Exception {
+        verifyEncoding("windows-1252");
+    }
+    
+    @Test
+    public final void writeTemplate_shouldWriteNormallyWhenBufferFlushed() throws Exception {
+        XmlCodec codec = getCodec();
+        for (int i = 0; i < 3; i++) {
+            assertThat(writeDocument(codec, "UTF-8", 20, -1), is(EXPECTED_XML));
+        }
+        assertThat(writeDocument(codec, "UTF-8", OutByteBuffer.DEFAULT_BUFFER_SIZE, -1), is(EXPECTED_XML));
+    }
+    
+    @Test
+    public final void writeTemplate_shouldMatchNormalOutputWhenIndenting() throws Exception {
+        XmlCodec codec = getCodec();
+        writeDocument(codec, "UTF-8", OutByteBuffer.DEFAULT_BUFFER_SIZE, -1);
+        String xml = writeDocument(codec, "UTF-8", OutByteBuffer.DEFAULT_BUFFER_SIZE, 2);
+        assertThat(xml, is("<t:root xmlns:t=\"urn:test\" t:attr=\"x\">\n  <t:value>caf\u00E9 &amp; &lt;more></t:value>"
+            + "\n  <t:value/>\n</t:root>"));
+    }
+}
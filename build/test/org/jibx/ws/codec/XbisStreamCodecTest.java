@@ -0,0 +1,140 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.codec;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.InByteBuffer;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.junit.Test;
+
+/**
+ * Tests {@link XbisStreamCodecFactory}. Each test uses one codec instance for the sending end of a connection and
+ * another for the receiving end, with the buffers standing in for the connection.
+ */
+public class XbisStreamCodecTest
+{
+    private static final String[] URIS = { "", "http://www.w3.org/XML/1998/namespace", "urn:test" };
+    
+    private static final int TEST_NS_IDX = 2;
+    
+    private static XmlCodec createCodec() throws Exception {
+        return CodecDirectory.getCodec(new MediaType("application/x-xbis-stream"));
+    }
+    
+    private static void writeMessage(XmlCodec codec, OutByteBuffer buff, String text) throws IOException {
+        IXMLWriter writer = codec.getWriter(buff, null, URIS);
+        writer.startTagNamespaces(TEST_NS_IDX, "root", new int[] { TEST_NS_IDX }, new String[] { "t" });
+        writer.closeStartTag();
+        writer.startTagClosed(TEST_NS_IDX, "value");
+        writer.writeTextContent(text);
+        writer.endTag(TEST_NS_IDX, "value");
+        writer.endTag(TEST_NS_IDX, "root");
+        writer.flush();
+    }
+    
+    private static String readMessage(XmlCodec codec, InByteBuffer buff) throws Exception {
+        IXMLReader reader = codec.getReader(buff, null, "test", false);
+        reader.init();
+        assertThat(reader.next(), is(IXMLReader.START_TAG));
+        assertThat(reader.getName(), is("root"));
+        assertThat(reader.getNamespace(), is("urn:test"));
+        assertThat(reader.next(), is(IXMLReader.START_TAG));
+        assertThat(reader.getName(), is("value"));
+        assertThat(reader.next(), is(IXMLReader.TEXT));
+        String text = reader.getText();
+        assertThat(reader.next(), is(IXMLReader.END_TAG));
+        assertThat(reader.next(), is(IXMLReader.END_TAG));
+        return text;
+    }
+    
+    private static InByteBuffer createInput(byte[] data) {
+        InByteBuffer buff = new InByteBuffer();
+        buff.setInput(new ByteArrayInputStream(data));
+        return buff;
+    }
+    
+    @Test
+    public final void codec_shouldKeepTablesAcrossMessagesOnConnection() throws Exception {
+        XmlCodec sender = createCodec();
+        XmlCodec receiver = createCodec();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutByteBuffer obuff = new OutByteBuffer();
+        obuff.setOutput(bos);
+        writeMessage(sender, obuff, "first value");
+        int first = bos.size();
+        writeMessage(sender, obuff, "other value");
+        int second = bos.size() - first;
+        writeMessage(sender, obuff, "third value");
+        
+        // names and namespaces are only sent with the first message
+        assertThat(second < first, is(true));
+        InByteBuffer ibuff = createInput(bos.toByteArray());
+        assertThat(readMessage(receiver, ibuff), is("first value"));
+        assertThat(readMessage(receiver, ibuff), is("other value"));
+        assertThat(readMessage(receiver, ibuff), is("third value"));
+    }
+    
+    @Test
+    public final void codec_shouldResetTablesForNewConnection() throws Exception {
+        XmlCodec sender = createCodec();
+        XmlCodec receiver = createCodec();
+        ByteArrayOutputStream bos1 = new ByteArrayOutputStream();
+        OutByteBuffer obuff1 = new OutByteBuffer();
+        obuff1.setOutput(bos1);
+        writeMessage(sender, obuff1, "first value");
+        writeMessage(sender, obuff1, "other value");
+        assertThat(readMessage(receiver, createInput(bos1.toByteArray())), is("first value"));
+        
+        // a new buffer is a new connection, so the first message on it again sends all names and namespaces
+        ByteArrayOutputStream bos2 = new ByteArrayOutputStream();
+        OutByteBuffer obuff2 = new OutByteBuffer();
+        obuff2.setOutput(bos2);
+        writeMessage(sender, obuff2, "first value");
+        byte[] data = bos2.toByteArray();
+        ByteArrayOutputStream bos3 = new ByteArrayOutputStream();
+        OutByteBuffer obuff3 = new OutByteBuffer();
+        obuff3.setOutput(bos3);
+        writeMessage(createCodec(), obuff3, "first value");
+        assertThat(data.length, is(bos3.size()));
+        assertThat(readMessage(receiver, createInput(data)), is("first value"));
+    }
+    
+    @Test
+    public final void getCodec_shouldCreateSeparateInstances() throws Exception {
+        assertThat(createCodec() == createCodec(), is(false));
+    }
+}
@@ -178,4 +178,31 @@ public class DimeCombinedTest extends TestCase
         readPart(2011, 3);
         readPart(2014, 1000);
     }
+    
+    // this test passes trace context values as options of the first record of each message
+    public void testTraceOptions() throws Exception {
+        String traceparent = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+        m_dimeOut.nextPart(null, DimeCommon.TYPE_NONE, null, traceparent, "vendor=value");
+        m_dimeOut.free(BUFFER_SIZE, 2);
+        byte[] buff = m_dimeOut.getBuffer();
+        int offset = m_dimeOut.getOffset();
+        buff[offset++] = 1;
+        buff[offset++] = 2;
+        m_dimeOut.setOffset(offset);
+        m_dimeOut.endMessage();
+        m_dimeOut.flush();
+        m_dimeOut.nextMessage();
+        writePart(3, 10);
+        changeDirection(BUFFER_SIZE);
+        assertTrue("Missing message part", m_dimeIn.nextPart());
+        assertEquals("Trace parent", traceparent, m_dimeIn.getPartTraceParent());
+        assertEquals("Trace state", "vendor=value", m_dimeIn.getPartTraceState());
+        assertTrue("Missing data", m_dimeIn.require(2));
+        assertEquals("Data mismatch", 1, m_dimeIn.getBuffer()[m_dimeIn.getOffset()]);
+        assertEquals("Data mismatch", 2, m_dimeIn.getBuffer()[m_dimeIn.getOffset() + 1]);
+        assertTrue("Missing message", m_dimeIn.nextMessage());
+        readPart(3, 10);
+        assertNull("Trace parent", m_dimeIn.getPartTraceParent());
+        assertNull("Trace state", m_dimeIn.getPartTraceState());
+    }
 }
\ No newline at end of file
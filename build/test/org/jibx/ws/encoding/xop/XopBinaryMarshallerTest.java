@@ -0,0 +1,114 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.encoding.xop;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jibx.runtime.impl.UTF8StreamWriter;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.io.MarshallingPayloadWriter;
+import org.jibx.ws.io.UnmarshallingPayloadReader;
+import org.jibx.ws.io.XmlReaderWrapper;
+import org.jibx.ws.soap.testdata.xop.Image;
+import org.junit.Test;
+
+/**
+ * Tests {@link XopBinaryMarshaller}, as used by the payload reader and writer.
+ */
+public class XopBinaryMarshallerTest
+{
+    private static final String[] URIS = { "", "http://www.w3.org/XML/1998/namespace" };
+    
+    private static final byte[] DATA = { 1, 2, 3, 4, 5 };
+    
+    private static final String INLINE_XML = "<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name>"
+        + "<t3:data>AQIDBAU=</t3:data></t3:image>";
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    private static String marshal(Object obj, XopAttachments attachments) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer();
+        buff.setOutput(bos);
+        UTF8StreamWriter writer = new UTF8StreamWriter(URIS);
+        writer.setBuffer(buff);
+        MarshallingPayloadWriter marshaller = new MarshallingPayloadWriter(Image.class);
+        marshaller.setAttachments(attachments);
+        marshaller.invoke(writer, obj);
+        writer.flush();
+        return new String(bos.toByteArray(), "UTF-8");
+    }
+    
+    private static Object unmarshal(String xml, XopAttachments attachments) throws Exception {
+        IXMLReader reader = XmlReaderWrapper.createXmlReaderWrapper(new ByteArrayInputStream(xml.getBytes("UTF-8")),
+            "UTF-8").getReader();
+        UnmarshallingPayloadReader unmarshaller = new UnmarshallingPayloadReader(Image.class);
+        unmarshaller.setAttachments(attachments);
+        return unmarshaller.invoke(reader);
+    }
+    
+    @Test
+    public final void marshal_shouldWriteBase64WithoutAttachments() throws Exception {
+        assertThat(marshal(new Image("pic", DATA), null), is(INLINE_XML));
+    }
+    
+    @Test
+    public final void marshal_shouldWriteIncludeWithAttachments() throws Exception {
+        XopAttachments attachments = new XopAttachments();
+        String xml = marshal(new Image("pic", DATA), attachments);
+        assertThat(attachments.size(), is(1));
+        assertThat(attachments.getData(0), is(DATA));
+        assertThat(xml, is("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>"
+            + "<xop:Include xmlns:xop=\"http://www.w3.org/2004/08/xop/include\" href=\"cid:"
+            + attachments.getContentId(0) + "\"/></t3:data></t3:image>"));
+    }
+    
+    @Test
+    public final void unmarshal_shouldReadEitherForm() throws Exception {
+        assertThat(unmarshal(INLINE_XML, null), is((Object) new Image("pic", DATA)));
+        XopAttachments attachments = new XopAttachments();
+        String xml = marshal(new Image("pic", DATA), attachments);
+        assertThat(unmarshal(xml, attachments), is((Object) new Image("pic", DATA)));
+    }
+    
+    @Test(expected = Exception.class)
+    public final void unmarshal_shouldFailForMissingPart() throws Exception {
+        XopAttachments attachments = new XopAttachments();
+        String xml = marshal(new Image("pic", DATA), attachments);
+        unmarshal(xml, new XopAttachments());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.encoding.xop;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jibx.ws.codec.CodecDirectory;
+import org.jibx.ws.codec.MediaType;
+import org.junit.Test;
+
+/**
+ * Tests {@link XopOutputPackage} and {@link XopInputPackage}.
+ */
+public class XopPackageTest
+{
+    private static final String ROOT_XML = "<a>\r\n--not a boundary</a>";
+    
+    private static final byte[] BINARY = { 0, 1, 2, '\r', '\n', '-', '-', (byte) 0xFF, '\r', '\n' };
+    
+    private static String readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        int b;
+        while ((b = is.read()) >= 0) {
+            bos.write(b);
+        }
+        return new String(bos.toByteArray(), "UTF-8");
+    }
+    
+    private static XopInputPackage readPackage(String ctype, String data) throws Exception {
+        return new XopInputPackage(new ByteArrayInputStream(data.getBytes("ISO-8859-1")), new MediaType(ctype));
+    }
+    
+    @Test
+    public final void readPackage_shouldReturnPartsWritten() throws Exception {
+        XopOutputPackage out = new XopOutputPackage(CodecDirectory.TEXT_XML_MEDIA_TYPE);
+        String id1 = out.getAttachments().addAttachment(BINARY, null);
+        String id2 = out.getAttachments().addAttachment(new byte[0], "image/png");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        out.writeRootStart(bos, null);
+        bos.write(ROOT_XML.getBytes("UTF-8"));
+        out.writeParts(bos);
+        
+        MediaType type = new MediaType(out.getContentType(new MediaType.Parameter[0]));
+        assertThat(XopCommon.isXopPackage(type), is(true));
+        assertThat(XopCommon.getRootMediaType(type), is(CodecDirectory.TEXT_XML_MEDIA_TYPE));
+        XopInputPackage in = new XopInputPackage(new ByteArrayInputStream(bos.toByteArray()), type);
+        assertThat(readAll(in.getRootStream()), is(ROOT_XML));
+        assertThat(in.getRootCharset(), is("UTF-8"));
+        XopAttachments attachments = in.getAttachments();
+        assertThat(attachments.size(), is(2));
+        assertThat(attachments.getAttachment(XopCommon.CID_SCHEME + id1), is(BINARY));
+        assertThat(attachments.getAttachment(id2), is(new byte[0]));
+        assertThat(attachments.getContentType(1), is("image/png"));
+    }
+    
+    @Test
+    public final void readPackage_shouldHandleStartParameterAndEncodings() throws Exception {
+        String ctype = "multipart/related; boundary=xyz; type=\"application/xop+xml\"; start=\"<root@x>\"; "
+            + "start-info=\"text/xml\"";
+        XopInputPackage in = readPackage(ctype, "preamble\r\n"
+            + "--xyz\r\nContent-ID: <a%b@x>\r\nContent-Transfer-Encoding: base64\r\n\r\nAAEC\r\n"
+            + "--xyz\r\ncontent-id: <root@x>\r\ncontent-type: application/xop+xml; type=\"text/xml\"\r\n\r\n<a/>\r\n"
+            + "--xyz--\r\nepilogue");
+        assertThat(readAll(in.getRootStream()), is("<a/>"));
+        assertThat(in.getRootCharset(), nullValue());
+        assertThat(in.getAttachments().getAttachment("cid:a%25b%40x"), is(new byte[] { 0, 1, 2 }));
+    }
+    
+    @Test(expected = IOException.class)
+    public final void readPackage_shouldFailWhenRootMissing() throws Exception {
+        readPackage("multipart/related; boundary=xyz; type=\"application/xop+xml\"; start=\"<root@x>\"",
+            "--xyz\r\nContent-ID: <other@x>\r\n\r\n<a/>\r\n--xyz--\r\n");
+    }
+    
+    @Test(expected = IOException.class)
+    public final void readPackage_shouldFailWhenUnterminated() throws Exception {
+        readPackage("multipart/related; boundary=xyz; type=\"application/xop+xml\"",
+            "--xyz\r\nContent-ID: <root@x>\r\n\r\n<a/>");
+    }
+}
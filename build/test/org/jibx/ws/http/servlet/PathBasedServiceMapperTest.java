@@ -0,0 +1,66 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.http.servlet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+
+import org.jibx.ws.server.ServiceDefinition;
+import org.junit.Test;
+
+/**
+ * Tests bulkhead setup in {@link PathBasedServiceMapper}.
+ */
+public class PathBasedServiceMapperTest
+{
+    @Test
+    public void applyBulkheads_shouldLimitServicesWithoutOwnLimit() {
+        ServiceDefinition limited = new ServiceDefinition();
+        limited.setAdmissionLimit(3);
+        ServiceDefinition unlimited = new ServiceDefinition();
+        HashMap map = new HashMap();
+        map.put("/a", limited);
+        map.put("/b", unlimited);
+        PathBasedServiceMapper.applyBulkheads(map, 10);
+        assertThat(limited.getAdmissionLimit(), is(3));
+        assertThat(unlimited.getAdmissionLimit(), is(10));
+        assertThat(unlimited.getAdmissionController().getLimit(), is(10));
+    }
+
+    @Test
+    public void applyBulkheads_shouldLeaveSingleServiceUnlimited() {
+        ServiceDefinition sdef = new ServiceDefinition();
+        HashMap map = new HashMap();
+        map.put("/a", sdef);
+        PathBasedServiceMapper.applyBulkheads(map, 10);
+        assertThat(sdef.getAdmissionLimit(), is(0));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.http.servlet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.jibx.ws.WsException;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.AdmissionController;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.SoapMaker;
+import org.jibx.ws.soap.testdata.xop.Image;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests admission control through WsServletDelegate.
+ */
+public class WsServletDelegateAdmissionTest
+{
+    private static int s_invocationCount;
+    
+    private WsServletDelegate m_servlet;
+    
+    private AdmissionController m_admission;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        s_invocationCount = 0;
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("echoImage");
+        final ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceClassName(WsServletDelegateAdmissionTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setProtocolName("SOAP1.1");
+        sdef.setAdmissionLimit(1);
+        sdef.setRetryAfter(5);
+        sdef.init();
+        m_admission = sdef.getAdmissionController();
+        final ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName())
+            .getServiceFactory();
+        m_servlet = new WsServletDelegate();
+        m_servlet.setServiceMapper(new ServiceMapper() {
+            public Service getServiceInstance(HttpServletRequest req) throws WsException {
+                return ServicePool.getInstance(serviceFactory, sdef);
+            }
+        });
+    }
+    
+    private MockHttpServletResponse post() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "http://localhost/imageService");
+        request.setContentType("text/xml");
+        request.setContent(SoapMaker.envelope(SoapMaker.body("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\">"
+            + "<t3:name>pic</t3:name><t3:data>AAECAw==</t3:data></t3:image>")).getBytes("UTF-8"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        m_servlet.doPost(request, response);
+        return response;
+    }
+    
+    @Test
+    public final void doPost_shouldProcessRequestWithinLimit() throws Exception {
+        MockHttpServletResponse response = post();
+        
+        assertThat(response.getStatus(), is(200));
+        assertThat(s_invocationCount, is(1));
+        assertThat(m_admission.getInFlight(), is(0));
+    }
+    
+    @Test
+    public final void doPost_shouldRejectRequestOverLimit() throws Exception {
+        assertThat(m_admission.tryAcquire(), is(true));
+        MockHttpServletResponse response = post();
+        m_admission.release(0);
+        
+        assertThat(response.getStatus(), is(503));
+        assertThat(response.getHeader("Retry-After"), is((Object) "5"));
+        assertThat(s_invocationCount, is(0));
+        assertThat(m_admission.getRejectedCount(), is(1L));
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns the request image, counting the invocations.
+     * 
+     * @param image request image
+     * @return response image
+     */
+    public static Image echoImage(Image image) {
+        s_invocationCount++;
+        return image;
+    }
+}
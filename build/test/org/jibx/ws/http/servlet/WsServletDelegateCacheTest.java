@@ -0,0 +1,330 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.http.servlet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.jibx.ws.WsException;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.context.OutContext;
+import org.jibx.ws.metrics.PipelineEvent;
+import org.jibx.ws.metrics.PipelineEventListener;
+import org.jibx.ws.metrics.PipelineEvents;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.InterceptorDefinition;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.SoapMaker;
+import org.jibx.ws.soap.testdata.basic.Customer;
+import org.jibx.ws.soap.testdata.basic.Person;
+import org.jibx.ws.soap.testdata.basic.TestObjects;
+import org.jibx.ws.soap.testdata.xop.Image;
+import org.jibx.ws.transport.interceptor.OutputStreamInterceptor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests response caching through WsServletDelegate.
+ */
+public class WsServletDelegateCacheTest
+{
+    private static int s_invocationCount;
+    
+    private WsServletDelegate m_servlet;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        s_invocationCount = 0;
+    }
+    
+    @After
+    public void tearDown() {
+        PipelineEvents.setListener(null);
+    }
+    
+    private void createServlet(long ttl) throws Exception {
+        createServlet(ttl, false);
+    }
+    
+    private void createServlet(long ttl, boolean intercept) throws Exception {
+        createServlet(ttl, intercept, 0);
+    }
+    
+    private void createServlet(long ttl, boolean intercept, int maxsize) throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("reverseImage");
+        odef.setCacheTtl(ttl);
+        ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setResponseCacheEntrySize(maxsize);
+        if (intercept) {
+            InterceptorDefinition idef = new InterceptorDefinition();
+            idef.setClassName(DoublingInterceptor.class.getName());
+            HttpServletOptionsDefinition hdef = new HttpServletOptionsDefinition();
+            hdef.setOutputStreamInterceptorDefinition(idef);
+            sdef.setTransportOptionsDefinitions(Arrays.asList(new Object[] { hdef }));
+        }
+        createServlet(sdef);
+    }
+    
+    private void createCustomerServlet(long ttl, int maxsize) throws Exception {
+        OperationDefinition lookup = new OperationDefinition();
+        lookup.setMethodName("lookupCustomer");
+        lookup.setCacheTtl(ttl);
+        OperationDefinition copy = new OperationDefinition();
+        copy.setMethodName("copyCustomer");
+        ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { lookup, copy }));
+        sdef.setResponseCacheEntrySize(maxsize);
+        createServlet(sdef);
+    }
+    
+    private void createServlet(final ServiceDefinition sdef) throws Exception {
+        sdef.setServiceClassName(WsServletDelegateCacheTest.class.getName());
+        sdef.setProtocolName("SOAP1.1");
+        sdef.init();
+        final ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName())
+            .getServiceFactory();
+        m_servlet = new WsServletDelegate();
+        m_servlet.setServiceMapper(new ServiceMapper() {
+            public Service getServiceInstance(HttpServletRequest req) throws WsException {
+                return ServicePool.getInstance(serviceFactory, sdef);
+            }
+        });
+    }
+    
+    private MockHttpServletResponse post(String data, String accept) throws Exception {
+        return postSoap(SoapMaker.envelope(SoapMaker.body(imageXml(data))), accept);
+    }
+    
+    private MockHttpServletResponse postSoap(String soap, String accept) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "http://localhost/imageService");
+        request.setContentType("text/xml");
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        request.setContent(soap.getBytes("UTF-8"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        m_servlet.doPost(request, response);
+        assertThat(response.getStatus(), is(200));
+        return response;
+    }
+    
+    private static String imageXml(String data) {
+        return "<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>" + data
+            + "</t3:data></t3:image>";
+    }
+    
+    @Test
+    public final void doPost_shouldAnswerRepeatedRequestFromCache() throws Exception {
+        createServlet(60000);
+        MockHttpServletResponse first = post("AAECAw==", null);
+        MockHttpServletResponse second = post("AAECAw==", null);
+        
+        assertThat(s_invocationCount, is(1));
+        assertThat(second.getContentType(), is(first.getContentType()));
+        assertThat(second.getContentAsString(), is(first.getContentAsString()));
+        assertThat(second.getContentAsString().indexOf(imageXml("AwIBAA==")) >= 0, is(true));
+    }
+    
+    @Test
+    public final void doPost_shouldAnswerFromCacheWithoutParsingRequest() throws Exception {
+        createServlet(60000);
+        post("AAECAw==", null);
+        final List events = new ArrayList();
+        PipelineEvents.setListener(new PipelineEventListener() {
+            public void onEvent(PipelineEvent event) {
+                events.add(new Integer(event.getType()));
+            }
+        });
+        post("AAECAw==", null);
+        
+        assertThat(s_invocationCount, is(1));
+        assertThat(events.contains(new Integer(PipelineEvent.TYPE_REQUEST)), is(true));
+        assertThat(events.contains(new Integer(PipelineEvent.TYPE_RECEIVE)), is(false));
+    }
+    
+    @Test
+    public final void doPost_shouldApplyOutputInterceptorOnceToCachedResponse() throws Exception {
+        createServlet(60000, true);
+        MockHttpServletResponse first = post("AAECAw==", null);
+        MockHttpServletResponse second = post("AAECAw==", null);
+        
+        assertThat(s_invocationCount, is(1));
+        byte[] bytes = first.getContentAsByteArray();
+        assertThat(bytes.length > 0 && bytes[0] == bytes[1], is(true));
+        assertThat(Arrays.equals(second.getContentAsByteArray(), bytes), is(true));
+        assertThat(second.getContentLength() == 0 || second.getContentLength() == bytes.length, is(true));
+    }
+    
+    @Test
+    public final void doPost_shouldInvokeOperationForDifferentRequest() throws Exception {
+        createServlet(60000);
+        post("AAECAw==", null);
+        MockHttpServletResponse second = post("AAEC", null);
+        
+        assertThat(s_invocationCount, is(2));
+        assertThat(second.getContentAsString().indexOf(imageXml("AgEA")) >= 0, is(true));
+    }
+    
+    @Test
+    public final void doPost_shouldNotShareResponseBetweenCodecs() throws Exception {
+        createServlet(60000);
+        post("AAECAw==", null);
+        post("AAECAw==", "application/fastinfoset");
+        post("AAECAw==", "application/fastinfoset");
+        
+        assertThat(s_invocationCount, is(2));
+    }
+    
+    @Test
+    public final void doPost_shouldNotCacheWhenDisabled() throws Exception {
+        createServlet(0);
+        post("AAECAw==", null);
+        post("AAECAw==", null);
+        
+        assertThat(s_invocationCount, is(2));
+    }
+    
+    @Test
+    public final void doPost_shouldOnlyCacheOperationsWithCachingEnabled() throws Exception {
+        createCustomerServlet(60000, 0);
+        MockHttpServletResponse first = postSoap(TestObjects.RESPONSE_SOAP, null);
+        MockHttpServletResponse second = postSoap(TestObjects.RESPONSE_SOAP, null);
+        postSoap(TestObjects.REQUEST_SOAP, null);
+        postSoap(TestObjects.REQUEST_SOAP, null);
+        
+        assertThat(s_invocationCount, is(3));
+        assertThat(first.getContentAsString().indexOf("customer") >= 0, is(true));
+        assertThat(second.getContentAsString(), is(first.getContentAsString()));
+    }
+    
+    @Test
+    public final void doPost_shouldNotCacheRequestOverEntrySize() throws Exception {
+        createServlet(60000, false, 100);
+        post("AAECAw==", null);
+        MockHttpServletResponse second = post("AAECAw==", null);
+        
+        assertThat(s_invocationCount, is(2));
+        assertThat(second.getContentAsString().indexOf(imageXml("AwIBAA==")) >= 0, is(true));
+    }
+    
+    @Test
+    public final void doPost_shouldNotCacheResponseOverEntrySize() throws Exception {
+        int limit = TestObjects.REQUEST_SOAP.length() + 1;
+        createCustomerServlet(60000, limit);
+        postSoap(TestObjects.REQUEST_SOAP, null);
+        MockHttpServletResponse second = postSoap(TestObjects.REQUEST_SOAP, null);
+        
+        assertThat(second.getContentAsString().length() > limit, is(true));
+        assertThat(s_invocationCount, is(2));
+    }
+    
+    /**
+     * Interceptor which writes every byte twice, standing in for a transformation such as compression.
+     */
+    public static class DoublingInterceptor implements OutputStreamInterceptor
+    {
+        public void setMessageContext(OutContext ctx) {
+        }
+
+        public void outputComplete() {
+        }
+
+        public OutputStream intercept(OutputStream outputStream) {
+            return new FilterOutputStream(outputStream) {
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    out.write(b);
+                }
+            };
+        }
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns an image with the data reversed, counting the invocations.
+     * 
+     * @param image request image
+     * @return response image
+     */
+    public static Image reverseImage(Image image) {
+        s_invocationCount++;
+        byte[] copy = new byte[image.data.length];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = image.data[copy.length - i - 1];
+        }
+        return new Image(image.name, copy);
+    }
+    
+    /**
+     * Returns the customer matching a person, counting the invocations.
+     * 
+     * @param person request person
+     * @return customer
+     */
+    public static Customer lookupCustomer(Person person) {
+        s_invocationCount++;
+        return (Customer) TestObjects.createExpectedNormalResponseObject();
+    }
+    
+    /**
+     * Returns a customer unchanged, counting the invocations.
+     * 
+     * @param customer request customer
+     * @return customer
+     */
+    public static Customer copyCustomer(Customer customer) {
+        s_invocationCount++;
+        return customer;
+    }
+}
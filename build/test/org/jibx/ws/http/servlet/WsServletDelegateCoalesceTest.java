@@ -0,0 +1,259 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.http.servlet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.jibx.ws.WsException;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.Operation;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.SoapMaker;
+import org.jibx.ws.soap.testdata.xop.Image;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests coalescing of concurrent identical requests through WsServletDelegate.
+ */
+public class WsServletDelegateCoalesceTest
+{
+    private static final Object s_lock = new Object();
+    
+    private static int s_invocationCount;
+    
+    private static boolean s_released;
+    
+    private WsServletDelegate m_servlet;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        s_invocationCount = 0;
+        s_released = false;
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("reverseImage");
+        odef.setCoalesce(true);
+        final ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceClassName(WsServletDelegateCoalesceTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setProtocolName("SOAP1.1");
+        sdef.init();
+        final ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName())
+            .getServiceFactory();
+        m_servlet = new WsServletDelegate();
+        m_servlet.setServiceMapper(new ServiceMapper() {
+            public Service getServiceInstance(HttpServletRequest req) throws WsException {
+                return ServicePool.getInstance(serviceFactory, sdef);
+            }
+        });
+    }
+    
+    private static String imageXml(String data) {
+        return "<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>" + data
+            + "</t3:data></t3:image>";
+    }
+    
+    @Test
+    public final void doPost_shouldShareResponseWithConcurrentIdenticalRequest() throws Exception {
+        PostThread first = new PostThread("AAECAw==");
+        first.start();
+        synchronized (s_lock) {
+            while (s_invocationCount == 0) {
+                s_lock.wait();
+            }
+        }
+        PostThread second = new PostThread("AAECAw==");
+        second.start();
+        while (second.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+        synchronized (s_lock) {
+            s_released = true;
+            s_lock.notifyAll();
+        }
+        first.join();
+        second.join();
+        
+        assertThat(s_invocationCount, is(1));
+        assertThat(second.m_response.getStatus(), is(200));
+        assertThat(second.m_response.getContentType(), is(first.m_response.getContentType()));
+        assertThat(second.m_response.getContentAsString(), is(first.m_response.getContentAsString()));
+        assertThat(second.m_response.getContentAsString().indexOf(imageXml("AwIBAA==")) >= 0, is(true));
+    }
+    
+    @Test
+    public final void doPost_shouldStopWaitingForIdenticalRequestAfterTimeout() throws Exception {
+        PostThread first = new PostThread("AAECAw==");
+        first.start();
+        try {
+            synchronized (s_lock) {
+                while (s_invocationCount == 0) {
+                    s_lock.wait();
+                }
+            }
+            PostThread second = new PostThread("AAECAw==", "50");
+            second.run();
+            
+            assertThat(s_invocationCount, is(1));
+            assertThat(second.m_response.getStatus() == 200, is(false));
+            assertThat(second.m_response.getContentAsString().indexOf("did not complete within 50 ms") >= 0,
+                is(true));
+        } finally {
+            synchronized (s_lock) {
+                s_released = true;
+                s_lock.notifyAll();
+            }
+            first.join();
+        }
+        assertThat(first.m_response.getStatus(), is(200));
+    }
+    
+    @Test
+    public final void doPost_shouldProcessDirectlyAfterMaximumWait() throws Exception {
+        Operation.setMaxWait(50);
+        PostThread first = new PostThread("AAECAw==");
+        PostThread second = new PostThread("AAECAw==");
+        first.start();
+        try {
+            synchronized (s_lock) {
+                while (s_invocationCount == 0) {
+                    s_lock.wait();
+                }
+            }
+            
+            // without a time limit the second request gives up waiting and invokes the operation itself
+            second.start();
+            synchronized (s_lock) {
+                long end = System.currentTimeMillis() + 5000;
+                long now;
+                while (s_invocationCount < 2 && (now = System.currentTimeMillis()) < end) {
+                    s_lock.wait(end - now);
+                }
+            }
+            assertThat(s_invocationCount, is(2));
+        } finally {
+            Operation.setMaxWait(Operation.DEFAULT_MAX_WAIT);
+            synchronized (s_lock) {
+                s_released = true;
+                s_lock.notifyAll();
+            }
+            first.join();
+            second.join(5000);
+        }
+        assertThat(first.m_response.getStatus(), is(200));
+        assertThat(second.m_response.getStatus(), is(200));
+        assertThat(second.m_response.getContentAsString(), is(first.m_response.getContentAsString()));
+    }
+    
+    @Test
+    public final void doPost_shouldInvokeOperationForSequentialRequests() throws Exception {
+        s_released = true;
+        PostThread first = new PostThread("AAECAw==");
+        first.run();
+        PostThread second = new PostThread("AAECAw==");
+        second.run();
+        
+        assertThat(s_invocationCount, is(2));
+        assertThat(second.m_response.getContentAsString(), is(first.m_response.getContentAsString()));
+    }
+    
+    private class PostThread extends Thread
+    {
+        private final String m_data;
+        
+        private final String m_timeout;
+        
+        private final MockHttpServletResponse m_response = new MockHttpServletResponse();
+        
+        public PostThread(String data) {
+            this(data, null);
+        }
+        
+        public PostThread(String data, String timeout) {
+            m_data = data;
+            m_timeout = timeout;
+        }
+        
+        public void run() {
+            try {
+                MockHttpServletRequest request = new MockHttpServletRequest("POST", "http://localhost/imageService");
+                request.setContentType("text/xml");
+                if (m_timeout != null) {
+                    request.addHeader(Service.TIMEOUT_HEADER, m_timeout);
+                }
+                request.setContent(SoapMaker.envelope(SoapMaker.body(imageXml(m_data))).getBytes("UTF-8"));
+                m_servlet.doPost(request, m_response);
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage());
+            }
+        }
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns an image with the data reversed, counting the invocations and blocking until released.
+     * 
+     * @param image request image
+     * @return response image
+     * @throws InterruptedException if interrupted while blocked
+     */
+    public static Image reverseImage(Image image) throws InterruptedException {
+        synchronized (s_lock) {
+            s_invocationCount++;
+            s_lock.notifyAll();
+            while (!s_released) {
+                s_lock.wait();
+            }
+        }
+        byte[] copy = new byte[image.data.length];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = image.data[copy.length - i - 1];
+        }
+        return new Image(image.name, copy);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.http.servlet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jibx.ws.WsException;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.management.JmxManagementAgent;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.SoapMaker;
+import org.jibx.ws.soap.testdata.xop.Image;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests the JMX management beans registered by JmxManagementAgent for services running through WsServletDelegate.
+ */
+public class WsServletDelegateManagementTest
+{
+    private MBeanServer m_mbeanServer;
+    
+    private ServiceDefinition m_serviceDefinition;
+    
+    private WsServletDelegate m_servlet;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("echoImage");
+        final ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceName("managedService");
+        sdef.setServiceClassName(WsServletDelegateManagementTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setProtocolName("SOAP1.1");
+        sdef.init();
+        m_serviceDefinition = sdef;
+        m_mbeanServer = MBeanServerFactory.newMBeanServer();
+        JmxManagementAgent agent = new JmxManagementAgent(m_mbeanServer);
+        agent.serviceDefined(sdef);
+        agent.servletStarted();
+        final ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName())
+            .getServiceFactory();
+        m_servlet = new WsServletDelegate();
+        m_servlet.setServiceMapper(new ServiceMapper() {
+            public Service getServiceInstance(HttpServletRequest req) throws WsException {
+                return ServicePool.getInstance(serviceFactory, sdef);
+            }
+        });
+    }
+    
+    private void post(String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "http://localhost/managedService");
+        request.setContentType("text/xml");
+        request.setContent(SoapMaker.envelope(SoapMaker.body(body)).getBytes("UTF-8"));
+        m_servlet.doPost(request, new MockHttpServletResponse());
+    }
+    
+    @Test
+    public final void serviceBean_shouldCountRequestsAndFaults() throws Exception {
+        post("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>AAEC</t3:data>"
+            + "</t3:image>");
+        post("<unknown/>");
+        
+        ObjectName name = new ObjectName("org.jibx.ws:type=Service,name=\"managedService\"");
+        assertThat(m_mbeanServer.getAttribute(name, "RequestCount"), is((Object) new Long(2)));
+        assertThat(m_mbeanServer.getAttribute(name, "FaultCount"), is((Object) new Long(1)));
+        assertThat(m_mbeanServer.getAttribute(name, "ErrorRate"), is((Object) new Double(0.5)));
+        assertThat(m_mbeanServer.getAttribute(name, "PoolInUseCount"), is((Object) new Integer(0)));
+        assertThat(m_mbeanServer.getAttribute(name, "PoolAvailableCount"), is((Object) new Integer(1)));
+    }
+    
+    @Test
+    public final void serviceBean_shouldTrimPool() throws Exception {
+        post("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>AAEC</t3:data>"
+            + "</t3:image>");
+        
+        ObjectName name = new ObjectName("org.jibx.ws:type=Service,name=\"managedService\"");
+        Object count = m_mbeanServer.invoke(name, "trimPool", new Object[] { new Integer(0) },
+            new String[] { "int" });
+        assertThat(count, is((Object) new Integer(1)));
+        assertThat(ServicePool.getPool(m_serviceDefinition).getAvailableCount(), is(0));
+    }
+    
+    @Test
+    public final void poolBeans_shouldBeRegisteredForServletPools() throws Exception {
+        post("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>AAEC</t3:data>"
+            + "</t3:image>");
+        
+        ObjectName name = new ObjectName("org.jibx.ws:type=Pool,name=\"servlet input buffers\"");
+        assertThat(m_mbeanServer.getAttribute(name, "InUseCount"), is((Object) new Integer(0)));
+        assertThat(((Integer) m_mbeanServer.getAttribute(name, "CreateCount")).intValue() > 0, is(true));
+        assertThat(m_mbeanServer.queryNames(new ObjectName("org.jibx.ws:type=Pool,*"), null).size() > 2, is(true));
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns the request image.
+     * 
+     * @param image request image
+     * @return response image
+     */
+    public static Image echoImage(Image image) {
+        return image;
+    }
+}
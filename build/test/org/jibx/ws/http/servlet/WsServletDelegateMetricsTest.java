@@ -0,0 +1,198 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.http.servlet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.jibx.ws.WsException;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.context.ExchangeContext;
+import org.jibx.ws.metrics.HistogramMetricsCollector;
+import org.jibx.ws.metrics.MetricsCollector;
+import org.jibx.ws.metrics.OperationMetrics;
+import org.jibx.ws.metrics.PipelineEvent;
+import org.jibx.ws.metrics.PipelineEventListener;
+import org.jibx.ws.metrics.PipelineEvents;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.SoapMaker;
+import org.jibx.ws.soap.testdata.xop.Image;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests collection of request metrics through WsServletDelegate.
+ */
+public class WsServletDelegateMetricsTest
+{
+    private WsServletDelegate m_servlet;
+    
+    private HistogramMetricsCollector m_collector;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("echoImage");
+        final ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceName("imageService");
+        sdef.setServiceClassName(WsServletDelegateMetricsTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setProtocolName("SOAP1.1");
+        m_collector = new HistogramMetricsCollector();
+        sdef.setMetricsCollector(m_collector);
+        sdef.setPhaseTimingListener(m_collector);
+        sdef.init();
+        final ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName())
+            .getServiceFactory();
+        m_servlet = new WsServletDelegate();
+        m_servlet.setServiceMapper(new ServiceMapper() {
+            public Service getServiceInstance(HttpServletRequest req) throws WsException {
+                return ServicePool.getInstance(serviceFactory, sdef);
+            }
+        });
+    }
+    
+    @After
+    public void tearDown() {
+        PipelineEvents.setListener(null);
+    }
+    
+    private MockHttpServletResponse post(String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "http://localhost/imageService");
+        request.setContentType("text/xml");
+        request.setContent(SoapMaker.envelope(SoapMaker.body(body)).getBytes("UTF-8"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        m_servlet.doPost(request, response);
+        return response;
+    }
+    
+    @Test
+    public final void doPost_shouldRecordOperationMetrics() throws Exception {
+        MockHttpServletResponse response = post("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\">"
+            + "<t3:name>pic</t3:name><t3:data>AAECAw==</t3:data></t3:image>");
+        post("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>AAEC</t3:data>"
+            + "</t3:image>");
+        
+        OperationMetrics metrics = m_collector.getOperationMetrics("imageService", "echoImage");
+        assertThat(metrics.getRequestCount(), is(2L));
+        assertThat(metrics.getFaultCount(), is(0L));
+        assertThat(metrics.getLatency().getCount(), is(2L));
+        assertThat(metrics.getInBytes() > 0, is(true));
+        assertThat(metrics.getOutBytes() >= response.getContentAsByteArray().length, is(true));
+    }
+    
+    @Test
+    public final void doPost_shouldRecordFaultForUnknownOperation() throws Exception {
+        post("<unknown/>");
+        
+        OperationMetrics metrics = m_collector.getOperationMetrics("imageService",
+            MetricsCollector.UNKNOWN_OPERATION);
+        assertThat(metrics.getRequestCount(), is(1L));
+        assertThat(metrics.getFaultCount(), is(1L));
+    }
+    
+    @Test
+    public final void doPost_shouldRecordPhaseTimes() throws Exception {
+        post("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>AAEC</t3:data>"
+            + "</t3:image>");
+        
+        OperationMetrics metrics = m_collector.getOperationMetrics("imageService", "echoImage");
+        for (int i = ExchangeContext.MARK_READ; i <= ExchangeContext.MARK_FLUSHED; i++) {
+            assertThat(ExchangeContext.getPhaseName(i), metrics.getPhaseLatency(i).getCount(), is(1L));
+        }
+    }
+    
+    @Test
+    public final void doPost_shouldSkipPhasesNotReached() throws Exception {
+        post("<unknown/>");
+        
+        OperationMetrics metrics = m_collector.getOperationMetrics("imageService",
+            MetricsCollector.UNKNOWN_OPERATION);
+        assertThat(metrics.getPhaseLatency(ExchangeContext.MARK_UNMARSHALLED).getCount(), is(1L));
+        assertThat(metrics.getPhaseLatency(ExchangeContext.MARK_INVOKED).getCount(), is(0L));
+    }
+    
+    @Test
+    public final void doPost_shouldReportPipelineEvents() throws Exception {
+        final List events = new ArrayList();
+        PipelineEvents.setListener(new PipelineEventListener() {
+            public void onEvent(PipelineEvent event) {
+                events.add(event);
+            }
+        });
+        post("<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>AAEC</t3:data>"
+            + "</t3:image>");
+        
+        // service instance and codec checkouts, followed by processing stages
+        int[] types = new int[] { PipelineEvent.TYPE_CHECKOUT, PipelineEvent.TYPE_CHECKOUT, PipelineEvent.TYPE_RECEIVE,
+            PipelineEvent.TYPE_INVOKE, PipelineEvent.TYPE_SEND, PipelineEvent.TYPE_REQUEST };
+        assertThat(events.size(), is(types.length));
+        for (int i = 0; i < types.length; i++) {
+            assertThat(((PipelineEvent) events.get(i)).getType(), is(types[i]));
+        }
+        PipelineEvent request = (PipelineEvent) events.get(types.length - 1);
+        assertThat(request.getServiceName(), is("imageService"));
+        assertThat(request.getOperationName(), is("echoImage"));
+        assertThat(request.getMediaType(), is("text/xml"));
+        assertThat(request.getInBytes() > 0, is(true));
+        assertThat(request.getOutBytes() > 0, is(true));
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns the request image.
+     * 
+     * @param image request image
+     * @return response image
+     */
+    public static Image echoImage(Image image) {
+        return image;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.http.servlet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.codec.CodecDirectory;
+import org.jibx.ws.codec.MediaType;
+import org.jibx.ws.encoding.xop.XopAttachments;
+import org.jibx.ws.encoding.xop.XopCommon;
+import org.jibx.ws.encoding.xop.XopInputPackage;
+import org.jibx.ws.encoding.xop.XopOutputPackage;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.SoapMaker;
+import org.jibx.ws.soap.testdata.xop.Image;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests XOP packaged requests and responses through WsServletDelegate.
+ */
+public class WsServletDelegateXopTest
+{
+    private static final byte[] DATA = { 0, 1, 2, 3, '\r', '\n', '-', '-', (byte) 0xFE, (byte) 0xFF };
+    
+    private MockHttpServletRequest m_request;
+    
+    private MockHttpServletResponse m_response;
+    
+    private WsServletDelegate m_servlet;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        m_request = new MockHttpServletRequest("POST", "http://localhost/imageService");
+        m_response = new MockHttpServletResponse();
+        m_servlet = new WsServletDelegate();
+        ServiceMapper mapper = mock(ServiceMapper.class);
+        when(mapper.getServiceInstance(m_request)).thenReturn(createService());
+        m_servlet.setServiceMapper(mapper);
+    }
+    
+    private static Service createService() throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("reverseImage");
+        ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceClassName(WsServletDelegateXopTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setProtocolName("SOAP1.1");
+        sdef.init();
+        ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName()).getServiceFactory();
+        return ServicePool.getInstance(serviceFactory, sdef);
+    }
+    
+    private static String imageXml(String data) {
+        return "<t3:image xmlns:t3=\"http://org.jibx.ws/test3\"><t3:name>pic</t3:name><t3:data>" + data
+            + "</t3:data></t3:image>";
+    }
+    
+    @Test
+    public final void doPost_shouldRespondToXopRequestWithXopResponse() throws Exception {
+        XopOutputPackage pack = new XopOutputPackage(CodecDirectory.TEXT_XML_MEDIA_TYPE);
+        String id = pack.getAttachments().addAttachment(DATA, "image/png");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        pack.writeRootStart(bos, "UTF-8");
+        bos.write(SoapMaker.envelope(SoapMaker.body(imageXml("<xop:Include xmlns:xop=\""
+            + XopCommon.XOP_NAMESPACE + "\" href=\"cid:" + id + "\"/>"))).getBytes("UTF-8"));
+        pack.writeParts(bos);
+        m_request.setContentType(pack.getContentType(new MediaType.Parameter[0]));
+        m_request.setContent(bos.toByteArray());
+        
+        m_servlet.doPost(m_request, m_response);
+        
+        assertThat(m_response.getStatus(), is(200));
+        MediaType type = new MediaType(m_response.getContentType());
+        assertThat(XopCommon.isXopPackage(type), is(true));
+        XopInputPackage in = new XopInputPackage(new ByteArrayInputStream(m_response.getContentAsByteArray()), type);
+        XopAttachments attachments = in.getAttachments();
+        assertThat(attachments.size(), is(1));
+        assertThat(attachments.getData(0), is(reverse(DATA)));
+    }
+    
+    @Test
+    public final void doPost_shouldRespondToPlainRequestWithInlineData() throws Exception {
+        m_request.setContentType("text/xml");
+        m_request.setContent(SoapMaker.envelope(SoapMaker.body(imageXml("AAECAw=="))).getBytes("UTF-8"));
+        
+        m_servlet.doPost(m_request, m_response);
+        
+        assertThat(m_response.getStatus(), is(200));
+        assertThat(m_response.getContentType().startsWith("text/xml"), is(true));
+        assertThat(m_response.getContentAsString().indexOf(imageXml("AwIBAA==")) >= 0, is(true));
+    }
+    
+    private static byte[] reverse(byte[] data) {
+        byte[] copy = new byte[data.length];
+        for (int i = 0; i < data.length; i++) {
+            copy[i] = data[data.length - i - 1];
+        }
+        return copy;
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns an image with the data reversed.
+     * 
+     * @param image request image
+     * @return response image
+     */
+    public static Image reverseImage(Image image) {
+        return new Image(image.name, reverse(image.data));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.io;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jibx.runtime.impl.UTF8StreamWriter;
+import org.jibx.ws.io.handler.MarshallingOutHandler;
+import org.jibx.ws.soap.testdata.basic.ErrorMessage;
+import org.jibx.ws.soap.testdata.basic.ErrorType;
+import org.junit.Test;
+
+/**
+ * Tests {@link MarshallerPool}.
+ */
+public class MarshallerPoolTest
+{
+    private static final String[] URIS = { "", "http://www.w3.org/XML/1998/namespace" };
+    
+    @Test
+    public final void getPool_shouldSharePoolForClassesInSameBinding() throws Exception {
+        MarshallerPool pool = MarshallerPool.getPool(ErrorMessage.class);
+        assertThat(MarshallerPool.getPool(ErrorMessage.class), sameInstance(pool));
+        assertThat(MarshallerPool.getPool(ErrorType.class), sameInstance(pool));
+    }
+    
+    @Test
+    public final void getInstance_shouldReuseReleasedMarshaller() throws Exception {
+        MarshallerPool pool = MarshallerPool.getPool(ErrorMessage.class);
+        MarshallingPayloadWriter marshaller = (MarshallingPayloadWriter)pool.getInstance();
+        pool.endUsage(marshaller);
+        assertThat(pool.getInstance(), sameInstance((Object)marshaller));
+        pool.endUsage(marshaller);
+    }
+    
+    @Test
+    public final void endUsage_shouldLeaveWriterInUse() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer();
+        buff.setOutput(bos);
+        UTF8StreamWriter writer = new UTF8StreamWriter(URIS);
+        writer.setBuffer(buff);
+        writer.startTagClosed(0, "headers");
+        new MarshallingOutHandler(new ErrorMessage("first")).invoke(null, writer);
+        new MarshallingOutHandler(new ErrorType("second")).invoke(null, writer);
+        writer.endTag(0, "headers");
+        writer.flush();
+        String xml = new String(bos.toByteArray(), "UTF-8");
+        assertThat(xml.startsWith("<headers><m:msg"), is(true));
+        assertThat(xml.indexOf(">first</m:msg>") > 0, is(true));
+        assertThat(xml.indexOf("<m:ExceptionType>second</m:ExceptionType>") > 0, is(true));
+        assertThat(xml.endsWith("</m:Exception></headers>"), is(true));
+    }
+}
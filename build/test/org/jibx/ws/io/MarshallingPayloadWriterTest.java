@@ -0,0 +1,160 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.io;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jibx.runtime.impl.UTF8StreamWriter;
+import org.jibx.ws.soap.testdata.basic.ErrorMessage;
+import org.junit.Test;
+
+/**
+ * Tests {@link MarshallingPayloadWriter}.
+ */
+public class MarshallingPayloadWriterTest
+{
+    private static final String[] URIS = { "", "http://www.w3.org/XML/1998/namespace" };
+    
+    private static final String MESSAGE_XML = 
+        "<m:msg xmlns:m=\"http://example.org/faults/exceptions\">text</m:msg>";
+    
+    private ByteArrayOutputStream m_output;
+    
+    private UTF8StreamWriter createWriter() throws Exception {
+        return createWriter(OutByteBuffer.DEFAULT_BUFFER_SIZE);
+    }
+    
+    private UTF8StreamWriter createWriter(int size) throws Exception {
+        m_output = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer(size);
+        buff.setOutput(m_output);
+        UTF8StreamWriter writer = new UTF8StreamWriter(URIS);
+        writer.setBuffer(buff);
+        return writer;
+    }
+    
+    private String getOutput(UTF8StreamWriter writer) throws Exception {
+        writer.flush();
+        return new String(m_output.toByteArray(), "UTF-8");
+    }
+    
+    @Test
+    public final void invoke_shouldReuseTranslationForSameWriterNamespaces() throws Exception {
+        MarshallingPayloadWriter marshaller = new MarshallingPayloadWriter(ErrorMessage.class);
+        UTF8StreamWriter writer = createWriter();
+        writer.startTagClosed(0, "a");
+        marshaller.invoke(writer, new ErrorMessage("text"));
+        marshaller.invoke(writer, new ErrorMessage("text"));
+        writer.endTag(0, "a");
+        assertThat(getOutput(writer), is("<a>" + MESSAGE_XML + MESSAGE_XML + "</a>"));
+        marshaller.reset();
+        
+        // new writer with the same namespaces
+        writer = createWriter();
+        marshaller.invoke(writer, new ErrorMessage("text"));
+        assertThat(getOutput(writer), is(MESSAGE_XML));
+    }
+    
+    @Test
+    public final void invoke_shouldTranslateForExtendedWriterNamespaces() throws Exception {
+        MarshallingPayloadWriter marshaller = new MarshallingPayloadWriter(ErrorMessage.class);
+        UTF8StreamWriter writer = createWriter();
+        marshaller.invoke(writer, new ErrorMessage("text"));
+        assertThat(getOutput(writer), is(MESSAGE_XML));
+        marshaller.reset();
+        
+        // same writer namespaces with an extension active, so payload namespace index differs
+        writer = createWriter();
+        writer.pushExtensionNamespaces(new String[] { "urn:other" });
+        writer.startTagNamespaces(2, "a", new int[] { 2 }, new String[] { "o" });
+        writer.closeStartTag();
+        marshaller.invoke(writer, new ErrorMessage("text"));
+        writer.endTag(2, "a");
+        assertThat(getOutput(writer), is("<o:a xmlns:o=\"urn:other\">" + MESSAGE_XML + "</o:a>"));
+    }
+    
+    @Test
+    public final void invoke_shouldMarshalStreamingPayloadItems() throws Exception {
+        MarshallingPayloadWriter marshaller = new MarshallingPayloadWriter(ErrorMessage.class);
+        UTF8StreamWriter writer = createWriter();
+        marshaller.invoke(writer, new StreamingPayload("urn:list", "l", "list", new MessageIterator(3)));
+        assertThat(getOutput(writer), is("<l:list xmlns:l=\"urn:list\">" + MESSAGE_XML + MESSAGE_XML + MESSAGE_XML
+            + "</l:list>"));
+        marshaller.reset();
+        
+        writer = createWriter();
+        marshaller.invoke(writer, new StreamingPayload("list", new MessageIterator(0)));
+        assertThat(getOutput(writer), is("<list/>"));
+    }
+    
+    @Test
+    public final void invoke_shouldPassStreamingOutputOnBeforeAllItemsSupplied() throws Exception {
+        MarshallingPayloadWriter marshaller = new MarshallingPayloadWriter(ErrorMessage.class);
+        UTF8StreamWriter writer = createWriter(256);
+        MessageIterator iter = new MessageIterator(1000);
+        marshaller.invoke(writer, new StreamingPayload("list", iter));
+        assertThat(iter.m_outputSeen, is(true));
+        String xml = getOutput(writer);
+        assertThat(xml.length(), is("<list>".length() + MESSAGE_XML.length() * 1000 + "</list>".length()));
+        assertThat(xml.endsWith(MESSAGE_XML + "</list>"), is(true));
+    }
+    
+    /**
+     * Iterator supplying test messages, recording whether any output was passed on before the last message.
+     */
+    private class MessageIterator implements Iterator
+    {
+        private int m_remaining;
+        private boolean m_outputSeen;
+        
+        private MessageIterator(int count) {
+            m_remaining = count;
+        }
+        
+        public boolean hasNext() {
+            return m_remaining > 0;
+        }
+        
+        public Object next() {
+            if (--m_remaining == 0) {
+                m_outputSeen = m_output.size() > 0;
+            }
+            return new ErrorMessage("text");
+        }
+        
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
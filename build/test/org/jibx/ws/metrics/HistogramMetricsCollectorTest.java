@@ -0,0 +1,78 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests HistogramMetricsCollector.
+ */
+public class HistogramMetricsCollectorTest
+{
+    @Test
+    public final void requestCompleted_shouldKeepMetricsPerOperation() throws Exception {
+        HistogramMetricsCollector collector = new HistogramMetricsCollector();
+        collector.requestCompleted("serv", "op1", 5, false);
+        collector.requestCompleted("serv", "op2", 5, true);
+        collector.requestCompleted("serv", "op1", 5, false);
+        collector.bytesTransferred("other", "op1", 100, 200);
+        
+        assertThat(collector.getOperationMetrics("serv", "op1").getRequestCount(), is(2L));
+        assertThat(collector.getOperationMetrics("serv", "op2").getFaultCount(), is(1L));
+        assertThat(collector.getOperationMetrics("other", "op1").getOutBytes(), is(200L));
+        assertThat(collector.getOperationMetrics("other", "op2") == null, is(true));
+        assertThat(collector.getAllMetrics().size(), is(3));
+    }
+    
+    @Test
+    public final void requestCompleted_shouldCountAllRequestsFromConcurrentThreads() throws Exception {
+        final HistogramMetricsCollector collector = new HistogramMetricsCollector();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        collector.requestCompleted("serv", "op" + (j % 10), 1, false);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join(5000);
+        }
+        assertThat(collector.getAllMetrics().size(), is(10));
+        for (int i = 0; i < 10; i++) {
+            assertThat(collector.getOperationMetrics("serv", "op" + i).getRequestCount(), is(800L));
+        }
+    }
+}
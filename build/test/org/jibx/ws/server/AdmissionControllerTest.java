@@ -0,0 +1,173 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the concurrency limits of AdmissionController.
+ */
+public class AdmissionControllerTest
+{
+    @Test
+    public final void tryAcquire_shouldRejectWhenFixedLimitReached() throws Exception {
+        AdmissionController admission = new AdmissionController(2, 0, 0, 1);
+        assertThat(admission.tryAcquire(), is(true));
+        assertThat(admission.tryAcquire(), is(true));
+        assertThat(admission.tryAcquire(), is(false));
+        admission.release(10000);
+        assertThat(admission.tryAcquire(), is(true));
+        assertThat(admission.getLimit(), is(2));
+        assertThat(admission.getRejectedCount(), is(1L));
+    }
+    
+    @Test
+    public final void tryAcquire_shouldWaitForReleaseWhenQueueAllowed() throws Exception {
+        final AdmissionController admission = new AdmissionController(1, 0, 0, 1, 5000, 1);
+        assertThat(admission.tryAcquire(), is(true));
+        final boolean[] result = new boolean[1];
+        Thread waiter = new Thread() {
+            public void run() {
+                result[0] = admission.tryAcquire();
+            }
+        };
+        waiter.start();
+        while (admission.getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        
+        // queue is full, so another request fails fast
+        assertThat(admission.tryAcquire(), is(false));
+        admission.release(0);
+        waiter.join(5000);
+        assertThat(result[0], is(true));
+        assertThat(admission.getInFlight(), is(1));
+    }
+    
+    @Test
+    public final void tryAcquire_shouldRejectWhenWaitExpires() throws Exception {
+        AdmissionController admission = new AdmissionController(1, 0, 0, 1, 20, 1);
+        assertThat(admission.tryAcquire(), is(true));
+        assertThat(admission.tryAcquire(), is(false));
+        assertThat(admission.getWaiting(), is(0));
+        assertThat(admission.getRejectedCount(), is(1L));
+    }
+    
+    @Test
+    public final void tryAcquire_shouldAdmitWaitingHighPriorityFirst() throws Exception {
+        final AdmissionController admission = new AdmissionController(1, 0, 0, 1, 5000, 2);
+        assertThat(admission.tryAcquire(), is(true));
+        final List order = new ArrayList();
+        final int[] priorities = new int[] { AdmissionController.PRIORITY_NORMAL, AdmissionController.PRIORITY_HIGH };
+        Thread[] threads = new Thread[priorities.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int priority = priorities[i];
+            threads[i] = new Thread() {
+                public void run() {
+                    if (admission.tryAcquire(priority)) {
+                        synchronized (order) {
+                            order.add(new Integer(priority));
+                        }
+                        admission.release(0);
+                    }
+                }
+            };
+            threads[i].start();
+            while (admission.getWaiting() <= i) {
+                Thread.sleep(1);
+            }
+        }
+        admission.release(0);
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join(5000);
+        }
+        assertThat(order.size(), is(2));
+        assertThat(order.get(0), is((Object) new Integer(AdmissionController.PRIORITY_HIGH)));
+    }
+    
+    @Test
+    public final void tryAcquire_shouldShedLowPriorityAboveShare() throws Exception {
+        AdmissionController admission = new AdmissionController(4, 0, 0, 1);
+        admission.setPriorityScheduling(new PriorityRule[0], 50);
+        assertThat(admission.tryAcquire(AdmissionController.PRIORITY_LOW), is(true));
+        assertThat(admission.tryAcquire(AdmissionController.PRIORITY_LOW), is(true));
+        assertThat(admission.tryAcquire(AdmissionController.PRIORITY_LOW), is(false));
+        assertThat(admission.tryAcquire(AdmissionController.PRIORITY_NORMAL), is(true));
+        assertThat(admission.tryAcquire(AdmissionController.PRIORITY_HIGH), is(true));
+    }
+    
+    @Test
+    public final void getPriority_shouldUseFirstMatchingRule() throws Exception {
+        PriorityRule action = new PriorityRule();
+        action.setSoapAction("urn:export");
+        action.setPriorityName("low");
+        action.init();
+        PriorityRule client = new PriorityRule();
+        client.setClientAddress("10.0.0.1");
+        client.setPriorityName("high");
+        client.init();
+        AdmissionController admission = new AdmissionController(4, 0, 0, 1);
+        admission.setPriorityScheduling(new PriorityRule[] { action, client }, 100);
+        assertThat(admission.getPriority("\"urn:export\"", "10.0.0.1", null), is(AdmissionController.PRIORITY_LOW));
+        assertThat(admission.getPriority("urn:query", "10.0.0.1", "low"), is(AdmissionController.PRIORITY_HIGH));
+        assertThat(admission.getPriority("urn:query", "10.0.0.2", "low"), is(AdmissionController.PRIORITY_LOW));
+        assertThat(admission.getPriority(null, null, "urgent"), is(AdmissionController.PRIORITY_NORMAL));
+    }
+    
+    @Test
+    public final void release_shouldDecreaseLimitWhenLatencyOverTarget() throws Exception {
+        AdmissionController admission = new AdmissionController(10, 20, 100, 1);
+        admission.tryAcquire();
+        admission.release(500);
+        assertThat(admission.getLimit(), is(9));
+        for (int i = 0; i < 100; i++) {
+            admission.tryAcquire();
+            admission.release(500);
+        }
+        assertThat(admission.getLimit(), is(1));
+    }
+    
+    @Test
+    public final void release_shouldIncreaseLimitWhenBusyWithinTarget() throws Exception {
+        AdmissionController admission = new AdmissionController(2, 3, 100, 1);
+        for (int i = 0; i < 10; i++) {
+            admission.tryAcquire();
+            admission.tryAcquire();
+            admission.release(10);
+            admission.release(10);
+        }
+        assertThat(admission.getLimit(), is(3));
+    }
+}
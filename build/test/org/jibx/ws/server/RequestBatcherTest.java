@@ -0,0 +1,176 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jibx.ws.WsConfigurationException;
+import org.jibx.ws.WsException;
+import org.jibx.ws.WsTimeoutException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests combining of concurrent requests into batches by {@link RequestBatcher}, as used by {@link Operation}.
+ */
+public class RequestBatcherTest
+{
+    private static List s_batchSizes;
+    
+    @Before
+    public void setUp() {
+        s_batchSizes = new ArrayList();
+    }
+    
+    private static Operation createOperation(String batchMethod, long window, int size) throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("lookup");
+        odef.setBatchMethodName(batchMethod);
+        odef.setBatchWindow(window);
+        odef.setBatchSize(size);
+        return Operation.newInstance(RequestBatcherTest.class, odef);
+    }
+    
+    @Test
+    public final void invoke_shouldCombineConcurrentRequestsIntoBatch() throws Exception {
+        final Operation op = createOperation("lookupAll", 60000, 3);
+        final Object[] results = new Object[3];
+        Thread[] threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        results[index] = op.invoke(null, new Integer(index), null);
+                    } catch (Exception e) {
+                        results[index] = e;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        
+        assertThat(s_batchSizes.size(), is(1));
+        assertThat(s_batchSizes.get(0), is((Object) new Integer(3)));
+        for (int i = 0; i < results.length; i++) {
+            assertThat(results[i], is((Object) ("value" + i)));
+        }
+    }
+    
+    @Test
+    public final void invoke_shouldProcessSingleRequestAfterWindow() throws Exception {
+        Operation op = createOperation("lookupAll", 5, 0);
+        
+        assertThat(op.invoke(null, new Integer(7), null), is((Object) "value7"));
+        assertThat(s_batchSizes.size(), is(1));
+        assertThat(s_batchSizes.get(0), is((Object) new Integer(1)));
+    }
+    
+    @Test(expected = WsException.class)
+    public final void invoke_shouldThrowWhenResponseCountDiffers() throws Exception {
+        Operation op = createOperation("lookupNone", 5, 0);
+        op.invoke(null, new Integer(7), null);
+    }
+    
+    @Test
+    public final void invoke_shouldStopWaitingForBatchAfterDeadline() throws Exception {
+        final Operation op = createOperation("lookupSlow", 1000, 2);
+        Thread leader = new Thread() {
+            public void run() {
+                try {
+                    op.invoke(null, new Integer(1), null);
+                } catch (Exception e) {
+                    // expected when interrupted
+                }
+            }
+        };
+        leader.start();
+        
+        // give the first request time to open the batch, which this request then fills
+        Thread.sleep(100);
+        Deadline.setCurrent(new Deadline(200));
+        long start = System.currentTimeMillis();
+        try {
+            op.invoke(null, new Integer(2), null);
+            fail("Expected WsTimeoutException");
+        } catch (WsTimeoutException e) {
+            assertThat(System.currentTimeMillis() - start < 5000, is(true));
+        } finally {
+            Deadline.setCurrent(null);
+            leader.interrupt();
+            leader.join(5000);
+        }
+    }
+    
+    @Test
+    public final void newInstance_shouldRejectBatchMethodWithoutListParameter() throws Exception {
+        try {
+            createOperation("lookup", 5, 0);
+            fail("Expected WsConfigurationException");
+        } catch (WsConfigurationException e) {
+            assertThat(e.getMessage().indexOf("lookup") >= 0, is(true));
+        }
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    public static String lookup(Integer key) {
+        return "value" + key;
+    }
+    
+    public static List lookupAll(List keys) {
+        synchronized (s_batchSizes) {
+            s_batchSizes.add(new Integer(keys.size()));
+        }
+        List values = new ArrayList();
+        for (int i = 0; i < keys.size(); i++) {
+            values.add(lookup((Integer) keys.get(i)));
+        }
+        return values;
+    }
+    
+    public static List lookupSlow(List keys) throws InterruptedException {
+        Thread.sleep(10000);
+        return lookupAll(keys);
+    }
+    
+    public static List lookupNone(List keys) {
+        return new ArrayList();
+    }
+}
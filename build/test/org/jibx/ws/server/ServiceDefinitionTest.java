@@ -31,7 +31,9 @@ import org.jibx.runtime.IBindingFactory;
 import org.jibx.runtime.IUnmarshallingContext;
 import org.jibx.runtime.JiBXException;
 import org.jibx.ws.WsBindingException;
+import org.jibx.ws.WsConfigurationException;
 import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.tcp.server.TcpServerOptionsDefinition;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -126,4 +128,92 @@ public class ServiceDefinitionTest
             assertThat(e.getRootCause().getClass().getName(), is(WsBindingException.class.getName()));
         }
     }
+    
+    @Test
+    public final void givenResponseCacheElementsShouldReturnCacheSettings() throws Exception {
+        StringReader sdxml = new StringReader("<service>"
+            + "<service-class>java.lang.Integer</service-class>"
+            + "<operation method=\"toString\" coalesce=\"true\"><response-cache ttl=\"30000\"/></operation>"
+            + "<response-cache size=\"20\"/>" + "</service>");
+        ServiceDefinition sdef = (ServiceDefinition) m_ctx.unmarshalDocument(sdxml, null);
+        assertThat(sdef.getResponseCacheSize(), is(20));
+        OperationDefinition opdef = (OperationDefinition) sdef.getOperationDefinitions().get(0);
+        assertThat(opdef.getCacheTtl(), is(30000L));
+        assertThat(opdef.isCoalesce(), is(true));
+    }
+    
+    @Test
+    public final void givenAdmissionControlElementShouldReturnLimits() throws Exception {
+        StringReader sdxml = new StringReader("<service>"
+            + "<service-class>java.lang.Integer</service-class>"
+            + "<operation method=\"toString\"/>"
+            + "<admission-control limit=\"8\" target-latency=\"200\" retry-after=\"3\"/>" + "</service>");
+        ServiceDefinition sdef = (ServiceDefinition) m_ctx.unmarshalDocument(sdxml, null);
+        assertThat(sdef.getAdmissionLimit(), is(8));
+        assertThat(sdef.getAdmissionMaxLimit(), is(80));
+        assertThat(sdef.getAdmissionLatency(), is(200L));
+        assertThat(sdef.getRetryAfter(), is(3));
+        assertThat(sdef.getAdmissionController().getLimit(), is(8));
+        assertThat(sdef.getAdmissionMaxWait(), is(0L));
+        assertThat(sdef.getAdmissionMaxQueue(), is(8));
+    }
+    
+    @Test
+    public final void givenAdmissionControlWaitShouldReturnBulkheadSettings() throws Exception {
+        StringReader sdxml = new StringReader("<service>"
+            + "<service-class>java.lang.Integer</service-class>"
+            + "<operation method=\"toString\"/>"
+            + "<admission-control limit=\"4\" max-wait=\"50\" max-queue=\"2\"/>" + "</service>");
+        ServiceDefinition sdef = (ServiceDefinition) m_ctx.unmarshalDocument(sdxml, null);
+        assertThat(sdef.getAdmissionLimit(), is(4));
+        assertThat(sdef.getAdmissionMaxWait(), is(50L));
+        assertThat(sdef.getAdmissionMaxQueue(), is(2));
+    }
+    
+    @Test
+    public final void givenPriorityElementsShouldAssignRequestPriorities() throws Exception {
+        StringReader sdxml = new StringReader("<service>"
+            + "<service-class>java.lang.Integer</service-class>"
+            + "<operation method=\"toString\"/>"
+            + "<admission-control limit=\"4\" low-priority-share=\"25\">"
+            + "<priority soap-action=\"urn:export\" value=\"low\"/><priority client=\"10.0.0.1\" value=\"high\"/>"
+            + "</admission-control>" + "</service>");
+        ServiceDefinition sdef = (ServiceDefinition) m_ctx.unmarshalDocument(sdxml, null);
+        assertThat(sdef.getLowPriorityShare(), is(25));
+        assertThat(sdef.getPriorityRules().size(), is(2));
+        AdmissionController admission = sdef.getAdmissionController();
+        assertThat(admission.getPriority("urn:export", null, null), is(AdmissionController.PRIORITY_LOW));
+        assertThat(admission.getPriority(null, "10.0.0.1", null), is(AdmissionController.PRIORITY_HIGH));
+    }
+    
+    @Test
+    public final void givenUnknownPriorityShouldThrowJiBXException() throws Exception {
+        StringReader sdxml = new StringReader("<service>"
+            + "<service-class>java.lang.Integer</service-class>"
+            + "<operation method=\"toString\"/>"
+            + "<admission-control limit=\"4\"><priority value=\"urgent\"/></admission-control>" + "</service>");
+        try {
+            m_ctx.unmarshalDocument(sdxml, null);
+            Assert.fail("Expected JiBXException");
+        } catch(JiBXException e) {
+            assertThat(e.getRootCause().getClass().getName(), is(WsConfigurationException.class.getName()));
+        }
+    }
+    
+    @Test
+    public final void givenTcpServerOptionsElementShouldReturnClientLimits() throws Exception {
+        StringReader sdxml = new StringReader("<service>"
+            + "<service-class>java.lang.Integer</service-class>"
+            + "<operation method=\"toString\"/>"
+            + "<tcp-server-options max-client-connections=\"4\" client-request-rate=\"50\""
+            + " max-concurrent=\"16\" fair=\"true\"/>" + "</service>");
+        ServiceDefinition sdef = (ServiceDefinition) m_ctx.unmarshalDocument(sdxml, null);
+        TcpServerOptionsDefinition tsodef = (TcpServerOptionsDefinition) sdef
+            .getTransportOptionsDefinition(TcpServerOptionsDefinition.class);
+        assertThat(tsodef.getMaxClientConnections(), is(4));
+        assertThat(tsodef.getClientRequestRate(), is(50));
+        assertThat(tsodef.getClientRequestBurst(), is(50));
+        assertThat(tsodef.getMaxConcurrent(), is(16));
+        assertThat(tsodef.isFair(), is(true));
+    }
 }
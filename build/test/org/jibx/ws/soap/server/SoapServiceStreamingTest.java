@@ -0,0 +1,187 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.soap.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.custommonkey.xmlunit.XMLAssert;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.jibx.runtime.BindingDirectory;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.io.StreamingPayload;
+import org.jibx.ws.io.StreamingRequest;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.SoapMaker;
+import org.jibx.ws.soap.testdata.basic.Customer;
+import org.jibx.ws.soap.testdata.basic.Person;
+import org.jibx.ws.soap.testdata.basic.TestObjects;
+import org.jibx.ws.transport.test.StubbedDuplexServerConnection;
+import org.jibx.ws.transport.test.StubbedInboundConnection;
+import org.jibx.ws.transport.test.StubbedOutboundServerConnection;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests streaming request and response bodies with {@link SoapService}.
+ */
+public class SoapServiceStreamingTest
+{
+    private static final String NS = "http://org.jibx.ws/test1";
+    
+    private static final String STREAMED_REQUEST = SoapMaker.envelope(SoapMaker.body(
+          "<t1:requests xmlns:t1=\"" + NS + "\">\n"
+        + "<t1:request><t1:cust-num>1</t1:cust-num></t1:request>\n"
+        + "<t1:request><t1:cust-num>2</t1:cust-num></t1:request>\n"
+        + "<t1:request><t1:cust-num>3</t1:cust-num></t1:request>\n"
+        + "</t1:requests>\n"));
+    
+    /** Customer numbers read by last operation. */
+    private static List s_numbers;
+    
+    private StubbedInboundConnection m_inbound;
+    
+    private StubbedOutboundServerConnection m_outbound;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        StubbedDuplexServerConnection conn = new StubbedDuplexServerConnection();
+        m_inbound = (StubbedInboundConnection) conn.getInbound();
+        m_inbound.setInBytes(STREAMED_REQUEST.getBytes());
+        m_outbound = (StubbedOutboundServerConnection) conn.getOutbound();
+        s_numbers = new ArrayList();
+    }
+    
+    private static Service createService(String method) throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName(method);
+        odef.setInputElement("{" + NS + "}requests");
+        ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceClassName(SoapServiceStreamingTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setBindingFactory(BindingDirectory.getFactory(Customer.class));
+        sdef.setProtocolName("SOAP1.1");
+        sdef.init();
+        ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName()).getServiceFactory();
+        return ServicePool.getInstance(serviceFactory, sdef);
+    }
+    
+    private static String requestXml(int number) {
+        return "<t1:request xmlns:t1=\"" + NS + "\"><t1:cust-num>" + number + "</t1:cust-num></t1:request>";
+    }
+    
+    @Test
+    public final void processRequest_shouldPassStreamedItemsToOperation() throws Exception {
+        createService("readAll").processRequest(m_inbound, m_outbound);
+        assertThat(m_outbound.isInternalServerError(), is(false));
+        assertThat(s_numbers, is(Arrays.asList(new Object[] { new Integer(1), new Integer(2), new Integer(3) })));
+        XMLUnit.setIgnoreWhitespace(true);
+        try {
+            XMLAssert.assertXMLEqual(TestObjects.RESPONSE_SOAP, new String(m_outbound.getOutBytes()));
+        } finally {
+            XMLUnit.setIgnoreWhitespace(false);
+        }
+    }
+    
+    @Test
+    public final void processRequest_shouldSkipItemsNotReadByOperation() throws Exception {
+        createService("readFirst").processRequest(m_inbound, m_outbound);
+        assertThat(m_outbound.isInternalServerError(), is(false));
+        assertThat(s_numbers, is(Arrays.asList(new Object[] { new Integer(1) })));
+    }
+    
+    @Test
+    public final void processRequest_shouldStreamResponseItems() throws Exception {
+        createService("echoAll").processRequest(m_inbound, m_outbound);
+        assertThat(m_outbound.isInternalServerError(), is(false));
+        XMLUnit.setIgnoreWhitespace(true);
+        try {
+            XMLAssert.assertXMLEqual(SoapMaker.envelope(SoapMaker.body("<r:customers xmlns:r=\"urn:result\">"
+                + requestXml(1) + requestXml(2) + requestXml(3) + "</r:customers>")),
+                new String(m_outbound.getOutBytes()));
+        } finally {
+            XMLUnit.setIgnoreWhitespace(false);
+        }
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Reads all streamed items.
+     * 
+     * @param req streamed request
+     * @return customer
+     */
+    public static Customer readAll(StreamingRequest req) {
+        while (req.hasNext()) {
+            s_numbers.add(new Integer(((Person) req.next()).customerNumber));
+        }
+        return (Customer) TestObjects.RESPONSE_OBJECT;
+    }
+    
+    /**
+     * Reads only the first streamed item.
+     * 
+     * @param req streamed request
+     * @return customer
+     */
+    public static Customer readFirst(StreamingRequest req) {
+        s_numbers.add(new Integer(((Person) req.next()).customerNumber));
+        return (Customer) TestObjects.RESPONSE_OBJECT;
+    }
+    
+    /**
+     * Echoes the streamed request items as a streamed response.
+     * 
+     * @param req streamed request
+     * @return streamed response
+     */
+    public static StreamingPayload echoAll(StreamingRequest req) {
+        List items = new ArrayList();
+        while (req.hasNext()) {
+            items.add(req.next());
+        }
+        return new StreamingPayload("urn:result", "r", "customers", items.iterator());
+    }
+}
@@ -0,0 +1,301 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.soap.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.custommonkey.xmlunit.XMLAssert;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.context.InContext;
+import org.jibx.ws.protocol.ProtocolDirectory;
+import org.jibx.ws.server.Deadline;
+import org.jibx.ws.server.Operation;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.Service;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.server.ServiceFactory;
+import org.jibx.ws.server.ServicePool;
+import org.jibx.ws.soap.testdata.basic.Customer;
+import org.jibx.ws.soap.testdata.basic.Person;
+import org.jibx.ws.soap.testdata.basic.TestObjects;
+import org.jibx.ws.transport.test.StubbedDuplexServerConnection;
+import org.jibx.ws.transport.test.StubbedInboundConnection;
+import org.jibx.ws.transport.test.StubbedOutboundServerConnection;
+import org.jibx.ws.util.ExpandingPool;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests operation time limits with {@link SoapService}.
+ */
+public class SoapServiceTimeoutTest
+{
+    private static final Object s_lock = new Object();
+    
+    /** Flag for hanging operation having seen its deadline cancelled. */
+    private static boolean s_cancelled;
+    
+    /** Flag for releasing operations which ignore cancellation. */
+    private static boolean s_released;
+    
+    /** Flag for abandoned operation having completed. */
+    private static boolean s_completed;
+    
+    /** Request body seen by abandoned operation after being released. */
+    private static Object s_inBody;
+    
+    private StubbedInboundConnection m_inbound;
+    
+    private StubbedOutboundServerConnection m_outbound;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        StubbedDuplexServerConnection conn = new StubbedDuplexServerConnection();
+        m_inbound = (StubbedInboundConnection) conn.getInbound();
+        m_inbound.setInBytes(TestObjects.REQUEST_SOAP.getBytes());
+        m_outbound = (StubbedOutboundServerConnection) conn.getOutbound();
+        s_cancelled = false;
+    }
+    
+    private static Service createService(String method, long timeout) throws Exception {
+        ServiceDefinition sdef = createDefinition(method, timeout);
+        ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName()).getServiceFactory();
+        return ServicePool.getInstance(serviceFactory, sdef);
+    }
+    
+    private static ServiceDefinition createDefinition(String method, long timeout) throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName(method);
+        odef.setTimeout(timeout);
+        ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceClassName(SoapServiceTimeoutTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setProtocolName("SOAP1.1");
+        sdef.init();
+        return sdef;
+    }
+    
+    private static boolean waitForCancelled() throws InterruptedException {
+        synchronized (s_lock) {
+            long end = System.currentTimeMillis() + 5000;
+            while (!s_cancelled && System.currentTimeMillis() < end) {
+                s_lock.wait(end - System.currentTimeMillis());
+            }
+            return s_cancelled;
+        }
+    }
+    
+    @Test
+    public final void processRequest_shouldReturnResponseWithinTimeLimit() throws Exception {
+        createService("lookup", 5000).processRequest(m_inbound, m_outbound);
+        
+        assertThat(m_outbound.isInternalServerError(), is(false));
+        XMLUnit.setIgnoreWhitespace(true);
+        try {
+            XMLAssert.assertXMLEqual(TestObjects.RESPONSE_SOAP, new String(m_outbound.getOutBytes()));
+        } finally {
+            XMLUnit.setIgnoreWhitespace(false);
+        }
+    }
+    
+    @Test
+    public final void processRequest_shouldReturnFaultAndCancelWhenTimeLimitExceeded() throws Exception {
+        createService("hang", 50).processRequest(m_inbound, m_outbound);
+        
+        assertThat(m_outbound.isInternalServerError(), is(true));
+        assertThat(new String(m_outbound.getOutBytes()).indexOf("did not complete within 50 ms") >= 0, is(true));
+        assertThat(waitForCancelled(), is(true));
+    }
+    
+    @Test
+    public final void processRequest_shouldApplyClientTimeoutHeader() throws Exception {
+        m_inbound.setProperty(Service.TIMEOUT_HEADER, "50");
+        createService("hang", 0).processRequest(m_inbound, m_outbound);
+        
+        assertThat(m_outbound.isInternalServerError(), is(true));
+        assertThat(waitForCancelled(), is(true));
+    }
+    
+    @Test
+    public final void processRequest_shouldLimitThreadsHeldByHungOperations() throws Exception {
+        ServiceDefinition sdef = createDefinition("ignoreCancel", 50);
+        ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName()).getServiceFactory();
+        int base = Operation.getTimedThreadCount();
+        Operation.setMaxTimedThreads(base + 2);
+        s_released = false;
+        try {
+            for (int i = 0; i < 5; i++) {
+                setUp();
+                Service serv = ServicePool.getInstance(serviceFactory, sdef);
+                serv.processRequest(m_inbound, m_outbound);
+                serv.releaseInstance();
+                assertThat(m_outbound.isInternalServerError(), is(true));
+                String text = new String(m_outbound.getOutBytes());
+                if (i < 2) {
+                    assertThat(text.indexOf("did not complete within 50 ms") >= 0, is(true));
+                } else {
+                    assertThat(text.indexOf("not started") >= 0, is(true));
+                }
+                assertThat(Operation.getTimedThreadCount() <= base + 2, is(true));
+            }
+            ExpandingPool pool = ServicePool.getPool(sdef);
+            synchronized (pool) {
+                assertThat(pool.getDiscardCount(), is(2));
+            }
+        } finally {
+            synchronized (s_lock) {
+                s_released = true;
+                s_lock.notifyAll();
+            }
+            Operation.setMaxTimedThreads(Operation.DEFAULT_MAX_THREADS);
+        }
+        long end = System.currentTimeMillis() + 5000;
+        while (Operation.getTimedThreadCount() > base && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertThat(Operation.getTimedThreadCount(), is(base));
+    }
+    
+    @Test
+    public final void processRequest_shouldLeaveContextsToAbandonedOperation() throws Exception {
+        ServiceDefinition sdef = createDefinition("ignoreCancelWithContext", 50);
+        ServiceFactory serviceFactory = ProtocolDirectory.getProtocol(sdef.getProtocolName()).getServiceFactory();
+        s_released = false;
+        s_completed = false;
+        s_inBody = null;
+        Service serv = ServicePool.getInstance(serviceFactory, sdef);
+        try {
+            serv.processRequest(m_inbound, m_outbound);
+            assertThat(serv.isAbandoned(), is(true));
+            assertThat(m_outbound.isInternalServerError(), is(true));
+            assertThat(new String(m_outbound.getOutBytes()).indexOf("did not complete within 50 ms") >= 0, is(true));
+        } finally {
+            serv.releaseInstance();
+            synchronized (s_lock) {
+                s_released = true;
+                s_lock.notifyAll();
+                long end = System.currentTimeMillis() + 5000;
+                while (!s_completed && System.currentTimeMillis() < end) {
+                    s_lock.wait(end - System.currentTimeMillis());
+                }
+            }
+        }
+        
+        // the fault was sent without resetting the contexts the operation was still using
+        assertThat(s_completed, is(true));
+        assertThat(s_inBody instanceof Person, is(true));
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns the expected response.
+     * 
+     * @param person request
+     * @return response
+     */
+    public static Customer lookup(Person person) {
+        return (Customer) TestObjects.RESPONSE_OBJECT;
+    }
+    
+    /**
+     * Waits until the deadline for the request is cancelled.
+     * 
+     * @param person request
+     * @return <code>null</code>
+     */
+    public static Customer hang(Person person) {
+        Deadline deadline = Deadline.current();
+        synchronized (s_lock) {
+            try {
+                while (!deadline.isCancelled()) {
+                    s_lock.wait();
+                }
+            } catch (InterruptedException e) {
+                // interrupted when cancelled
+            }
+            s_cancelled = deadline.isCancelled();
+            s_lock.notifyAll();
+        }
+        return null;
+    }
+    
+    /**
+     * Ignores cancellation and interrupts, waiting until released by the test.
+     * 
+     * @param person request
+     * @return <code>null</code>
+     */
+    public static Customer ignoreCancel(Person person) {
+        synchronized (s_lock) {
+            while (!s_released) {
+                try {
+                    s_lock.wait();
+                } catch (InterruptedException e) {
+                    // ignored, as by a backend which does not support cancellation
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Ignores cancellation and interrupts, waiting until released by the test, then records the request body from the
+     * inbound context.
+     * 
+     * @param person request
+     * @param inCtx inbound message context
+     * @return <code>null</code>
+     */
+    public static Customer ignoreCancelWithContext(Person person, InContext inCtx) {
+        synchronized (s_lock) {
+            while (!s_released) {
+                try {
+                    s_lock.wait();
+                } catch (InterruptedException e) {
+                    // ignored, as by a backend which does not support cancellation
+                }
+            }
+            s_inBody = inCtx.getBody();
+            s_completed = true;
+            s_lock.notifyAll();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.tcp.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the per-client limits of ClientLimiter.
+ */
+public class ClientLimiterTest
+{
+    @Test
+    public final void openConnection_shouldLimitConnectionsPerClient() throws Exception {
+        ClientLimiter limiter = new ClientLimiter(2, 0, 0, 0, false);
+        assertThat(limiter.openConnection("10.0.0.1"), is(true));
+        assertThat(limiter.openConnection("10.0.0.1"), is(true));
+        assertThat(limiter.openConnection("10.0.0.1"), is(false));
+        assertThat(limiter.openConnection("10.0.0.2"), is(true));
+        limiter.closeConnection("10.0.0.1");
+        assertThat(limiter.openConnection("10.0.0.1"), is(true));
+        assertThat(limiter.getRejectedConnections(), is(1L));
+    }
+    
+    @Test
+    public final void tryRequest_shouldLimitBurstPerClient() throws Exception {
+        ClientLimiter limiter = new ClientLimiter(0, 1, 3, 0, false);
+        limiter.openConnection("10.0.0.1");
+        assertThat(limiter.tryRequest("10.0.0.1"), is(true));
+        assertThat(limiter.tryRequest("10.0.0.1"), is(true));
+        assertThat(limiter.tryRequest("10.0.0.1"), is(true));
+        assertThat(limiter.tryRequest("10.0.0.1"), is(false));
+        assertThat(limiter.tryRequest("10.0.0.2"), is(true));
+        
+        // reconnecting does not reset the rate limit
+        limiter.closeConnection("10.0.0.1");
+        limiter.openConnection("10.0.0.1");
+        assertThat(limiter.tryRequest("10.0.0.1"), is(false));
+        assertThat(limiter.getRejectedRequests(), is(2L));
+    }
+    
+    @Test
+    public final void openConnection_shouldDropIdleClientsAfterRefill() throws Exception {
+        ClientLimiter limiter = new ClientLimiter(0, 1000, 1000, 0, false);
+        limiter.openConnection("10.0.0.1");
+        assertThat(limiter.tryRequest("10.0.0.1"), is(true));
+        limiter.closeConnection("10.0.0.1");
+        assertThat(limiter.getClientCount(), is(1));
+        
+        // bucket refills within a second, and the next connection from any client sweeps the idle state
+        Thread.sleep(1100);
+        limiter.openConnection("10.0.0.2");
+        assertThat(limiter.getClientCount(), is(1));
+        limiter.closeConnection("10.0.0.2");
+        assertThat(limiter.getClientCount(), is(0));
+    }
+    
+    @Test
+    public final void startRequest_shouldAlternateBetweenWaitingClients() throws Exception {
+        final ClientLimiter limiter = new ClientLimiter(0, 0, 0, 1, true);
+        final List order = new ArrayList();
+        limiter.startRequest("busy");
+        Thread[] threads = new Thread[4];
+        String[] addrs = new String[] { "busy", "busy", "busy", "quiet" };
+        for (int i = 0; i < threads.length; i++) {
+            final String addr = addrs[i];
+            threads[i] = new Thread() {
+                public void run() {
+                    limiter.startRequest(addr);
+                    synchronized (order) {
+                        order.add(addr);
+                    }
+                    limiter.endRequest();
+                }
+            };
+            threads[i].start();
+            while (limiter.getWaitingCount() <= i) {
+                Thread.sleep(1);
+            }
+        }
+        limiter.endRequest();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join(5000);
+        }
+        assertThat(order.size(), is(4));
+        assertThat(order.get(0), is((Object) "busy"));
+        assertThat(order.get(1), is((Object) "quiet"));
+    }
+}
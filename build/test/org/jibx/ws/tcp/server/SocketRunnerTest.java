@@ -0,0 +1,138 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.tcp.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.net.ServerSocket;
+import java.util.Arrays;
+
+import org.jibx.runtime.BindingDirectory;
+import org.jibx.ws.WsTestHelper;
+import org.jibx.ws.io.MessageOptions;
+import org.jibx.ws.server.OperationDefinition;
+import org.jibx.ws.server.ServiceDefinition;
+import org.jibx.ws.soap.SoapFaultException;
+import org.jibx.ws.soap.client.SoapClient;
+import org.jibx.ws.soap.testdata.basic.Customer;
+import org.jibx.ws.soap.testdata.basic.Person;
+import org.jibx.ws.soap.testdata.basic.TestObjects;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the handling of rejected messages by SocketRunner.
+ */
+public class SocketRunnerTest
+{
+    private TcpServer m_server;
+    
+    private int m_port;
+    
+    static {
+        WsTestHelper.loadBindings();
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        OperationDefinition odef = new OperationDefinition();
+        odef.setMethodName("lookupCustomer");
+        TcpServerOptionsDefinition topts = new TcpServerOptionsDefinition();
+        topts.setClientRequestRate(1);
+        topts.setClientRequestBurst(1);
+        ServiceDefinition sdef = new ServiceDefinition();
+        sdef.setServiceClassName(SocketRunnerTest.class.getName());
+        sdef.setOperationDefinitions(Arrays.asList(new OperationDefinition[] { odef }));
+        sdef.setProtocolName("SOAP1.1");
+        sdef.setTransportOptionsDefinitions(Arrays.asList(new Object[] { topts }));
+        sdef.init();
+        ServerSocket socket = new ServerSocket(0);
+        m_port = socket.getLocalPort();
+        m_server = new TcpServer(socket, sdef);
+        m_server.start();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        m_server.setExit(true);
+        m_server.join();
+    }
+    
+    private SoapClient createClient() throws Exception {
+        MessageOptions options = new MessageOptions();
+        options.setOutMediaTypeCode("x-xbis-stream");
+        options.setInMediaTypeCodes(new String[] { "x-xbis-stream" });
+        return new SoapClient("tcp://localhost:" + m_port, BindingDirectory.getFactory(Person.class), options);
+    }
+    
+    private void waitForClose() throws Exception {
+        long end = System.currentTimeMillis() + 5000;
+        while (m_server.getRunners().length > 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertThat(m_server.getRunners().length, is(0));
+    }
+    
+    @Test(timeout = 10000)
+    public final void run_shouldCloseConnectionScopedCodecConnectionAfterRejection() throws Exception {
+        SoapClient client = createClient();
+        assertThat(client.call(TestObjects.REQUEST_OBJECT), is(TestObjects.RESPONSE_OBJECT));
+        try {
+            client.call(TestObjects.REQUEST_OBJECT);
+            fail("Expected rejection");
+        } catch (SoapFaultException e) {
+            assertThat(e.getMessage().indexOf("Request rate limit exceeded") >= 0, is(true));
+        }
+        waitForClose();
+        client.close();
+        
+        // wait for the rate limit to allow another request, which must be decoded correctly on a new connection
+        Thread.sleep(1100);
+        client = createClient();
+        assertThat(client.call(TestObjects.REQUEST_OBJECT), is(TestObjects.RESPONSE_OBJECT));
+        client.close();
+    }
+    
+    // ********************************************************************
+    // Methods for processing requests. These are accessed via reflection.
+    // ********************************************************************
+    
+    /**
+     * Returns the customer matching a person.
+     * 
+     * @param person request person
+     * @return customer
+     */
+    public static Customer lookupCustomer(Person person) {
+        return (Customer) TestObjects.createExpectedNormalResponseObject();
+    }
+}
@@ -30,6 +30,8 @@ package org.jibx.ws.transport.test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.jibx.runtime.IXMLReader;
 import org.jibx.runtime.JiBXException;
@@ -51,6 +53,7 @@ public final class StubbedInboundConnection implements InConnection
     private String m_operationName;
     private String m_origin;
     private boolean m_hasError;
+    private final Map m_properties = new HashMap();
 
     // ============================================
     // Methods for providing the stubbed connection
@@ -135,7 +138,7 @@ public final class StubbedInboundConnection implements InConnection
 
     /** {@inheritDoc} */
     public String getProperty(String name) {
-        return null;
+        return (String) m_properties.get(name);
     }
     
     /** {@inheritDoc} */
@@ -160,6 +163,16 @@ public final class StubbedInboundConnection implements InConnection
         m_is = new ByteArrayInputStream(bytes);
     }
 
+    /**
+     * Set a property to be returned by {@link #getProperty(String)}.
+     * 
+     * @param name property name
+     * @param value property value
+     */
+    public void setProperty(String name, String value) {
+        m_properties.put(name, value);
+    }
+
     /**
      * Set characterEncoding.
      *
@@ -0,0 +1,128 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.junit.Test;
+
+/**
+ * Tests {@link ErrorLog}.
+ */
+public class ErrorLogTest
+{
+    @Test
+    public final void error_shouldLimitFullEntriesAndSampleRest() {
+        RecordingLog log = new RecordingLog(true);
+        ErrorLog errlog = new ErrorLog(log, 60000, 2, 3);
+        for (int i = 0; i < 8; i++) {
+            errlog.error("Failed", new IOException("broken " + i));
+        }
+        assertThat(ErrorLog.flush(5000), is(true));
+        assertThat(log.m_messages.size(), is(4));
+        assertThat(log.m_messages.get(0), is((Object)"Failed [type=java.io.IOException, count=1, suppressed=0]"));
+        assertThat(log.m_throwables.get(1), is(notNullValue()));
+        assertThat(log.m_messages.get(2),
+            is((Object)"Failed [type=java.io.IOException, count=5, suppressed=2, reason=broken 4]"));
+        assertThat(log.m_throwables.get(2), is(nullValue()));
+        assertThat(log.m_messages.get(3),
+            is((Object)"Failed [type=java.io.IOException, count=8, suppressed=2, reason=broken 7]"));
+        assertThat(errlog.getCount("java.io.IOException"), is(8L));
+    }
+    
+    @Test
+    public final void getCounts_shouldCountEachTypeSeparately() {
+        RecordingLog log = new RecordingLog(true);
+        ErrorLog errlog = new ErrorLog(log, 60000, 1, 0);
+        errlog.warn("Failed", new IOException());
+        errlog.warn("Failed", new IllegalStateException());
+        errlog.warn("Failed", new IOException());
+        assertThat(ErrorLog.flush(5000), is(true));
+        assertThat(log.m_messages.size(), is(2));
+        Map counts = errlog.getCounts();
+        assertThat(counts.get("java.io.IOException"), is((Object)new Long(2)));
+        assertThat(counts.get("java.lang.IllegalStateException"), is((Object)new Long(1)));
+    }
+    
+    @Test
+    public final void error_shouldCountWhenLoggingDisabled() {
+        RecordingLog log = new RecordingLog(false);
+        ErrorLog errlog = new ErrorLog(log);
+        errlog.error("Failed", new IOException());
+        assertThat(ErrorLog.flush(5000), is(true));
+        assertThat(log.m_messages.size(), is(0));
+        assertThat(errlog.getCount("java.io.IOException"), is(1L));
+    }
+    
+    /**
+     * Log which records warning and error output.
+     */
+    private static class RecordingLog implements Log
+    {
+        private final boolean m_enabled;
+        private final ArrayList m_messages = new ArrayList();
+        private final ArrayList m_throwables = new ArrayList();
+        
+        public RecordingLog(boolean enabled) {
+            m_enabled = enabled;
+        }
+        
+        private synchronized void record(Object message, Throwable t) {
+            m_messages.add(message);
+            m_throwables.add(t);
+        }
+        
+        public boolean isDebugEnabled() { return false; }
+        public boolean isErrorEnabled() { return m_enabled; }
+        public boolean isFatalEnabled() { return m_enabled; }
+        public boolean isInfoEnabled() { return false; }
+        public boolean isTraceEnabled() { return false; }
+        public boolean isWarnEnabled() { return m_enabled; }
+        public void trace(Object message) { }
+        public void trace(Object message, Throwable t) { }
+        public void debug(Object message) { }
+        public void debug(Object message, Throwable t) { }
+        public void info(Object message) { }
+        public void info(Object message, Throwable t) { }
+        public void warn(Object message) { record(message, null); }
+        public void warn(Object message, Throwable t) { record(message, t); }
+        public void error(Object message) { record(message, null); }
+        public void error(Object message, Throwable t) { record(message, t); }
+        public void fatal(Object message) { record(message, null); }
+        public void fatal(Object message, Throwable t) { record(message, t); }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited. 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.ws.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link LruCache}.
+ */
+public class LruCacheTest
+{
+    @Test
+    public final void get_shouldReturnCachedValue() {
+        LruCache cache = new LruCache(2);
+        cache.put("a", "1");
+        assertThat(cache.get("a"), is((Object)"1"));
+        assertThat(cache.get("b"), is(nullValue()));
+    }
+
+    @Test
+    public final void put_shouldEvictLeastRecentlyUsed() {
+        LruCache cache = new LruCache(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.get("a"), is((Object)"1"));
+        assertThat(cache.get("c"), is((Object)"3"));
+    }
+
+    @Test
+    public final void put_shouldReplaceExistingValue() {
+        LruCache cache = new LruCache(2);
+        cache.put("a", "1");
+        cache.put("a", "2");
+        assertThat(cache.size(), is(1));
+        assertThat(cache.get("a"), is((Object)"2"));
+    }
+
+    @Test
+    public final void remove_shouldDiscardEntry() {
+        LruCache cache = new LruCache(2);
+        cache.put("a", "1");
+        assertThat(cache.remove("a"), is((Object)"1"));
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get("a"), is(nullValue()));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public final void constructor_shouldRejectNonPositiveSize() {
+        new LruCache(0);
+    }
+}
@@ -0,0 +1,279 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package com.sosnoski.seismic.client;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Date;
+
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.MarshallingContext;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jibx.runtime.impl.UTF8StreamWriter;
+import org.jibx.ws.io.MarshallingPayloadWriter;
+import org.jibx.ws.io.handler.MarshallingOutHandler;
+
+import com.sosnoski.seismic.common.Query;
+
+/**
+ * SOAP header marshalling comparison. This writes a series of SOAP headers to an in-memory buffer in the same way as
+ * the client, with several query headers per message, and reports the time and the number of bytes allocated per
+ * header for each way of marshalling the headers, including marshalling with and without the cached namespace
+ * translation for the SOAP namespaces. The allocation figures use the JDK-specific thread allocation count,
+ * and are omitted when that is not supported by the JVM.
+ */
+public class HeaderCompare
+{
+    private static final String SOAP_URI = "http://schemas.xmlsoap.org/soap/envelope/";
+    
+    private static final String[] SOAP_PREFIXES = { "SOAP" };
+    
+    /** Namespaces defined by the SOAP message writer. */
+    private static final String[] SOAP_NAMESPACES = { "", MarshallingContext.XML_NAMESPACE, SOAP_URI };
+    
+    private static final int SOAP_NS_IDX = 2;
+    
+    private static final int[] SOAP_NS_INDEXES = { SOAP_NS_IDX };
+    
+    /** Number of headers written for each message. */
+    private static final int HEADERS_PER_MESSAGE = 3;
+    
+    /** Number of distinct namespace sets used to fill the translation cache of a marshaller (the cache limit). */
+    private static final int FILLER_NAMESPACE_SETS = 8;
+    
+    /** Number of untimed passes used to warm up each case. */
+    private static final int WARMUP_PASSES = 5;
+    
+    /** Number of timed passes for each case. */
+    private static final int TIMED_PASSES = 10;
+    
+    /** Thread management bean supporting allocation counts (<code>null</code> if not supported). */
+    private static Object s_threadBean;
+    
+    /** Method returning the number of bytes allocated by a thread (<code>null</code> if not supported). */
+    private static Method s_allocatedBytesMethod;
+    
+    static {
+        try {
+            Object bean = ManagementFactory.getThreadMXBean();
+            Class clas = Class.forName("com.sun.management.ThreadMXBean");
+            if (clas.isInstance(bean)) {
+                s_allocatedBytesMethod = clas.getMethod("getThreadAllocatedBytes", new Class[] { long.class });
+                s_threadBean = bean;
+            }
+        } catch (Exception e) {
+            // allocation counts not supported, only report times
+        }
+    }
+    
+    private final Query[] m_headers;
+    
+    private final ByteArrayOutputStream m_output;
+    
+    private final OutByteBuffer m_buffer;
+    
+    private final UTF8StreamWriter m_writer;
+    
+    private final int m_messageCount;
+    
+    private long m_baseBytes;
+    
+    private long m_baseTime;
+    
+    private HeaderCompare(int count) {
+        m_headers = new Query[HEADERS_PER_MESSAGE];
+        for (int i = 0; i < m_headers.length; i++) {
+            Query query = new Query();
+            query.setMinDateTime(new Date(946689566000L + i * 86400000L));
+            query.setMaxDateTime(new Date(1062371279000L - i * 86400000L));
+            query.setMinLongitude(new Float(-120.0f + i));
+            query.setMaxLongitude(new Float(60.0f - i));
+            query.setMinLatitude(new Float(-45.0f + i));
+            query.setMaxLatitude(new Float(45.0f - i));
+            m_headers[i] = query;
+        }
+        m_output = new ByteArrayOutputStream();
+        m_buffer = new OutByteBuffer();
+        m_writer = new UTF8StreamWriter(SOAP_NAMESPACES);
+        m_messageCount = count;
+    }
+    
+    /**
+     * Get the number of bytes allocated by the current thread.
+     * 
+     * @return allocated bytes, or 0 if not supported
+     * @throws Exception on error
+     */
+    private static long getAllocatedBytes() throws Exception {
+        if (s_allocatedBytesMethod == null) {
+            return 0;
+        } else {
+            Object[] args = new Object[] { new Long(Thread.currentThread().getId()) };
+            return ((Long)s_allocatedBytesMethod.invoke(s_threadBean, args)).longValue();
+        }
+    }
+    
+    /**
+     * Create a marshaller for the headers with the namespace translation cache already filled by writers using other
+     * namespaces, so the translation for the SOAP namespaces is rebuilt for every header.
+     * 
+     * @return marshaller
+     * @throws Exception on error
+     */
+    private MarshallingPayloadWriter createUncachedMarshaller() throws Exception {
+        MarshallingPayloadWriter marshaller = new MarshallingPayloadWriter(Query.class);
+        for (int i = 0; i < FILLER_NAMESPACE_SETS; i++) {
+            OutByteBuffer buff = new OutByteBuffer();
+            buff.setOutput(new ByteArrayOutputStream());
+            UTF8StreamWriter writer =
+                new UTF8StreamWriter(new String[] { "", MarshallingContext.XML_NAMESPACE, "urn:filler:" + i });
+            writer.setBuffer(buff);
+            marshaller.invoke(writer, m_headers[0]);
+            writer.flush();
+            marshaller.detach();
+        }
+        return marshaller;
+    }
+    
+    /**
+     * Write all the messages, with the SOAP envelope and header wrapper elements around the headers.
+     * 
+     * @param writer header writer (<code>null</code> if no headers to be written)
+     * @throws Exception on error
+     */
+    private void writeAll(HeaderWriter writer) throws Exception {
+        for (int i = 0; i < m_messageCount; i++) {
+            m_output.reset();
+            m_buffer.setOutput(m_output);
+            m_writer.reset();
+            m_writer.setBuffer(m_buffer);
+            m_writer.startTagNamespaces(SOAP_NS_IDX, "Envelope", SOAP_NS_INDEXES, SOAP_PREFIXES);
+            m_writer.closeStartTag();
+            m_writer.startTagClosed(SOAP_NS_IDX, "Header");
+            if (writer != null) {
+                for (int j = 0; j < m_headers.length; j++) {
+                    writer.write(m_writer, m_headers[j]);
+                }
+            }
+            m_writer.endTag(SOAP_NS_IDX, "Header");
+            m_writer.endTag(SOAP_NS_IDX, "Envelope");
+            m_writer.flush();
+        }
+    }
+    
+    /**
+     * Run the comparison for a single case, printing the results. The figures for writing the messages without any
+     * headers are subtracted from those for each case, so only the cost of the headers themselves is reported.
+     * 
+     * @param label case label
+     * @param writer header writer (<code>null</code> to measure messages without headers)
+     * @throws Exception on error
+     */
+    private void run(String label, HeaderWriter writer) throws Exception {
+        for (int i = 0; i < WARMUP_PASSES; i++) {
+            writeAll(writer);
+        }
+        long bytes = getAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMED_PASSES; i++) {
+            writeAll(writer);
+        }
+        long time = System.nanoTime() - start;
+        bytes = getAllocatedBytes() - bytes;
+        if (writer == null) {
+            m_baseBytes = bytes;
+            m_baseTime = time;
+        } else {
+            long count = (long)TIMED_PASSES * m_messageCount * HEADERS_PER_MESSAGE;
+            StringBuffer buff = new StringBuffer(label);
+            buff.append(": ");
+            if (s_allocatedBytesMethod != null) {
+                buff.append((bytes - m_baseBytes) / count);
+                buff.append(" bytes allocated, ");
+            }
+            buff.append((time - m_baseTime) / count);
+            buff.append(" ns. per header");
+            System.out.println(buff.toString());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java HeaderCompare count\n"
+                + "Where count is the number of messages written for each pass, with " + HEADERS_PER_MESSAGE
+                + " headers per message");
+            System.exit(1);
+        }
+        HeaderCompare compare = new HeaderCompare(Integer.parseInt(args[0]));
+        if (s_allocatedBytesMethod == null) {
+            System.out.println("Thread allocation counts not supported by this JVM, only reporting times");
+        }
+        compare.run("no headers", null);
+        compare.run("new marshaller per header", new HeaderWriter() {
+            public void write(IXMLWriter writer, Object header) throws Exception {
+                new MarshallingPayloadWriter(header.getClass()).invoke(writer, header);
+            }
+        });
+        compare.run("pooled marshaller (MarshallingOutHandler)", new HeaderWriter() {
+            public void write(IXMLWriter writer, Object header) throws Exception {
+                new MarshallingOutHandler(header).invoke(null, writer);
+            }
+        });
+        final MarshallingPayloadWriter uncached = compare.createUncachedMarshaller();
+        compare.run("reused marshaller, namespace translation rebuilt", new HeaderWriter() {
+            public void write(IXMLWriter writer, Object header) throws Exception {
+                uncached.invoke(writer, header);
+                uncached.detach();
+            }
+        });
+        final MarshallingPayloadWriter cached = new MarshallingPayloadWriter(Query.class);
+        compare.run("reused marshaller, namespace translation cached", new HeaderWriter() {
+            public void write(IXMLWriter writer, Object header) throws Exception {
+                cached.invoke(writer, header);
+                cached.detach();
+            }
+        });
+    }
+    
+    /**
+     * Way of writing a header.
+     */
+    private interface HeaderWriter
+    {
+        /**
+         * Write a header.
+         * 
+         * @param writer XML writer
+         * @param header header object
+         * @throws Exception on error
+         */
+        void write(IXMLWriter writer, Object header) throws Exception;
+    }
+}
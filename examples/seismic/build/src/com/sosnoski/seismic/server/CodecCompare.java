@@ -0,0 +1,251 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package com.sosnoski.seismic.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.jibx.runtime.BindingDirectory;
+import org.jibx.runtime.IBindingFactory;
+import org.jibx.runtime.IMarshallable;
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.impl.InByteBuffer;
+import org.jibx.runtime.impl.MarshallingContext;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jibx.runtime.impl.UnmarshallingContext;
+import org.jibx.ws.codec.CodecDirectory;
+import org.jibx.ws.codec.ExiCodecFactory;
+import org.jibx.ws.codec.MediaType;
+import org.jibx.ws.codec.XmlCodec;
+
+import com.sosnoski.seismic.common.Query;
+import com.sosnoski.seismic.common.Response;
+
+/**
+ * Encoding comparison. This generates a pseudo-random sequence of queries in the same way as the test client, runs
+ * them directly against the in-memory database, and then compares the size of the encoded responses and the time
+ * taken to write and read the responses using each of the available encodings. Text is also compared using several
+ * character encodings, to show the cost of the general character encoding writer relative to the UTF-8 writer. If a
+ * schema path is supplied, EXI is also tested using the schema-informed grammar built from that schema.
+ */
+public class CodecCompare
+{
+    /** Media types compared. */
+    private static final String[] MEDIA_TYPES = {
+        "text/xml", "application/x-xbis", "application/fastinfoset", "application/exi"
+    };
+    
+    /** Character encodings compared for text, in addition to the default UTF-8. */
+    private static final String[] TEXT_ENCODINGS = { "ISO-8859-1", "windows-1252", "UTF-16BE" };
+    
+    /** Number of untimed passes used to warm up each encoding. */
+    private static final int WARMUP_PASSES = 5;
+    
+    /** Number of timed passes for each encoding. */
+    private static final int TIMED_PASSES = 10;
+    
+    private static final float MIN_LONG = -180.0f;
+    private static final float MAX_LONG = 180.0f;
+    private static final float MIN_LAT = -90.0f;
+    private static final float MAX_LAT = 90.0f;
+    
+    private final IBindingFactory m_factory;
+    
+    private final Response[] m_responses;
+    
+    private long m_textSize;
+    
+    private CodecCompare(Response[] responses) throws Exception {
+        m_factory = BindingDirectory.getFactory(Response.class);
+        m_responses = responses;
+    }
+    
+    /**
+     * Generate queries covering a specified fraction of the data range.
+     * 
+     * @param fraction decimal range fraction
+     * @param count number of queries
+     * @return queries
+     * @throws Exception on error
+     */
+    private static Query[] generateQueries(double fraction, int count) throws Exception {
+        DateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        format.setCalendar(new GregorianCalendar(TimeZone.getTimeZone("UTC")));
+        long mindate = format.parse("2000-01-01 01:19:26").getTime();
+        long maxdate = format.parse("2003-08-31 23:07:59").getTime();
+        double half = fraction * 0.5;
+        double halfroot = Math.sqrt(fraction) * 0.5;
+        Random random = new Random(5);
+        Query[] queries = new Query[count];
+        for (int i = 0; i < count; i++) {
+            long ddiff = maxdate - mindate;
+            long drange = (long)((random.nextDouble() * half + half) * ddiff);
+            long dbase = mindate + (long)(random.nextDouble() * (ddiff - drange));
+            double ldiff = MAX_LONG - MIN_LONG;
+            float lngrng = (float)((random.nextDouble() * halfroot + halfroot) * ldiff);
+            float lngbase = MIN_LONG + (float)(random.nextDouble() * (ldiff - lngrng));
+            ldiff = MAX_LAT - MIN_LAT;
+            float latrng = (float)((random.nextDouble() * halfroot + halfroot) * ldiff);
+            float latbase = MIN_LAT + (float)(random.nextDouble() * (ldiff - latrng));
+            Query query = new Query();
+            query.setMinDateTime(new Date(dbase));
+            query.setMaxDateTime(new Date(dbase + drange));
+            query.setMinLongitude(new Float(lngbase));
+            query.setMaxLongitude(new Float(lngbase + lngrng));
+            query.setMinLatitude(new Float(latbase));
+            query.setMaxLatitude(new Float(latbase + latrng));
+            queries[i] = query;
+        }
+        return queries;
+    }
+    
+    /**
+     * Write all the responses using a codec.
+     * 
+     * @param codec codec
+     * @param charcode character encoding
+     * @return encoded responses
+     * @throws Exception on error
+     */
+    private byte[][] writeAll(XmlCodec codec, String charcode) throws Exception {
+        byte[][] datas = new byte[m_responses.length][];
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer();
+        MarshallingContext mctx = (MarshallingContext)m_factory.createMarshallingContext();
+        for (int i = 0; i < m_responses.length; i++) {
+            bos.reset();
+            buff.setOutput(bos);
+            IXMLWriter writer = codec.getWriter(buff, charcode, m_factory.getNamespaces());
+            mctx.reset();
+            mctx.setXmlWriter(writer);
+            ((IMarshallable)m_responses[i]).marshal(mctx);
+            writer.close();
+            writer.reset();
+            datas[i] = bos.toByteArray();
+        }
+        return datas;
+    }
+    
+    /**
+     * Read all the responses using a codec.
+     * 
+     * @param codec codec
+     * @param charcode character encoding
+     * @param datas encoded responses
+     * @return total number of quake sets read
+     * @throws Exception on error
+     */
+    private int readAll(XmlCodec codec, String charcode, byte[][] datas) throws Exception {
+        InByteBuffer buff = new InByteBuffer();
+        UnmarshallingContext uctx = (UnmarshallingContext)m_factory.createUnmarshallingContext();
+        int count = 0;
+        for (int i = 0; i < datas.length; i++) {
+            buff.setInput(new ByteArrayInputStream(datas[i]));
+            IXMLReader reader = codec.getReader(buff, charcode, "response", true);
+            uctx.reset();
+            uctx.setDocument(reader);
+            Response response = (Response)uctx.unmarshalElement(Response.class);
+            count += response.getSets().length;
+        }
+        return count;
+    }
+    
+    /**
+     * Run the comparison for a single encoding, printing the results.
+     * 
+     * @param label encoding label
+     * @param type media type
+     * @param charcode character encoding (only used by text)
+     * @throws Exception on error
+     */
+    private void run(String label, String type, String charcode) throws Exception {
+        MediaType mediaType = new MediaType(type);
+        if (!CodecDirectory.hasCodecFor(mediaType)) {
+            System.out.println(label + ": not available (library not on classpath)");
+            return;
+        }
+        XmlCodec codec = CodecDirectory.getCodec(mediaType);
+        byte[][] datas = null;
+        for (int i = 0; i < WARMUP_PASSES; i++) {
+            datas = writeAll(codec, charcode);
+            readAll(codec, charcode, datas);
+        }
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < TIMED_PASSES; i++) {
+            datas = writeAll(codec, charcode);
+        }
+        long write = System.currentTimeMillis() - start;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < TIMED_PASSES; i++) {
+            readAll(codec, charcode, datas);
+        }
+        long read = System.currentTimeMillis() - start;
+        long size = 0;
+        for (int i = 0; i < datas.length; i++) {
+            size += datas[i].length;
+        }
+        if (m_textSize == 0) {
+            m_textSize = size;
+        }
+        System.out.println(label + ": " + size + " bytes (" + (size * 100 / m_textSize) + "% of text), write "
+            + (write / TIMED_PASSES) + " ms., read " + (read / TIMED_PASSES) + " ms. per pass");
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: java CodecCompare fraction count [schema]\n"
+                + "Where fraction is a decimal range fraction, count is the number of queries used to generate\n"
+                + "responses, and schema is the path to the schema used for schema-informed EXI (optional)");
+            System.exit(1);
+        }
+        Query[] queries = generateQueries(Double.parseDouble(args[0]), Integer.parseInt(args[1]));
+        Response[] responses = new Response[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            responses[i] = QuakeBase.process(queries[i]);
+        }
+        CodecCompare compare = new CodecCompare(responses);
+        for (int i = 0; i < MEDIA_TYPES.length; i++) {
+            compare.run(MEDIA_TYPES[i], MEDIA_TYPES[i], "UTF-8");
+        }
+        for (int i = 0; i < TEXT_ENCODINGS.length; i++) {
+            compare.run("text/xml (" + TEXT_ENCODINGS[i] + ")", "text/xml", TEXT_ENCODINGS[i]);
+        }
+        if (args.length > 2) {
+            ExiCodecFactory.setSchema("seismic", args[2]);
+            compare.run("application/exi (schema-informed)", "application/exi", "UTF-8");
+        }
+    }
+}
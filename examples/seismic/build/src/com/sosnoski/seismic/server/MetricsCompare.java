@@ -0,0 +1,158 @@
+/*
+Copyright (c) 2026, Sosnoski Software Associates Limited.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package com.sosnoski.seismic.server;
+
+import org.jibx.ws.metrics.HistogramMetricsCollector;
+import org.jibx.ws.metrics.MetricsCollector;
+import org.jibx.ws.metrics.NullMetricsCollector;
+
+/**
+ * Metrics overhead comparison. This makes the same metrics calls as the service and transports make for each request,
+ * with the default no-op collector and with the histogram collector, and reports the time per request for each. The
+ * calls are made from one or more threads at the same time, to show the effect of contention on the histogram
+ * collector when several requests for the same operation complete together. Times are elapsed time divided by the
+ * total number of requests, so they reflect throughput when more threads are used than there are processors.
+ */
+public class MetricsCompare
+{
+    /** Service name used for metrics. */
+    private static final String SERVICE_NAME = "quake-service";
+    
+    /** Operation names used for metrics. */
+    private static final String[] OPERATION_NAMES = { "quakes", "regions", "query", "status" };
+    
+    /** Number of untimed passes used to warm up each collector. */
+    private static final int WARMUP_PASSES = 5;
+    
+    /** Number of timed passes for each collector. */
+    private static final int TIMED_PASSES = 10;
+    
+    private final int m_requestCount;
+    
+    private long m_baseTime;
+    
+    private MetricsCompare(int count) {
+        m_requestCount = count;
+    }
+    
+    /**
+     * Make the metrics calls for all requests from each of a number of threads.
+     * 
+     * @param collector metrics collector
+     * @param threads number of threads
+     * @return elapsed time in nanoseconds
+     * @throws Exception on error
+     */
+    private long runAll(MetricsCollector collector, int threads) throws Exception {
+        RequestThread[] runners = new RequestThread[threads];
+        for (int i = 0; i < threads; i++) {
+            runners[i] = new RequestThread(collector, m_requestCount);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            runners[i].start();
+        }
+        for (int i = 0; i < threads; i++) {
+            runners[i].join();
+        }
+        return System.nanoTime() - start;
+    }
+    
+    /**
+     * Run the comparison for a single collector, printing the results.
+     * 
+     * @param label collector label
+     * @param collector metrics collector
+     * @param threads number of threads
+     * @throws Exception on error
+     */
+    private void run(String label, MetricsCollector collector, int threads) throws Exception {
+        for (int i = 0; i < WARMUP_PASSES; i++) {
+            runAll(collector, threads);
+        }
+        long time = 0;
+        for (int i = 0; i < TIMED_PASSES; i++) {
+            time += runAll(collector, threads);
+        }
+        long per = time / ((long)TIMED_PASSES * threads * m_requestCount);
+        if (collector == NullMetricsCollector.INSTANCE) {
+            m_baseTime = per;
+        }
+        System.out.println(label + " (" + threads + " threads): " + per + " ns. per request, " + (per - m_baseTime)
+            + " ns. over no-op");
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java MetricsCompare count [threads]\n"
+                + "Where count is the number of requests recorded by each thread for each pass, and threads is the\n"
+                + "number of threads recording requests at the same time (default 1)");
+            System.exit(1);
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        MetricsCompare compare = new MetricsCompare(Integer.parseInt(args[0]));
+        compare.run("no-op collector", NullMetricsCollector.INSTANCE, threads);
+        compare.run("histogram collector", new HistogramMetricsCollector(), threads);
+    }
+    
+    /**
+     * Thread making the metrics calls for a series of requests. The calls match those for each request processed by
+     * the service, including reading the clock at the start and end of the request.
+     */
+    private static class RequestThread extends Thread
+    {
+        private final MetricsCollector m_collector;
+        
+        private final int m_count;
+        
+        /**
+         * Constructor.
+         * 
+         * @param collector metrics collector
+         * @param count number of requests
+         */
+        private RequestThread(MetricsCollector collector, int count) {
+            m_collector = collector;
+            m_count = count;
+        }
+        
+        /**
+         * Make the metrics calls.
+         */
+        public void run() {
+            for (int i = 0; i < m_count; i++) {
+                long start = System.currentTimeMillis();
+                String opname = OPERATION_NAMES[i % OPERATION_NAMES.length];
+                m_collector.requestCompleted(SERVICE_NAME, opname, System.currentTimeMillis() - start + i % 50,
+                    i % 100 == 0);
+                m_collector.bytesTransferred(SERVICE_NAME, opname, 512 + i % 64, 4096 + i % 1024);
+            }
+        }
+    }
+}